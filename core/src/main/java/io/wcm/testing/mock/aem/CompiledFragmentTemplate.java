@@ -0,0 +1,204 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem;
+
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.apache.sling.api.resource.PersistenceException;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceUtil;
+import org.apache.sling.api.resource.ValueMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import com.adobe.cq.dam.cfm.ElementTemplate;
+import com.day.cq.commons.jcr.JcrConstants;
+import com.day.cq.dam.api.DamConstants;
+import com.day.cq.wcm.api.NameConstants;
+
+/**
+ * Immutable, precompiled content fragment template: template properties, element template properties and the
+ * plan of nodes to create for a new content fragment. Only plain data is kept, no resources.
+ */
+final class CompiledFragmentTemplate {
+
+  private static final String ITEMS_PATH = JcrConstants.JCR_CONTENT + "/model/cq:dialog/content/items";
+
+  private final String templatePath;
+  private final long lastModified;
+  private final String title;
+  private final String description;
+  private final String thumbnailPath;
+  // element template properties by dialog item name
+  private final Map<String, Map<String, Object>> elementProps;
+  private final List<NodePlan> fragmentNodePlan;
+
+  private CompiledFragmentTemplate(@NotNull Resource templateResource, @NotNull Resource contentResource,
+      @NotNull Resource itemsResource) {
+    this.templatePath = templateResource.getPath();
+    this.lastModified = getLastModified(templateResource);
+
+    ValueMap contentProps = contentResource.getValueMap();
+    this.title = contentProps.get(JcrConstants.JCR_TITLE, String.class);
+    this.description = contentProps.get(JcrConstants.JCR_DESCRIPTION, String.class);
+
+    Resource thumbnailResource = templateResource.getChild(NameConstants.NN_THUMBNAIL_PNG);
+    this.thumbnailPath = thumbnailResource != null ? thumbnailResource.getPath() : null;
+
+    Map<String, Map<String, Object>> items = new LinkedHashMap<>();
+    for (Resource item : itemsResource.getChildren()) {
+      items.put(item.getName(), Map.copyOf(item.getValueMap()));
+    }
+    this.elementProps = Collections.unmodifiableMap(items);
+
+    this.fragmentNodePlan = List.of(
+        new NodePlan(null, JcrConstants.JCR_CONTENT, Map.of(JcrConstants.JCR_PRIMARYTYPE, DamConstants.NT_DAM_ASSETCONTENT)),
+        new NodePlan(JcrConstants.JCR_CONTENT, "data", Map.of(JcrConstants.JCR_PRIMARYTYPE, JcrConstants.NT_UNSTRUCTURED,
+            "cq:model", templatePath)),
+        new NodePlan(JcrConstants.JCR_CONTENT, DamConstants.METADATA_FOLDER, Map.of()),
+        new NodePlan(JcrConstants.JCR_CONTENT + "/data", "master", Map.of()));
+  }
+
+  /**
+   * Compiles the given content fragment template.
+   * @param templateResource Template resource
+   * @return Compiled template
+   */
+  static @NotNull CompiledFragmentTemplate compile(@NotNull Resource templateResource) {
+    Resource contentResource = templateResource.getChild(JcrConstants.JCR_CONTENT);
+    if (contentResource == null) {
+      throw new IllegalArgumentException("Missing jcr:content node.");
+    }
+    Resource modelResource = contentResource.getChild("model");
+    if (modelResource == null) {
+      throw new IllegalArgumentException("Missing jcr:content/model node.");
+    }
+    Resource itemsResource = modelResource.getChild("cq:dialog/content/items");
+    if (itemsResource == null) {
+      throw new IllegalArgumentException(
+          "could not find cq:dialog/content/items on content fragment template '" + templateResource.getPath() + "'");
+    }
+    return new CompiledFragmentTemplate(templateResource, contentResource, itemsResource);
+  }
+
+  /**
+   * Only templates with a last modified date can be validated without reading the whole template, so templates
+   * without a last modified date are never considered up to date and compiled again on each access.
+   * @param templateResource Template resource
+   * @return true if the template was not modified since it was compiled
+   */
+  boolean isUpToDate(@NotNull Resource templateResource) {
+    return lastModified != 0L && lastModified == getLastModified(templateResource);
+  }
+
+  private static long getLastModified(@NotNull Resource templateResource) {
+    Resource contentResource = templateResource.getChild(JcrConstants.JCR_CONTENT);
+    if (contentResource == null) {
+      return 0L;
+    }
+    ValueMap props = contentResource.getValueMap();
+    Calendar calendar = props.get(NameConstants.PN_PAGE_LAST_MOD, Calendar.class);
+    if (calendar == null) {
+      calendar = props.get(JcrConstants.JCR_LASTMODIFIED, Calendar.class);
+    }
+    return calendar != null ? calendar.getTimeInMillis() : 0L;
+  }
+
+  @Nullable
+  String getTitle() {
+    return title;
+  }
+
+  @Nullable
+  String getDescription() {
+    return description;
+  }
+
+  @Nullable
+  String getThumbnailPath() {
+    return thumbnailPath;
+  }
+
+  /**
+   * @param templateResource Template resource the element template resources are resolved from
+   * @return Element templates
+   */
+  @NotNull
+  List<ElementTemplate> getElementTemplates(@NotNull Resource templateResource) {
+    return elementProps.entrySet().stream()
+        .map(entry -> new MockElementTemplate(() -> templateResource.getChild(ITEMS_PATH + "/" + entry.getKey()), entry.getValue()))
+        .collect(Collectors.toUnmodifiableList());
+  }
+
+  /**
+   * Creates the content fragment nodes as planned at compile time. Changes are not committed.
+   * @param parent Parent resource
+   * @param name Content fragment name - a unique variant is used if a resource with this name already exists
+   * @param title Content fragment title
+   * @return Content fragment resource
+   * @throws PersistenceException Persistence exception
+   */
+  @NotNull
+  Resource createFragment(@NotNull Resource parent, @NotNull String name, @Nullable String title) throws PersistenceException {
+    ResourceResolver resourceResolver = parent.getResourceResolver();
+    Resource fragmentResource = resourceResolver.create(parent, ResourceUtil.createUniqueChildName(parent, name),
+        Map.of(JcrConstants.JCR_PRIMARYTYPE, DamConstants.NT_DAM_ASSET));
+
+    Map<String, Resource> createdResources = new HashMap<>();
+    for (NodePlan node : fragmentNodePlan) {
+      Resource nodeParent = node.parentPath != null ? createdResources.get(node.parentPath) : fragmentResource;
+      Map<String, Object> props = node.props;
+      if (title != null && node.parentPath == null && JcrConstants.JCR_CONTENT.equals(node.name)) {
+        props = new HashMap<>(props);
+        props.put(JcrConstants.JCR_TITLE, title);
+      }
+      Resource resource = resourceResolver.create(nodeParent, node.name, props);
+      createdResources.put(node.parentPath != null ? node.parentPath + "/" + node.name : node.name, resource);
+    }
+    return fragmentResource;
+  }
+
+  @Override
+  public String toString() {
+    return templatePath;
+  }
+
+  private static final class NodePlan {
+
+    private final String parentPath;
+    private final String name;
+    private final Map<String, Object> props;
+
+    NodePlan(@Nullable String parentPath, @NotNull String name, @NotNull Map<String, Object> props) {
+      this.parentPath = parentPath;
+      this.name = name;
+      this.props = props;
+    }
+
+  }
+
+}
@@ -0,0 +1,314 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem;
+
+import static io.wcm.testing.mock.aem.MockContentPolicyStorage.PN_POLICY;
+import static io.wcm.testing.mock.aem.MockContentPolicyStorage.RT_CONTENTPOLICY;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ValueMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Forward and reverse indexes of content policies and their mappings below <code>/conf</code>:
+ * policy paths (sorted, for path prefix queries), policy to mappings, mapping to policy and policy to templates.
+ * <p>
+ * The indexes are built per resource resolver with a single scan of <code>/conf</code> on first access.
+ * Afterwards they are maintained incrementally: changed paths are only marked, and the affected subtrees are
+ * re-indexed on the next query. As RESOURCERESOLVER_MOCK and JCR_MOCK send no resource change events, query results
+ * are checked against the repository: empty policy results are re-checked by re-indexing the policy folder, and on
+ * the first mapping query for a policy the templates of the policy's configuration are re-indexed. Afterwards the
+ * mappings of a policy - including the result that there are none - are served from the index until a mapping
+ * turns out to be outdated, or the index is updated by writes via {@link MockContentPolicyStorage} or resource change
+ * events.
+ * </p>
+ */
+final class ContentPolicyIndex {
+
+  static final String CONF_ROOT = "/conf";
+  static final String MAPPINGS_PATH_PART = "/" + MockTemplate.NN_POLICIES + "/jcr:content/";
+
+  private final Map<ResourceResolver, ResolverIndex> indexes = Collections.synchronizedMap(new WeakHashMap<>());
+
+  /**
+   * @param resourceResolver Resource resolver
+   * @param path Policy path or policy folder path
+   * @return Paths of all policies at or below the given path
+   */
+  @NotNull
+  List<String> getPolicyPaths(@NotNull ResourceResolver resourceResolver, @NotNull String path) {
+    List<String> result = queryPolicyPaths(resourceResolver, path);
+    // re-index the folder if a policy was removed, or re-check it if none was found
+    if (result.isEmpty() || !result.stream().allMatch(policyPath -> isPolicy(resourceResolver.getResource(policyPath)))) {
+      invalidate(resourceResolver, path);
+      result = queryPolicyPaths(resourceResolver, path);
+    }
+    return result;
+  }
+
+  private @NotNull List<String> queryPolicyPaths(@NotNull ResourceResolver resourceResolver, @NotNull String path) {
+    ResolverIndex index = getIndex(resourceResolver);
+    synchronized (index) {
+      List<String> result = new ArrayList<>();
+      if (index.policies.contains(path)) {
+        result.add(path);
+      }
+      result.addAll(index.policies.subSet(path + "/", true, path + "0", false));
+      return result;
+    }
+  }
+
+  /**
+   * @param resourceResolver Resource resolver
+   * @param policyPath Policy path
+   * @return Paths of all mappings referencing the policy
+   */
+  @NotNull
+  List<String> getMappingPaths(@NotNull ResourceResolver resourceResolver, @NotNull String policyPath) {
+    List<String> result = queryMappingPaths(resourceResolver, policyPath);
+    // re-index the templates of the policy's configuration on first query, or if a mapping was removed or changed
+    if (!isVerified(resourceResolver, policyPath) || !isUpToDate(resourceResolver, policyPath, result)) {
+      invalidate(resourceResolver, MockContentPolicyStorage.getTemplatesPath(policyPath));
+      result = queryMappingPaths(resourceResolver, policyPath);
+      ResolverIndex index = getIndex(resourceResolver);
+      synchronized (index) {
+        index.verifiedPolicies.add(policyPath);
+      }
+    }
+    return result;
+  }
+
+  private @NotNull List<String> queryMappingPaths(@NotNull ResourceResolver resourceResolver, @NotNull String policyPath) {
+    ResolverIndex index = getIndex(resourceResolver);
+    synchronized (index) {
+      return new ArrayList<>(index.mappingsByPolicy.getOrDefault(policyPath, Collections.emptySet()));
+    }
+  }
+
+  /**
+   * @param resourceResolver Resource resolver
+   * @param policyPath Policy path
+   * @return Paths of all templates containing a mapping referencing the policy
+   */
+  @NotNull
+  List<String> getTemplatePaths(@NotNull ResourceResolver resourceResolver, @NotNull String policyPath) {
+    // validates the mappings the templates are derived from
+    getMappingPaths(resourceResolver, policyPath);
+    ResolverIndex index = getIndex(resourceResolver);
+    synchronized (index) {
+      return new ArrayList<>(index.templatesByPolicy.getOrDefault(policyPath, Collections.emptyMap()).keySet());
+    }
+  }
+
+  private boolean isVerified(@NotNull ResourceResolver resourceResolver, @NotNull String policyPath) {
+    ResolverIndex index = getIndex(resourceResolver);
+    synchronized (index) {
+      return index.verifiedPolicies.contains(policyPath);
+    }
+  }
+
+  /**
+   * Changes may have been written without resource change event: check that all mappings still reference the policy.
+   */
+  private static boolean isUpToDate(@NotNull ResourceResolver resourceResolver, @NotNull String policyPath,
+      @NotNull List<String> mappingPaths) {
+    for (String mappingPath : mappingPaths) {
+      Resource mapping = resourceResolver.getResource(mappingPath);
+      String policy = mapping != null ? mapping.getValueMap().get(PN_POLICY, String.class) : null;
+      if (StringUtils.isBlank(policy) || !StringUtils.equals(getPolicyPath(mappingPath, policy), policyPath)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isPolicy(@Nullable Resource resource) {
+    return resource != null && StringUtils.equals(resource.getResourceType(), RT_CONTENTPOLICY);
+  }
+
+  /**
+   * Marks the given path as changed for the given resource resolver.
+   * @param resourceResolver Resource resolver
+   * @param path Changed resource path
+   */
+  void invalidate(@NotNull ResourceResolver resourceResolver, @NotNull String path) {
+    ResolverIndex index = indexes.get(resourceResolver);
+    if (index != null) {
+      synchronized (index) {
+        index.changedPaths.add(path);
+      }
+    }
+  }
+
+  /**
+   * Marks the given path as changed for all resource resolvers.
+   * @param path Changed resource path
+   */
+  void invalidate(@NotNull String path) {
+    if (!StringUtils.startsWith(path, CONF_ROOT)) {
+      return;
+    }
+    List<ResolverIndex> allIndexes;
+    synchronized (indexes) {
+      allIndexes = new ArrayList<>(indexes.values());
+    }
+    for (ResolverIndex index : allIndexes) {
+      synchronized (index) {
+        index.changedPaths.add(path);
+      }
+    }
+  }
+
+  private @NotNull ResolverIndex getIndex(@NotNull ResourceResolver resourceResolver) {
+    ResolverIndex index = indexes.computeIfAbsent(resourceResolver, resolver -> new ResolverIndex());
+    synchronized (index) {
+      if (!index.initialized) {
+        index.changedPaths.clear();
+        index.indexSubtree(resourceResolver.getResource(CONF_ROOT));
+        index.initialized = true;
+      }
+      else if (!index.changedPaths.isEmpty()) {
+        for (String path : index.changedPaths) {
+          index.removeSubtree(path);
+          index.indexSubtree(resourceResolver.getResource(path));
+        }
+        index.changedPaths.clear();
+      }
+    }
+    return index;
+  }
+
+  /**
+   * Policy path referenced by a policy mapping.
+   * @param mappingPath Mapping path
+   * @param policy Value of cq:policy property - relative to the policies folder of the mapping's configuration
+   * @return Absolute policy path
+   */
+  static @NotNull String getPolicyPath(@NotNull String mappingPath, @NotNull String policy) {
+    if (StringUtils.startsWith(policy, "/")) {
+      return policy;
+    }
+    return MockContentPolicyStorage.getPoliciesPath(mappingPath) + "/" + policy;
+  }
+
+  static @Nullable String getTemplatePath(@NotNull String mappingPath) {
+    if (!StringUtils.contains(mappingPath, MAPPINGS_PATH_PART)) {
+      return null;
+    }
+    return StringUtils.substringBefore(mappingPath, MAPPINGS_PATH_PART);
+  }
+
+  private static final class ResolverIndex {
+
+    private boolean initialized;
+    private final Set<String> changedPaths = new LinkedHashSet<>();
+    // policies whose configuration's templates were re-indexed on the first mapping query
+    private final Set<String> verifiedPolicies = new HashSet<>();
+    private final NavigableSet<String> policies = new TreeSet<>();
+    private final NavigableSet<String> mappings = new TreeSet<>();
+    private final Map<String, String> policyByMapping = new HashMap<>();
+    private final Map<String, Set<String>> mappingsByPolicy = new HashMap<>();
+    // number of mappings per template referencing the policy
+    private final Map<String, Map<String, Integer>> templatesByPolicy = new HashMap<>();
+
+    void indexSubtree(@Nullable Resource resource) {
+      if (resource == null) {
+        return;
+      }
+      ValueMap props = resource.getValueMap();
+      if (isPolicy(resource)) {
+        policies.add(resource.getPath());
+      }
+      String policy = props.get(PN_POLICY, String.class);
+      String templatePath = getTemplatePath(resource.getPath());
+      if (StringUtils.isNotBlank(policy) && templatePath != null) {
+        addMapping(resource.getPath(), getPolicyPath(resource.getPath(), policy), templatePath);
+      }
+      Iterator<Resource> children = resource.listChildren();
+      while (children.hasNext()) {
+        indexSubtree(children.next());
+      }
+    }
+
+    void removeSubtree(@NotNull String path) {
+      policies.remove(path);
+      policies.subSet(path + "/", true, path + "0", false).clear();
+      List<String> removedMappings = new ArrayList<>();
+      if (mappings.contains(path)) {
+        removedMappings.add(path);
+      }
+      removedMappings.addAll(mappings.subSet(path + "/", true, path + "0", false));
+      for (String mappingPath : removedMappings) {
+        removeMapping(mappingPath);
+      }
+    }
+
+    private void addMapping(@NotNull String mappingPath, @NotNull String policyPath, @NotNull String templatePath) {
+      if (mappings.contains(mappingPath)) {
+        removeMapping(mappingPath);
+      }
+      mappings.add(mappingPath);
+      policyByMapping.put(mappingPath, policyPath);
+      mappingsByPolicy.computeIfAbsent(policyPath, key -> new LinkedHashSet<>()).add(mappingPath);
+      templatesByPolicy.computeIfAbsent(policyPath, key -> new HashMap<>()).merge(templatePath, 1, Integer::sum);
+    }
+
+    private void removeMapping(@NotNull String mappingPath) {
+      mappings.remove(mappingPath);
+      String policyPath = policyByMapping.remove(mappingPath);
+      if (policyPath == null) {
+        return;
+      }
+      Set<String> policyMappings = mappingsByPolicy.get(policyPath);
+      if (policyMappings != null) {
+        policyMappings.remove(mappingPath);
+        if (policyMappings.isEmpty()) {
+          mappingsByPolicy.remove(policyPath);
+        }
+      }
+      Map<String, Integer> templates = templatesByPolicy.get(policyPath);
+      String templatePath = getTemplatePath(mappingPath);
+      if (templates != null && templatePath != null) {
+        templates.computeIfPresent(templatePath, (key, count) -> count > 1 ? count - 1 : null);
+        if (templates.isEmpty()) {
+          templatesByPolicy.remove(policyPath);
+        }
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,261 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem;
+
+import static com.day.cq.commons.jcr.JcrConstants.JCR_CONTENT;
+import static io.wcm.testing.mock.aem.MockContentPolicyStorage.MOCK_TEMPLATE_PATH;
+import static io.wcm.testing.mock.aem.MockContentPolicyStorage.PN_POLICY;
+import static io.wcm.testing.mock.aem.MockTemplate.NN_POLICIES;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ValueMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import com.day.cq.commons.jcr.JcrConstants;
+import com.day.cq.wcm.api.NameConstants;
+
+/**
+ * Resolves content policy mappings for content resources the way AEM does for editable templates.
+ * <p>
+ * The policy mappings of each template are read once into an in-memory index that maps the path relative to
+ * <code>policies/jcr:content</code> to the mapping resource path. A content resource is resolved by looking up
+ * the candidates in this order:
+ * </p>
+ * <ol>
+ * <li>Mapping at the same relative path as the resource in its page (structure components)</li>
+ * <li>Mapping below the nearest container path, named by the relative resource type or one of its super
+ * types</li>
+ * <li>Global mapping of the resource type or one of its super types stored via
+ * {@link MockContentPolicyStorage#storeContentPolicyMapping(String, Map, ResourceResolver)}</li>
+ * </ol>
+ * <p>
+ * Each lookup is a map access, and lookups without mapping are remembered per template. The index of a template is
+ * invalidated when policy mappings are stored via {@link MockContentPolicyStorage}, or a resource change event for
+ * the template is received. As RESOURCERESOLVER_MOCK and JCR_MOCK send no resource change events, the index is
+ * additionally checked against the existence and last modified date of the template's
+ * <code>policies/jcr:content</code> node, and a found mapping is checked to still exist.
+ * </p>
+ */
+final class ContentPolicyMappingIndex {
+
+  private static final int MAX_SUPER_TYPE_DEPTH = 20;
+
+  private final ResourcePathCache<TemplateIndex> templateIndexes = new ResourcePathCache<>();
+
+  /**
+   * @param contentResource Content resource
+   * @return Content policy mapping resource or null if none found
+   */
+  @Nullable
+  Resource resolveMapping(@NotNull Resource contentResource) {
+    ResourceResolver resourceResolver = contentResource.getResourceResolver();
+    List<String> resourceTypes = getRelativeResourceTypes(resourceResolver, contentResource.getResourceType());
+    if (resourceTypes.isEmpty()) {
+      return null;
+    }
+
+    // template-specific mapping
+    Resource pageContent = getPageContent(contentResource);
+    if (pageContent != null) {
+      String templatePath = pageContent.getValueMap().get(NameConstants.PN_TEMPLATE, String.class);
+      String relativePath = StringUtils.substringAfter(contentResource.getPath(), pageContent.getPath() + "/");
+      Resource mapping = resolveTemplateMapping(resourceResolver, templatePath, relativePath, resourceTypes);
+      if (mapping != null) {
+        return mapping;
+      }
+    }
+
+    // global mapping
+    return resolveTemplateMapping(resourceResolver, MOCK_TEMPLATE_PATH, "", resourceTypes);
+  }
+
+  private @Nullable Resource resolveTemplateMapping(@NotNull ResourceResolver resourceResolver, @Nullable String templatePath,
+      @NotNull String relativePath, @NotNull List<String> resourceTypes) {
+    if (StringUtils.isBlank(templatePath)) {
+      return null;
+    }
+    Resource template = resourceResolver.getResource(templatePath);
+    if (template == null) {
+      return null;
+    }
+    TemplateIndex index = getTemplateIndex(template);
+    // resource super types are derived from the resource type, so it is sufficient as part of the key
+    String missKey = relativePath + "|" + resourceTypes.get(0);
+    if (index.misses.contains(missKey)) {
+      return null;
+    }
+    String mappingPath = resolveMappingPath(index.mappings::get, relativePath, resourceTypes);
+    if (mappingPath == null) {
+      index.misses.add(missKey);
+      return null;
+    }
+    Resource mapping = resourceResolver.getResource(mappingPath);
+    if (mapping != null && mapping.getValueMap().containsKey(PN_POLICY)) {
+      return mapping;
+    }
+
+    // index is outdated
+    templateIndexes.invalidate(resourceResolver, template.getPath());
+    mappingPath = resolveMappingPath(getTemplateIndex(template).mappings::get, relativePath, resourceTypes);
+    return mappingPath != null ? resourceResolver.getResource(mappingPath) : null;
+  }
+
+  /**
+   * @param mappings Returns the mapping path for a path relative to <code>policies/jcr:content</code>, or null
+   */
+  private static @Nullable String resolveMappingPath(@NotNull Function<String, String> mappings, @NotNull String relativePath,
+      @NotNull List<String> resourceTypes) {
+    if (StringUtils.isNotEmpty(relativePath)) {
+      String mappingPath = mappings.apply(relativePath);
+      if (mappingPath != null) {
+        return mappingPath;
+      }
+    }
+    String containerPath = relativePath;
+    do {
+      containerPath = StringUtils.contains(containerPath, "/") ? StringUtils.substringBeforeLast(containerPath, "/") : "";
+      for (String resourceType : resourceTypes) {
+        String mappingPath = mappings.apply(StringUtils.isEmpty(containerPath) ? resourceType : containerPath + "/" + resourceType);
+        if (mappingPath != null) {
+          return mappingPath;
+        }
+      }
+    }
+    while (StringUtils.isNotEmpty(containerPath));
+    return null;
+  }
+
+  private @NotNull TemplateIndex getTemplateIndex(@NotNull Resource template) {
+    return templateIndexes.get(template, ContentPolicyMappingIndex::buildTemplateIndex,
+        index -> index.stamp == getStamp(template.getChild(NN_POLICIES + "/" + JCR_CONTENT)));
+  }
+
+  private static @NotNull TemplateIndex buildTemplateIndex(@NotNull Resource template) {
+    Resource policies = template.getChild(NN_POLICIES + "/" + JCR_CONTENT);
+    if (policies == null) {
+      return new TemplateIndex(Collections.emptyMap(), getStamp(null));
+    }
+    Map<String, String> mappings = new HashMap<>();
+    collectMappings(policies, policies.getPath().length() + 1, mappings);
+    return new TemplateIndex(Collections.unmodifiableMap(mappings), getStamp(policies));
+  }
+
+  /**
+   * @return Last modified date of the policies node, 0 if it has none, or -1 if it does not exist
+   */
+  private static long getStamp(@Nullable Resource policies) {
+    if (policies == null) {
+      return -1L;
+    }
+    ValueMap props = policies.getValueMap();
+    Calendar lastModified = props.get(NameConstants.PN_PAGE_LAST_MOD, Calendar.class);
+    if (lastModified == null) {
+      lastModified = props.get(JcrConstants.JCR_LASTMODIFIED, Calendar.class);
+    }
+    return lastModified != null ? lastModified.getTimeInMillis() : 0L;
+  }
+
+  private static void collectMappings(@NotNull Resource resource, int prefixLength, @NotNull Map<String, String> mappings) {
+    Iterator<Resource> children = resource.listChildren();
+    while (children.hasNext()) {
+      Resource child = children.next();
+      if (child.getValueMap().containsKey(PN_POLICY)) {
+        mappings.put(child.getPath().substring(prefixLength), child.getPath());
+      }
+      collectMappings(child, prefixLength, mappings);
+    }
+  }
+
+  /**
+   * @return Relative resource type and its super types
+   */
+  private static @NotNull List<String> getRelativeResourceTypes(@NotNull ResourceResolver resourceResolver,
+      @Nullable String resourceType) {
+    Set<String> resourceTypes = new LinkedHashSet<>();
+    String currentType = resourceType;
+    while (StringUtils.isNotBlank(currentType) && resourceTypes.size() < MAX_SUPER_TYPE_DEPTH
+        && resourceTypes.add(MockContentPolicyStorage.makeResourceTypeRelative(currentType))) {
+      currentType = resourceResolver.getParentResourceType(currentType);
+    }
+    return new ArrayList<>(resourceTypes);
+  }
+
+  /**
+   * @return Nearest jcr:content ancestor-or-self of the content resource
+   */
+  static @Nullable Resource getPageContent(@NotNull Resource contentResource) {
+    Resource resource = contentResource;
+    while (resource != null) {
+      if (StringUtils.equals(resource.getName(), JCR_CONTENT)) {
+        return resource;
+      }
+      resource = resource.getParent();
+    }
+    return null;
+  }
+
+  /**
+   * Invalidate index of the given template.
+   * @param resourceResolver Resource resolver
+   * @param templatePath Template path
+   */
+  void invalidate(@NotNull ResourceResolver resourceResolver, @NotNull String templatePath) {
+    templateIndexes.invalidate(resourceResolver, templatePath);
+  }
+
+  /**
+   * Invalidate index of all templates affected by a change of the given resource path.
+   * @param path Changed resource path
+   */
+  void invalidate(@NotNull String path) {
+    templateIndexes.invalidate(path);
+  }
+
+  private static final class TemplateIndex {
+
+    // path relative to policies/jcr:content to mapping path
+    private final Map<String, String> mappings;
+    private final long stamp;
+    // keys of lookups without mapping
+    private final Set<String> misses = ConcurrentHashMap.newKeySet();
+
+    TemplateIndex(Map<String, String> mappings, long stamp) {
+      this.mappings = mappings;
+      this.stamp = stamp;
+    }
+
+  }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem;
+
+import java.io.InputStream;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+import org.apache.sling.api.resource.Resource;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Immutable snapshot of a resource subtree.
+ * <p>
+ * When a snapshot is created based on a previous snapshot of the same subtree, all nodes that did not change are
+ * shared with the previous snapshot. So a series of snapshots with small changes only costs the size of the changes.
+ * </p>
+ */
+final class ContentSnapshot {
+
+  private final Map<String, Object> properties;
+  private final Map<String, ContentSnapshot> children;
+
+  private ContentSnapshot(@NotNull Map<String, Object> properties, @NotNull Map<String, ContentSnapshot> children) {
+    this.properties = properties;
+    this.children = children;
+  }
+
+  @NotNull
+  Map<String, Object> getProperties() {
+    return properties;
+  }
+
+  @NotNull
+  Map<String, ContentSnapshot> getChildren() {
+    return children;
+  }
+
+  /**
+   * Create snapshot of the given resource subtree.
+   * @param resource Resource
+   * @param previous Previous snapshot of the same subtree - unchanged nodes are shared with it
+   * @param includeChild Decides which children are included, gets the path relative to the snapshot root.
+   * @return Snapshot
+   */
+  static @NotNull ContentSnapshot of(@NotNull Resource resource, @Nullable ContentSnapshot previous,
+      @NotNull Predicate<String> includeChild) {
+    return of(resource, previous, includeChild, null);
+  }
+
+  private static @NotNull ContentSnapshot of(@NotNull Resource resource, @Nullable ContentSnapshot previous,
+      @NotNull Predicate<String> includeChild, @Nullable String relativePath) {
+    Map<String, Object> properties = copyProperties(resource.getValueMap());
+    Map<String, ContentSnapshot> children = new LinkedHashMap<>();
+    boolean childrenUnchanged = true;
+    Iterator<Resource> childResources = resource.listChildren();
+    while (childResources.hasNext()) {
+      Resource childResource = childResources.next();
+      String childPath = relativePath != null ? relativePath + "/" + childResource.getName() : childResource.getName();
+      if (!includeChild.test(childPath)) {
+        continue;
+      }
+      ContentSnapshot previousChild = previous != null ? previous.children.get(childResource.getName()) : null;
+      ContentSnapshot child = of(childResource, previousChild, includeChild, childPath);
+      childrenUnchanged = childrenUnchanged && child == previousChild;
+      children.put(childResource.getName(), child);
+    }
+
+    if (previous == null) {
+      return new ContentSnapshot(properties, Collections.unmodifiableMap(children));
+    }
+    boolean propertiesUnchanged = propertiesEqual(properties, previous.properties);
+    childrenUnchanged = childrenUnchanged && children.size() == previous.children.size();
+    if (propertiesUnchanged && childrenUnchanged) {
+      return previous;
+    }
+    return new ContentSnapshot(propertiesUnchanged ? previous.properties : properties,
+        childrenUnchanged ? previous.children : Collections.unmodifiableMap(children));
+  }
+
+  private static @NotNull Map<String, Object> copyProperties(@NotNull Map<String, Object> source) {
+    Map<String, Object> properties = new LinkedHashMap<>();
+    for (Map.Entry<String, Object> entry : source.entrySet()) {
+      Object value = entry.getValue();
+      if (value instanceof InputStream) {
+        // binary data is not part of the snapshot
+        continue;
+      }
+      if (value instanceof Object[]) {
+        value = ((Object[])value).clone();
+      }
+      else if (value instanceof Calendar) {
+        value = ((Calendar)value).clone();
+      }
+      properties.put(entry.getKey(), value);
+    }
+    return Collections.unmodifiableMap(properties);
+  }
+
+  private static boolean propertiesEqual(@NotNull Map<String, Object> props1, @NotNull Map<String, Object> props2) {
+    if (props1.size() != props2.size()) {
+      return false;
+    }
+    for (Map.Entry<String, Object> entry : props1.entrySet()) {
+      if (!Objects.deepEquals(entry.getValue(), props2.get(entry.getKey()))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.sling.api.resource.AbstractResource;
+import org.apache.sling.api.resource.ModifiableValueMap;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceMetadata;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ValueMap;
+import org.apache.sling.api.wrappers.ModifiableValueMapDecorator;
+import org.apache.sling.api.wrappers.ValueMapDecorator;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import com.day.cq.commons.jcr.JcrConstants;
+
+/**
+ * Read-only resource view on a {@link ContentSnapshot}. Children are resolved from the snapshot, not from the repository.
+ * Adapting to {@link ModifiableValueMap} returns a map that does not allow modifications.
+ */
+final class ContentSnapshotResource extends AbstractResource {
+
+  private final ResourceResolver resourceResolver;
+  private final String path;
+  private final ContentSnapshot snapshot;
+  private final ContentSnapshotResource parent;
+  private final ResourceMetadata resourceMetadata = new ResourceMetadata();
+
+  ContentSnapshotResource(@NotNull ResourceResolver resourceResolver, @NotNull String path,
+      @NotNull ContentSnapshot snapshot, @Nullable ContentSnapshotResource parent) {
+    this.resourceResolver = resourceResolver;
+    this.path = path;
+    this.snapshot = snapshot;
+    this.parent = parent;
+    resourceMetadata.setResolutionPath(path);
+  }
+
+  @Override
+  public @NotNull String getPath() {
+    return path;
+  }
+
+  @Override
+  public @NotNull String getResourceType() {
+    Map<String, Object> props = snapshot.getProperties();
+    Object resourceType = props.get("sling:resourceType");
+    if (resourceType == null) {
+      resourceType = props.getOrDefault(JcrConstants.JCR_PRIMARYTYPE, JcrConstants.NT_UNSTRUCTURED);
+    }
+    return resourceType.toString();
+  }
+
+  @Override
+  public @Nullable String getResourceSuperType() {
+    return null;
+  }
+
+  @Override
+  public @NotNull ResourceMetadata getResourceMetadata() {
+    return resourceMetadata;
+  }
+
+  @Override
+  public @NotNull ResourceResolver getResourceResolver() {
+    return resourceResolver;
+  }
+
+  @Override
+  public @NotNull ValueMap getValueMap() {
+    return new ValueMapDecorator(snapshot.getProperties());
+  }
+
+  @Override
+  public @Nullable Resource getParent() {
+    if (parent != null) {
+      return parent;
+    }
+    return super.getParent();
+  }
+
+  @Override
+  public @Nullable Resource getChild(@NotNull String relPath) {
+    ContentSnapshotResource resource = this;
+    for (String name : StringUtils.split(relPath, "/")) {
+      ContentSnapshot child = resource.snapshot.getChildren().get(name);
+      if (child == null) {
+        return null;
+      }
+      resource = new ContentSnapshotResource(resourceResolver, resource.path + "/" + name, child, resource);
+    }
+    return resource;
+  }
+
+  @Override
+  public @NotNull Iterator<Resource> listChildren() {
+    return snapshot.getChildren().entrySet().stream()
+        .map(entry -> (Resource)new ContentSnapshotResource(resourceResolver, path + "/" + entry.getKey(), entry.getValue(), this))
+        .iterator();
+  }
+
+  @Override
+  public @NotNull Iterable<Resource> getChildren() {
+    return this::listChildren;
+  }
+
+  @Override
+  public boolean hasChildren() {
+    return !snapshot.getChildren().isEmpty();
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <AdapterType> @Nullable AdapterType adaptTo(@NotNull Class<AdapterType> type) {
+    if (type == ValueMap.class) {
+      return (AdapterType)getValueMap();
+    }
+    if (type == ModifiableValueMap.class) {
+      // snapshot properties are unmodifiable
+      return (AdapterType)new ModifiableValueMapDecorator(snapshot.getProperties());
+    }
+    return super.adaptTo(type);
+  }
+
+  @Override
+  public String toString() {
+    return "ContentSnapshotResource[path=" + path + "]";
+  }
+
+}
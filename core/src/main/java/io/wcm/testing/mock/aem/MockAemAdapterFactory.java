@@ -27,6 +27,8 @@ import static io.wcm.testing.mock.aem.MockContentPolicyStorage.RT_CONTENTPOLICY;
 import static io.wcm.testing.mock.aem.MockContentPolicyStorage.RT_CONTENT_POLICY_MAPPING;
 import static io.wcm.testing.mock.aem.MockContentPolicyStorage.RT_CONTENT_POLICY_MAPPINGS;
 
+import java.util.List;
+
 import javax.jcr.Node;
 import javax.jcr.RepositoryException;
 
@@ -35,6 +37,9 @@ import org.apache.sling.api.adapter.AdapterFactory;
 import org.apache.sling.api.resource.Resource;
 import org.apache.sling.api.resource.ResourceResolver;
 import org.apache.sling.api.resource.ValueMap;
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.api.resource.observation.ResourceChange.ChangeType;
+import org.apache.sling.api.resource.observation.ResourceChangeListener;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.osgi.annotation.versioning.ProviderType;
@@ -59,8 +64,9 @@ import com.day.cq.wcm.api.policies.ContentPolicyMapping;
 /**
  * Mock adapter factory for AEM-related adaptions.
  */
-@Component(service = AdapterFactory.class,
+@Component(service = { AdapterFactory.class, ResourceChangeListener.class },
     property = {
+        ResourceChangeListener.PATHS + "=/",
         AdapterFactory.ADAPTABLE_CLASSES + "=org.apache.sling.api.resource.Resource",
         AdapterFactory.ADAPTABLE_CLASSES + "=org.apache.sling.api.resource.ResourceResolver",
         AdapterFactory.ADAPTER_CLASSES + "=com.day.cq.wcm.api.Page",
@@ -78,7 +84,14 @@ import com.day.cq.wcm.api.policies.ContentPolicyMapping;
         AdapterFactory.ADAPTER_CLASSES + "=com.day.cq.wcm.api.policies.ContentPolicyManager"
     })
 @ProviderType
-public final class MockAemAdapterFactory implements AdapterFactory {
+public final class MockAemAdapterFactory implements AdapterFactory, ResourceChangeListener {
+
+  private final ResourcePathCache<MockContentFragmentDescriptor> contentFragmentDescriptorCache = new ResourcePathCache<>();
+  private final ResourcePathCache<CompiledFragmentTemplate> fragmentTemplateCache = new ResourcePathCache<>();
+  private final MockContentFragmentVersionStore contentFragmentVersionStore = new MockContentFragmentVersionStore();
+  private final MockContentFragmentLastModifiedIndex contentFragmentLastModifiedIndex = new MockContentFragmentLastModifiedIndex();
+  private final ContentPolicyMappingIndex contentPolicyMappingIndex = new ContentPolicyMappingIndex();
+  private final ContentPolicyIndex contentPolicyIndex = new ContentPolicyIndex();
 
   @Override
   public @Nullable <AdapterType> AdapterType getAdapter(final @NotNull Object adaptable, final @NotNull Class<AdapterType> type) {
@@ -103,13 +116,18 @@ public final class MockAemAdapterFactory implements AdapterFactory {
       return (AdapterType)new MockTag(resource);
     }
     if (type == ContentFragment.class && DamUtil.isAsset(resource)) {
-      return (AdapterType)new MockContentFragment(resource);
+      // versioned content fragments are not cached as they share the path with the current content fragment
+      ResourcePathCache<MockContentFragmentDescriptor> descriptorCache = resource instanceof ContentSnapshotResource
+          ? new ResourcePathCache<>() : contentFragmentDescriptorCache;
+      MockContentFragmentLastModifiedIndex lastModifiedIndex = resource instanceof ContentSnapshotResource
+          ? new MockContentFragmentLastModifiedIndex() : contentFragmentLastModifiedIndex;
+      return (AdapterType)new MockContentFragment(resource, descriptorCache, contentFragmentVersionStore, lastModifiedIndex);
     }
     if (type == ContentPolicy.class && resource.isResourceType(RT_CONTENTPOLICY)) {
       return (AdapterType)new MockContentPolicy(resource);
     }
     if (type == FragmentTemplate.class) {
-       return (AdapterType) new MockFragmentTemplate(resource);
+       return (AdapterType) new MockFragmentTemplate(resource, fragmentTemplateCache);
     }
     if (type == ElementTemplate.class) {
        return (AdapterType) new MockElementTemplate(resource);
@@ -137,11 +155,25 @@ public final class MockAemAdapterFactory implements AdapterFactory {
       return (AdapterType)new MockDesigner(resolver);
     }
     if (type == ContentPolicyManager.class) {
-      return (AdapterType)new MockContentPolicyManager(resolver);
+      return (AdapterType)new MockContentPolicyManager(resolver, contentPolicyMappingIndex, contentPolicyIndex);
     }
     return null;
   }
 
+  @Override
+  public void onChange(@NotNull List<ResourceChange> changes) {
+    for (ResourceChange change : changes) {
+      contentFragmentDescriptorCache.invalidate(change.getPath());
+      fragmentTemplateCache.invalidate(change.getPath());
+      contentFragmentLastModifiedIndex.invalidate(change.getPath());
+      contentPolicyMappingIndex.invalidate(change.getPath());
+      contentPolicyIndex.invalidate(change.getPath());
+      if (change.getType() == ChangeType.REMOVED) {
+        contentFragmentVersionStore.remove(change.getPath());
+      }
+    }
+  }
+
   private boolean isPrimaryType(@NotNull final Resource resource, @NotNull final String primaryType) {
     final Node node = resource.adaptTo(Node.class);
     if (node == null) {
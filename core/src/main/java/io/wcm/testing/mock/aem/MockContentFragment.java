@@ -19,13 +19,17 @@
  */
 package io.wcm.testing.mock.aem;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.stream.StreamSupport;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.sling.api.resource.ModifiableValueMap;
@@ -52,6 +56,7 @@ import com.day.cq.dam.api.DamConstants;
 import com.day.cq.tagging.Tag;
 import com.day.cq.tagging.TagConstants;
 import com.day.cq.tagging.TagManager;
+import com.day.cq.wcm.api.NameConstants;
 
 /**
  * Mock implementation of {@link ContentFragment}.
@@ -59,39 +64,68 @@ import com.day.cq.tagging.TagManager;
 final class MockContentFragment implements ContentFragment {
 
   private final Resource assetResource;
-  private final Asset asset;
-  private final Resource contentResource;
-  private final ModifiableValueMap contentProps;
-  private final ModifiableValueMap metadataProps;
-  private final ModifiableValueMap structuredDataProps;
-  private final Resource modelElementsResource;
-
-  MockContentFragment(final Resource assetResource) {
+  private final ResourcePathCache<MockContentFragmentDescriptor> descriptorCache;
+  private final MockContentFragmentVersionStore versionStore;
+  private final MockContentFragmentLastModifiedIndex lastModifiedIndex;
+  private MockContentFragmentDescriptor descriptor;
+
+  // resources and value maps are looked up lazily and cached
+  private Asset asset;
+  private Resource contentResource;
+  private ModifiableValueMap contentProps;
+  private ModifiableValueMap metadataProps;
+  private ModifiableValueMap structuredDataProps;
+  private Resource modelElementsResource;
+  private final Map<String, ContentElement> elements = new HashMap<>();
+
+  // variation definitions and variation data are looked up lazily and cached - the data resources are only created on write
+  private List<VariationDef> variationDefs;
+  private final Map<String, Optional<ModifiableValueMap>> variationDataProps = new HashMap<>();
+
+  MockContentFragment(final Resource assetResource, final ResourcePathCache<MockContentFragmentDescriptor> descriptorCache,
+      final MockContentFragmentVersionStore versionStore, final MockContentFragmentLastModifiedIndex lastModifiedIndex) {
     this.assetResource = assetResource;
-    asset = assetResource.adaptTo(Asset.class);
-
-    contentResource = assetResource.getChild(JcrConstants.JCR_CONTENT);
-    if (contentResource == null) {
-      throw new IllegalArgumentException("Missing jcr:content node.");
-    }
+    this.descriptorCache = descriptorCache;
+    this.versionStore = versionStore;
+    this.lastModifiedIndex = lastModifiedIndex;
+    this.descriptor = getDescriptor();
+  }
 
-    contentProps = contentResource.adaptTo(ModifiableValueMap.class);
+  private MockContentFragmentDescriptor getDescriptor() {
+    // resource change events are not sent by all resource resolver types - validate cached structure against repository
+    return descriptorCache.get(assetResource, MockContentFragmentDescriptor::build,
+        cached -> cached.isUpToDate(assetResource));
+  }
 
-    final Resource   metadataResource = contentResource.getChild(DamConstants.METADATA_FOLDER);
-    if (metadataResource == null) {
-      throw new IllegalArgumentException("Missing jcr:content/metadata node.");
+  @SuppressWarnings("null")
+  private ModifiableValueMap getContentProps() {
+    if (contentProps == null) {
+      contentProps = getContentResource().adaptTo(ModifiableValueMap.class);
     }
-    metadataProps = metadataResource.adaptTo(ModifiableValueMap.class);
+    return contentProps;
+  }
 
-    final Resource structuredDataResource = contentResource.getChild("data/master");
-    if (structuredDataResource != null) {
-      structuredDataProps = structuredDataResource.adaptTo(ModifiableValueMap.class);
+  @SuppressWarnings("null")
+  private ModifiableValueMap getMetadataProps() {
+    if (metadataProps == null) {
+      metadataProps = getContentResource().getChild(DamConstants.METADATA_FOLDER).adaptTo(ModifiableValueMap.class);
     }
-    else {
-      structuredDataProps = null;
+    return metadataProps;
+  }
+
+  @SuppressWarnings("null")
+  private ModifiableValueMap getStructuredDataProps() {
+    if (structuredDataProps == null) {
+      structuredDataProps = getContentResource().getChild("data/master").adaptTo(ModifiableValueMap.class);
     }
+    return structuredDataProps;
+  }
 
-    modelElementsResource = contentResource.getChild("model/elements");
+  private Resource getModelElementsResource() {
+    if (modelElementsResource == null) {
+      modelElementsResource = getContentResource().getChild("model/elements");
+    }
+    return modelElementsResource;
   }
 
   @Override
@@ -101,32 +135,35 @@ final class MockContentFragment implements ContentFragment {
 
   @Override
   public String getTitle() {
-    return contentProps.get(JcrConstants.JCR_TITLE, assetResource.getName());
+    return getContentProps().get(JcrConstants.JCR_TITLE, assetResource.getName());
   }
 
   @Override
   public String getDescription() {
-    return contentProps.get(JcrConstants.JCR_DESCRIPTION, "");
+    return getContentProps().get(JcrConstants.JCR_DESCRIPTION, "");
   }
 
   @Override
   public Map<String, Object> getMetaData() {
-    return metadataProps;
+    return getMetadataProps();
   }
 
   @Override
   public void setTitle(final String title) throws ContentFragmentException {
-    contentProps.put(JcrConstants.JCR_TITLE, title);
+    getContentProps().put(JcrConstants.JCR_TITLE, title);
+    markModified();
   }
 
   @Override
   public void setDescription(final String description) throws ContentFragmentException {
-    contentProps.put(JcrConstants.JCR_DESCRIPTION, description);
+    getContentProps().put(JcrConstants.JCR_DESCRIPTION, description);
+    markModified();
   }
 
   @Override
   public void setMetaData(final String name, final Object value) throws ContentFragmentException {
-    metadataProps.put(name, value);
+    getMetadataProps().put(name, value);
+    markModified();
   }
 
   @Override
@@ -135,74 +172,72 @@ final class MockContentFragment implements ContentFragment {
     if (type == Resource.class) {
       return (AdapterType)assetResource;
     }
-   if (type == Asset.class) {
-      return (AdapterType)assetResource.adaptTo(Asset.class);
+    if (type == Asset.class) {
+      // return the asset instance used for updates, so batch mode set on it applies to content fragment changes
+      return (AdapterType)getAsset();
     }
     return null;
   }
 
   @Override
   public Iterator<ContentElement> getElements() {
-    if (structuredDataProps != null) {
-      return structuredDataProps.keySet().stream()
-          .map(key -> (ContentElement)new MockContentFragment_ContentElement_Structured(this, key, structuredDataProps))
-          .iterator();
-    }
-   if (modelElementsResource != null) {
-      return StreamSupport.stream(modelElementsResource.getChildren().spliterator(), false)
-          .map(resource -> (ContentElement)new MockContentFragment_ContentElement_Text(this, resource))
-          .iterator();
-    }
-   return Collections.emptyIterator();
+    return descriptor.getElementNames().stream()
+        .map(this::getElementByName)
+        .iterator();
   }
 
   @Override
   public ContentElement getElement(final String elementName) {
-    if (structuredDataProps != null) {
-      if (structuredDataProps.containsKey(elementName)) {
-        return new MockContentFragment_ContentElement_Structured(this, elementName, structuredDataProps);
-      }
-    }
-    else if (modelElementsResource != null) {
-      Resource resource = null;
-      if (StringUtils.isEmpty(elementName)) {
-        // if parameter is null or empty lookup "main" and "master" following the contract from the javadocs
-        resource = modelElementsResource.getChild("main");
-        if (resource == null) {
-          resource = modelElementsResource.getChild("master");
-        }
+    if (!descriptor.isStructured() && StringUtils.isEmpty(elementName)) {
+      // if parameter is null or empty lookup "main" and "master" following the contract from the javadocs
+      if (hasElement("main")) {
+        return getElementByName("main");
       }
-      else {
-        resource = modelElementsResource.getChild(elementName);
-      }
-      if (resource != null) {
-        return new MockContentFragment_ContentElement_Text(this, resource);
+      if (hasElement("master")) {
+        return getElementByName("master");
       }
+      return null;
+    }
+    if (hasElement(elementName)) {
+      return getElementByName(elementName);
     }
     return null;
   }
 
+  /**
+   * Element wrappers are created once per element and reused.
+   */
+  private ContentElement getElementByName(final String elementName) {
+    return elements.computeIfAbsent(elementName, name -> {
+      if (descriptor.isStructured()) {
+        return new MockContentFragment_ContentElement_Structured(this, name, getStructuredDataProps());
+      }
+      return new MockContentFragment_ContentElement_Text(this, getModelElementsResource().getChild(name));
+    });
+  }
+
   @Override
   public boolean hasElement(final String elementName) {
-    if (structuredDataProps != null) {
-      return structuredDataProps.containsKey(elementName);
-    }
-   if (modelElementsResource != null) {
-      return modelElementsResource.getChild(elementName) != null;
-    }
-    return false;
+    return descriptor.getElementNames().contains(elementName);
   }
 
   Asset getAsset() {
+    if (asset == null) {
+      asset = assetResource.adaptTo(Asset.class);
+    }
     return asset;
   }
 
   Resource getContentResource() {
+    if (contentResource == null) {
+      contentResource = assetResource.getChild(JcrConstants.JCR_CONTENT);
+    }
     return contentResource;
   }
 
   @Override
   public VariationTemplate createVariation(final String name, final String title, final String description) throws ContentFragmentException {
+    final Resource contentResource = getContentResource();
     final ResourceResolver resourceResolver = contentResource.getResourceResolver();
     try {
       final Resource variations = ResourceUtil.getOrCreateResource(resourceResolver, contentResource.getPath() + "/model/variations",
@@ -214,6 +249,10 @@ final class MockContentFragment implements ContentFragment {
           "name", name,
           JcrConstants.JCR_TITLE, StringUtils.defaultString(title, name),
           JcrConstants.JCR_DESCRIPTION, StringUtils.defaultString(description)));
+      descriptorCache.invalidate(resourceResolver, assetResource.getPath());
+      descriptor = getDescriptor();
+      variationDefs = null;
+      markModified();
       return new MockContentFragment_VariationDef(child);
     }
     catch (final PersistenceException ex) {
@@ -223,97 +262,243 @@ final class MockContentFragment implements ContentFragment {
 
   @Override
   public Iterator<VariationDef> listAllVariations() {
-    final Resource variations = contentResource.getChild("model/variations");
-    if (variations == null) {
-      return Collections.emptyIterator();
-    }
-    return StreamSupport.stream(variations.getChildren().spliterator(), false)
-        .map(resource -> (VariationDef)new MockContentFragment_VariationDef(resource))
-        .iterator();
+    return getVariationDefs().iterator();
   }
 
+  List<VariationDef> getVariationDefs() {
+    if (variationDefs == null) {
+      if (descriptor.getVariationNames().isEmpty()) {
+        variationDefs = Collections.emptyList();
+      }
+      else {
+        final Resource variations = getContentResource().getChild("model/variations");
+        variationDefs = descriptor.getVariationNames().stream()
+            .map(name -> variations != null ? variations.getChild(name) : null)
+            .filter(Objects::nonNull)
+            .map(resource -> (VariationDef)new MockContentFragment_VariationDef(resource))
+            .collect(Collectors.toUnmodifiableList());
+      }
+    }
+    return variationDefs;
+  }
+
+  /**
+   * Get structured data of the given variation without creating it.
+   * @param variationName Variation name
+   * @return Variation data or null if no data was stored for this variation yet
+   */
+  @Nullable
+  ModifiableValueMap getVariationData(@NotNull final String variationName) {
+    return variationDataProps.computeIfAbsent(variationName,
+        name -> Optional.ofNullable(getContentResource().getChild("data/" + name))
+            .map(resource -> resource.adaptTo(ModifiableValueMap.class)))
+        .orElse(null);
+  }
+
+  /**
+   * Get structured data of the given variation, creating it if it does not exist yet.
+   * @param variationName Variation name
+   * @return Variation data
+   */
+  @NotNull
+  @SuppressWarnings({ "null", "java:S112" })
+  ModifiableValueMap getOrCreateVariationData(@NotNull final String variationName) {
+    ModifiableValueMap props = getVariationData(variationName);
+    if (props == null) {
+      try {
+        final Resource contentResource = getContentResource();
+        props = ResourceUtil.getOrCreateResource(contentResource.getResourceResolver(),
+            contentResource.getPath() + "/data/" + variationName, JcrConstants.NT_UNSTRUCTURED,
+            JcrConstants.NT_UNSTRUCTURED, false).adaptTo(ModifiableValueMap.class);
+      }
+      catch (final PersistenceException ex) {
+        throw new RuntimeException("Unable to create variation data.", ex);
+      }
+      variationDataProps.put(variationName, Optional.of(props));
+    }
+    return props;
+  }
 
-  // --- unsupported operations ---
+  /**
+   * Updates the last modified date of the content fragment after it was modified via this API.
+   */
+  void markModified() {
+    getContentProps().put(JcrConstants.JCR_LASTMODIFIED, Calendar.getInstance());
+    lastModifiedIndex.invalidate(assetResource);
+  }
 
   @Override
-  public FragmentTemplate getTemplate() {
-    throw new UnsupportedOperationException();
+  public @Nullable Calendar getLastModifiedDate() {
+    Calendar lastModified = getContentProps().get(JcrConstants.JCR_LASTMODIFIED, Calendar.class);
+    if (lastModified == null) {
+      lastModified = getContentProps().get(NameConstants.PN_LAST_MOD, Calendar.class);
+    }
+    return lastModified;
   }
 
   @Override
-  public ContentElement createElement(final ElementTemplate template) throws ContentFragmentException {
-    throw new UnsupportedOperationException();
+  public @NotNull Calendar getLastModifiedDeep() throws ContentFragmentException {
+    Calendar lastModified = Calendar.getInstance();
+    lastModified.setTimeInMillis(lastModifiedIndex.getLastModifiedDeep(assetResource));
+    return lastModified;
   }
 
   @Override
   public Iterator<Resource> getAssociatedContent() {
-    throw new UnsupportedOperationException();
+    ResourceResolver resourceResolver = assetResource.getResourceResolver();
+    return getAssociatedContentPaths().stream()
+        .map(resourceResolver::getResource)
+        .filter(Objects::nonNull)
+        .iterator();
   }
 
   @Override
   public void addAssociatedContent(final Resource content) throws ContentFragmentException {
-    throw new UnsupportedOperationException();
+    List<String> paths = getAssociatedContentPaths();
+    if (paths.contains(content.getPath())) {
+      return;
+    }
+    paths.add(content.getPath());
+    storeAssociatedContentPaths(paths);
+    lastModifiedIndex.addReference(assetResource.getPath(), content.getPath());
   }
 
   @Override
   public void removeAssociatedContent(final Resource content) throws ContentFragmentException {
-    throw new UnsupportedOperationException();
+    List<String> paths = getAssociatedContentPaths();
+    if (!paths.remove(content.getPath())) {
+      return;
+    }
+    storeAssociatedContentPaths(paths);
+    lastModifiedIndex.removeReference(assetResource.getPath(), content.getPath());
   }
 
-  @Override
-  public void removeVariation(final String variation) throws ContentFragmentException {
-    throw new UnsupportedOperationException();
+  private List<String> getAssociatedContentPaths() {
+    Resource members = assetResource.getChild(MockContentFragmentLastModifiedIndex.ASSOCIATED_CONTENT_PATH);
+    if (members == null) {
+      return new ArrayList<>();
+    }
+    return new ArrayList<>(Arrays.asList(members.getValueMap().get(MockContentFragmentLastModifiedIndex.PN_ASSOCIATED_RESOURCES, new String[0])));
   }
 
-  @Override
-  public @Nullable Calendar getLastModifiedDate() {
-    throw new UnsupportedOperationException();
+  @SuppressWarnings("null")
+  private void storeAssociatedContentPaths(final List<String> paths) throws ContentFragmentException {
+    final ResourceResolver resourceResolver = assetResource.getResourceResolver();
+    try {
+      ResourceUtil.getOrCreateResource(resourceResolver, getContentResource().getPath() + "/associated",
+          ImmutableValueMap.of(JcrConstants.JCR_PRIMARYTYPE, JcrConstants.NT_UNSTRUCTURED,
+              "sling:resourceType", "sling/collection"),
+          JcrConstants.NT_UNSTRUCTURED, false);
+      final Resource members = ResourceUtil.getOrCreateResource(resourceResolver,
+          assetResource.getPath() + "/" + MockContentFragmentLastModifiedIndex.ASSOCIATED_CONTENT_PATH,
+          JcrConstants.NT_UNSTRUCTURED, JcrConstants.NT_UNSTRUCTURED, false);
+      members.adaptTo(ModifiableValueMap.class).put(MockContentFragmentLastModifiedIndex.PN_ASSOCIATED_RESOURCES,
+          paths.toArray(new String[0]));
+    }
+    catch (final PersistenceException ex) {
+      throw new ContentFragmentException("Unable to store associated content.", ex);
+    }
+    markModified();
   }
 
   @Override
-  public @NotNull Calendar getLastModifiedDeep() throws ContentFragmentException {
-    throw new UnsupportedOperationException();
+  public VersionDef createVersion(final String label, final String comment) throws ContentFragmentException {
+    return versionStore.createVersion(assetResource, label, comment);
   }
 
   @Override
-  public void setTags(@NotNull final Tag[] tags) throws ContentFragmentException {
-    metadataProps.put(TagConstants.PN_TAGS, Arrays.stream(tags == null ? new Tag[0] : tags).map(Tag::getTagID).toArray(String[]::new));
+  public Iterator<VersionDef> listVersions() throws ContentFragmentException {
+    return versionStore.listVersions(assetResource.getPath()).stream()
+        .map(VersionDef.class::cast)
+        .iterator();
   }
 
   @Override
-  public @NotNull Tag[] getTags() throws ContentFragmentException {
-    final TagManager tagManager = assetResource.getResourceResolver().adaptTo(TagManager.class);
-    return Arrays.stream(metadataProps.get(TagConstants.PN_TAGS, new String[] {})).map(tagId -> tagManager.resolve(tagId)).filter(Objects::nonNull).toArray(Tag[]::new);
+  public VersionedContent getVersionedContent(final VersionDef version) throws ContentFragmentException {
+    ContentFragment versionedFragment = getVersion(version);
+    Iterator<ContentElement> versionedElements = versionedFragment.getElements();
+    if (!versionedElements.hasNext()) {
+      return null;
+    }
+    return getVersionedContent(versionedElements.next());
+  }
+
+  /**
+   * Returns the content of the given element in the given version.
+   * @param version Version
+   * @param elementName Element name
+   * @return Versioned content or null if the element did not exist in this version
+   * @throws ContentFragmentException if the version does not exist
+   */
+  VersionedContent getVersionedElementContent(final VersionDef version, final String elementName) throws ContentFragmentException {
+    ContentElement versionedElement = getVersion(version).getElement(elementName);
+    if (versionedElement == null) {
+      return null;
+    }
+    return getVersionedContent(versionedElement);
+  }
+
+  private static VersionedContent getVersionedContent(final ContentElement versionedElement) {
+    return new MockContentFragment_VersionedContent(versionedElement.getContentType(), versionedElement.getContent());
   }
 
+  /**
+   * Returns a read-only view of the content fragment in the given version.
+   * Renditions are not part of the version, so the content of text elements is not available.
+   * @param versionDef Version
+   * @return Versioned content fragment
+   * @throws ContentFragmentException if the version does not exist
+   */
+  // latest AEM Cloud API
+  public ContentFragment getVersion(final VersionDef versionDef) throws ContentFragmentException {
+    MockContentFragment_VersionDef version = versionStore.getVersion(assetResource.getPath(),
+        versionDef != null ? versionDef.getIdentifier() : null);
+    if (version == null) {
+      throw new ContentFragmentException("Version does not exist: " + (versionDef != null ? versionDef.getIdentifier() : null));
+    }
+    Resource versionedAssetResource = new ContentSnapshotResource(assetResource.getResourceResolver(),
+        assetResource.getPath(), version.getSnapshot(), null);
+    return new MockContentFragment(versionedAssetResource, new ResourcePathCache<>(), versionStore,
+        new MockContentFragmentLastModifiedIndex());
+  }
+
+
+  // --- unsupported operations ---
+
   @Override
-  public void setVariationTags(@NotNull final Tag[] tags, @NotNull final String variationName) throws ContentFragmentException {
+  public FragmentTemplate getTemplate() {
     throw new UnsupportedOperationException();
   }
 
   @Override
-  public @NotNull Tag[] getVariationTags(@NotNull final String variationName) throws ContentFragmentException {
+  public ContentElement createElement(final ElementTemplate template) throws ContentFragmentException {
     throw new UnsupportedOperationException();
   }
 
   @Override
-  public VersionDef createVersion(final String label, final String comment) throws ContentFragmentException {
+  public void removeVariation(final String variation) throws ContentFragmentException {
     throw new UnsupportedOperationException();
   }
 
   @Override
-  public VersionedContent getVersionedContent(final VersionDef version) throws ContentFragmentException {
-    throw new UnsupportedOperationException();
+  public void setTags(@NotNull final Tag[] tags) throws ContentFragmentException {
+    getMetadataProps().put(TagConstants.PN_TAGS, Arrays.stream(tags == null ? new Tag[0] : tags).map(Tag::getTagID).toArray(String[]::new));
+    markModified();
   }
 
   @Override
-  public Iterator<VersionDef> listVersions() throws ContentFragmentException {
+  public @NotNull Tag[] getTags() throws ContentFragmentException {
+    final TagManager tagManager = assetResource.getResourceResolver().adaptTo(TagManager.class);
+    return Arrays.stream(getMetadataProps().get(TagConstants.PN_TAGS, new String[] {})).map(tagId -> tagManager.resolve(tagId)).filter(Objects::nonNull).toArray(Tag[]::new);
+  }
+
+  @Override
+  public void setVariationTags(@NotNull final Tag[] tags, @NotNull final String variationName) throws ContentFragmentException {
     throw new UnsupportedOperationException();
   }
 
-  // latest AEM Cloud API
-  @SuppressWarnings("unused")
-  public ContentFragment getVersion(final VersionDef versionDef) throws ContentFragmentException {
+  @Override
+  public @NotNull Tag[] getVariationTags(@NotNull final String variationName) throws ContentFragmentException {
     throw new UnsupportedOperationException();
   }
 
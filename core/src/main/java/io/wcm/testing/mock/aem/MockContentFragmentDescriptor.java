@@ -0,0 +1,158 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.apache.sling.api.resource.Resource;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import com.day.cq.commons.jcr.JcrConstants;
+import com.day.cq.dam.api.DamConstants;
+
+/**
+ * Immutable description of the structure of a content fragment: element names and variation names.
+ * The values of elements and variations are always read from the repository.
+ */
+final class MockContentFragmentDescriptor {
+
+  private final boolean structured;
+  private final List<String> elementNames;
+  private final List<String> variationNames;
+
+  private MockContentFragmentDescriptor(boolean structured, List<String> elementNames, List<String> variationNames) {
+    this.structured = structured;
+    this.elementNames = elementNames;
+    this.variationNames = variationNames;
+  }
+
+  /**
+   * @return true if the content fragment contains structured data, false if it is text-based
+   */
+  boolean isStructured() {
+    return structured;
+  }
+
+  /**
+   * @return Element names in repository order
+   */
+  @NotNull
+  List<String> getElementNames() {
+    return elementNames;
+  }
+
+  /**
+   * @return Resource names of the variation definitions in repository order
+   */
+  @NotNull
+  List<String> getVariationNames() {
+    return variationNames;
+  }
+
+  /**
+   * Reads the content fragment structure from the repository.
+   * @param assetResource Content fragment asset resource
+   * @return Descriptor
+   */
+  static @NotNull MockContentFragmentDescriptor build(@NotNull Resource assetResource) {
+    Resource contentResource = assetResource.getChild(JcrConstants.JCR_CONTENT);
+    if (contentResource == null) {
+      throw new IllegalArgumentException("Missing jcr:content node.");
+    }
+    if (contentResource.getChild(DamConstants.METADATA_FOLDER) == null) {
+      throw new IllegalArgumentException("Missing jcr:content/metadata node.");
+    }
+
+    boolean structured;
+    List<String> elementNames;
+    Resource structuredDataResource = contentResource.getChild("data/master");
+    Resource modelElementsResource = contentResource.getChild("model/elements");
+    if (structuredDataResource != null) {
+      structured = true;
+      elementNames = List.copyOf(structuredDataResource.getValueMap().keySet());
+    }
+    else if (modelElementsResource != null) {
+      structured = false;
+      elementNames = getChildNames(modelElementsResource);
+    }
+    else {
+      structured = false;
+      elementNames = Collections.emptyList();
+    }
+
+    Resource variationsResource = contentResource.getChild("model/variations");
+    List<String> variationNames = variationsResource != null ? getChildNames(variationsResource) : Collections.emptyList();
+
+    return new MockContentFragmentDescriptor(structured, elementNames, variationNames);
+  }
+
+  /**
+   * Checks the element and variation names against the repository, so changes written directly to the
+   * repository are detected even if no resource change event is received.
+   * @param assetResource Content fragment asset resource
+   * @return true if the content fragment structure still matches this descriptor
+   */
+  boolean isUpToDate(@NotNull Resource assetResource) {
+    Resource contentResource = assetResource.getChild(JcrConstants.JCR_CONTENT);
+    if (contentResource == null) {
+      return false;
+    }
+    Resource structuredDataResource = contentResource.getChild("data/master");
+    if (structured != (structuredDataResource != null)) {
+      return false;
+    }
+    if (structured) {
+      Set<String> keys = structuredDataResource.getValueMap().keySet();
+      if (keys.size() != elementNames.size() || !keys.containsAll(elementNames)) {
+        return false;
+      }
+    }
+    else if (!hasChildNames(contentResource.getChild("model/elements"), elementNames)) {
+      return false;
+    }
+    return hasChildNames(contentResource.getChild("model/variations"), variationNames);
+  }
+
+  private static boolean hasChildNames(@Nullable Resource resource, @NotNull List<String> names) {
+    if (resource == null) {
+      return names.isEmpty();
+    }
+    Iterator<Resource> children = resource.listChildren();
+    for (String name : names) {
+      if (!children.hasNext() || !name.equals(children.next().getName())) {
+        return false;
+      }
+    }
+    return !children.hasNext();
+  }
+
+  private static List<String> getChildNames(@NotNull Resource resource) {
+    return StreamSupport.stream(resource.getChildren().spliterator(), false)
+        .map(Resource::getName)
+        .collect(Collectors.toUnmodifiableList());
+  }
+
+}
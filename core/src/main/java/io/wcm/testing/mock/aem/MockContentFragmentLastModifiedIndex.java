@@ -0,0 +1,318 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem;
+
+import java.util.ArrayDeque;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ValueMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import com.day.cq.commons.jcr.JcrConstants;
+import com.day.cq.dam.commons.util.DamUtil;
+import com.day.cq.wcm.api.NameConstants;
+
+/**
+ * Memoizes the last modified timestamps of content fragments, and keeps a reverse index of the content fragment
+ * references (fragment paths in the structured data and associated content).
+ * <p>
+ * For each content fragment the maximum timestamp of its subtree and its outgoing references are cached.
+ * The deep last modified timestamp including all referenced content fragments is cached as well.
+ * When a content fragment is modified, only its own entry is rebuilt, and the deep timestamps of the content
+ * fragments referencing it are invalidated via the reverse index.
+ * </p>
+ * <p>
+ * Content may also be modified without notifying the index, e.g. via the resource API on resource resolver types
+ * without resource change events. So cached entries are validated against the last modified timestamps stored
+ * on the asset and jcr:content nodes of each content fragment involved.
+ * </p>
+ */
+final class MockContentFragmentLastModifiedIndex {
+
+  static final String ASSOCIATED_CONTENT_PATH = JcrConstants.JCR_CONTENT + "/associated/sling:members";
+  static final String PN_ASSOCIATED_RESOURCES = "sling:resources";
+
+  private static final String DATA_PATH = JcrConstants.JCR_CONTENT + "/data";
+
+  private final ResourcePathCache<FragmentEntry> entries = new ResourcePathCache<>();
+  private final ResourcePathCache<DeepEntry> deepLastModified = new ResourcePathCache<>();
+  private final Map<String, Set<String>> referencingFragments = new ConcurrentHashMap<>();
+  // references of each content fragment as of the last rebuild of its entry - used to drop stale reverse references
+  private final Map<String, Set<String>> fragmentReferences = new ConcurrentHashMap<>();
+
+  /**
+   * @param assetResource Content fragment asset resource
+   * @return Maximum last modified timestamp of the content fragment and all content fragments it references
+   */
+  long getLastModifiedDeep(@NotNull Resource assetResource) {
+    ResourceResolver resourceResolver = assetResource.getResourceResolver();
+    return deepLastModified.get(assetResource, this::computeLastModifiedDeep,
+        entry -> entry.isUpToDate(resourceResolver)).lastModified;
+  }
+
+  /**
+   * Registers an additional reference from a content fragment.
+   * @param fragmentPath Content fragment path
+   * @param referencedPath Referenced resource path
+   */
+  void addReference(@NotNull String fragmentPath, @NotNull String referencedPath) {
+    referencingFragments.computeIfAbsent(referencedPath, path -> ConcurrentHashMap.newKeySet()).add(fragmentPath);
+  }
+
+  /**
+   * Removes a reference from a content fragment.
+   * @param fragmentPath Content fragment path
+   * @param referencedPath Referenced resource path
+   */
+  void removeReference(@NotNull String fragmentPath, @NotNull String referencedPath) {
+    referencingFragments.computeIfPresent(referencedPath, (path, paths) -> {
+      paths.remove(fragmentPath);
+      return paths.isEmpty() ? null : paths;
+    });
+  }
+
+  /**
+   * Invalidates the entry of a content fragment that was modified via the given resource resolver,
+   * and the deep timestamps of all content fragments referencing it.
+   * @param assetResource Content fragment asset resource
+   */
+  void invalidate(@NotNull Resource assetResource) {
+    ResourceResolver resourceResolver = assetResource.getResourceResolver();
+    entries.invalidate(resourceResolver, assetResource.getPath());
+    for (String path : getDependentFragments(assetResource.getPath())) {
+      deepLastModified.invalidate(resourceResolver, path);
+    }
+  }
+
+  /**
+   * Invalidates all entries affected by a change of the given resource path.
+   * @param path Changed resource path
+   */
+  void invalidate(@NotNull String path) {
+    entries.invalidate(path);
+    deepLastModified.invalidate(path);
+    for (String referencedPath : referencingFragments.keySet()) {
+      if (StringUtils.equals(path, referencedPath) || StringUtils.startsWith(path, referencedPath + "/")) {
+        for (String dependentPath : getDependentFragments(referencedPath)) {
+          deepLastModified.invalidate(dependentPath);
+        }
+      }
+    }
+  }
+
+  /**
+   * @param path Resource path
+   * @return Given path and all content fragment paths referencing it directly or indirectly
+   */
+  @NotNull
+  Set<String> getDependentFragments(@NotNull String path) {
+    Set<String> result = new LinkedHashSet<>();
+    Deque<String> queue = new ArrayDeque<>();
+    queue.add(path);
+    while (!queue.isEmpty()) {
+      String current = queue.poll();
+      if (result.add(current)) {
+        queue.addAll(referencingFragments.getOrDefault(current, Collections.emptySet()));
+      }
+    }
+    return result;
+  }
+
+  private @NotNull DeepEntry computeLastModifiedDeep(@NotNull Resource assetResource) {
+    ResourceResolver resourceResolver = assetResource.getResourceResolver();
+    long result = 0;
+    Map<String, Long> stamps = new HashMap<>();
+    Set<String> visited = new HashSet<>();
+    Deque<Resource> queue = new ArrayDeque<>();
+    queue.add(assetResource);
+    visited.add(assetResource.getPath());
+    while (!queue.isEmpty()) {
+      Resource fragmentResource = queue.poll();
+      FragmentEntry entry = entries.get(fragmentResource, this::buildEntry,
+          cached -> cached.stamp == getStamp(fragmentResource));
+      result = Math.max(result, entry.lastModified);
+      stamps.put(fragmentResource.getPath(), entry.stamp);
+      for (String referencedPath : entry.references) {
+        if (!visited.add(referencedPath)) {
+          continue;
+        }
+        Resource referencedResource = resourceResolver.getResource(referencedPath);
+        if (referencedResource != null && isContentFragment(referencedResource)) {
+          queue.add(referencedResource);
+        }
+      }
+    }
+    return new DeepEntry(result, stamps);
+  }
+
+  private @NotNull FragmentEntry buildEntry(@NotNull Resource assetResource) {
+    long lastModified = getLastModified(assetResource.getValueMap());
+    Resource contentResource = assetResource.getChild(JcrConstants.JCR_CONTENT);
+    if (contentResource != null) {
+      lastModified = Math.max(lastModified, getLastModifiedRecursive(contentResource));
+    }
+    if (lastModified == 0) {
+      Calendar created = assetResource.getValueMap().get(JcrConstants.JCR_CREATED, Calendar.class);
+      if (created != null) {
+        lastModified = created.getTimeInMillis();
+      }
+    }
+
+    Set<String> references = new LinkedHashSet<>();
+    collectFragmentReferences(assetResource.getChild(DATA_PATH), references);
+    Resource associatedContent = assetResource.getChild(ASSOCIATED_CONTENT_PATH);
+    if (associatedContent != null) {
+      Collections.addAll(references, associatedContent.getValueMap().get(PN_ASSOCIATED_RESOURCES, new String[0]));
+    }
+    Set<String> previousReferences = fragmentReferences.put(assetResource.getPath(), references);
+    if (previousReferences != null) {
+      for (String referencedPath : previousReferences) {
+        if (!references.contains(referencedPath)) {
+          removeReference(assetResource.getPath(), referencedPath);
+        }
+      }
+    }
+    for (String referencedPath : references) {
+      addReference(assetResource.getPath(), referencedPath);
+    }
+    return new FragmentEntry(lastModified, getStamp(assetResource), references);
+  }
+
+  /**
+   * Cheap validation stamp of a content fragment: the last modified timestamps of the asset and jcr:content nodes,
+   * which are updated on each modification via the content fragment API.
+   */
+  private static long getStamp(@NotNull Resource assetResource) {
+    long stamp = getLastModified(assetResource.getValueMap());
+    Resource contentResource = assetResource.getChild(JcrConstants.JCR_CONTENT);
+    if (contentResource != null) {
+      stamp = Math.max(stamp, getLastModified(contentResource.getValueMap()));
+    }
+    return stamp;
+  }
+
+  private static long getLastModifiedRecursive(@NotNull Resource resource) {
+    long lastModified = getLastModified(resource.getValueMap());
+    Iterator<Resource> children = resource.listChildren();
+    while (children.hasNext()) {
+      lastModified = Math.max(lastModified, getLastModifiedRecursive(children.next()));
+    }
+    return lastModified;
+  }
+
+  private static long getLastModified(@NotNull ValueMap props) {
+    long lastModified = 0;
+    Calendar jcrLastModified = props.get(JcrConstants.JCR_LASTMODIFIED, Calendar.class);
+    if (jcrLastModified != null) {
+      lastModified = jcrLastModified.getTimeInMillis();
+    }
+    Calendar cqLastModified = props.get(NameConstants.PN_LAST_MOD, Calendar.class);
+    if (cqLastModified != null) {
+      lastModified = Math.max(lastModified, cqLastModified.getTimeInMillis());
+    }
+    return lastModified;
+  }
+
+  /**
+   * Collects all absolute paths stored in the structured data - only those pointing to content fragments
+   * are followed when the deep timestamp is computed.
+   */
+  private static void collectFragmentReferences(@Nullable Resource resource, @NotNull Set<String> references) {
+    if (resource == null) {
+      return;
+    }
+    for (Object value : resource.getValueMap().values()) {
+      if (value instanceof String) {
+        addIfPath((String)value, references);
+      }
+      else if (value instanceof String[]) {
+        for (String item : (String[])value) {
+          addIfPath(item, references);
+        }
+      }
+    }
+    Iterator<Resource> children = resource.listChildren();
+    while (children.hasNext()) {
+      collectFragmentReferences(children.next(), references);
+    }
+  }
+
+  private static void addIfPath(@Nullable String value, @NotNull Set<String> references) {
+    if (StringUtils.startsWith(value, "/") && !StringUtils.containsAny(value, ' ', '\n')) {
+      references.add(value);
+    }
+  }
+
+  static boolean isContentFragment(@NotNull Resource resource) {
+    return DamUtil.isAsset(resource)
+        && (resource.getChild(DATA_PATH) != null || resource.getChild(JcrConstants.JCR_CONTENT + "/model") != null);
+  }
+
+  private static final class FragmentEntry {
+
+    private final long lastModified;
+    private final long stamp;
+    private final Set<String> references;
+
+    FragmentEntry(long lastModified, long stamp, Set<String> references) {
+      this.lastModified = lastModified;
+      this.stamp = stamp;
+      this.references = references;
+    }
+
+  }
+
+  private static final class DeepEntry {
+
+    private final long lastModified;
+    // validation stamps of the content fragment and all content fragments it references
+    private final Map<String, Long> stamps;
+
+    DeepEntry(long lastModified, Map<String, Long> stamps) {
+      this.lastModified = lastModified;
+      this.stamps = stamps;
+    }
+
+    boolean isUpToDate(@NotNull ResourceResolver resourceResolver) {
+      for (Map.Entry<String, Long> entry : stamps.entrySet()) {
+        Resource fragmentResource = resourceResolver.getResource(entry.getKey());
+        if (fragmentResource == null || getStamp(fragmentResource) != entry.getValue()) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+  }
+
+}
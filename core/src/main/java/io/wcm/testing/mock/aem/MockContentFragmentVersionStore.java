@@ -0,0 +1,113 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.sling.api.resource.Resource;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import com.day.cq.commons.jcr.JcrConstants;
+import com.day.cq.dam.api.DamConstants;
+
+/**
+ * Keeps the versions of content fragments, identified by asset path.
+ * <p>
+ * Each version is an immutable snapshot of the asset node, the <code>jcr:content</code> node and its
+ * <code>data</code>, <code>model</code> and <code>metadata</code> subtrees. Renditions are not included.
+ * Unchanged nodes are shared with the previous version.
+ * </p>
+ */
+final class MockContentFragmentVersionStore {
+
+  private static final Set<String> VERSIONED_CONTENT_CHILDREN = Set.of(
+      JcrConstants.JCR_CONTENT,
+      JcrConstants.JCR_CONTENT + "/data",
+      JcrConstants.JCR_CONTENT + "/model",
+      JcrConstants.JCR_CONTENT + "/" + DamConstants.METADATA_FOLDER);
+
+  private final Map<String, List<MockContentFragment_VersionDef>> versions = new ConcurrentHashMap<>();
+
+  /**
+   * Create new version of the given content fragment.
+   * @param assetResource Content fragment asset resource
+   * @param label Version label
+   * @param comment Version comment
+   * @return Version
+   */
+  @NotNull
+  MockContentFragment_VersionDef createVersion(@NotNull Resource assetResource, @Nullable String label, @Nullable String comment) {
+    List<MockContentFragment_VersionDef> fragmentVersions = versions.computeIfAbsent(assetResource.getPath(),
+        path -> new CopyOnWriteArrayList<>());
+    synchronized (fragmentVersions) {
+      ContentSnapshot previous = fragmentVersions.isEmpty() ? null
+          : fragmentVersions.get(fragmentVersions.size() - 1).getSnapshot();
+      ContentSnapshot snapshot = ContentSnapshot.of(assetResource, previous,
+          childPath -> StringUtils.countMatches(childPath, '/') > 1 || VERSIONED_CONTENT_CHILDREN.contains(childPath));
+      MockContentFragment_VersionDef version = new MockContentFragment_VersionDef(
+          "1." + fragmentVersions.size(), label, comment, snapshot);
+      fragmentVersions.add(version);
+      return version;
+    }
+  }
+
+  /**
+   * Removes the versions of all content fragments at or below the given path.
+   * @param path Removed resource path
+   */
+  void remove(@NotNull String path) {
+    if (StringUtils.equals(path, "/")) {
+      versions.clear();
+    }
+    else {
+      versions.keySet().removeIf(assetPath -> StringUtils.equals(assetPath, path) || StringUtils.startsWith(assetPath, path + "/"));
+    }
+  }
+
+  /**
+   * @param assetPath Content fragment asset path
+   * @return All versions, oldest first
+   */
+  @NotNull
+  List<MockContentFragment_VersionDef> listVersions(@NotNull String assetPath) {
+    return Collections.unmodifiableList(versions.getOrDefault(assetPath, Collections.emptyList()));
+  }
+
+  /**
+   * @param assetPath Content fragment asset path
+   * @param identifier Version identifier
+   * @return Version or null if not found
+   */
+  @Nullable
+  MockContentFragment_VersionDef getVersion(@NotNull String assetPath, @Nullable String identifier) {
+    return listVersions(assetPath).stream()
+        .filter(version -> StringUtils.equals(version.getIdentifier(), identifier))
+        .findFirst()
+        .orElse(null);
+  }
+
+}
@@ -19,18 +19,13 @@
  */
 package io.wcm.testing.mock.aem;
 
-import java.lang.reflect.Array;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.Spliterator;
-import java.util.Spliterators;
-import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.sling.api.resource.ModifiableValueMap;
-import org.apache.sling.api.resource.PersistenceException;
-import org.apache.sling.api.resource.Resource;
-import org.apache.sling.api.resource.ResourceUtil;
+import org.apache.sling.api.resource.ValueMap;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -42,12 +37,10 @@ import com.adobe.cq.dam.cfm.VariationDef;
 import com.adobe.cq.dam.cfm.VariationTemplate;
 import com.adobe.cq.dam.cfm.VersionDef;
 import com.adobe.cq.dam.cfm.VersionedContent;
-import com.day.cq.commons.jcr.JcrConstants;
 
 /**
  * Mock implementation of {@link ContentElement} for structured content.
  */
-@SuppressWarnings("java:S112") // allow throwing RuntimException
 class MockContentFragment_ContentElement_Structured implements ContentElement {
 
   private final MockContentFragment contentFragment;
@@ -84,30 +77,20 @@ class MockContentFragment_ContentElement_Structured implements ContentElement {
   @Override
   public void setContent(String content, String contentType) throws ContentFragmentException {
     setContent(structuredDataKey, structuredDataProps, content);
+    contentFragment.markModified();
   }
 
-  static String getContent(String structuredDataKey, ModifiableValueMap structuredDataProps) {
-    StringBuilder result = new StringBuilder();
+  static String getContent(String structuredDataKey, ValueMap structuredDataProps) {
     Object value = structuredDataProps.get(structuredDataKey);
-    if (value != null) {
-      if (value.getClass().isArray()) {
-        int length = Array.getLength(value);
-        boolean first = true;
-        for (int i = 0; i < length; i++) {
-          if (first) {
-            first = false;
-          }
-          else {
-            result.append("\n");
-          }
-          result.append(Array.get(value, i).toString());
-        }
-      }
-      else {
-        result.append(value.toString());
-      }
+    if (value == null) {
+      return "";
     }
-    return result.toString();
+    if (value.getClass().isArray()) {
+      return Arrays.stream(MockContentFragment_FragmentData.toObjectArray(value))
+          .map(String::valueOf)
+          .collect(Collectors.joining("\n"));
+    }
+    return value.toString();
   }
 
   static void setContent(String structuredDataKey, ModifiableValueMap structuredDataProps, String content) {
@@ -115,91 +98,100 @@ class MockContentFragment_ContentElement_Structured implements ContentElement {
   }
 
   @Override
-  public String getContentType() {
-    return null;
+  public FragmentData getValue() {
+    return getValue(structuredDataKey, structuredDataProps);
   }
 
   @Override
-  public ContentVariation createVariation(VariationTemplate template) throws ContentFragmentException {
-    VariationDef variationDef = (VariationDef)template;
-    return new MockContentFragment_ContentVariation_Structured(variationDef, structuredDataKey,
-        getVariationStrucuturedDataProps(template.getName()));
+  public void setValue(FragmentData fragmentData) throws ContentFragmentException {
+    setValue(structuredDataKey, structuredDataProps, fragmentData);
+    contentFragment.markModified();
   }
 
-  @Override
-  public ContentVariation getVariation(String variationName) {
-    return getVariationsStream()
-        .filter(variation -> StringUtils.equals(variation.getName(), variationName))
-        .findFirst().orElse(null);
+  static FragmentData getValue(String structuredDataKey, @Nullable ValueMap structuredDataProps) {
+    Object value = structuredDataProps != null ? structuredDataProps.get(structuredDataKey) : null;
+    return new MockContentFragment_FragmentData(value, null, null);
   }
 
-  @Override
-  public Iterator<ContentVariation> getVariations() {
-    return getVariationsStream().iterator();
+  static void setValue(String structuredDataKey, ModifiableValueMap structuredDataProps, FragmentData fragmentData) {
+    Object value = MockContentFragment_FragmentData.toStorageValue(fragmentData != null ? fragmentData.getValue() : null);
+    if (value == null) {
+      structuredDataProps.remove(structuredDataKey);
+    }
+    else {
+      structuredDataProps.put(structuredDataKey, value);
+    }
   }
 
-  private Stream<ContentVariation> getVariationsStream() {
-    return StreamSupport.stream(
-        Spliterators.spliteratorUnknownSize(contentFragment.listAllVariations(), Spliterator.ORDERED), false)
-        .map(def -> (ContentVariation)new MockContentFragment_ContentVariation_Structured(def, structuredDataKey,
-            getVariationStrucuturedDataProps(def.getName())));
+  @Override
+  public String getContentType() {
+    return null;
   }
 
-  private ModifiableValueMap getVariationStrucuturedDataProps(String variationName) {
-    Resource contentResource = contentFragment.getContentResource();
-    try {
-      return ResourceUtil.getOrCreateResource(contentResource.getResourceResolver(),
-          contentResource.getPath() + "/data/" + variationName, JcrConstants.NT_UNSTRUCTURED,
-          JcrConstants.NT_UNSTRUCTURED, false).adaptTo(ModifiableValueMap.class);
-    }
-    catch (PersistenceException ex) {
-      throw new RuntimeException("Unable to create variation data.", ex);
-    }
+  @Override
+  public ContentVariation createVariation(VariationTemplate template) throws ContentFragmentException {
+    // variation data is created on first write
+    return new MockContentFragment_ContentVariation_Structured(contentFragment, (VariationDef)template, structuredDataKey, null);
   }
 
   @Override
-  public void removeVariation(ContentVariation variation) throws ContentFragmentException {
-    ModifiableValueMap props = getVariationStrucuturedDataProps(variation.getName());
-    props.remove(structuredDataKey);
+  public ContentVariation getVariation(String variationName) {
+    return contentFragment.getVariationDefs().stream()
+        .filter(def -> StringUtils.equals(def.getName(), variationName))
+        .findFirst()
+        .map(this::toVariation)
+        .orElse(null);
   }
 
-
-  // --- unsupported operations ---
+  @Override
+  public Iterator<ContentVariation> getVariations() {
+    return contentFragment.getVariationDefs().stream()
+        .map(this::toVariation)
+        .iterator();
+  }
 
   @Override
   public ContentVariation getResolvedVariation(String variationName) {
-    throw new UnsupportedOperationException();
+    // values not set in the variation are resolved from master
+    return contentFragment.getVariationDefs().stream()
+        .filter(def -> StringUtils.equals(def.getName(), variationName))
+        .findFirst()
+        .map(def -> (ContentVariation)new MockContentFragment_ContentVariation_Structured(contentFragment, def,
+            structuredDataKey, structuredDataProps))
+        .orElse(null);
   }
 
-  @Override
-  public FragmentData getValue() {
-    throw new UnsupportedOperationException();
+  private ContentVariation toVariation(VariationDef variationDef) {
+    return new MockContentFragment_ContentVariation_Structured(contentFragment, variationDef, structuredDataKey, null);
   }
 
   @Override
-  public void setValue(FragmentData fragmentData) throws ContentFragmentException {
-    throw new UnsupportedOperationException();
+  public void removeVariation(ContentVariation variation) throws ContentFragmentException {
+    ModifiableValueMap props = contentFragment.getVariationData(variation.getName());
+    if (props != null) {
+      props.remove(structuredDataKey);
+      contentFragment.markModified();
+    }
   }
 
   @Override
   public VersionDef createVersion(String label, String comment) throws ContentFragmentException {
-    throw new UnsupportedOperationException();
+    return contentFragment.createVersion(label, comment);
   }
 
   @Override
   public VersionedContent getVersionedContent(VersionDef version) throws ContentFragmentException {
-    throw new UnsupportedOperationException();
+    return contentFragment.getVersionedElementContent(version, getName());
   }
 
   @Override
   public Iterator<VersionDef> listVersions() throws ContentFragmentException {
-    throw new UnsupportedOperationException();
+    return contentFragment.listVersions();
   }
 
   // latest AEM Cloud API
-  @SuppressWarnings("unused")
   public ContentElement getVersion(VersionDef versionDef) throws ContentFragmentException {
-    throw new UnsupportedOperationException();
+    return contentFragment.getVersion(versionDef).getElement(getName());
   }
 
 }
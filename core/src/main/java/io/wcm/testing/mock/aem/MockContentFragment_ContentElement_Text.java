@@ -20,8 +20,13 @@
 package io.wcm.testing.mock.aem;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
 import java.util.Spliterator;
@@ -64,8 +69,20 @@ class MockContentFragment_ContentElement_Text implements ContentElement {
     this.asset = contentFragment.getAsset();
   }
 
+  /**
+   * Supports adapting to {@link Reader} and {@link Writer} for streaming access to the text content.
+   * The content written to the writer is buffered in memory and stored as rendition when the writer is closed,
+   * as the rendition binary can only be replaced as a whole. Nothing is stored if the writer is not closed.
+   */
   @Override
+  @SuppressWarnings("unchecked")
   public <AdapterType> @Nullable AdapterType adaptTo(@NotNull Class<AdapterType> type) {
+    if (type == Reader.class) {
+      return (AdapterType)getContentReader(asset, getRenditionName());
+    }
+    if (type == Writer.class) {
+      return (AdapterType)new ContentWriter(contentFragment, getRenditionName());
+    }
     return contentFragment.adaptTo(type);
   }
 
@@ -87,6 +104,7 @@ class MockContentFragment_ContentElement_Text implements ContentElement {
   @Override
   public void setContent(String content, String contentType) throws ContentFragmentException {
     setContent(asset, getRenditionName(), content, contentType);
+    contentFragment.markModified();
   }
 
   @Override
@@ -95,34 +113,53 @@ class MockContentFragment_ContentElement_Text implements ContentElement {
   }
 
   static String getContent(Asset asset, String renditionName) {
-    Rendition rendition = asset.getRendition(renditionName);
-    if (rendition != null) {
-      try (InputStream is = rendition.getStream()) {
-        return IOUtils.toString(is, StandardCharsets.UTF_8);
-      }
-      catch (IOException ex) {
-        throw new RuntimeException("Unable to get content fragment text from " + rendition.getPath(), ex);
+    try (Reader reader = getContentReader(asset, renditionName)) {
+      if (reader != null) {
+        return IOUtils.toString(reader);
       }
     }
+    catch (IOException ex) {
+      throw new RuntimeException("Unable to get content fragment text from " + asset.getPath() + "/" + renditionName, ex);
+    }
     return null;
   }
 
-  static void setContent(Asset asset, String renditionName, String content, String contentType) throws ContentFragmentException {
+  static @Nullable Reader getContentReader(Asset asset, String renditionName) {
     Rendition rendition = asset.getRendition(renditionName);
     if (rendition != null) {
-      asset.removeRendition(rendition.getName());
+      InputStream is = rendition.getStream();
+      if (is != null) {
+        return new InputStreamReader(is, StandardCharsets.UTF_8);
+      }
     }
-    try (ByteArrayInputStream is = new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8))) {
-      asset.addRendition(renditionName, is, contentType);
+    return null;
+  }
+
+  static void setContent(Asset asset, String renditionName, String content, String contentType) throws ContentFragmentException {
+    setContent(asset, renditionName, new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), contentType);
+  }
+
+  /**
+   * Replaces the binary data of an existing rendition in-place, or adds a new rendition.
+   * The asset commits the changes and sends the DAM event unless it is in batch mode.
+   */
+  static void setContent(Asset asset, String renditionName, InputStream is, String contentType) throws ContentFragmentException {
+    try (InputStream data = is) {
+      asset.setRendition(renditionName, data, contentType);
     }
     catch (IOException ex) {
-      throw new ContentFragmentException("Unable to ass rendition.", ex);
+      throw new ContentFragmentException("Unable to store rendition " + renditionName + " of " + asset.getPath(), ex);
     }
   }
 
   static String getContentType(Asset asset, String renditionName) {
     Rendition rendition = asset.getRendition(renditionName);
     if (rendition != null) {
+      // read from resource to reflect in-place updates
+      Resource renditionContent = rendition.getChild(JcrConstants.JCR_CONTENT);
+      if (renditionContent != null) {
+        return renditionContent.getValueMap().get(JcrConstants.JCR_MIMETYPE, String.class);
+      }
       return rendition.getMimeType();
     }
     return null;
@@ -140,7 +177,7 @@ class MockContentFragment_ContentElement_Text implements ContentElement {
   @Override
   public ContentVariation createVariation(VariationTemplate template) throws ContentFragmentException {
     VariationDef variationDef = (VariationDef)template;
-    return new MockContentFragment_ContentVariation_Text(variationDef, asset);
+    return new MockContentFragment_ContentVariation_Text(contentFragment, variationDef);
   }
 
   @Override
@@ -158,7 +195,7 @@ class MockContentFragment_ContentElement_Text implements ContentElement {
   private Stream<ContentVariation> getVariationsStream() {
     return StreamSupport.stream(
         Spliterators.spliteratorUnknownSize(contentFragment.listAllVariations(), Spliterator.ORDERED), false)
-        .map(def -> (ContentVariation)new MockContentFragment_ContentVariation_Text(def, asset));
+        .map(def -> (ContentVariation)new MockContentFragment_ContentVariation_Text(contentFragment, def));
   }
 
   @Override
@@ -166,45 +203,97 @@ class MockContentFragment_ContentElement_Text implements ContentElement {
     Rendition rendition = asset.getRendition(variation.getName());
     if (rendition != null) {
       asset.removeRendition(rendition.getName());
+      contentFragment.markModified();
     }
   }
 
 
-  // --- unsupported operations ---
+  /**
+   * Collects the written text in memory and stores it as rendition when closed, without copying the collected bytes.
+   * Writing through to the rendition is not possible, as renditions are replaced from a complete input stream.
+   */
+  private static final class ContentWriter extends OutputStreamWriter {
 
-  @Override
-  public ContentVariation getResolvedVariation(String variationName) {
-    throw new UnsupportedOperationException();
-  }
+    private final MockContentFragment contentFragment;
+    private final Asset asset;
+    private final String renditionName;
+    private final ContentBuffer buffer;
+    private boolean closed;
+
+    ContentWriter(MockContentFragment contentFragment, String renditionName) {
+      this(contentFragment, renditionName, new ContentBuffer());
+    }
+
+    private ContentWriter(MockContentFragment contentFragment, String renditionName, ContentBuffer buffer) {
+      super(buffer, StandardCharsets.UTF_8);
+      this.contentFragment = contentFragment;
+      this.asset = contentFragment.getAsset();
+      this.renditionName = renditionName;
+      this.buffer = buffer;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      super.close();
+      String contentType = StringUtils.defaultString(getContentType(asset, renditionName), "text/plain");
+      try {
+        setContent(asset, renditionName, buffer.toInputStream(), contentType);
+        contentFragment.markModified();
+      }
+      catch (ContentFragmentException ex) {
+        throw new IOException(ex);
+      }
+    }
 
-  @Override
-  public FragmentData getValue() {
-    throw new UnsupportedOperationException();
   }
 
-  @Override
-  public void setValue(FragmentData arg0) throws ContentFragmentException {
-    throw new UnsupportedOperationException();
+  private static final class ContentBuffer extends ByteArrayOutputStream {
+
+    InputStream toInputStream() {
+      return new ByteArrayInputStream(buf, 0, count);
+    }
+
   }
 
   @Override
   public VersionDef createVersion(String label, String comment) throws ContentFragmentException {
-    throw new UnsupportedOperationException();
+    return contentFragment.createVersion(label, comment);
   }
 
   @Override
   public VersionedContent getVersionedContent(VersionDef version) throws ContentFragmentException {
-    throw new UnsupportedOperationException();
+    return contentFragment.getVersionedElementContent(version, getName());
   }
 
   @Override
   public Iterator<VersionDef> listVersions() throws ContentFragmentException {
-    throw new UnsupportedOperationException();
+    return contentFragment.listVersions();
   }
 
   // latest AEM Cloud API
-  @SuppressWarnings("unused")
   public ContentElement getVersion(VersionDef versionDef) throws ContentFragmentException {
+    return contentFragment.getVersion(versionDef).getElement(getName());
+  }
+
+
+  // --- unsupported operations ---
+
+  @Override
+  public ContentVariation getResolvedVariation(String variationName) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public FragmentData getValue() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void setValue(FragmentData arg0) throws ContentFragmentException {
     throw new UnsupportedOperationException();
   }
 
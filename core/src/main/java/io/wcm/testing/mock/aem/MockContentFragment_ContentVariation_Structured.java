@@ -22,8 +22,9 @@ package io.wcm.testing.mock.aem;
 import java.util.Calendar;
 import java.util.Iterator;
 
-import org.apache.sling.api.resource.ModifiableValueMap;
+import org.apache.sling.api.resource.ValueMap;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import com.adobe.cq.dam.cfm.ContentFragmentException;
 import com.adobe.cq.dam.cfm.ContentVariation;
@@ -38,15 +39,20 @@ import com.adobe.cq.dam.cfm.VersionedContent;
  */
 class MockContentFragment_ContentVariation_Structured implements ContentVariation {
 
+  private final MockContentFragment contentFragment;
   private final VariationDef variationDef;
   private final String structuredDataKey;
-  private final ModifiableValueMap structuredDataProps;
-
-  MockContentFragment_ContentVariation_Structured(VariationDef variationDef,
-      String structuredDataKey, ModifiableValueMap structuredDataProps) {
+  private final ValueMap fallbackStructuredDataProps;
+
+  /**
+   * @param fallbackStructuredDataProps If set, values not defined in the variation are resolved from this map
+   */
+  MockContentFragment_ContentVariation_Structured(MockContentFragment contentFragment, VariationDef variationDef,
+      String structuredDataKey, @Nullable ValueMap fallbackStructuredDataProps) {
+    this.contentFragment = contentFragment;
     this.variationDef = variationDef;
     this.structuredDataKey = structuredDataKey;
-    this.structuredDataProps = structuredDataProps;
+    this.fallbackStructuredDataProps = fallbackStructuredDataProps;
   }
 
   @Override
@@ -66,12 +72,18 @@ class MockContentFragment_ContentVariation_Structured implements ContentVariatio
 
   @Override
   public String getContent() {
+    ValueMap structuredDataProps = getStructuredDataProps();
+    if (structuredDataProps == null) {
+      return "";
+    }
     return MockContentFragment_ContentElement_Structured.getContent(structuredDataKey, structuredDataProps);
   }
 
   @Override
   public void setContent(String content, String mimeType) throws ContentFragmentException {
-    MockContentFragment_ContentElement_Structured.setContent(structuredDataKey, structuredDataProps, content);
+    MockContentFragment_ContentElement_Structured.setContent(structuredDataKey,
+        contentFragment.getOrCreateVariationData(getName()), content);
+    contentFragment.markModified();
   }
 
   @Override
@@ -79,6 +91,27 @@ class MockContentFragment_ContentVariation_Structured implements ContentVariatio
     return null;
   }
 
+  @Override
+  public FragmentData getValue() {
+    return MockContentFragment_ContentElement_Structured.getValue(structuredDataKey, getStructuredDataProps());
+  }
+
+  @Override
+  public void setValue(FragmentData fragmentData) throws ContentFragmentException {
+    MockContentFragment_ContentElement_Structured.setValue(structuredDataKey,
+        contentFragment.getOrCreateVariationData(getName()), fragmentData);
+    contentFragment.markModified();
+  }
+
+  private @Nullable ValueMap getStructuredDataProps() {
+    ValueMap structuredDataProps = contentFragment.getVariationData(getName());
+    if (fallbackStructuredDataProps != null
+        && (structuredDataProps == null || !structuredDataProps.containsKey(structuredDataKey))) {
+      return fallbackStructuredDataProps;
+    }
+    return structuredDataProps;
+  }
+
 
   // --- unsupported operations ---
 
@@ -102,16 +135,6 @@ class MockContentFragment_ContentVariation_Structured implements ContentVariatio
     throw new UnsupportedOperationException();
   }
 
-  @Override
-  public FragmentData getValue() {
-    throw new UnsupportedOperationException();
-  }
-
-  @Override
-  public void setValue(FragmentData arg0) throws ContentFragmentException {
-    throw new UnsupportedOperationException();
-  }
-
   // latest AEM Cloud API
   @Override
   public @NotNull Calendar getCreated() {
@@ -38,12 +38,14 @@ import com.day.cq.dam.api.Asset;
  */
 class MockContentFragment_ContentVariation_Text implements ContentVariation {
 
+  private final MockContentFragment contentFragment;
   private final VariationDef variationDef;
   private final Asset asset;
 
-  MockContentFragment_ContentVariation_Text(VariationDef variationDef, Asset asset) {
+  MockContentFragment_ContentVariation_Text(MockContentFragment contentFragment, VariationDef variationDef) {
+    this.contentFragment = contentFragment;
     this.variationDef = variationDef;
-    this.asset = asset;
+    this.asset = contentFragment.getAsset();
   }
 
   @Override
@@ -69,6 +71,7 @@ class MockContentFragment_ContentVariation_Text implements ContentVariation {
   @Override
   public void setContent(String content, String contentType) throws ContentFragmentException {
     MockContentFragment_ContentElement_Text.setContent(asset, getName(), content, contentType);
+    contentFragment.markModified();
   }
 
   @Override
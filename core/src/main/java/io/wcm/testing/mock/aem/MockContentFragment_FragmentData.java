@@ -0,0 +1,406 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import com.adobe.cq.dam.cfm.ContentFragmentException;
+import com.adobe.cq.dam.cfm.DataType;
+import com.adobe.cq.dam.cfm.FragmentData;
+
+/**
+ * Mock implementation of {@link FragmentData} for structured content.
+ * <p>
+ * The values are kept as stored in the repository (e.g. {@link String}, {@link Long}, {@link Calendar} or arrays of them).
+ * Conversions between types are done directly on the typed values, numbers are never converted via their string
+ * representation. Fragment references are stored as paths and returned as strings.
+ * </p>
+ */
+class MockContentFragment_FragmentData implements FragmentData {
+
+  private static final Map<Class<?>, String> VALUE_TYPES = Map.ofEntries(
+      Map.entry(String.class, "string"),
+      Map.entry(Long.class, "long"),
+      Map.entry(Integer.class, "long"),
+      Map.entry(Short.class, "long"),
+      Map.entry(Byte.class, "long"),
+      Map.entry(Double.class, "double"),
+      Map.entry(Float.class, "double"),
+      Map.entry(BigDecimal.class, "decimal"),
+      Map.entry(Boolean.class, "boolean"),
+      Map.entry(Calendar.class, "calendar"),
+      Map.entry(Date.class, "calendar"));
+
+  private static final Set<Class<?>> SUPPORTED_PRIMITIVE_TYPES = Set.of(
+      long.class, int.class, double.class, float.class, boolean.class);
+
+  private Object value;
+  private String contentType;
+  private final Calendar lastModified;
+
+  MockContentFragment_FragmentData(@Nullable Object value, @Nullable String contentType, @Nullable Calendar lastModified) {
+    this.value = value;
+    this.contentType = contentType;
+    this.lastModified = lastModified;
+  }
+
+  @Override
+  public DataType getDataType() {
+    return new MockDataType(value);
+  }
+
+  @Override
+  public Object getValue() {
+    return value;
+  }
+
+  @Override
+  public <T> T getValue(Class<T> type) {
+    return convert(value, type);
+  }
+
+  @Override
+  public boolean isTypeSupported(@SuppressWarnings("rawtypes") Class type) {
+    Class<?> componentType = type.isArray() ? type.getComponentType() : type;
+    return isScalarTypeSupported(componentType) || SUPPORTED_PRIMITIVE_TYPES.contains(componentType);
+  }
+
+  @Override
+  public void setValue(Object newValue) throws ContentFragmentException {
+    if (newValue != null && !isTypeSupported(newValue.getClass())) {
+      throw new ContentFragmentException("Unsupported value type: " + newValue.getClass().getName());
+    }
+    this.value = newValue;
+  }
+
+  @Override
+  public String getContentType() {
+    return contentType;
+  }
+
+  @Override
+  public void setContentType(String contentType) {
+    this.contentType = contentType;
+  }
+
+  @Override
+  public Calendar getLastModified() {
+    return lastModified;
+  }
+
+  private static boolean isScalarTypeSupported(@NotNull Class<?> type) {
+    return VALUE_TYPES.containsKey(type) || Calendar.class.isAssignableFrom(type) || Date.class.isAssignableFrom(type);
+  }
+
+  /**
+   * Converts a value to a format that can be stored in a value map: primitive arrays are boxed, dates are converted
+   * to calendars.
+   * @param value Value
+   * @return Value to be stored
+   */
+  static @Nullable Object toStorageValue(@Nullable Object value) {
+    if (value instanceof Date) {
+      return toCalendar((Date)value);
+    }
+    if (value instanceof Date[]) {
+      return convert(value, Calendar[].class);
+    }
+    if (value instanceof long[]) {
+      return convert(value, Long[].class);
+    }
+    if (value instanceof int[]) {
+      return convert(value, Long[].class);
+    }
+    if (value instanceof double[] || value instanceof float[]) {
+      return convert(value, Double[].class);
+    }
+    if (value instanceof boolean[]) {
+      return convert(value, Boolean[].class);
+    }
+    return value;
+  }
+
+  /**
+   * Converts the given value to the given type. Single values are converted to arrays with one element and vice versa.
+   * @param value Value as stored in repository
+   * @param type Target type
+   * @return Converted value or null if the value is null or cannot be converted
+   */
+  @SuppressWarnings({ "unchecked", "java:S3776" })
+  static <T> @Nullable T convert(@Nullable Object value, @NotNull Class<T> type) {
+    if (value == null) {
+      return null;
+    }
+    if (type.isInstance(value)) {
+      return (T)value;
+    }
+    if (type.isArray()) {
+      Object[] values = toObjectArray(value);
+      Class<?> componentType = type.getComponentType();
+      if (componentType == long.class) {
+        return (T)toLongArray(values);
+      }
+      if (componentType == int.class) {
+        return (T)toIntArray(values);
+      }
+      if (componentType == double.class) {
+        return (T)toDoubleArray(values);
+      }
+      if (componentType == float.class) {
+        return (T)toFloatArray(values);
+      }
+      if (componentType == boolean.class) {
+        return (T)toBooleanArray(values);
+      }
+      Object[] result = (Object[])Array.newInstance(componentType, values.length);
+      for (int i = 0; i < values.length; i++) {
+        result[i] = convertScalar(values[i], componentType);
+        if (result[i] == null && values[i] != null) {
+          return null;
+        }
+      }
+      return (T)result;
+    }
+    Object[] values = toObjectArray(value);
+    if (values.length == 0) {
+      return null;
+    }
+    return (T)convertScalar(values[0], type);
+  }
+
+  @SuppressWarnings("java:S3776")
+  private static @Nullable Object convertScalar(@Nullable Object value, @NotNull Class<?> type) {
+    if (value == null || type.isInstance(value)) {
+      return value;
+    }
+    if (type == String.class) {
+      return value instanceof Calendar ? ((Calendar)value).toInstant().toString() : value.toString();
+    }
+    if (value instanceof Number) {
+      Number number = (Number)value;
+      if (type == Long.class || type == long.class) {
+        return number.longValue();
+      }
+      if (type == Integer.class || type == int.class) {
+        return number.intValue();
+      }
+      if (type == Double.class || type == double.class) {
+        return number.doubleValue();
+      }
+      if (type == Float.class || type == float.class) {
+        return number.floatValue();
+      }
+      if (type == BigDecimal.class) {
+        return (value instanceof Double || value instanceof Float)
+            ? BigDecimal.valueOf(number.doubleValue()) : BigDecimal.valueOf(number.longValue());
+      }
+    }
+    if (type == Calendar.class && value instanceof Date) {
+      return toCalendar((Date)value);
+    }
+    if (type == Date.class && value instanceof Calendar) {
+      return ((Calendar)value).getTime();
+    }
+    if (type == boolean.class && value instanceof Boolean) {
+      return value;
+    }
+    return null;
+  }
+
+  /**
+   * @param value Single value or array (object or primitive)
+   * @return Object array
+   */
+  static @NotNull Object[] toObjectArray(@NotNull Object value) {
+    if (value instanceof Object[]) {
+      return (Object[])value;
+    }
+    if (value instanceof long[]) {
+      long[] array = (long[])value;
+      Object[] result = new Object[array.length];
+      for (int i = 0; i < array.length; i++) {
+        result[i] = array[i];
+      }
+      return result;
+    }
+    if (value instanceof int[]) {
+      int[] array = (int[])value;
+      Object[] result = new Object[array.length];
+      for (int i = 0; i < array.length; i++) {
+        result[i] = array[i];
+      }
+      return result;
+    }
+    if (value instanceof double[]) {
+      double[] array = (double[])value;
+      Object[] result = new Object[array.length];
+      for (int i = 0; i < array.length; i++) {
+        result[i] = array[i];
+      }
+      return result;
+    }
+    if (value instanceof float[]) {
+      float[] array = (float[])value;
+      Object[] result = new Object[array.length];
+      for (int i = 0; i < array.length; i++) {
+        result[i] = array[i];
+      }
+      return result;
+    }
+    if (value instanceof boolean[]) {
+      boolean[] array = (boolean[])value;
+      Object[] result = new Object[array.length];
+      for (int i = 0; i < array.length; i++) {
+        result[i] = array[i];
+      }
+      return result;
+    }
+    return new Object[] { value };
+  }
+
+  private static long @Nullable [] toLongArray(@NotNull Object[] values) {
+    long[] result = new long[values.length];
+    for (int i = 0; i < values.length; i++) {
+      if (!(values[i] instanceof Number)) {
+        return null;
+      }
+      result[i] = ((Number)values[i]).longValue();
+    }
+    return result;
+  }
+
+  private static int @Nullable [] toIntArray(@NotNull Object[] values) {
+    int[] result = new int[values.length];
+    for (int i = 0; i < values.length; i++) {
+      if (!(values[i] instanceof Number)) {
+        return null;
+      }
+      result[i] = ((Number)values[i]).intValue();
+    }
+    return result;
+  }
+
+  private static double @Nullable [] toDoubleArray(@NotNull Object[] values) {
+    double[] result = new double[values.length];
+    for (int i = 0; i < values.length; i++) {
+      if (!(values[i] instanceof Number)) {
+        return null;
+      }
+      result[i] = ((Number)values[i]).doubleValue();
+    }
+    return result;
+  }
+
+  private static float @Nullable [] toFloatArray(@NotNull Object[] values) {
+    float[] result = new float[values.length];
+    for (int i = 0; i < values.length; i++) {
+      if (!(values[i] instanceof Number)) {
+        return null;
+      }
+      result[i] = ((Number)values[i]).floatValue();
+    }
+    return result;
+  }
+
+  private static boolean @Nullable [] toBooleanArray(@NotNull Object[] values) {
+    boolean[] result = new boolean[values.length];
+    for (int i = 0; i < values.length; i++) {
+      if (!(values[i] instanceof Boolean)) {
+        return null;
+      }
+      result[i] = (Boolean)values[i];
+    }
+    return result;
+  }
+
+  private static @NotNull Calendar toCalendar(@NotNull Date date) {
+    Calendar calendar = Calendar.getInstance();
+    calendar.setTime(date);
+    return calendar;
+  }
+
+
+  /**
+   * Data type derived from the stored value.
+   */
+  private static final class MockDataType implements DataType {
+
+    private final String valueType;
+    private final boolean multiValue;
+
+    MockDataType(@Nullable Object value) {
+      this.multiValue = value != null && value.getClass().isArray();
+      Class<?> type = null;
+      if (value != null) {
+        type = multiValue ? value.getClass().getComponentType() : value.getClass();
+      }
+      this.valueType = getValueType(type);
+    }
+
+    private static @NotNull String getValueType(@Nullable Class<?> type) {
+      if (type == null) {
+        return "string";
+      }
+      if (type == long.class || type == int.class) {
+        return "long";
+      }
+      if (type == double.class || type == float.class) {
+        return "double";
+      }
+      if (type == boolean.class) {
+        return "boolean";
+      }
+      if (Calendar.class.isAssignableFrom(type)) {
+        return "calendar";
+      }
+      return VALUE_TYPES.getOrDefault(type, "string");
+    }
+
+    @Override
+    public String getTypeString() {
+      return multiValue ? valueType + "[]" : valueType;
+    }
+
+    @Override
+    public String getValueType() {
+      return valueType;
+    }
+
+    @Override
+    public String getSemanticType() {
+      return null;
+    }
+
+    @Override
+    public boolean isMultiValue() {
+      return multiValue;
+    }
+
+  }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem;
+
+import java.util.Calendar;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import com.adobe.cq.dam.cfm.VersionDef;
+
+/**
+ * Mock implementation of {@link VersionDef}. Holds the immutable snapshot of the content fragment.
+ */
+class MockContentFragment_VersionDef implements VersionDef {
+
+  private final String identifier;
+  private final String label;
+  private final String comment;
+  private final Calendar created;
+  private final ContentSnapshot snapshot;
+
+  MockContentFragment_VersionDef(@NotNull String identifier, @Nullable String label, @Nullable String comment,
+      @NotNull ContentSnapshot snapshot) {
+    this.identifier = identifier;
+    this.label = label;
+    this.comment = comment;
+    this.created = Calendar.getInstance();
+    this.snapshot = snapshot;
+  }
+
+  @Override
+  public String getIdentifier() {
+    return identifier;
+  }
+
+  @Override
+  public String getDescription() {
+    return comment;
+  }
+
+  String getLabel() {
+    return label;
+  }
+
+  Calendar getCreated() {
+    return created;
+  }
+
+  @NotNull
+  ContentSnapshot getSnapshot() {
+    return snapshot;
+  }
+
+}
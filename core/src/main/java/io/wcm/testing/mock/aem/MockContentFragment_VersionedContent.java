@@ -0,0 +1,47 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem;
+
+import com.adobe.cq.dam.cfm.VersionedContent;
+
+/**
+ * Mock implementation of {@link VersionedContent}.
+ */
+class MockContentFragment_VersionedContent implements VersionedContent {
+
+  private final String contentType;
+  private final String content;
+
+  MockContentFragment_VersionedContent(String contentType, String content) {
+    this.contentType = contentType;
+    this.content = content;
+  }
+
+  @Override
+  public String getContentType() {
+    return contentType;
+  }
+
+  @Override
+  public String getContent() {
+    return content;
+  }
+
+}
@@ -19,16 +19,29 @@
  */
 package io.wcm.testing.mock.aem;
 
+import static com.day.cq.commons.jcr.JcrConstants.JCR_DESCRIPTION;
+import static com.day.cq.commons.jcr.JcrConstants.JCR_TITLE;
+
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.apache.commons.collections.Predicate;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.sling.api.SlingHttpServletRequest;
+import org.apache.sling.api.resource.ModifiableValueMap;
+import org.apache.sling.api.resource.PersistenceException;
 import org.apache.sling.api.resource.Resource;
 import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import com.day.cq.commons.jcr.JcrConstants;
+import com.day.cq.wcm.api.NameConstants;
 import com.day.cq.wcm.api.Template;
 import com.day.cq.wcm.api.components.ComponentContext;
 import com.day.cq.wcm.api.policies.ContentPolicy;
@@ -38,12 +51,21 @@ import com.day.cq.wcm.api.policies.ContentPolicyMapping;
 /**
  * Mock implementation of {@link ContentPolicy}.
  */
+@SuppressWarnings("java:S112") // allow throwing RuntimException
 class MockContentPolicyManager implements ContentPolicyManager {
 
+  private static final Set<String> NOT_COPIED_PROPERTIES = Set.of(
+      JcrConstants.JCR_UUID, JcrConstants.JCR_CREATED, "jcr:createdBy", JcrConstants.JCR_MIXINTYPES);
+
   private final ResourceResolver resourceResolver;
+  private final ContentPolicyMappingIndex mappingIndex;
+  private final ContentPolicyIndex policyIndex;
 
-  MockContentPolicyManager(@NotNull ResourceResolver resourceResolver) {
+  MockContentPolicyManager(@NotNull ResourceResolver resourceResolver, @NotNull ContentPolicyMappingIndex mappingIndex,
+      @NotNull ContentPolicyIndex policyIndex) {
     this.resourceResolver = resourceResolver;
+    this.mappingIndex = mappingIndex;
+    this.policyIndex = policyIndex;
   }
 
   @Override
@@ -53,9 +75,9 @@ class MockContentPolicyManager implements ContentPolicyManager {
 
   @Override
   public ContentPolicyMapping getPolicyMapping(Resource contentResource) {
-    String resourceType = contentResource.getResourceType();
-    if (StringUtils.isNotBlank(resourceType)) {
-      return MockContentPolicyStorage.getContentPolicyMapping(resourceType, resourceResolver);
+    Resource mappingResource = mappingIndex.resolveMapping(contentResource);
+    if (mappingResource != null) {
+      return mappingResource.adaptTo(ContentPolicyMapping.class);
     }
     return null;
   }
@@ -74,60 +96,133 @@ class MockContentPolicyManager implements ContentPolicyManager {
     return getPolicy(contentResource);
   }
 
-
-  // --- unsupported operations ---
-
+  /**
+   * @param path Absolute path of a policies folder
+   * @return All policies at or below the given path
+   */
   @Override
   public List<ContentPolicy> getPolicies(String path) {
-    throw new UnsupportedOperationException();
+    return getPolicies(path, null);
   }
 
+  /**
+   * @param path Absolute path of a policies folder
+   * @param policyResourceType Resource type of the policies, or null for all
+   * @return All policies at or below the given path with the given resource type
+   */
   @Override
   public List<ContentPolicy> getPolicies(String path, String policyResourceType) {
-    throw new UnsupportedOperationException();
+    return policyIndex.getPolicyPaths(resourceResolver, path).stream()
+        .map(resourceResolver::getResource)
+        .filter(Objects::nonNull)
+        .filter(resource -> StringUtils.isEmpty(policyResourceType) || resource.isResourceType(policyResourceType))
+        .map(MockContentPolicy::new)
+        .collect(Collectors.toList());
   }
 
   @Override
+  @SuppressWarnings("null")
   public ContentPolicy copyPolicy(ContentPolicy originalPolicy, String newTitle, String newDescription) {
-    throw new UnsupportedOperationException();
+    Resource source = resourceResolver.getResource(originalPolicy.getPath());
+    if (source == null || source.getParent() == null) {
+      throw new IllegalArgumentException("Policy does not exist: " + originalPolicy.getPath());
+    }
+    try {
+      Resource parent = source.getParent();
+      Resource copy = copyResource(source, parent, ResourceUtil.createUniqueChildName(parent, source.getName()));
+      ModifiableValueMap props = copy.adaptTo(ModifiableValueMap.class);
+      if (newTitle != null) {
+        props.put(JCR_TITLE, newTitle);
+      }
+      if (newDescription != null) {
+        props.put(JCR_DESCRIPTION, newDescription);
+      }
+      policyIndex.invalidate(resourceResolver, copy.getPath());
+      return new MockContentPolicy(copy);
+    }
+    catch (PersistenceException ex) {
+      throw new RuntimeException("Unable to copy policy " + originalPolicy.getPath(), ex);
+    }
+  }
+
+  private static @NotNull Resource copyResource(@NotNull Resource source, @NotNull Resource destParent, @NotNull String name)
+      throws PersistenceException {
+    Map<String, Object> props = new HashMap<>(source.getValueMap());
+    props.keySet().removeAll(NOT_COPIED_PROPERTIES);
+    Resource copy = source.getResourceResolver().create(destParent, name, props);
+    for (Resource child : source.getChildren()) {
+      copyResource(child, copy, child.getName());
+    }
+    return copy;
   }
 
   @Override
   public List<ContentPolicyMapping> getPolicyMappings(ContentPolicy contentPolicy) {
-    throw new UnsupportedOperationException();
+    return policyIndex.getMappingPaths(resourceResolver, contentPolicy.getPath()).stream()
+        .map(resourceResolver::getResource)
+        .filter(Objects::nonNull)
+        .map(resource -> resource.adaptTo(ContentPolicyMapping.class))
+        .filter(Objects::nonNull)
+        .collect(Collectors.toList());
   }
 
+  /**
+   * @param resource Content resource
+   * @return Path of the policies folder for the resource type of the given resource, in the configuration
+   *         of the template of the page containing the resource
+   */
   @Override
   public String getPolicyLocation(Resource resource) {
-    throw new UnsupportedOperationException();
+    String templatePath = null;
+    Resource pageContent = ContentPolicyMappingIndex.getPageContent(resource);
+    if (pageContent != null) {
+      templatePath = pageContent.getValueMap().get(NameConstants.PN_TEMPLATE, String.class);
+    }
+    return MockContentPolicyStorage.getPoliciesPath(StringUtils.defaultString(templatePath))
+        + "/" + MockContentPolicyStorage.makeResourceTypeRelative(resource.getResourceType());
   }
 
   @Override
   public List<Template> getTemplates(String policyAbsolutePath) {
-    throw new UnsupportedOperationException();
+    return findTemplates(policyAbsolutePath, null);
   }
 
   @Override
   public List<Template> getTemplates(String policyAbsolutePath, Predicate filter) {
-    throw new UnsupportedOperationException();
+    return findTemplates(policyAbsolutePath, filter != null ? filter::evaluate : null);
   }
 
   // AEM Cloud
-  @SuppressWarnings("unused")
-  public boolean isPolicyUsed(String arg0, @Nullable Predicate filter) {
-    throw new UnsupportedOperationException();
+  public boolean isPolicyUsed(String policyAbsolutePath, @Nullable Predicate filter) {
+    return !getTemplates(policyAbsolutePath, filter).isEmpty();
   }
 
   // AEM Cloud
-  @SuppressWarnings("unused")
+  @SuppressWarnings("unchecked")
   public List<Template> getTemplates(String policyAbsolutePath, @Nullable java.util.function.Predicate filter) {
-    throw new UnsupportedOperationException();
+    return findTemplates(policyAbsolutePath, filter);
   }
 
   // AEM Cloud
-  @SuppressWarnings("unused")
+  @SuppressWarnings("unchecked")
   public boolean isPolicyUsed(String policyAbsolutePath, @Nullable java.util.function.Predicate filter) {
-    throw new UnsupportedOperationException();
+    return !findTemplates(policyAbsolutePath, filter).isEmpty();
+  }
+
+  private List<Template> findTemplates(String policyAbsolutePath, @Nullable java.util.function.Predicate<Object> filter) {
+    return policyIndex.getTemplatePaths(resourceResolver, policyAbsolutePath).stream()
+        .map(resourceResolver::getResource)
+        .filter(Objects::nonNull)
+        .map(resource -> resource.adaptTo(Template.class))
+        .filter(Objects::nonNull)
+        .filter(template -> filter == null || filter.test(template))
+        .collect(Collectors.toList());
+  }
+
+  void invalidate(@NotNull String templatePath, @NotNull String mappingPath, @NotNull String policyPath) {
+    mappingIndex.invalidate(resourceResolver, templatePath);
+    policyIndex.invalidate(resourceResolver, mappingPath);
+    policyIndex.invalidate(resourceResolver, policyPath);
   }
 
 }
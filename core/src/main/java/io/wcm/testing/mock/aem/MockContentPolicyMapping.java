@@ -20,7 +20,6 @@
 package io.wcm.testing.mock.aem;
 
 import static com.day.cq.commons.jcr.JcrConstants.JCR_LASTMODIFIED;
-import static io.wcm.testing.mock.aem.MockContentPolicyStorage.MOCK_POLICIES_PATH;
 import static io.wcm.testing.mock.aem.MockContentPolicyStorage.PN_POLICY;
 
 import java.util.Calendar;
@@ -56,7 +55,7 @@ class MockContentPolicyMapping implements ContentPolicyMapping {
   public ContentPolicy getPolicy() {
     String policyRelativePath = resource.getValueMap().get(PN_POLICY, String.class);
     if (StringUtils.isNotBlank(policyRelativePath)) {
-      String policyPath = MOCK_POLICIES_PATH + "/" + policyRelativePath;
+      String policyPath = ContentPolicyIndex.getPolicyPath(getPath(), policyRelativePath);
       Resource policyResource = resourceResolver.getResource(policyPath);
       if (policyResource != null) {
         return new MockContentPolicy(policyResource);
@@ -75,12 +74,16 @@ class MockContentPolicyMapping implements ContentPolicyMapping {
     return resource.getValueMap().get(JCR_LASTMODIFIED, Calendar.class);
   }
 
-
-  // --- unsupported operations ---
-
   @Override
   public Template getTemplate() {
-    throw new UnsupportedOperationException();
+    String templatePath = ContentPolicyIndex.getTemplatePath(getPath());
+    if (templatePath != null) {
+      Resource templateResource = resourceResolver.getResource(templatePath);
+      if (templateResource != null) {
+        return templateResource.adaptTo(Template.class);
+      }
+    }
+    return null;
   }
 
 }
@@ -28,6 +28,7 @@ import static io.wcm.testing.mock.aem.MockTemplate.NN_POLICIES;
 import static io.wcm.testing.mock.aem.MockTemplate.NN_STRUCTURE;
 import static org.apache.sling.api.resource.ResourceResolver.PROPERTY_RESOURCE_TYPE;
 
+import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
@@ -38,14 +39,16 @@ import org.apache.sling.testing.mock.sling.builder.ImmutableValueMap;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import com.day.cq.wcm.api.policies.ContentPolicyManager;
 import com.day.cq.wcm.api.policies.ContentPolicyMapping;
 
 import io.wcm.testing.mock.aem.builder.ContentBuilder;
 
 /**
- * Implements a very simplified storage concept for storing and resolving content policies and
- * their mappings. Basically it stores one global content policy per resource type, and one mapping
- * for it. This is usually enough for unit tests.
+ * Implements a simplified storage concept for storing content policies and their mappings.
+ * Basically it stores one global content policy per resource type, and one mapping for it. This is usually enough for
+ * unit tests. Additionally, policies can be mapped to resource types within a given container path of an editable
+ * template, which take precedence over the global mappings for pages based on this template.
  */
 @SuppressWarnings("java:S112") // allow throwing RuntimException
 public final class MockContentPolicyStorage {
@@ -59,6 +62,9 @@ public final class MockContentPolicyStorage {
   static final String MOCK_TEMPLATE_PATH = "/conf/$aem-mock$/settings/wcm/templates/$mock-template$";
   static final String MOCK_POLICY_NAME = "$mock-policy";
 
+  private static final String TEMPLATES_PATH_PART = "/settings/wcm/templates/";
+  private static final String POLICIES_PATH_PART = "/settings/wcm/policies";
+
   private MockContentPolicyStorage() {
     // static methods only
   }
@@ -83,7 +89,7 @@ public final class MockContentPolicyStorage {
     // store content policy
     String relativePolicyPath = relativeResourceType + "/" + MOCK_POLICY_NAME;
     String policyPath = MOCK_POLICIES_PATH + "/" + relativePolicyPath;
-    storeResource(policyPath, properties, resourceResolver, builder);
+    storeResource(policyPath, toPolicyProperties(properties), resourceResolver, builder);
 
     // store policy mapping
     Map<String, Object> policyMappingProperties = ImmutableValueMap.of(
@@ -92,6 +98,96 @@ public final class MockContentPolicyStorage {
     String policyMappingPath = buildPolicyMappingPath(relativeResourceType);
     Resource mappingResource = storeResource(policyMappingPath, policyMappingProperties, resourceResolver, builder);
 
+    return toContentPolicyMapping(mappingResource, MOCK_TEMPLATE_PATH, policyPath);
+  }
+
+  /**
+   * Creates a content policy with the given properties and maps it to all content resources with the given
+   * resource type within the given container path of pages based on the given editable template.
+   * The content policy is stored in the policies folder of the configuration the template belongs to.
+   * @param templatePath Editable template path, e.g. <code>/conf/app1/settings/wcm/templates/template1</code>.
+   *          The template is created if it does not exist.
+   * @param containerPath Path of the container relative to the page content, e.g. <code>root/container</code>.
+   *          Pass an empty string to map the resource type for the whole page.
+   * @param resourceType Resource type that should be mapped to the content policy
+   * @param properties Properties for the content policy
+   * @param resourceResolver Resource resolver
+   * @return New content policy mapping
+   */
+  public static @NotNull ContentPolicyMapping storeContentPolicyMapping(@NotNull String templatePath,
+      @NotNull String containerPath, @NotNull String resourceType,
+      @NotNull Map<String, Object> properties, @NotNull ResourceResolver resourceResolver) {
+    if (!StringUtils.contains(templatePath, TEMPLATES_PATH_PART)) {
+      throw new IllegalArgumentException("Not an editable template path: " + templatePath);
+    }
+    String relativeResourceType = makeResourceTypeRelative(resourceType);
+    String relativeContainerPath = StringUtils.strip(containerPath, "/");
+    String templateName = StringUtils.substringAfterLast(templatePath, "/");
+
+    ContentBuilder builder = new ContentBuilder(resourceResolver);
+    ensureTemplate(templatePath, resourceResolver, builder);
+
+    // store content policy in the policies folder of the template's configuration
+    String policyName = MOCK_POLICY_NAME + "-" + templateName
+        + (StringUtils.isEmpty(relativeContainerPath) ? "" : "-" + StringUtils.replace(relativeContainerPath, "/", "-"));
+    String relativePolicyPath = relativeResourceType + "/" + policyName;
+    String policyPath = getPoliciesPath(templatePath) + "/" + relativePolicyPath;
+    storeResource(policyPath, toPolicyProperties(properties), resourceResolver, builder);
+
+    // store policy mapping
+    Map<String, Object> policyMappingProperties = ImmutableValueMap.of(
+        PROPERTY_RESOURCE_TYPE, RT_CONTENT_POLICY_MAPPING,
+        PN_POLICY, relativePolicyPath);
+    String policyMappingPath = templatePath + "/" + NN_POLICIES + "/" + JCR_CONTENT + "/"
+        + (StringUtils.isEmpty(relativeContainerPath) ? "" : relativeContainerPath + "/") + relativeResourceType;
+    Resource mappingResource = storeResource(policyMappingPath, policyMappingProperties, resourceResolver, builder);
+
+    return toContentPolicyMapping(mappingResource, templatePath, policyPath);
+  }
+
+  /**
+   * Policies are stored in the configuration of the template the mapping belongs to.
+   * @param path Template path or path within a template
+   * @return Path of policies folder
+   */
+  static @NotNull String getPoliciesPath(@NotNull String path) {
+    if (StringUtils.contains(path, TEMPLATES_PATH_PART)) {
+      return StringUtils.substringBefore(path, TEMPLATES_PATH_PART) + POLICIES_PATH_PART;
+    }
+    return MOCK_POLICIES_PATH;
+  }
+
+  /**
+   * Templates referencing policies are stored in the configuration the policies belong to.
+   * @param policyPath Policy path
+   * @return Path of templates folder, or <code>/conf</code> if the policy path is not within a configuration
+   */
+  static @NotNull String getTemplatesPath(@NotNull String policyPath) {
+    if (StringUtils.contains(policyPath, POLICIES_PATH_PART)) {
+      return StringUtils.substringBefore(policyPath, POLICIES_PATH_PART) + StringUtils.removeEnd(TEMPLATES_PATH_PART, "/");
+    }
+    return ContentPolicyIndex.CONF_ROOT;
+  }
+
+  private static @NotNull Map<String, Object> toPolicyProperties(@NotNull Map<String, Object> properties) {
+    if (properties.containsKey(PROPERTY_RESOURCE_TYPE)) {
+      return properties;
+    }
+    Map<String, Object> policyProperties = new HashMap<>(properties);
+    policyProperties.put(PROPERTY_RESOURCE_TYPE, RT_CONTENTPOLICY);
+    return policyProperties;
+  }
+
+  private static @NotNull ContentPolicyMapping toContentPolicyMapping(@NotNull Resource mappingResource,
+      @NotNull String templatePath, @NotNull String policyPath) {
+    ResourceResolver resourceResolver = mappingResource.getResourceResolver();
+
+    // make sure new mapping and policy are visible for policy resolution
+    ContentPolicyManager contentPolicyManager = resourceResolver.adaptTo(ContentPolicyManager.class);
+    if (contentPolicyManager instanceof MockContentPolicyManager) {
+      ((MockContentPolicyManager)contentPolicyManager).invalidate(templatePath, mappingResource.getPath(), policyPath);
+    }
+
     ContentPolicyMapping mapping = mappingResource.adaptTo(ContentPolicyMapping.class);
     if (mapping == null) {
       throw new RuntimeException("Unable to map to ContentPolicyMapping.");
@@ -157,9 +253,20 @@ public final class MockContentPolicyStorage {
    * @param builder Content builder
    */
   private static void ensureMockTemplate(@NotNull ResourceResolver resourceResolver, @NotNull ContentBuilder builder) {
-    Resource template = resourceResolver.getResource(MOCK_TEMPLATE_PATH);
+    ensureTemplate(MOCK_TEMPLATE_PATH, resourceResolver, builder);
+  }
+
+  /**
+   * Ensures that the template to store policy mappings in exits. If not, it is created.
+   * @param templatePath Template path
+   * @param resourceResolver Resource resolver
+   * @param builder Content builder
+   */
+  private static void ensureTemplate(@NotNull String templatePath, @NotNull ResourceResolver resourceResolver,
+      @NotNull ContentBuilder builder) {
+    Resource template = resourceResolver.getResource(templatePath);
     if (template == null) {
-      template = builder.resource(MOCK_TEMPLATE_PATH,
+      template = builder.resource(templatePath,
           JCR_PRIMARYTYPE, NT_TEMPLATE);
       builder.resource(template, JCR_CONTENT,
           JCR_PRIMARYTYPE, "cq:PageContent",
@@ -175,7 +282,7 @@ public final class MockContentPolicyStorage {
    * @param resourceType Resource type
    * @return Relative resource type
    */
-  private static @NotNull String makeResourceTypeRelative(@NotNull String resourceType) {
+  static @NotNull String makeResourceTypeRelative(@NotNull String resourceType) {
     if (StringUtils.startsWith(resourceType, "/apps/")) {
       return StringUtils.substringAfter(resourceType, "/apps/");
     }
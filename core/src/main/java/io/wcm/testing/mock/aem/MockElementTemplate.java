@@ -20,9 +20,11 @@
 package io.wcm.testing.mock.aem;
 
 import java.util.Map;
+import java.util.function.Supplier;
 
-import org.apache.sling.api.resource.ModifiableValueMap;
 import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ValueMap;
+import org.apache.sling.api.wrappers.ValueMapDecorator;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -31,19 +33,28 @@ import com.adobe.cq.dam.cfm.ElementTemplate;
 
 public class MockElementTemplate implements ElementTemplate {
 
-   private final Resource elementTemplateResource;
-   private final ModifiableValueMap elementValueMap;
+   private final Supplier<Resource> elementTemplateResource;
+   private final ValueMap elementValueMap;
 
    MockElementTemplate(final Resource elementTemplateResource) {
+      this(() -> elementTemplateResource, elementTemplateResource.getValueMap());
+   }
+
+   /**
+    * @param elementTemplateResource Resolves the element template resource on demand
+    * @param elementProps Element template properties
+    */
+   MockElementTemplate(final Supplier<Resource> elementTemplateResource, final Map<String, Object> elementProps) {
       this.elementTemplateResource = elementTemplateResource;
-      elementValueMap = elementTemplateResource.adaptTo(ModifiableValueMap.class);
+      // keep a snapshot of the properties, element templates are built from compiled fragment templates
+      elementValueMap = new ValueMapDecorator(Map.copyOf(elementProps));
    }
 
    @SuppressWarnings("unchecked")
    @Override
    public <AdapterType> @Nullable AdapterType adaptTo(@NotNull final Class<AdapterType> type) {
       if (type == Resource.class) {
-         return (@Nullable AdapterType) elementTemplateResource;
+         return (@Nullable AdapterType) elementTemplateResource.get();
       }
       return null;
    }
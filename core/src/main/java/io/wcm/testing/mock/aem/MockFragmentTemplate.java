@@ -20,19 +20,12 @@
 package io.wcm.testing.mock.aem;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.sling.api.resource.ModifiableValueMap;
 import org.apache.sling.api.resource.PersistenceException;
 import org.apache.sling.api.resource.Resource;
-import org.apache.sling.api.resource.ResourceResolver;
-import org.apache.sling.api.resource.ResourceUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -44,39 +37,19 @@ import com.adobe.cq.dam.cfm.ElementTemplate;
 import com.adobe.cq.dam.cfm.FragmentTemplate;
 import com.adobe.cq.dam.cfm.MetaDataDefinition;
 import com.adobe.cq.dam.cfm.VariationTemplate;
-import com.day.cq.commons.jcr.JcrConstants;
 import com.day.cq.commons.jcr.JcrUtil;
-import com.day.cq.dam.api.DamConstants;
-import com.day.cq.wcm.api.NameConstants;
 
 public class MockFragmentTemplate implements FragmentTemplate {
 
    private final Resource templateResource;
-   private final Resource contentResource;
-   private final ModifiableValueMap contentProps;
+   private final CompiledFragmentTemplate compiledTemplate;
    private final List<ElementTemplate> elementTemplates;
 
-   MockFragmentTemplate(final Resource templateResource) {
+   MockFragmentTemplate(final Resource templateResource, final ResourcePathCache<CompiledFragmentTemplate> templateCache) {
       this.templateResource = templateResource;
-      contentResource = templateResource.getChild(JcrConstants.JCR_CONTENT);
-      if (contentResource == null) {
-         throw new IllegalArgumentException("Missing jcr:content node.");
-      }
-
-      contentProps = contentResource.adaptTo(ModifiableValueMap.class);
-
-      final Resource modelResource = contentResource.getChild("model");
-      if (modelResource == null) {
-         throw new IllegalArgumentException("Missing jcr:content/model node.");
-      }
-
-      final Resource itemsResource = modelResource.getChild("cq:dialog/content/items");
-      if (itemsResource == null) {
-         throw new IllegalArgumentException(
-               "could not find cq:dialog/content/items on content fragment template '" + templateResource.getPath() + "'");
-      }
-      elementTemplates = StreamSupport.stream(itemsResource.getChildren().spliterator(), false).map(MockElementTemplate::new)
-            .collect(Collectors.toList());
+      compiledTemplate = templateCache.get(templateResource, CompiledFragmentTemplate::compile,
+            compiled -> compiled.isUpToDate(templateResource));
+      elementTemplates = compiledTemplate.getElementTemplates(templateResource);
    }
 
    @SuppressWarnings("unchecked")
@@ -91,27 +64,21 @@ public class MockFragmentTemplate implements FragmentTemplate {
 
    @Override
    public String getTitle() {
-      return contentProps.get(JcrConstants.JCR_TITLE, String.class);
+      return compiledTemplate.getTitle();
    }
 
    @Override
    public String getDescription() {
-      return contentProps.get(JcrConstants.JCR_DESCRIPTION, String.class);
+      return compiledTemplate.getDescription();
    }
 
    @Override
    public String getThumbnailPath() {
-      final Resource thumbnailResource = templateResource.getChild(NameConstants.NN_THUMBNAIL_PNG);
-      if (thumbnailResource != null) {
-         return thumbnailResource.getPath();
-      }
-      return null;
+      return compiledTemplate.getThumbnailPath();
    }
 
    @Override
    public ContentFragment createFragment(final Resource parent, final String name, final String title) throws ContentFragmentException {
-      final ResourceResolver resourceResolver = templateResource.getResourceResolver();
-
       if (parent == null) {
          throw new ContentFragmentException("empty parent submitted");
       }
@@ -128,34 +95,11 @@ public class MockFragmentTemplate implements FragmentTemplate {
          throw new IllegalArgumentException("Illegal content fragment name name.");
       }
 
-      // use a unique variant of content fragement if a node with the given name already exists
-      try {
-         childResourceName = ResourceUtil.createUniqueChildName(parent, childResourceName);
-      } catch (final PersistenceException ex) {
-         throw new ContentFragmentException("Unable to get unique child name.", ex);
-      }
-
+      // create all nodes of the content fragment as planned by the compiled template,
+      // using a unique variant of content fragment name if a node with the given name already exists
       Resource fragmentResource;
       try {
-         // content fragement node
-         Map<String, Object> props = new HashMap<>();
-         props.put(JcrConstants.JCR_PRIMARYTYPE, DamConstants.NT_DAM_ASSET);
-         fragmentResource = resourceResolver.create(parent, childResourceName, props);
-
-         // content fragment content node
-         props = new HashMap<>();
-         props.put(JcrConstants.JCR_PRIMARYTYPE, DamConstants.NT_DAM_ASSETCONTENT);
-         props.put(JcrConstants.JCR_TITLE, title);
-         final Resource fragmentContentResource = resourceResolver.create(fragmentResource, JcrConstants.JCR_CONTENT, props);
-
-         props = new HashMap<>();
-         props.put(JcrConstants.JCR_PRIMARYTYPE, JcrConstants.NT_UNSTRUCTURED);
-         props.put("cq:model", templateResource.getPath());
-         final Resource dataResource = resourceResolver.create(fragmentContentResource, "data", props);
-
-         resourceResolver.create(fragmentContentResource, DamConstants.METADATA_FOLDER, Map.of());
-
-         resourceResolver.create(dataResource, "master", Map.of());
+         fragmentResource = compiledTemplate.createFragment(parent, childResourceName, title);
       } catch (final PersistenceException ex) {
          throw new ContentFragmentException("Creating page failed at :" + parent.getPath() + "/" + childResourceName + " failed.", ex);
       }
@@ -194,4 +138,8 @@ public class MockFragmentTemplate implements FragmentTemplate {
       return null;
    }
 
+   CompiledFragmentTemplate getCompiledTemplate() {
+      return compiledTemplate;
+   }
+
 }
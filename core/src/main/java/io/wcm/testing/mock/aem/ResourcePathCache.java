@@ -0,0 +1,103 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Caches objects derived from repository content per resource resolver and resource path.
+ * Entries are invalidated explicitly, or when a resource change event is received for the resource or one
+ * of its descendants. RESOURCERESOLVER_MOCK and JCR_MOCK send no resource change events and JCR_OAK sends them
+ * asynchronously, so callers should pass a validator that checks cached entries against the repository.
+ * @param <T> Cached object type
+ */
+final class ResourcePathCache<T> {
+
+  private final Map<ResourceResolver, Map<String, T>> entries =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
+  /**
+   * @param resource Resource
+   * @param loader Builds the object if it is not cached yet
+   * @return Cached or newly built object
+   */
+  @NotNull
+  T get(@NotNull Resource resource, @NotNull Function<Resource, T> loader) {
+    return get(resource, loader, cached -> true);
+  }
+
+  /**
+   * @param resource Resource
+   * @param loader Builds the object if it is not cached yet or no longer valid
+   * @param validator Checks if a cached object is still valid
+   * @return Cached or newly built object
+   */
+  @NotNull
+  T get(@NotNull Resource resource, @NotNull Function<Resource, T> loader, @NotNull Predicate<T> validator) {
+    Map<String, T> resolverEntries = entries.computeIfAbsent(resource.getResourceResolver(), resolver -> new ConcurrentHashMap<>());
+    T value = resolverEntries.get(resource.getPath());
+    if (value == null || !validator.test(value)) {
+      value = loader.apply(resource);
+      resolverEntries.put(resource.getPath(), value);
+    }
+    return value;
+  }
+
+  /**
+   * Invalidate entry of a single resource.
+   * @param resourceResolver Resource resolver
+   * @param path Resource path
+   */
+  void invalidate(@NotNull ResourceResolver resourceResolver, @NotNull String path) {
+    Map<String, T> resolverEntries = entries.get(resourceResolver);
+    if (resolverEntries != null) {
+      resolverEntries.remove(path);
+    }
+  }
+
+  /**
+   * Invalidate entries of all resources that contain or are contained in the given path.
+   * @param path Changed resource path
+   */
+  void invalidate(@NotNull String path) {
+    List<Map<String, T>> allEntries;
+    synchronized (entries) {
+      allEntries = new ArrayList<>(entries.values());
+    }
+    for (Map<String, T> resolverEntries : allEntries) {
+      resolverEntries.keySet().removeIf(entryPath -> StringUtils.equals(entryPath, path)
+          || StringUtils.startsWith(path, entryPath + "/")
+          || StringUtils.startsWith(entryPath, path + "/"));
+    }
+  }
+
+}
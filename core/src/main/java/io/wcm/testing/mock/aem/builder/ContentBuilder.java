@@ -28,8 +28,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.security.AccessControlException;
+import java.util.Calendar;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.sling.api.resource.ModifiableValueMap;
@@ -44,7 +47,6 @@ import org.apache.sling.testing.mock.sling.loader.ContentLoader;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.osgi.annotation.versioning.ProviderType;
-import org.osgi.service.event.EventAdmin;
 
 import com.adobe.cq.dam.cfm.ContentFragment;
 import com.day.cq.commons.jcr.JcrConstants;
@@ -64,6 +66,7 @@ import com.day.image.Layer;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.wcm.testing.mock.aem.context.AemContextImpl;
+import io.wcm.testing.mock.aem.dam.MockDamEventDispatcher;
 
 /**
  * Helper class for building test content in the resource hierarchy with as less boilerplate code as possible.
@@ -80,7 +83,7 @@ public final class ContentBuilder extends org.apache.sling.testing.mock.sling.bu
   private static final String MIMETYPE_SVG = "image/svg+xml";
 
   // cache generated dummy images in cache because often the a dummy image with the same parameter is reused.
-  private static final Map<String, byte[]> DUMMY_IMAGE_CACHE = new HashMap<>();
+  private static final ConcurrentMap<String, byte[]> DUMMY_IMAGE_CACHE = new ConcurrentHashMap<>();
 
   private final @Nullable AemContextImpl context;
 
@@ -393,15 +396,14 @@ public final class ContentBuilder extends org.apache.sling.testing.mock.sling.bu
    */
   public static @NotNull InputStream createDummyImage(long width, long height, String mimeType) {
     String key = width + "x" + height + ":" + mimeType;
-    byte[] data = DUMMY_IMAGE_CACHE.get(key);
-    if (data == null) {
+    byte[] data = DUMMY_IMAGE_CACHE.computeIfAbsent(key, k -> {
       if (StringUtils.equals(mimeType, MIMETYPE_SVG)) {
-        data = createDummySVGImage(width, height);
+        return createDummySVGImage(width, height);
       }
       else {
-        data = createDummyRasterImage(width, height, mimeType);
+        return createDummyRasterImage(width, height, mimeType);
       }
-    }
+    });
     return new ByteArrayInputStream(data);
   }
 
@@ -555,7 +557,8 @@ public final class ContentBuilder extends org.apache.sling.testing.mock.sling.bu
       @Nullable Map<String, Object> data) {
     // create asset
     resource(path, JcrConstants.JCR_PRIMARYTYPE, DamConstants.NT_DAM_ASSET);
-    resource(path + "/" + JcrConstants.JCR_CONTENT, JcrConstants.JCR_PRIMARYTYPE, DamConstants.NT_DAM_ASSETCONTENT);
+    resource(path + "/" + JcrConstants.JCR_CONTENT, JcrConstants.JCR_PRIMARYTYPE, DamConstants.NT_DAM_ASSETCONTENT,
+        JcrConstants.JCR_LASTMODIFIED, Calendar.getInstance());
     String renditionsPath = path + "/" + JcrConstants.JCR_CONTENT + "/" + DamConstants.RENDITIONS_FOLDER;
     resource(renditionsPath, JcrConstants.JCR_PRIMARYTYPE, JcrConstants.NT_FOLDER);
 
@@ -589,9 +592,9 @@ public final class ContentBuilder extends org.apache.sling.testing.mock.sling.bu
 
     // send DamEvent after asset creation
     if (context != null) {
-      EventAdmin eventAdmin = context.getService(EventAdmin.class);
-      if (eventAdmin != null) {
-        eventAdmin.sendEvent(DamEvent.assetCreated(path, resourceResolver.getUserID()).toEvent());
+      MockDamEventDispatcher eventDispatcher = context.getService(MockDamEventDispatcher.class);
+      if (eventDispatcher != null) {
+        eventDispatcher.dispatch(DamEvent.assetCreated(path, resourceResolver.getUserID()));
       }
     }
 
@@ -19,22 +19,35 @@
  */
 package io.wcm.testing.mock.aem.context;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import org.apache.sling.api.SlingHttpServletRequest;
+import org.apache.sling.api.resource.PersistenceException;
 import org.apache.sling.api.resource.Resource;
 import org.apache.sling.api.resource.ResourceResolverFactory;
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.api.resource.observation.ResourceChangeListener;
 import org.apache.sling.testing.mock.osgi.MapUtil;
+import org.apache.sling.testing.mock.osgi.context.ContextCallback;
 import org.apache.sling.testing.mock.sling.ResourceResolverType;
 import org.apache.sling.testing.mock.sling.context.SlingContextImpl;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.osgi.annotation.versioning.ConsumerType;
+import org.osgi.service.event.EventConstants;
+import org.osgi.service.event.EventHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.day.cq.dam.api.AssetManager;
+import com.day.cq.dam.api.DamEvent;
 import com.day.cq.wcm.api.Page;
 import com.day.cq.wcm.api.PageManager;
 import com.day.cq.wcm.api.components.ComponentContext;
@@ -54,6 +67,8 @@ import io.wcm.testing.mock.aem.builder.ContentBuilder;
 import io.wcm.testing.mock.aem.dam.MockAemDamAdapterFactory;
 import io.wcm.testing.mock.aem.dam.MockAssetHandler;
 import io.wcm.testing.mock.aem.dam.MockAssetStore;
+import io.wcm.testing.mock.aem.dam.MockDamEventDispatcher;
+import io.wcm.testing.mock.aem.dam.MockDamEventDispatcher.DispatchMode;
 import io.wcm.testing.mock.aem.dam.MockPublishUtils;
 import io.wcm.testing.mock.aem.granite.MockResourceCollectionManager;
 import io.wcm.testing.mock.aem.xf.MockExperienceFragmentAdapterFactory;
@@ -66,32 +81,90 @@ import io.wcm.testing.mock.aem.xf.MockExperienceFragmentAdapterFactory;
 @SuppressWarnings("java:S112") // allow throwing RuntimException
 public class AemContextImpl extends SlingContextImpl {
 
+  private static final Logger log = LoggerFactory.getLogger(AemContextImpl.class);
+
   // default to publish instance run mode
   static final Set<String> DEFAULT_RUN_MODES = Collections.singleton("publish");
 
+  private final List<ContextCallback<?>> contentFixtures = new ArrayList<>();
+  private ContextBaseline baseline;
+  private boolean lazyDefaultServices;
+  private boolean timingsEnabled;
+  private ContextTimings timings;
+  private RepositoryMetrics repositoryMetrics;
+
   @Override
   protected void registerDefaultServices() {
     // register default services from osgi-mock and sling-mock
+    long start = startPhase();
     super.registerDefaultServices();
+    endPhase(ContextPhase.SLING_DEFAULT_SERVICES, start);
+
+    start = startPhase();
+    // registered eagerly - it has to be deactivated on shutdown to stop its event dispatcher thread
+    registerInjectActivateService(new MockDamEventDispatcher());
 
     // adapter factories
-    registerInjectActivateService(new MockAemAdapterFactory());
-    registerInjectActivateService(new MockAemDamAdapterFactory());
-    registerInjectActivateService(new MockLayerAdapterFactory());
-    registerInjectActivateService(new MockExperienceFragmentAdapterFactory());
+    registerDefaultService(MockAemAdapterFactory.class, MockAemAdapterFactory::new);
+    registerDefaultService(MockAemDamAdapterFactory.class, MockAemDamAdapterFactory::new);
+    registerDefaultService(MockLayerAdapterFactory.class, MockLayerAdapterFactory::new);
+    registerDefaultService(MockExperienceFragmentAdapterFactory.class, MockExperienceFragmentAdapterFactory::new);
 
     // other services
-    registerInjectActivateService(new MockAssetHandler());
-    registerInjectActivateService(new MockAssetStore());
-    registerInjectActivateService(new MockPublishUtils());
+    registerDefaultService(MockAssetHandler.class, MockAssetHandler::new);
+    registerDefaultService(MockAssetStore.class, MockAssetStore::new);
+    registerDefaultService(MockPublishUtils.class, MockPublishUtils::new);
     registerInjectActivateService(new MockAemBindingsValuesProvider(),
         MockAemBindingsValuesProvider.PROPERTY_CONTEXT, this);
-    registerInjectActivateService(new MockPageManagerFactory());
-    registerInjectActivateService(new MockLanguageManager());
-    registerInjectActivateService(new MockResourceCollectionManager());
-    registerInjectActivateService(new MockSlingModelFilter());
-    registerInjectActivateService(new MockExternalizer());
-    registerInjectActivateService(new MockJcrTagManagerFactory());
+    registerDefaultService(MockPageManagerFactory.class, MockPageManagerFactory::new);
+    registerDefaultService(MockLanguageManager.class, MockLanguageManager::new);
+    registerDefaultService(MockResourceCollectionManager.class, MockResourceCollectionManager::new);
+    registerDefaultService(MockSlingModelFilter.class, MockSlingModelFilter::new);
+    registerDefaultService(MockExternalizer.class, MockExternalizer::new);
+    registerDefaultService(MockJcrTagManagerFactory.class, MockJcrTagManagerFactory::new);
+
+    if (repositoryMetrics != null) {
+      registerService(EventHandler.class, event -> repositoryMetrics.increment(RepositoryOperation.DAM_EVENTS),
+          EventConstants.EVENT_TOPIC, DamEvent.EVENT_TOPIC);
+    }
+    endPhase(ContextPhase.AEM_DEFAULT_SERVICES, start);
+  }
+
+  private <T> void registerDefaultService(@NotNull Class<T> serviceClass, @NotNull Supplier<T> serviceFactory) {
+    if (!lazyDefaultServices || !LazyService.register(bundleContext(), serviceClass, serviceFactory)) {
+      registerInjectActivateService(serviceFactory.get());
+    }
+  }
+
+  /**
+   * Enables lazy registration of the default AEM services. If enabled, the default services that are registered
+   * with service interfaces only are registered as proxies, and the service instances are created and activated
+   * on first usage. The service objects returned by {@link #getService(Class)} are proxies in this case and cannot
+   * be cast to the mock implementation classes. Must be set before the context is set up.
+   * @param lazyDefaultServices Lazy registration of default services
+   */
+  protected final void setLazyDefaultServices(boolean lazyDefaultServices) {
+    this.lazyDefaultServices = lazyDefaultServices;
+  }
+
+  /**
+   * Enables counting of the repository operations executed via the resource resolver of this context.
+   * Must be set before the context is set up.
+   * @param repositoryMetricsEnabled Count repository operations
+   */
+  protected final void setRepositoryMetricsEnabled(boolean repositoryMetricsEnabled) {
+    this.repositoryMetrics = repositoryMetricsEnabled ? new RepositoryMetrics() : null;
+  }
+
+  /**
+   * @return Counters for the repository operations executed via the resource resolver of this context
+   * @throws IllegalStateException if repository metrics are not enabled for this context
+   */
+  public final @NotNull RepositoryMetrics repositoryMetrics() {
+    if (repositoryMetrics == null) {
+      throw new IllegalStateException("Repository metrics are not enabled for this context.");
+    }
+    return repositoryMetrics;
   }
 
   @Override
@@ -101,17 +174,190 @@ public class AemContextImpl extends SlingContextImpl {
 
   @Override
   protected @NotNull ResourceResolverFactory newResourceResolverFactory() {
-    return ContextResourceResolverFactory.get(this.resourceResolverType, bundleContext());
+    long start = startPhase();
+    ResourceResolverFactory factory = ContextResourceResolverFactory.get(this.resourceResolverType, bundleContext());
+    if (repositoryMetrics != null) {
+      factory = new MetricsResourceResolverFactory(factory, repositoryMetrics, bundleContext());
+    }
+    endPhase(ContextPhase.RESOURCE_RESOLVER_FACTORY, start);
+    return factory;
   }
 
   @Override
   protected void setUp() {
     super.setUp();
+    applyContentFixtures();
+  }
+
+  /**
+   * Registers a content fixture that is applied when the context is set up, after the built-in setup rules are
+   * executed. For resource resolver types that support it the repository content created by the fixture is captured
+   * once and copied into the repository of each following context with the same fixture - so the fixture callback
+   * is only executed once per JVM. Fixtures are identified by their class and field values (including values captured
+   * by lambda expressions), so they should only create repository content and produce the same content on each
+   * execution.
+   * @param contentFixture Content fixture callback
+   */
+  protected final void addContentFixture(@NotNull ContextCallback<?> contentFixture) {
+    contentFixtures.add(contentFixture);
+  }
+
+  /**
+   * Captures the current state of the context as baseline for {@link #resetToBaseline()}.
+   * This is only supported for resource resolver types with an in-memory repository (RESOURCERESOLVER_MOCK,
+   * JCR_MOCK and JCR_OAK), for all other types the context cannot be reset.
+   */
+  protected final void captureBaseline() {
+    try {
+      baseline = ContextBaseline.capture(this);
+    }
+    catch (IOException ex) {
+      throw new RuntimeException("Unable to capture context baseline.", ex);
+    }
+  }
+
+  /**
+   * Resets the context to the baseline captured with {@link #captureBaseline()}, so it can be reused by another test
+   * instead of tearing it down and setting up a new one. The repository content is reset, resource resolver,
+   * request and response are replaced, and the run modes and the DAM event dispatch mode are reset to their defaults.
+   * The default services and the Sling Models registrations are kept.
+   * <p>
+   * The context cannot be reset if services were registered after capturing the baseline. In this case, or if
+   * the repository content cannot be reset, false is returned and the context has to be teared down. Unexpected
+   * runtime exceptions are not caught.
+   * </p>
+   * @return true if the context was reset
+   */
+  protected final boolean resetToBaseline() {
+    long start = startPhase();
+    boolean reset = resetRepositoryAndContextObjects();
+    endPhase(ContextPhase.RESET, start);
+    return reset;
+  }
+
+  private boolean resetRepositoryAndContextObjects() {
+    if (baseline == null || !baseline.beginReset(this)) {
+      return false;
+    }
+    try {
+      List<ResourceChange> changes = baseline.resetRepository(resourceResolver());
+      resourceResolver.close();
+
+      // context objects are created again lazily
+      resourceResolver = null;
+      request = null;
+      response = null;
+      slingScriptHelper = null;
+      contentLoader = null;
+      contentLoaderAutoCommit = null;
+      contentBuilder = null;
+      resourceBuilder = null;
+      uniqueRoot = null;
+
+      runMode(DEFAULT_RUN_MODES.toArray(new String[0]));
+      if (repositoryMetrics != null) {
+        repositoryMetrics.reset();
+      }
+      MockDamEventDispatcher damEventDispatcher = getService(MockDamEventDispatcher.class);
+      if (damEventDispatcher != null) {
+        damEventDispatcher.setDispatchMode(DispatchMode.SYNC);
+      }
+
+      if (!changes.isEmpty()) {
+        for (ResourceChangeListener listener : getServices(ResourceChangeListener.class, null)) {
+          listener.onChange(changes);
+        }
+      }
+      return true;
+    }
+    catch (PersistenceException ex) {
+      // the context is teared down and set up again instead
+      log.warn("Unable to reset repository to baseline.", ex);
+      return false;
+    }
+  }
+
+  private void applyContentFixtures() {
+    if (contentFixtures.isEmpty()) {
+      return;
+    }
+    long start = startPhase();
+    for (ContextCallback<?> contentFixture : contentFixtures) {
+      try {
+        ContentFixtures.apply(this, contentFixture);
+      }
+      // CHECKSTYLE:OFF
+      catch (Exception ex) {
+        // CHECKSTYLE:ON
+        throw new RuntimeException("Content fixture failed: " + ex.getMessage(), ex);
+      }
+    }
+    endPhase(ContextPhase.CONTENT_FIXTURES, start);
   }
 
   @Override
   protected void tearDown() {
+    long start = startPhase();
+    if (lazyDefaultServices) {
+      LazyService.deactivateAll(bundleContext());
+    }
     super.tearDown();
+    endPhase(ContextPhase.TEAR_DOWN, start);
+  }
+
+  /**
+   * Enables recording of the lifecycle phase timings for this context, even if no {@link ContextTimingListener}
+   * is registered. The timings are available via {@link #getTimings()}.
+   * @param timingsEnabled Record timings
+   */
+  protected final void setTimingsEnabled(boolean timingsEnabled) {
+    this.timingsEnabled = timingsEnabled;
+  }
+
+  /**
+   * @return Lifecycle phase timings recorded for the current test, or null if no timings are recorded
+   */
+  public final @Nullable ContextTimings getTimings() {
+    return timings;
+  }
+
+  /**
+   * Executes the given action and records its duration for the given lifecycle phase - if timings are recorded.
+   * @param phase Context phase
+   * @param action Action
+   */
+  protected final void measurePhase(@NotNull ContextPhase phase, @NotNull Runnable action) {
+    long start = startPhase();
+    action.run();
+    endPhase(phase, start);
+  }
+
+  long startPhase() {
+    if (timings == null) {
+      if (!timingsEnabled && !ContextTimings.hasListeners()) {
+        return 0L;
+      }
+      timings = new ContextTimings();
+    }
+    return System.nanoTime();
+  }
+
+  void endPhase(@NotNull ContextPhase phase, long start) {
+    if (timings != null) {
+      timings.record(phase, System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Completes the timings recorded for the current test and notifies the registered {@link ContextTimingListener}s.
+   * Is called after the context is torn down or reset for reuse, and after the context plugin callbacks are executed.
+   */
+  protected final void completeTimings() {
+    if (timings != null) {
+      ContextTimings completedTimings = timings;
+      timings = null;
+      ContextTimings.notifyListeners(this, completedTimings);
+    }
   }
 
   /**
@@ -203,6 +449,25 @@ public class AemContextImpl extends SlingContextImpl {
     return (ContentBuilder)this.contentBuilder;
   }
 
+  /**
+   * Loader for JSON content that keeps the parsed files JVM-wide, so importing the same file in other tests
+   * skips reading and parsing it again. Changes are committed automatically.
+   * @return Cached content loader
+   */
+  public final @NotNull CachedContentLoader loadCached() {
+    return loadCached(true);
+  }
+
+  /**
+   * Loader for JSON content that keeps the parsed files JVM-wide, so importing the same file in other tests
+   * skips reading and parsing it again.
+   * @param autoCommit Automatically commit changes after loading content
+   * @return Cached content loader
+   */
+  public final @NotNull CachedContentLoader loadCached(boolean autoCommit) {
+    return new CachedContentLoader(resourceResolver(), resourceResolverType(), autoCommit);
+  }
+
   @Override
   public @Nullable Resource currentResource(@Nullable Resource resource) {
     Resource result = super.currentResource(resource);
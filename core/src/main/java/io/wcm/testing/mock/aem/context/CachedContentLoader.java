@@ -0,0 +1,349 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem.context;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.jcr.Node;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.sling.api.resource.ModifiableValueMap;
+import org.apache.sling.api.resource.PersistenceException;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceUtil;
+import org.apache.sling.contentparser.api.ContentParser;
+import org.apache.sling.contentparser.api.ParserOptions;
+import org.apache.sling.contentparser.json.JSONParserFeature;
+import org.apache.sling.contentparser.json.JSONParserOptions;
+import org.apache.sling.contentparser.json.internal.JSONContentParser;
+import org.apache.sling.testing.mock.sling.ResourceResolverType;
+import org.apache.sling.testing.mock.sling.loader.ContentLoader;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.osgi.annotation.versioning.ProviderType;
+
+import com.day.cq.commons.jcr.JcrConstants;
+
+/**
+ * Imports JSON content from the classpath like {@link ContentLoader#json(String, String)}, but keeps the parsed
+ * content JVM-wide in an immutable form.
+ * <p>
+ * The first import of a classpath resource reads and parses the file, all following imports of the same file (in any
+ * AEM context) create the resources directly from the parsed content. The cache entry is keyed by the resource URL
+ * and refreshed when the last-modified time of the file changes.
+ * </p>
+ * <p>
+ * Use {@link AemContextImpl#loadCached()} to get an instance.
+ * </p>
+ */
+@ProviderType
+public final class CachedContentLoader {
+
+  // same names as ignored by ContentLoader
+  private static final Set<String> SHARED_IGNORED_NAMES = Set.of(
+      "jcr:baseVersion", "jcr:predecessors", "jcr:successors", "jcr:versionHistory",
+      "jcr:checkedOut", "jcr:isCheckedOut", "rep:policy");
+  private static final Set<String> MOCK_IGNORED_NAMES = union(SHARED_IGNORED_NAMES, Set.of(JcrConstants.JCR_MIXINTYPES));
+  private static final Set<String> OAK_IGNORED_NAMES = union(SHARED_IGNORED_NAMES, Set.of(JcrConstants.JCR_UUID, JcrConstants.JCR_CREATED));
+
+  private static final String JCR_DATA_PLACEHOLDER = ":jcr:data";
+  private static final String JCR_REFERENCE_PLACEHOLDER = ":jcr:content";
+
+  private static final ContentParser JSON_PARSER = new JSONContentParser();
+  private static final ConcurrentMap<String, ParsedContent> PARSED_CONTENT = new ConcurrentHashMap<>();
+
+  private final ResourceResolver resourceResolver;
+  private final boolean autoCommit;
+  private final Set<String> ignoredNames;
+
+  CachedContentLoader(@NotNull ResourceResolver resourceResolver, @Nullable ResourceResolverType resourceResolverType,
+      boolean autoCommit) {
+    this.resourceResolver = resourceResolver;
+    this.autoCommit = autoCommit;
+    this.ignoredNames = resourceResolverType == ResourceResolverType.JCR_OAK ? OAK_IGNORED_NAMES : MOCK_IGNORED_NAMES;
+  }
+
+  /**
+   * Import content of JSON file into repository.
+   * @param classpathResource Classpath resource URL for JSON content
+   * @param parentResource Parent resource
+   * @param childName Name of child resource to create with JSON content
+   * @return Resource
+   */
+  public @NotNull Resource json(@NotNull String classpathResource, @NotNull Resource parentResource, @NotNull String childName) {
+    return json(classpathResource, parentResource.getPath() + "/" + childName);
+  }
+
+  /**
+   * Import content of JSON file into repository.
+   * @param classpathResource Classpath resource URL for JSON content
+   * @param destPath Path to import the JSON content to
+   * @return Resource
+   */
+  public @NotNull Resource json(@NotNull String classpathResource, @NotNull String destPath) {
+    ParsedContent content = getParsedContent(classpathResource);
+    try {
+      String parentPath = ResourceUtil.getParent(destPath);
+      if (parentPath == null) {
+        throw new IllegalArgumentException("Path has no parent: " + destPath);
+      }
+      Resource parentResource = resourceResolver.getResource(parentPath);
+      if (parentResource == null) {
+        parentResource = createResourceHierarchy(parentPath);
+      }
+      if (parentResource.getChild(ResourceUtil.getName(destPath)) != null) {
+        throw new IllegalArgumentException("Resource does already exist: " + destPath);
+      }
+      createResources(destPath, content);
+      if (autoCommit) {
+        resourceResolver.commit();
+      }
+      Resource resource = resourceResolver.getResource(destPath);
+      if (resource == null) {
+        throw new IllegalStateException("Unable to import " + classpathResource + " to " + destPath);
+      }
+      return resource;
+    }
+    catch (PersistenceException ex) {
+      throw new RuntimeException("Unable to import " + classpathResource + " to " + destPath, ex);
+    }
+  }
+
+  /**
+   * Removes all parsed content from the cache.
+   */
+  static void clear() {
+    PARSED_CONTENT.clear();
+  }
+
+  private void createResources(@NotNull String destPath, @NotNull ParsedContent content) throws PersistenceException {
+    // keep created resources to avoid looking up the parent of each resource again
+    Map<String, Resource> createdResources = new HashMap<>();
+    for (ParsedResource parsedResource : content.resources) {
+      if (isIgnored(parsedResource.path)) {
+        continue;
+      }
+      String path = StringUtils.equals(parsedResource.path, "/") ? destPath : destPath + parsedResource.path;
+      String parentPath = ResourceUtil.getParent(path);
+      Resource parentResource = createdResources.get(parentPath);
+      if (parentResource == null && parentPath != null) {
+        parentResource = resourceResolver.getResource(parentPath);
+      }
+      if (parentResource == null) {
+        throw new IllegalArgumentException("Parent resource does not exist: " + parentPath);
+      }
+      Resource resource = resourceResolver.create(parentResource, ResourceUtil.getName(path), toResourceProperties(parsedResource.properties));
+      applyPlaceholders(resource, parsedResource.properties);
+      createdResources.put(path, resource);
+    }
+  }
+
+  /**
+   * Handles binary data and reference placeholders the same way as the content handler of {@link ContentLoader}.
+   */
+  private void applyPlaceholders(@NotNull Resource resource, @NotNull Map<String, Object> properties) {
+    boolean hasBinaryData = properties.containsKey(JCR_DATA_PLACEHOLDER);
+    String referencedPath = (String)properties.get(JCR_REFERENCE_PLACEHOLDER);
+    if (!hasBinaryData && StringUtils.isBlank(referencedPath)) {
+      return;
+    }
+    ModifiableValueMap props = resource.adaptTo(ModifiableValueMap.class);
+    if (props == null) {
+      return;
+    }
+    if (hasBinaryData) {
+      props.put(JcrConstants.JCR_DATA, new ByteArrayInputStream(new byte[0]));
+    }
+    else {
+      Resource referencedResource = resourceResolver.getResource(resource.getPath() + "/" + referencedPath);
+      if (referencedResource != null) {
+        props.put(JcrConstants.JCR_CONTENT, referencedResource.adaptTo(Node.class));
+      }
+    }
+  }
+
+  private @NotNull Resource createResourceHierarchy(@NotNull String path) throws PersistenceException {
+    String parentPath = ResourceUtil.getParent(path);
+    if (parentPath == null) {
+      throw new IllegalArgumentException("Path has no parent: " + path);
+    }
+    Resource parentResource = resourceResolver.getResource(parentPath);
+    if (parentResource == null) {
+      parentResource = createResourceHierarchy(parentPath);
+    }
+    Map<String, Object> props = new HashMap<>();
+    props.put(JcrConstants.JCR_PRIMARYTYPE, JcrConstants.NT_UNSTRUCTURED);
+    return resourceResolver.create(parentResource, ResourceUtil.getName(path), props);
+  }
+
+  private boolean isIgnored(@NotNull String relativePath) {
+    for (String name : StringUtils.split(relativePath, '/')) {
+      if (ignoredNames.contains(name)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Copies the parsed properties - mutable values like calendars or arrays must not be shared between imports.
+   */
+  private @NotNull Map<String, Object> toResourceProperties(@NotNull Map<String, Object> properties) {
+    Map<String, Object> result = new HashMap<>();
+    for (Map.Entry<String, Object> entry : properties.entrySet()) {
+      if (!ignoredNames.contains(entry.getKey())
+          && !StringUtils.equalsAny(entry.getKey(), JCR_DATA_PLACEHOLDER, JCR_REFERENCE_PLACEHOLDER)) {
+        result.put(entry.getKey(), copyValue(entry.getValue()));
+      }
+    }
+    return result;
+  }
+
+  private static @Nullable Object copyValue(@Nullable Object value) {
+    if (value instanceof Calendar) {
+      return ((Calendar)value).clone();
+    }
+    if (value != null && value.getClass().isArray()) {
+      int length = Array.getLength(value);
+      Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+      for (int i = 0; i < length; i++) {
+        Array.set(copy, i, copyValue(Array.get(value, i)));
+      }
+      return copy;
+    }
+    return value;
+  }
+
+  private static @NotNull ParsedContent getParsedContent(@NotNull String classpathResource) {
+    URL url = getUrl(classpathResource);
+    long lastModified = getLastModified(url);
+    return PARSED_CONTENT.compute(url.toExternalForm(), (key, content) -> {
+      if (content != null && content.lastModified == lastModified) {
+        return content;
+      }
+      return parse(url, lastModified);
+    });
+  }
+
+  private static @NotNull URL getUrl(@NotNull String classpathResource) {
+    URL url = ContentLoader.class.getResource(classpathResource);
+    if (url == null) {
+      // fallback to file system like ContentLoader
+      File file = new File(classpathResource);
+      if (file.exists()) {
+        try {
+          url = file.toURI().toURL();
+        }
+        catch (MalformedURLException ex) {
+          throw new IllegalArgumentException("Invalid file path: " + classpathResource, ex);
+        }
+      }
+    }
+    if (url == null) {
+      throw new IllegalArgumentException("Classpath resource or file not found: " + classpathResource);
+    }
+    return url;
+  }
+
+  private static long getLastModified(@NotNull URL url) {
+    try {
+      if (StringUtils.equals(url.getProtocol(), "file")) {
+        // avoid opening an input stream just to get the last modified time
+        return Paths.get(url.toURI()).toFile().lastModified();
+      }
+      return url.openConnection().getLastModified();
+    }
+    catch (IOException | URISyntaxException ex) {
+      return 0;
+    }
+  }
+
+  private static @NotNull ParsedContent parse(@NotNull URL url, long lastModified) {
+    // ignored names are applied when creating the resources, as they depend on the resource resolver type
+    ParserOptions parserOptions = new JSONParserOptions()
+        .withFeatures(EnumSet.of(JSONParserFeature.COMMENTS, JSONParserFeature.QUOTE_TICK))
+        .detectCalendarValues(true)
+        .ignorePropertyNames(Collections.emptySet())
+        .ignoreResourceNames(Collections.emptySet());
+    List<ParsedResource> resources = new ArrayList<>();
+    try (InputStream is = url.openStream()) {
+      JSON_PARSER.parse((path, properties) -> resources.add(new ParsedResource(path, properties)), is, parserOptions);
+    }
+    catch (IOException ex) {
+      throw new UncheckedIOException("Unable to parse " + url, ex);
+    }
+    return new ParsedContent(lastModified, Collections.unmodifiableList(resources));
+  }
+
+  private static @NotNull Set<String> union(@NotNull Set<String> set1, @NotNull Set<String> set2) {
+    Set<String> result = new HashSet<>(set1);
+    result.addAll(set2);
+    return Collections.unmodifiableSet(result);
+  }
+
+  /**
+   * Immutable result of parsing a JSON file - the resources in the order reported by the parser (parents first).
+   */
+  private static final class ParsedContent {
+
+    private final long lastModified;
+    private final List<ParsedResource> resources;
+
+    ParsedContent(long lastModified, @NotNull List<ParsedResource> resources) {
+      this.lastModified = lastModified;
+      this.resources = resources;
+    }
+
+  }
+
+  private static final class ParsedResource {
+
+    private final String path;
+    private final Map<String, Object> properties;
+
+    ParsedResource(@NotNull String path, @NotNull Map<String, Object> properties) {
+      this.path = path;
+      this.properties = Collections.unmodifiableMap(new HashMap<>(properties));
+    }
+
+  }
+
+}
@@ -0,0 +1,467 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem.context;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.jcr.Item;
+import javax.jcr.Node;
+import javax.jcr.Property;
+import javax.jcr.RepositoryException;
+
+import org.apache.sling.api.resource.ModifiableValueMap;
+import org.apache.sling.api.resource.PersistenceException;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.api.resource.observation.ResourceChange.ChangeType;
+import org.apache.sling.testing.mock.osgi.context.ContextCallback;
+import org.apache.sling.testing.mock.sling.ResourceResolverType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import com.day.cq.commons.jcr.JcrConstants;
+
+/**
+ * Applies content fixtures to an AEM context.
+ * <p>
+ * The first time a fixture is applied for a resource resolver type the fixture callback is executed, and the
+ * repository content it created or changed is captured in an immutable snapshot. All following contexts with the same
+ * fixture and resource resolver type get a copy of this snapshot written to their own (fresh) repository instead of
+ * executing the fixture callback again. Each context works on its own copy, so changes made by one test are not
+ * visible to other tests.
+ * </p>
+ * <p>
+ * Fixtures are identified by their class and the values of their fields, including the values captured by a lambda
+ * expression. So fixtures created by the same factory method with different parameters get different snapshots.
+ * A reference to the enclosing test instance is not taken into account. Resources removed by a fixture are not
+ * part of the snapshot.
+ * </p>
+ * <p>
+ * Snapshots are supported for {@link ResourceResolverType#RESOURCERESOLVER_MOCK}, {@link ResourceResolverType#JCR_MOCK}
+ * and {@link ResourceResolverType#JCR_OAK}. For all other resource resolver types the fixture callback is executed
+ * for each context.
+ * </p>
+ * <p>
+ * Repository internals (system, security and index content) and protected JCR items are not part of a snapshot -
+ * they are maintained by the repository itself. Protected properties like <code>jcr:created</code> or
+ * <code>jcr:uuid</code> get new values when a resource is re-created from a snapshot.
+ * </p>
+ */
+final class ContentFixtures {
+
+  private static final Set<ResourceResolverType> SNAPSHOT_RESOURCE_RESOLVER_TYPES = Collections.unmodifiableSet(
+      EnumSet.of(ResourceResolverType.RESOURCERESOLVER_MOCK, ResourceResolverType.JCR_MOCK, ResourceResolverType.JCR_OAK));
+  private static final Set<String> EXCLUDED_PATHS = Set.of("/jcr:system", "/rep:security", "/oak:index");
+  private static final Set<String> READONLY_PROPERTIES = Set.of(JcrConstants.JCR_PRIMARYTYPE, JcrConstants.JCR_MIXINTYPES);
+
+  private static final ConcurrentMap<SnapshotKey, ContentNode> SNAPSHOTS = new ConcurrentHashMap<>();
+
+  private ContentFixtures() {
+    // static methods only
+  }
+
+  /**
+   * Applies the given content fixture to the context - either by executing it, or by copying a previously
+   * captured snapshot.
+   * @param context AEM context
+   * @param fixture Content fixture
+   * @throws Exception Exception thrown by the fixture callback
+   */
+  @SuppressWarnings({ "unchecked", "java:S112" })
+  static void apply(@NotNull AemContextImpl context, @NotNull ContextCallback fixture) throws Exception {
+    ResourceResolverType resourceResolverType = context.resourceResolverType();
+    if (!SNAPSHOT_RESOURCE_RESOLVER_TYPES.contains(resourceResolverType)) {
+      fixture.execute(context);
+      return;
+    }
+
+    List<Object> fixtureState = getFixtureState(fixture);
+    if (fixtureState == null) {
+      fixture.execute(context);
+      return;
+    }
+
+    ResourceResolver resourceResolver = context.resourceResolver();
+    SnapshotKey key = new SnapshotKey(fixture.getClass(), fixtureState, resourceResolverType);
+    ContentNode snapshot = SNAPSHOTS.get(key);
+    if (snapshot != null) {
+      restore(resourceResolver, resourceResolver.getResource("/"), snapshot);
+    }
+    else {
+      ContentNode before = capture(resourceResolver.getResource("/"));
+      fixture.execute(context);
+      ContentNode changes = diff(before, capture(resourceResolver.getResource("/")));
+      SNAPSHOTS.putIfAbsent(key, changes != null ? changes : new ContentNode(Collections.emptyMap(), Collections.emptyList()));
+    }
+    if (resourceResolver.hasChanges()) {
+      resourceResolver.commit();
+    }
+  }
+
+  /**
+   * @param fixture Content fixture
+   * @return Values of all instance fields of the fixture, or null if they cannot be read
+   */
+  private static @Nullable List<Object> getFixtureState(@NotNull Object fixture) {
+    Class<?> fixtureClass = fixture.getClass();
+    List<Object> state = new ArrayList<>();
+    for (Class<?> clazz = fixtureClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+      for (Field field : clazz.getDeclaredFields()) {
+        if (Modifier.isStatic(field.getModifiers())) {
+          continue;
+        }
+        try {
+          field.setAccessible(true);
+          Object value = field.get(fixture);
+          if (!isEnclosingInstance(fixtureClass, field, value)) {
+            state.add(value);
+          }
+        }
+        catch (IllegalAccessException | RuntimeException ex) {
+          return null;
+        }
+      }
+    }
+    return state;
+  }
+
+  /**
+   * Inner classes and lambda expressions keep a reference to the enclosing test instance, which is a new instance
+   * for each test.
+   */
+  private static boolean isEnclosingInstance(@NotNull Class<?> fixtureClass, @NotNull Field field, @Nullable Object value) {
+    if (field.isSynthetic() && field.getName().startsWith("this$")) {
+      return true;
+    }
+    return value != null && fixtureClass.getName().startsWith(value.getClass().getName() + "$$Lambda");
+  }
+
+  /**
+   * Removes all captured snapshots.
+   */
+  static void clear() {
+    SNAPSHOTS.clear();
+  }
+
+  /**
+   * @param resourceResolver Resource resolver
+   * @return Immutable snapshot of the whole repository content
+   * @throws IOException Error reading binary data
+   */
+  static @NotNull ContentNode captureRepository(@NotNull ResourceResolver resourceResolver) throws IOException {
+    return capture(resourceResolver.getResource("/"));
+  }
+
+  /**
+   * Resets the repository content to the given snapshot. Pending changes are discarded, resources not contained in
+   * the snapshot are removed, and properties and resources changed or removed since the snapshot was captured are
+   * restored.
+   * @param resourceResolver Resource resolver
+   * @param snapshot Repository snapshot
+   * @return Changes applied to the repository
+   * @throws PersistenceException Error writing to repository
+   */
+  static @NotNull List<ResourceChange> resetRepository(@NotNull ResourceResolver resourceResolver,
+      @NotNull ContentNode snapshot) throws PersistenceException {
+    try {
+      resourceResolver.revert();
+    }
+    catch (UnsupportedOperationException ex) {
+      // not supported by JCR_MOCK - pending changes are reset together with the persisted ones
+    }
+    List<ResourceChange> changes = new ArrayList<>();
+    Resource root = resourceResolver.getResource("/");
+    if (root != null) {
+      reset(resourceResolver, root, snapshot, changes);
+    }
+    if (resourceResolver.hasChanges()) {
+      resourceResolver.commit();
+    }
+    return changes;
+  }
+
+  private static @NotNull ContentNode capture(@Nullable Resource resource) throws IOException {
+    if (resource == null) {
+      return new ContentNode(Collections.emptyMap(), Collections.emptyList());
+    }
+    Node node = resource.adaptTo(Node.class);
+    Map<String, Object> properties = new HashMap<>();
+    for (Map.Entry<String, Object> entry : resource.getValueMap().entrySet()) {
+      // node types are required to re-create the resource, other protected properties are maintained by the repository
+      if (!READONLY_PROPERTIES.contains(entry.getKey()) && isProtectedProperty(node, entry.getKey())) {
+        continue;
+      }
+      Object value = entry.getValue();
+      if (value instanceof InputStream) {
+        try (InputStream is = (InputStream)value) {
+          value = new BinaryValue(is.readAllBytes());
+        }
+      }
+      properties.put(entry.getKey(), value);
+    }
+    List<Map.Entry<String, ContentNode>> children = new ArrayList<>();
+    for (Resource child : resource.getChildren()) {
+      if (!isExcluded(child)) {
+        children.add(Map.entry(child.getName(), capture(child)));
+      }
+    }
+    return new ContentNode(Collections.unmodifiableMap(properties), Collections.unmodifiableList(children));
+  }
+
+  /**
+   * @return Resources added and properties added or changed in the given snapshot compared to the previous one,
+   *         or null if nothing was changed
+   */
+  private static @Nullable ContentNode diff(@Nullable ContentNode before, @NotNull ContentNode after) {
+    if (before == null) {
+      return after;
+    }
+    Map<String, Object> changedProperties = new HashMap<>();
+    for (Map.Entry<String, Object> entry : after.properties.entrySet()) {
+      if (!Objects.deepEquals(entry.getValue(), before.properties.get(entry.getKey()))) {
+        changedProperties.put(entry.getKey(), entry.getValue());
+      }
+    }
+    Map<String, ContentNode> beforeChildren = new HashMap<>();
+    before.children.forEach(entry -> beforeChildren.put(entry.getKey(), entry.getValue()));
+    List<Map.Entry<String, ContentNode>> changedChildren = new ArrayList<>();
+    for (Map.Entry<String, ContentNode> entry : after.children) {
+      ContentNode childChanges = diff(beforeChildren.get(entry.getKey()), entry.getValue());
+      if (childChanges != null) {
+        changedChildren.add(Map.entry(entry.getKey(), childChanges));
+      }
+    }
+    if (changedProperties.isEmpty() && changedChildren.isEmpty()) {
+      return null;
+    }
+    return new ContentNode(Collections.unmodifiableMap(changedProperties), Collections.unmodifiableList(changedChildren));
+  }
+
+  private static void restore(@NotNull ResourceResolver resourceResolver, @Nullable Resource parent,
+      @NotNull ContentNode node) throws PersistenceException {
+    if (parent == null) {
+      return;
+    }
+    for (Map.Entry<String, ContentNode> childEntry : node.children) {
+      ContentNode childNode = childEntry.getValue();
+      Resource child = parent.getChild(childEntry.getKey());
+      if (child == null) {
+        child = resourceResolver.create(parent, childEntry.getKey(), toResourceProperties(childNode.properties));
+      }
+      else {
+        updateProperties(child, childNode.properties);
+      }
+      restore(resourceResolver, child, childNode);
+    }
+  }
+
+  private static void reset(@NotNull ResourceResolver resourceResolver, @NotNull Resource resource,
+      @NotNull ContentNode node, @NotNull List<ResourceChange> changes) throws PersistenceException {
+    Map<String, ContentNode> snapshotChildren = new LinkedHashMap<>();
+    node.children.forEach(entry -> snapshotChildren.put(entry.getKey(), entry.getValue()));
+
+    List<Resource> children = new ArrayList<>();
+    resource.getChildren().forEach(children::add);
+    for (Resource child : children) {
+      if (isExcluded(child)) {
+        continue;
+      }
+      ContentNode childNode = snapshotChildren.remove(child.getName());
+      if (childNode == null) {
+        changes.add(new ResourceChange(ChangeType.REMOVED, child.getPath(), false));
+        resourceResolver.delete(child);
+      }
+      else {
+        if (resetProperties(child, childNode.properties)) {
+          changes.add(new ResourceChange(ChangeType.CHANGED, child.getPath(), false));
+        }
+        reset(resourceResolver, child, childNode, changes);
+      }
+    }
+
+    // re-create resources removed since the snapshot was captured
+    for (Map.Entry<String, ContentNode> entry : snapshotChildren.entrySet()) {
+      Resource child = resourceResolver.create(resource, entry.getKey(), toResourceProperties(entry.getValue().properties));
+      changes.add(new ResourceChange(ChangeType.ADDED, child.getPath(), false));
+      restore(resourceResolver, child, entry.getValue());
+    }
+  }
+
+  private static boolean resetProperties(@NotNull Resource resource, @NotNull Map<String, Object> properties) {
+    boolean changed = updateProperties(resource, properties);
+    Node node = resource.adaptTo(Node.class);
+    List<String> addedProperties = new ArrayList<>();
+    for (String name : resource.getValueMap().keySet()) {
+      if (!READONLY_PROPERTIES.contains(name) && !properties.containsKey(name) && !isProtectedProperty(node, name)) {
+        addedProperties.add(name);
+      }
+    }
+    if (!addedProperties.isEmpty()) {
+      ModifiableValueMap modifiableProperties = resource.adaptTo(ModifiableValueMap.class);
+      if (modifiableProperties != null) {
+        addedProperties.forEach(modifiableProperties::remove);
+        changed = true;
+      }
+    }
+    return changed;
+  }
+
+  private static boolean updateProperties(@NotNull Resource resource, @NotNull Map<String, Object> properties) {
+    Map<String, Object> existingProperties = resource.getValueMap();
+    Map<String, Object> changedProperties = new HashMap<>();
+    for (Map.Entry<String, Object> entry : properties.entrySet()) {
+      if (!READONLY_PROPERTIES.contains(entry.getKey())
+          && !Objects.deepEquals(entry.getValue(), existingProperties.get(entry.getKey()))) {
+        changedProperties.put(entry.getKey(), entry.getValue());
+      }
+    }
+    if (!changedProperties.isEmpty()) {
+      ModifiableValueMap modifiableProperties = resource.adaptTo(ModifiableValueMap.class);
+      if (modifiableProperties != null) {
+        modifiableProperties.putAll(toResourceProperties(changedProperties));
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isExcluded(@NotNull Resource resource) {
+    if (EXCLUDED_PATHS.contains(resource.getPath())) {
+      return true;
+    }
+    Node node = resource.adaptTo(Node.class);
+    return node != null && isProtected(node);
+  }
+
+  private static boolean isProtectedProperty(@Nullable Node node, @NotNull String name) {
+    try {
+      return node != null && node.hasProperty(name) && isProtected(node.getProperty(name));
+    }
+    catch (RepositoryException ex) {
+      return false;
+    }
+  }
+
+  private static boolean isProtected(@NotNull Item item) {
+    try {
+      return item.isNode()
+          ? ((Node)item).getDefinition().isProtected()
+          : ((Property)item).getDefinition().isProtected();
+    }
+    catch (RepositoryException | UnsupportedOperationException ex) {
+      return false;
+    }
+  }
+
+  private static @NotNull Map<String, Object> toResourceProperties(@NotNull Map<String, Object> properties) {
+    Map<String, Object> result = new HashMap<>(properties);
+    result.replaceAll((name, value) -> value instanceof BinaryValue
+        ? new ByteArrayInputStream(((BinaryValue)value).data)
+        : value);
+    return result;
+  }
+
+  /**
+   * Immutable node of a content snapshot.
+   */
+  static final class ContentNode {
+
+    private final Map<String, Object> properties;
+    private final List<Map.Entry<String, ContentNode>> children;
+
+    ContentNode(@NotNull Map<String, Object> properties, @NotNull List<Map.Entry<String, ContentNode>> children) {
+      this.properties = properties;
+      this.children = children;
+    }
+
+  }
+
+  /**
+   * Binary property value. A fresh input stream is created each time the snapshot is restored.
+   */
+  private static final class BinaryValue {
+
+    private final byte[] data;
+
+    BinaryValue(byte[] data) {
+      this.data = data;
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(data);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof BinaryValue && Arrays.equals(data, ((BinaryValue)obj).data);
+    }
+
+  }
+
+  private static final class SnapshotKey {
+
+    private final Class<?> fixtureClass;
+    private final List<Object> fixtureState;
+    private final ResourceResolverType resourceResolverType;
+
+    SnapshotKey(@NotNull Class<?> fixtureClass, @NotNull List<Object> fixtureState,
+        @NotNull ResourceResolverType resourceResolverType) {
+      this.fixtureClass = fixtureClass;
+      this.fixtureState = fixtureState;
+      this.resourceResolverType = resourceResolverType;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(fixtureClass, fixtureState, resourceResolverType);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof SnapshotKey)) {
+        return false;
+      }
+      SnapshotKey other = (SnapshotKey)obj;
+      return fixtureClass == other.fixtureClass
+          && Objects.equals(fixtureState, other.fixtureState)
+          && resourceResolverType == other.resourceResolverType;
+    }
+
+  }
+
+}
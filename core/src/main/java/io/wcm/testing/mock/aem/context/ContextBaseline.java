@@ -0,0 +1,148 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem.context;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.sling.api.adapter.AdapterManager;
+import org.apache.sling.api.resource.PersistenceException;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.api.scripting.SlingBindings;
+import org.apache.sling.testing.mock.sling.ResourceResolverType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceReference;
+
+/**
+ * State of an AEM context captured after setup, used to reset the context for reuse by another test.
+ * <p>
+ * A context can be reset if it uses a resource resolver type with an in-memory repository and no services were
+ * registered since the baseline was captured - with the exception of the Sling bindings event handlers that are
+ * registered each time a new request is created, and the adapter manager (together with its adaption marker service)
+ * that is registered each time the context is bound to another thread. As these services cannot be unregistered, the
+ * number of resets per context is limited.
+ * </p>
+ */
+final class ContextBaseline {
+
+  static final int MAX_RESETS = 100;
+
+  private static final String ADAPTION_SERVICE_INTERFACE = "org.apache.sling.adapter.Adaption";
+
+  private static final Set<ResourceResolverType> RESETTABLE_RESOURCE_RESOLVER_TYPES = Collections.unmodifiableSet(
+      EnumSet.of(ResourceResolverType.RESOURCERESOLVER_MOCK, ResourceResolverType.JCR_MOCK, ResourceResolverType.JCR_OAK));
+
+  private final ContentFixtures.ContentNode content;
+  private final Set<Long> serviceIds;
+  private int resetCount;
+
+  private ContextBaseline(@NotNull ContentFixtures.ContentNode content, @NotNull Set<Long> serviceIds) {
+    this.content = content;
+    this.serviceIds = serviceIds;
+  }
+
+  /**
+   * @param context AEM context
+   * @return Baseline or null if the resource resolver type does not support resetting
+   * @throws IOException Error reading repository content
+   */
+  static @Nullable ContextBaseline capture(@NotNull AemContextImpl context) throws IOException {
+    if (!RESETTABLE_RESOURCE_RESOLVER_TYPES.contains(context.resourceResolverType())) {
+      return null;
+    }
+    ResourceResolver resourceResolver = context.resourceResolver();
+    if (resourceResolver.hasChanges()) {
+      resourceResolver.commit();
+    }
+    Set<Long> serviceIds = new HashSet<>();
+    for (ServiceReference<?> serviceReference : getAllServiceReferences(context.bundleContext())) {
+      serviceIds.add(getServiceId(serviceReference));
+    }
+    return new ContextBaseline(ContentFixtures.captureRepository(resourceResolver), serviceIds);
+  }
+
+  /**
+   * Checks if the context can be reset to this baseline, and counts the reset.
+   * @param context AEM context
+   * @return true if the context can be reset
+   */
+  boolean beginReset(@NotNull AemContextImpl context) {
+    if (resetCount >= MAX_RESETS) {
+      return false;
+    }
+    BundleContext bundleContext = context.bundleContext();
+    for (ServiceReference<?> serviceReference : getAllServiceReferences(bundleContext)) {
+      if (!serviceIds.contains(getServiceId(serviceReference)) && !isRegisteredOnDemand(bundleContext, serviceReference)) {
+        return false;
+      }
+    }
+    resetCount++;
+    return true;
+  }
+
+  /**
+   * Resets the repository content to the baseline.
+   * @param resourceResolver Resource resolver
+   * @return Changes applied to the repository
+   * @throws PersistenceException Error writing to repository
+   */
+  @NotNull
+  List<ResourceChange> resetRepository(@NotNull ResourceResolver resourceResolver) throws PersistenceException {
+    return ContentFixtures.resetRepository(resourceResolver, content);
+  }
+
+  private static boolean isRegisteredOnDemand(@NotNull BundleContext bundleContext, @NotNull ServiceReference<?> serviceReference) {
+    if (ArrayUtils.contains((String[])serviceReference.getProperty(Constants.OBJECTCLASS), ADAPTION_SERVICE_INTERFACE)) {
+      return true;
+    }
+    Object service = bundleContext.getService(serviceReference);
+    try {
+      return service instanceof SlingBindings || service instanceof AdapterManager;
+    }
+    finally {
+      bundleContext.ungetService(serviceReference);
+    }
+  }
+
+  private static @NotNull ServiceReference<?>[] getAllServiceReferences(@NotNull BundleContext bundleContext) {
+    try {
+      ServiceReference<?>[] serviceReferences = bundleContext.getServiceReferences((String)null, null);
+      return serviceReferences != null ? serviceReferences : new ServiceReference<?>[0];
+    }
+    catch (InvalidSyntaxException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  private static long getServiceId(@NotNull ServiceReference<?> serviceReference) {
+    return (Long)serviceReference.getProperty(Constants.SERVICE_ID);
+  }
+
+}
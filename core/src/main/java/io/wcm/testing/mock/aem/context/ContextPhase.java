@@ -0,0 +1,67 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem.context;
+
+/**
+ * Phases of the AEM context lifecycle that are measured by {@link ContextTimings}.
+ */
+public enum ContextPhase {
+
+  /**
+   * Creating the resource resolver factory (and the repository) for the context.
+   */
+  RESOURCE_RESOLVER_FACTORY,
+
+  /**
+   * Registering the default services of osgi-mock and sling-mock, including scanning the classpath for Sling Models.
+   */
+  SLING_DEFAULT_SERVICES,
+
+  /**
+   * Registering the default AEM services of AEM Mocks.
+   */
+  AEM_DEFAULT_SERVICES,
+
+  /**
+   * Applying the registered content fixtures.
+   */
+  CONTENT_FIXTURES,
+
+  /**
+   * Executing context plugin callbacks (before/after setup and teardown).
+   */
+  PLUGIN_CALLBACKS,
+
+  /**
+   * Removing the content created below the unique root paths.
+   */
+  UNIQUE_ROOT_CLEANUP,
+
+  /**
+   * Resetting a pooled context to its baseline for reuse.
+   */
+  RESET,
+
+  /**
+   * Tearing down the context, including the unique root cleanup.
+   */
+  TEAR_DOWN
+
+}
@@ -0,0 +1,43 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem.context;
+
+import org.jetbrains.annotations.NotNull;
+import org.osgi.annotation.versioning.ConsumerType;
+
+/**
+ * Gets notified about the lifecycle phase timings of each AEM context.
+ * <p>
+ * Listeners are registered via {@link ContextTimings#addListener(ContextTimingListener)}, or by providing a
+ * <code>META-INF/services/io.wcm.testing.mock.aem.context.ContextTimingListener</code> file on the classpath.
+ * As long as no listener is registered, no timings are recorded.
+ * </p>
+ */
+@ConsumerType
+public interface ContextTimingListener {
+
+  /**
+   * Is called once per test when the context is torn down or reset for reuse.
+   * @param context AEM context
+   * @param timings Timings recorded since the context was set up or last reset
+   */
+  void timingsCompleted(@NotNull AemContextImpl context, @NotNull ContextTimings timings);
+
+}
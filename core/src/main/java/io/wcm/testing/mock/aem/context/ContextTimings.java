@@ -0,0 +1,125 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem.context;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.ServiceLoader;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.jetbrains.annotations.NotNull;
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * Nanosecond timings and invocation counts of the lifecycle phases of an AEM context, recorded for a single test.
+ * <p>
+ * Timings are only recorded if at least one {@link ContextTimingListener} is registered, or if timings are enabled
+ * explicitly for the context. Otherwise no timing information is collected at all.
+ * </p>
+ */
+@ProviderType
+public final class ContextTimings {
+
+  private static final List<ContextTimingListener> LISTENERS = new CopyOnWriteArrayList<>();
+  static {
+    ServiceLoader.load(ContextTimingListener.class).forEach(LISTENERS::add);
+  }
+
+  private final long[] durations = new long[ContextPhase.values().length];
+  private final int[] counts = new int[ContextPhase.values().length];
+
+  ContextTimings() {
+    // only created by AEM context
+  }
+
+  void record(@NotNull ContextPhase phase, long durationNanos) {
+    durations[phase.ordinal()] += durationNanos;
+    counts[phase.ordinal()]++;
+  }
+
+  /**
+   * @param phase Context phase
+   * @return Accumulated duration of the phase in nanoseconds
+   */
+  public long getDurationNanos(@NotNull ContextPhase phase) {
+    return durations[phase.ordinal()];
+  }
+
+  /**
+   * @param phase Context phase
+   * @return Number of times the phase was executed
+   */
+  public int getCount(@NotNull ContextPhase phase) {
+    return counts[phase.ordinal()];
+  }
+
+  /**
+   * @return Summary of all executed phases with duration in milliseconds and count
+   */
+  @Override
+  public String toString() {
+    StringBuilder result = new StringBuilder();
+    for (ContextPhase phase : ContextPhase.values()) {
+      if (getCount(phase) > 0) {
+        if (result.length() > 0) {
+          result.append(", ");
+        }
+        result.append(phase).append('=').append(formatDuration(phase)).append(" (").append(getCount(phase)).append("x)");
+      }
+    }
+    return result.toString();
+  }
+
+  /**
+   * @param phase Context phase
+   * @return Accumulated duration of the phase formatted in milliseconds
+   */
+  public @NotNull String formatDuration(@NotNull ContextPhase phase) {
+    return String.format(Locale.ROOT, "%.3fms", getDurationNanos(phase) / (double)TimeUnit.MILLISECONDS.toNanos(1));
+  }
+
+  /**
+   * Registers a listener that gets notified about the timings of all AEM contexts.
+   * @param listener Listener
+   */
+  public static void addListener(@NotNull ContextTimingListener listener) {
+    LISTENERS.add(listener);
+  }
+
+  /**
+   * Removes a listener registered via {@link #addListener(ContextTimingListener)}.
+   * @param listener Listener
+   */
+  public static void removeListener(@NotNull ContextTimingListener listener) {
+    LISTENERS.remove(listener);
+  }
+
+  static boolean hasListeners() {
+    return !LISTENERS.isEmpty();
+  }
+
+  static void notifyListeners(@NotNull AemContextImpl context, @NotNull ContextTimings timings) {
+    for (ContextTimingListener listener : LISTENERS) {
+      listener.timingsCompleted(context, timings);
+    }
+  }
+
+}
@@ -0,0 +1,268 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem.context;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.sling.api.resource.observation.ResourceChangeListener;
+import org.apache.sling.testing.mock.osgi.MockOsgi;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceReference;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+/**
+ * Registers a service as proxy for its service interfaces. The service instance is created, injected and activated
+ * on the first method call on the proxy.
+ * <p>
+ * The service interfaces and component properties are read from the SCR metadata of the service class, so lookups
+ * with filters and the metadata-based registration of adapter factories work without instantiating the service.
+ * Resource change notifications are dropped until the service is instantiated - a service that was not used yet
+ * has no state to invalidate. Instantiated services are deactivated via {@link #deactivateAll(BundleContext)}
+ * before the bundle context is shut down.
+ * </p>
+ */
+final class LazyService implements InvocationHandler {
+
+  private static final ConcurrentMap<Class<?>, Optional<ServiceMetadata>> METADATA_CACHE = new ConcurrentHashMap<>();
+
+  private final String serviceClassName;
+  private final Supplier<?> serviceFactory;
+  private final BundleContext bundleContext;
+  private final Map<String, Object> properties;
+  private volatile Object service;
+
+  private LazyService(@NotNull String serviceClassName, @NotNull Supplier<?> serviceFactory,
+      @NotNull BundleContext bundleContext, @NotNull Map<String, Object> properties) {
+    this.serviceClassName = serviceClassName;
+    this.serviceFactory = serviceFactory;
+    this.bundleContext = bundleContext;
+    this.properties = properties;
+  }
+
+  /**
+   * Registers a lazy service proxy.
+   * @param bundleContext Bundle context
+   * @param serviceClass Service implementation class
+   * @param serviceFactory Creates the service instance on first usage
+   * @param <T> Service type
+   * @return false if the service cannot be registered lazily because it has no SCR metadata or is not registered
+   *         with interfaces only
+   */
+  static <T> boolean register(@NotNull BundleContext bundleContext, @NotNull Class<T> serviceClass,
+      @NotNull Supplier<T> serviceFactory) {
+    ServiceMetadata metadata = METADATA_CACHE.computeIfAbsent(serviceClass,
+        clazz -> Optional.ofNullable(ServiceMetadata.read(clazz))).orElse(null);
+    if (metadata == null) {
+      return false;
+    }
+    LazyService handler = new LazyService(serviceClass.getName(), serviceFactory, bundleContext, metadata.properties);
+    Object proxy = Proxy.newProxyInstance(serviceClass.getClassLoader(), metadata.interfaces, handler);
+    String[] interfaceNames = Arrays.stream(metadata.interfaces).map(Class::getName).toArray(String[]::new);
+    bundleContext.registerService(interfaceNames, proxy, new Hashtable<>(metadata.properties));
+    return true;
+  }
+
+  /**
+   * @param service Service object
+   * @return false if the service is a lazy service proxy that was not instantiated yet
+   */
+  static boolean isInstantiated(@NotNull Object service) {
+    if (Proxy.isProxyClass(service.getClass()) && Proxy.getInvocationHandler(service) instanceof LazyService) {
+      return ((LazyService)Proxy.getInvocationHandler(service)).service != null;
+    }
+    return true;
+  }
+
+  /**
+   * Deactivates all lazy services registered in the given bundle context that were instantiated.
+   * @param bundleContext Bundle context
+   */
+  static void deactivateAll(@NotNull BundleContext bundleContext) {
+    ServiceReference<?>[] references;
+    try {
+      references = bundleContext.getServiceReferences((String)null, null);
+    }
+    catch (InvalidSyntaxException ex) {
+      throw new IllegalStateException(ex);
+    }
+    if (references == null) {
+      return;
+    }
+    for (ServiceReference<?> reference : references) {
+      Object service = bundleContext.getService(reference);
+      if (service != null && Proxy.isProxyClass(service.getClass())
+          && Proxy.getInvocationHandler(service) instanceof LazyService) {
+        ((LazyService)Proxy.getInvocationHandler(service)).deactivate();
+      }
+      bundleContext.ungetService(reference);
+    }
+  }
+
+  private synchronized void deactivate() {
+    if (service != null) {
+      MockOsgi.deactivate(service, bundleContext, properties);
+      service = null;
+    }
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    if (method.getDeclaringClass() == Object.class) {
+      return invokeObjectMethod(proxy, method, args);
+    }
+    Object instance = service;
+    if (instance == null) {
+      if (method.getDeclaringClass() == ResourceChangeListener.class) {
+        // nothing to invalidate yet
+        return null;
+      }
+      instance = getService();
+    }
+    try {
+      return method.invoke(instance, args);
+    }
+    catch (InvocationTargetException ex) {
+      throw ex.getCause();
+    }
+  }
+
+  private Object invokeObjectMethod(Object proxy, Method method, Object[] args) {
+    switch (method.getName()) {
+      case "equals":
+        return proxy == args[0];
+      case "hashCode":
+        return System.identityHashCode(proxy);
+      default:
+        return "LazyService[" + serviceClassName + (service != null ? ", instantiated" : "") + "]";
+    }
+  }
+
+  private synchronized Object getService() {
+    if (service == null) {
+      Object instance = serviceFactory.get();
+      MockOsgi.injectServices(instance, bundleContext, properties);
+      MockOsgi.activate(instance, bundleContext, properties);
+      service = instance;
+    }
+    return service;
+  }
+
+  /**
+   * Service interfaces and component properties read from the SCR metadata file generated by the bnd plugin.
+   */
+  private static final class ServiceMetadata {
+
+    private static final Map<String, Function<String, Object>> TYPE_CONVERTERS = Map.of(
+        "Boolean", Boolean::valueOf,
+        "Integer", Integer::valueOf,
+        "Long", Long::valueOf);
+
+    private final Class<?>[] interfaces;
+    private final Map<String, Object> properties;
+
+    private ServiceMetadata(Class<?>[] interfaces, Map<String, Object> properties) {
+      this.interfaces = interfaces;
+      this.properties = Collections.unmodifiableMap(properties);
+    }
+
+    static @Nullable ServiceMetadata read(@NotNull Class<?> serviceClass) {
+      try (InputStream is = serviceClass.getClassLoader().getResourceAsStream("OSGI-INF/" + serviceClass.getName() + ".xml")) {
+        if (is == null) {
+          return null;
+        }
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        Document document = factory.newDocumentBuilder().parse(is);
+
+        List<Class<?>> interfaces = new ArrayList<>();
+        NodeList provides = document.getElementsByTagName("provide");
+        for (int i = 0; i < provides.getLength(); i++) {
+          Class<?> serviceInterface = Class.forName(((Element)provides.item(i)).getAttribute("interface"), false,
+              serviceClass.getClassLoader());
+          if (!serviceInterface.isInterface()) {
+            return null;
+          }
+          interfaces.add(serviceInterface);
+        }
+        if (interfaces.isEmpty()) {
+          return null;
+        }
+
+        Map<String, Object> properties = new HashMap<>();
+        NodeList propertyElements = document.getElementsByTagName("property");
+        for (int i = 0; i < propertyElements.getLength(); i++) {
+          Element property = (Element)propertyElements.item(i);
+          properties.put(property.getAttribute("name"), toPropertyValue(property));
+        }
+        return new ServiceMetadata(interfaces.toArray(new Class<?>[0]), properties);
+      }
+      catch (IOException | ParserConfigurationException | SAXException | ClassNotFoundException ex) {
+        return null;
+      }
+    }
+
+    private static Object toPropertyValue(@NotNull Element property) {
+      Function<String, Object> converter = TYPE_CONVERTERS.getOrDefault(property.getAttribute("type"), value -> value);
+      if (property.hasAttribute("value")) {
+        return converter.apply(property.getAttribute("value"));
+      }
+      Object[] values = Arrays.stream(StringUtils.split(property.getTextContent(), '\n'))
+          .map(StringUtils::trim)
+          .filter(StringUtils::isNotEmpty)
+          .map(converter)
+          .toArray();
+      if (values.length > 0 && values[0] instanceof String) {
+        return Arrays.copyOf(values, values.length, String[].class);
+      }
+      return values;
+    }
+
+  }
+
+}
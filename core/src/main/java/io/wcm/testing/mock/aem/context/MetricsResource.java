@@ -0,0 +1,77 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem.context;
+
+import java.util.Iterator;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceWrapper;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Resource wrapper that routes all repository operations through {@link MetricsResourceResolver}.
+ */
+final class MetricsResource extends ResourceWrapper {
+
+  private final MetricsResourceResolver resourceResolver;
+
+  MetricsResource(@NotNull Resource resource, @NotNull MetricsResourceResolver resourceResolver) {
+    super(resource);
+    this.resourceResolver = resourceResolver;
+  }
+
+  @Override
+  public @NotNull ResourceResolver getResourceResolver() {
+    return resourceResolver;
+  }
+
+  @Override
+  public @Nullable Resource getParent() {
+    return resourceResolver.getParent(this);
+  }
+
+  @Override
+  public @Nullable Resource getChild(@NotNull String relPath) {
+    return resourceResolver.getResource(this, relPath);
+  }
+
+  @Override
+  public @NotNull Iterator<Resource> listChildren() {
+    return resourceResolver.listChildren(this);
+  }
+
+  @Override
+  public @NotNull Iterable<Resource> getChildren() {
+    return resourceResolver.getChildren(this);
+  }
+
+  @Override
+  public boolean hasChildren() {
+    return resourceResolver.hasChildren(this);
+  }
+
+  @Override
+  public <AdapterType> @Nullable AdapterType adaptTo(@NotNull Class<AdapterType> type) {
+    return resourceResolver.adapt(this, getResource()::adaptTo, type);
+  }
+
+}
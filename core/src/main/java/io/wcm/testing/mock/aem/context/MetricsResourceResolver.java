@@ -0,0 +1,247 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem.context;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.commons.io.input.ProxyInputStream;
+import org.apache.sling.api.adapter.AdapterManager;
+import org.apache.sling.api.resource.LoginException;
+import org.apache.sling.api.resource.PersistenceException;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.wrappers.ResourceResolverWrapper;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Resource resolver wrapper that counts the repository operations in {@link RepositoryMetrics}.
+ * All resources returned are wrapped as well, so operations executed on them are routed through this resolver.
+ * Adaptations are executed via the adapter manager with the wrapper objects as adaptable first, so adapter objects
+ * like page manager or assets operate on the counting resolver as well.
+ */
+final class MetricsResourceResolver extends ResourceResolverWrapper {
+
+  private final ResourceResolver delegate;
+  private final RepositoryMetrics metrics;
+  private final Supplier<AdapterManager> adapterManager;
+
+  MetricsResourceResolver(@NotNull ResourceResolver delegate, @NotNull RepositoryMetrics metrics,
+      @NotNull Supplier<AdapterManager> adapterManager) {
+    super(delegate);
+    this.delegate = delegate;
+    this.metrics = metrics;
+    this.adapterManager = adapterManager;
+  }
+
+  @Override
+  public @NotNull Resource resolve(@NotNull HttpServletRequest request, @NotNull String absPath) {
+    metrics.increment(RepositoryOperation.GET_RESOURCE);
+    return wrap(delegate.resolve(request, absPath));
+  }
+
+  @Override
+  public @NotNull Resource resolve(@NotNull String absPath) {
+    metrics.increment(RepositoryOperation.GET_RESOURCE);
+    return wrap(delegate.resolve(absPath));
+  }
+
+  @Override
+  @SuppressWarnings("deprecation")
+  public @NotNull Resource resolve(@NotNull HttpServletRequest request) {
+    metrics.increment(RepositoryOperation.GET_RESOURCE);
+    return wrap(delegate.resolve(request));
+  }
+
+  @Override
+  public @Nullable Resource getResource(@NotNull String path) {
+    metrics.increment(RepositoryOperation.GET_RESOURCE);
+    return wrapNullable(delegate.getResource(path));
+  }
+
+  @Override
+  public @Nullable Resource getResource(Resource base, @NotNull String path) {
+    metrics.increment(RepositoryOperation.GET_RESOURCE);
+    return wrapNullable(delegate.getResource(unwrap(base), path));
+  }
+
+  @Override
+  public @NotNull Iterator<Resource> listChildren(@NotNull Resource parent) {
+    metrics.increment(RepositoryOperation.LIST_CHILDREN);
+    return wrap(delegate.listChildren(unwrap(parent)));
+  }
+
+  @Override
+  public @NotNull Iterable<Resource> getChildren(@NotNull Resource parent) {
+    metrics.increment(RepositoryOperation.LIST_CHILDREN);
+    Iterable<Resource> children = delegate.getChildren(unwrap(parent));
+    return () -> wrap(children.iterator());
+  }
+
+  @Override
+  public @Nullable Resource getParent(@NotNull Resource child) {
+    metrics.increment(RepositoryOperation.GET_RESOURCE);
+    return wrapNullable(delegate.getParent(unwrap(child)));
+  }
+
+  @Override
+  public boolean hasChildren(@NotNull Resource resource) {
+    return delegate.hasChildren(unwrap(resource));
+  }
+
+  @Override
+  public @NotNull Iterator<Resource> findResources(@NotNull String query, String language) {
+    return wrap(delegate.findResources(query, language));
+  }
+
+  @Override
+  public @NotNull ResourceResolver clone(@Nullable Map<String, Object> authenticationInfo) throws LoginException {
+    return new MetricsResourceResolver(delegate.clone(authenticationInfo), metrics, adapterManager);
+  }
+
+  @Override
+  public void delete(@NotNull Resource resource) throws PersistenceException {
+    delegate.delete(unwrap(resource));
+  }
+
+  @Override
+  public @NotNull Resource create(@NotNull Resource parent, @NotNull String name, Map<String, Object> properties)
+      throws PersistenceException {
+    Map<String, Object> countingProperties = properties;
+    if (properties != null && properties.values().stream().anyMatch(InputStream.class::isInstance)) {
+      countingProperties = new HashMap<>(properties);
+      countingProperties.replaceAll((key, value) -> value instanceof InputStream
+          ? countBytes((InputStream)value, RepositoryOperation.BINARY_BYTES_WRITTEN) : value);
+    }
+    return wrap(delegate.create(unwrap(parent), name, countingProperties));
+  }
+
+  @Override
+  public void commit() throws PersistenceException {
+    metrics.increment(RepositoryOperation.COMMIT);
+    delegate.commit();
+  }
+
+  @Override
+  public @Nullable String getParentResourceType(Resource resource) {
+    return delegate.getParentResourceType(unwrap(resource));
+  }
+
+  @Override
+  public boolean isResourceType(Resource resource, String resourceType) {
+    return delegate.isResourceType(unwrap(resource), resourceType);
+  }
+
+  @Override
+  public Resource copy(String srcAbsPath, String destAbsPath) throws PersistenceException {
+    return wrapNullable(delegate.copy(srcAbsPath, destAbsPath));
+  }
+
+  @Override
+  public Resource move(String srcAbsPath, String destAbsPath) throws PersistenceException {
+    return wrapNullable(delegate.move(srcAbsPath, destAbsPath));
+  }
+
+  @Override
+  public <AdapterType> @Nullable AdapterType adaptTo(@NotNull Class<AdapterType> type) {
+    return adapt(this, delegate::adaptTo, type);
+  }
+
+  /**
+   * Adapts the given wrapper object - via the adapter manager with the wrapper as adaptable first, falling back
+   * to the adaptations of the wrapped object.
+   */
+  @SuppressWarnings("unchecked")
+  <AdapterType> @Nullable AdapterType adapt(@NotNull Object adaptable, @NotNull Adapter adaptableDelegate,
+      @NotNull Class<AdapterType> type) {
+    metrics.incrementAdaptTo(type);
+    AdapterManager manager = adapterManager.get();
+    AdapterType result = manager != null ? manager.getAdapter(adaptable, type) : null;
+    if (result == null) {
+      result = (AdapterType)adaptableDelegate.adaptTo(type);
+    }
+    if (result instanceof InputStream) {
+      result = (AdapterType)countBytes((InputStream)result, RepositoryOperation.BINARY_BYTES_READ);
+    }
+    return result;
+  }
+
+  private @NotNull InputStream countBytes(@NotNull InputStream inputStream, @NotNull RepositoryOperation operation) {
+    return new ProxyInputStream(inputStream) {
+      @Override
+      protected void afterRead(int n) throws IOException {
+        if (n > 0) {
+          metrics.add(operation, n);
+        }
+      }
+    };
+  }
+
+  private @NotNull Resource wrap(@NotNull Resource resource) {
+    if (resource instanceof MetricsResource) {
+      return resource;
+    }
+    return new MetricsResource(resource, this);
+  }
+
+  private @Nullable Resource wrapNullable(@Nullable Resource resource) {
+    if (resource == null) {
+      return null;
+    }
+    return wrap(resource);
+  }
+
+  private @NotNull Iterator<Resource> wrap(@NotNull Iterator<Resource> resources) {
+    return new Iterator<Resource>() {
+      @Override
+      public boolean hasNext() {
+        return resources.hasNext();
+      }
+      @Override
+      public Resource next() {
+        return wrap(resources.next());
+      }
+    };
+  }
+
+  private static Resource unwrap(Resource resource) {
+    if (resource instanceof MetricsResource) {
+      return ((MetricsResource)resource).getResource();
+    }
+    return resource;
+  }
+
+  /**
+   * Adaptation of the wrapped object.
+   */
+  @FunctionalInterface
+  interface Adapter {
+    @Nullable
+    Object adaptTo(@NotNull Class<?> type);
+  }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem.context;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.sling.api.adapter.AdapterManager;
+import org.apache.sling.api.resource.LoginException;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceResolverFactory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceReference;
+
+/**
+ * Resource resolver factory wrapper that wraps all resource resolvers with {@link MetricsResourceResolver}.
+ */
+final class MetricsResourceResolverFactory implements ResourceResolverFactory {
+
+  private final ResourceResolverFactory delegate;
+  private final RepositoryMetrics metrics;
+  private final BundleContext bundleContext;
+
+  MetricsResourceResolverFactory(@NotNull ResourceResolverFactory delegate, @NotNull RepositoryMetrics metrics,
+      @NotNull BundleContext bundleContext) {
+    this.delegate = delegate;
+    this.metrics = metrics;
+    this.bundleContext = bundleContext;
+  }
+
+  @Override
+  public @NotNull ResourceResolver getResourceResolver(Map<String, Object> authenticationInfo) throws LoginException {
+    return wrap(delegate.getResourceResolver(authenticationInfo));
+  }
+
+  @Override
+  @SuppressWarnings("deprecation")
+  public @NotNull ResourceResolver getAdministrativeResourceResolver(Map<String, Object> authenticationInfo) throws LoginException {
+    return wrap(delegate.getAdministrativeResourceResolver(authenticationInfo));
+  }
+
+  @Override
+  public @NotNull ResourceResolver getServiceResourceResolver(Map<String, Object> authenticationInfo) throws LoginException {
+    return wrap(delegate.getServiceResourceResolver(authenticationInfo));
+  }
+
+  @Override
+  public @Nullable ResourceResolver getThreadResourceResolver() {
+    return delegate.getThreadResourceResolver();
+  }
+
+  @Override
+  public @NotNull List<String> getSearchPath() {
+    return delegate.getSearchPath();
+  }
+
+  private @NotNull ResourceResolver wrap(@NotNull ResourceResolver resourceResolver) {
+    return new MetricsResourceResolver(resourceResolver, metrics, this::getAdapterManager);
+  }
+
+  private @Nullable AdapterManager getAdapterManager() {
+    ServiceReference<AdapterManager> serviceReference = bundleContext.getServiceReference(AdapterManager.class);
+    if (serviceReference == null) {
+      return null;
+    }
+    return bundleContext.getService(serviceReference);
+  }
+
+}
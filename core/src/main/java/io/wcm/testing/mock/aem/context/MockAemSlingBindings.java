@@ -19,7 +19,16 @@
  */
 package io.wcm.testing.mock.aem.context;
 
-import org.apache.commons.lang3.StringUtils;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 import org.apache.sling.api.SlingHttpServletRequest;
 import org.apache.sling.api.resource.Resource;
 import org.apache.sling.api.resource.ResourceUtil;
@@ -30,6 +39,7 @@ import org.jetbrains.annotations.Nullable;
 
 import com.day.cq.commons.ValueMapWrapper;
 import com.day.cq.wcm.api.Page;
+import com.day.cq.wcm.api.WCMMode;
 import com.day.cq.wcm.api.components.Component;
 import com.day.cq.wcm.api.components.ComponentContext;
 import com.day.cq.wcm.api.components.EditContext;
@@ -80,6 +90,9 @@ final class MockAemSlingBindings {
 
     CURRENT_CONTENT_POLICY_PROPS("currentContentPolicyProperties");
 
+    private static final Map<String, SlingBindingsProperty> PROPERTIES_BY_KEY = Arrays.stream(values())
+        .collect(Collectors.toUnmodifiableMap(SlingBindingsProperty::key, Function.identity()));
+
     private final String key;
 
     SlingBindingsProperty(String key) {
@@ -90,9 +103,29 @@ final class MockAemSlingBindings {
       return this.key;
     }
 
+    static @Nullable SlingBindingsProperty fromKey(@Nullable String key) {
+      return key != null ? PROPERTIES_BY_KEY.get(key) : null;
+    }
+
   }
 
   private static final String RA_DESIGN_CACHE_PREFIX = MockAemSlingBindings.class.getName() + "_design_";
+  private static final String RA_BINDINGS_MEMO = MockAemSlingBindings.class.getName() + "_memo";
+
+  /**
+   * Binding values that are expensive to compute are memoized per request, resource, component context and WCM mode,
+   * which are all inputs they depend on. The value maps of resource, page and content policy are wrapped on each
+   * access and are not memoized. Content policies and the values derived from them are not memoized either, as
+   * policies and their mappings may be changed at any time without notice - they are resolved once per lookup.
+   */
+  private static final Set<SlingBindingsProperty> MEMOIZED_PROPERTIES = Collections.unmodifiableSet(EnumSet.of(
+      SlingBindingsProperty.PAGE_MANAGER,
+      SlingBindingsProperty.RESOURCE_PAGE,
+      SlingBindingsProperty.COMPONENT,
+      SlingBindingsProperty.DESIGNER,
+      SlingBindingsProperty.CURRENT_DESIGN,
+      SlingBindingsProperty.RESOURCE_DESIGN,
+      SlingBindingsProperty.XSSAPI));
 
   private MockAemSlingBindings() {
     // static methods only
@@ -104,54 +137,69 @@ final class MockAemSlingBindings {
     if (givenRequest == null) {
       request = context.request();
     }
-
-    if (StringUtils.equals(property, SlingBindingsProperty.COMPONENT_CONTEXT.key)) {
-      return getWcmComponentContext(request);
-    }
-    if (StringUtils.equals(property, SlingBindingsProperty.EDIT_CONTEXT.key())) {
-      return getEditContext(request);
-    }
-    if (StringUtils.equals(property, SlingBindingsProperty.PROPERTIES.key())) {
-      return getProperties(request);
-    }
-    if (StringUtils.equals(property, SlingBindingsProperty.PAGE_MANAGER.key())) {
-      return context.pageManager();
-    }
-    if (StringUtils.equals(property, SlingBindingsProperty.CURRENT_PAGE.key())) {
-      return getCurrentPage(request);
-    }
-    if (StringUtils.equals(property, SlingBindingsProperty.RESOURCE_PAGE.key())) {
-      return getResourcePage(request, context);
-    }
-    if (StringUtils.equals(property, SlingBindingsProperty.PAGE_PROPERTIES.key())) {
-      return getPageProperties(request);
-    }
-    if (StringUtils.equals(property, SlingBindingsProperty.COMPONENT.key())) {
-      return getComponent(request);
-    }
-    if (StringUtils.equals(property, SlingBindingsProperty.DESIGNER.key())) {
-      return getDesigner(request);
-    }
-    if (StringUtils.equals(property, SlingBindingsProperty.CURRENT_DESIGN.key())) {
-      return getCurrentDesign(request);
-    }
-    if (StringUtils.equals(property, SlingBindingsProperty.RESOURCE_DESIGN.key())) {
-      return getResourceDesign(request, context);
-    }
-    if (StringUtils.equals(property, SlingBindingsProperty.CURRENT_STYLE.key())) {
-      return getStyle(request);
-    }
-    if (StringUtils.equals(property, SlingBindingsProperty.XSSAPI.key())) {
-      return getXssApi(context);
+    SlingBindingsProperty bindingsProperty = SlingBindingsProperty.fromKey(property);
+    if (bindingsProperty == null) {
+      return null;
     }
-    if (StringUtils.equals(property, SlingBindingsProperty.CURRENT_CONTENT_POLICY.key())) {
-      return getCurrentContentPolicy(request);
+    return resolve(bindingsProperty, new Resolution(context, request));
+  }
+
+  private static @Nullable Object resolve(@NotNull SlingBindingsProperty property, @NotNull Resolution resolution) {
+    if (!MEMOIZED_PROPERTIES.contains(property)) {
+      // computed once per lookup, e.g. content policy for current style and current content policy properties
+      if (resolution.values.containsKey(property)) {
+        return resolution.values.get(property);
+      }
+      Object value = compute(property, resolution);
+      resolution.values.put(property, value);
+      return value;
     }
-    if (StringUtils.equals(property, SlingBindingsProperty.CURRENT_CONTENT_POLICY_PROPS.key())) {
-      return getCurrentContentPolicyProperties(request);
+    BindingsMemo memo = resolution.getMemo();
+    if (memo.values.containsKey(property)) {
+      return memo.values.get(property);
     }
+    Object value = compute(property, resolution);
+    memo.values.put(property, value);
+    return value;
+  }
 
-    return null;
+  @SuppressWarnings("java:S1479") // one case per binding property
+  private static @Nullable Object compute(@NotNull SlingBindingsProperty property, @NotNull Resolution resolution) {
+    SlingHttpServletRequest request = resolution.request;
+    switch (property) {
+      case COMPONENT_CONTEXT:
+        return getWcmComponentContext(request);
+      case EDIT_CONTEXT:
+        return getEditContext(request);
+      case PROPERTIES:
+        return getProperties(request);
+      case PAGE_MANAGER:
+        return resolution.context.pageManager();
+      case CURRENT_PAGE:
+        return getCurrentPage(request);
+      case RESOURCE_PAGE:
+        return getResourcePage(request, resolution.context);
+      case PAGE_PROPERTIES:
+        return getPageProperties(request);
+      case COMPONENT:
+        return getComponent(request);
+      case DESIGNER:
+        return getDesigner(request);
+      case CURRENT_DESIGN:
+        return getCurrentDesign(resolution);
+      case RESOURCE_DESIGN:
+        return getResourceDesign(resolution);
+      case CURRENT_STYLE:
+        return getStyle(resolution);
+      case XSSAPI:
+        return getXssApi(resolution.context);
+      case CURRENT_CONTENT_POLICY:
+        return getCurrentContentPolicy(request);
+      case CURRENT_CONTENT_POLICY_PROPS:
+        return getCurrentContentPolicyProperties(resolution);
+      default:
+        return null;
+    }
   }
 
   private static ComponentContext getWcmComponentContext(SlingHttpServletRequest request) {
@@ -210,24 +258,25 @@ final class MockAemSlingBindings {
     return request.getResourceResolver().adaptTo(Designer.class);
   }
 
-  private static Design getCurrentDesign(SlingHttpServletRequest request) {
-    Page currentPage = getCurrentPage(request);
-    return getAndCacheDesign(currentPage, request, getDesigner(request));
+  private static Design getCurrentDesign(Resolution resolution) {
+    Page currentPage = getCurrentPage(resolution.request);
+    return getAndCacheDesign(currentPage, resolution.request, (Designer)resolve(SlingBindingsProperty.DESIGNER, resolution));
   }
 
-  private static Design getResourceDesign(SlingHttpServletRequest request, AemContextImpl context) {
-    return getAndCacheDesign(getResourcePage(request, context), request, getDesigner(request));
+  private static Design getResourceDesign(Resolution resolution) {
+    return getAndCacheDesign((Page)resolve(SlingBindingsProperty.RESOURCE_PAGE, resolution), resolution.request,
+        (Designer)resolve(SlingBindingsProperty.DESIGNER, resolution));
   }
 
-  private static Style getStyle(SlingHttpServletRequest request) {
-    ComponentContext wcmComponentContext = getWcmComponentContext(request);
+  private static Style getStyle(Resolution resolution) {
+    ComponentContext wcmComponentContext = getWcmComponentContext(resolution.request);
     if (wcmComponentContext != null) {
-      ContentPolicy contentPolicy = getCurrentContentPolicy(request);
+      ContentPolicy contentPolicy = (ContentPolicy)resolve(SlingBindingsProperty.CURRENT_CONTENT_POLICY, resolution);
       if (contentPolicy != null) {
         return new ContentPolicyStyle(contentPolicy, wcmComponentContext.getCell());
       }
       else {
-        Design currentDesign = getCurrentDesign(request);
+        Design currentDesign = (Design)resolve(SlingBindingsProperty.CURRENT_DESIGN, resolution);
         if (currentDesign != null) {
           return currentDesign.getStyle(wcmComponentContext.getCell());
         }
@@ -251,8 +300,8 @@ final class MockAemSlingBindings {
     return null;
   }
 
-  private static ValueMap getCurrentContentPolicyProperties(SlingHttpServletRequest request) {
-    ContentPolicy contentPolicy = getCurrentContentPolicy(request);
+  private static ValueMap getCurrentContentPolicyProperties(Resolution resolution) {
+    ContentPolicy contentPolicy = (ContentPolicy)resolve(SlingBindingsProperty.CURRENT_CONTENT_POLICY, resolution);
     if (contentPolicy != null) {
       return wrap(contentPolicy.getProperties());
     }
@@ -278,4 +327,59 @@ final class MockAemSlingBindings {
     return design;
   }
 
+  /**
+   * Context of a single binding resolution. The memo is looked up lazily.
+   */
+  private static final class Resolution {
+
+    private final AemContextImpl context;
+    private final SlingHttpServletRequest request;
+    private final Map<SlingBindingsProperty, Object> values = new EnumMap<>(SlingBindingsProperty.class);
+    private BindingsMemo memo;
+
+    Resolution(@NotNull AemContextImpl context, @NotNull SlingHttpServletRequest request) {
+      this.context = context;
+      this.request = request;
+    }
+
+    /**
+     * @return Memo for the current resource of the request. A new memo is created if the current resource,
+     *         the component context (current page) or the WCM mode has changed.
+     */
+    @SuppressWarnings("unchecked")
+    @NotNull
+    BindingsMemo getMemo() {
+      if (memo == null) {
+        Map<Resource, BindingsMemo> memos = (Map<Resource, BindingsMemo>)request.getAttribute(RA_BINDINGS_MEMO);
+        if (memos == null) {
+          memos = new IdentityHashMap<>();
+          request.setAttribute(RA_BINDINGS_MEMO, memos);
+        }
+        Resource resource = request.getResource();
+        ComponentContext componentContext = getWcmComponentContext(request);
+        WCMMode wcmMode = WCMMode.fromRequest(request);
+        memo = memos.get(resource);
+        if (memo == null || memo.componentContext != componentContext || memo.wcmMode != wcmMode) {
+          memo = new BindingsMemo(componentContext, wcmMode);
+          memos.put(resource, memo);
+        }
+      }
+      return memo;
+    }
+
+  }
+
+  private static final class BindingsMemo {
+
+    private final ComponentContext componentContext;
+    private final WCMMode wcmMode;
+    private final Map<SlingBindingsProperty, Object> values = new EnumMap<>(SlingBindingsProperty.class);
+
+    BindingsMemo(@Nullable ComponentContext componentContext, @NotNull WCMMode wcmMode) {
+      this.componentContext = componentContext;
+      this.wcmMode = wcmMode;
+    }
+
+  }
+
 }
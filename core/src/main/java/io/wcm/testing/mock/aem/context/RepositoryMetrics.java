@@ -0,0 +1,148 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem.context;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jetbrains.annotations.NotNull;
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * Counts the repository operations executed via the resource resolver of an AEM context, and offers assertions
+ * on them. This allows to write performance regression tests, e.g. to make sure a Sling Model does not trigger
+ * more than a given number of resource lookups:
+ * <pre>
+ * context.repositoryMetrics().reset();
+ * MyModel model = context.request().adaptTo(MyModel.class);
+ * context.repositoryMetrics().assertMaxCount(RepositoryOperation.GET_RESOURCE, 5);
+ * </pre>
+ * <p>
+ * Only operations executed via the resource resolver of the context (and the resources, adapter objects and
+ * requests created from it) are counted.
+ * </p>
+ */
+@ProviderType
+public final class RepositoryMetrics {
+
+  private final AtomicLongArray counts = new AtomicLongArray(RepositoryOperation.values().length);
+  private final ConcurrentMap<Class<?>, LongAdder> adaptToCounts = new ConcurrentHashMap<>();
+
+  RepositoryMetrics() {
+    // only created by AEM context
+  }
+
+  void increment(@NotNull RepositoryOperation operation) {
+    counts.incrementAndGet(operation.ordinal());
+  }
+
+  void add(@NotNull RepositoryOperation operation, long value) {
+    counts.addAndGet(operation.ordinal(), value);
+  }
+
+  void incrementAdaptTo(@NotNull Class<?> type) {
+    increment(RepositoryOperation.ADAPT_TO);
+    adaptToCounts.computeIfAbsent(type, key -> new LongAdder()).increment();
+  }
+
+  /**
+   * @param operation Repository operation
+   * @return Number of executions of the operation (or number of bytes for binary operations)
+   */
+  public long getCount(@NotNull RepositoryOperation operation) {
+    return counts.get(operation.ordinal());
+  }
+
+  /**
+   * @param type Adapter type
+   * @return Number of adaptations to the given type
+   */
+  public long getAdaptToCount(@NotNull Class<?> type) {
+    LongAdder count = adaptToCounts.get(type);
+    return count != null ? count.sum() : 0L;
+  }
+
+  /**
+   * @return Number of adaptations per adapter type
+   */
+  public @NotNull Map<Class<?>, Long> getAdaptToCounts() {
+    Map<Class<?>, Long> result = new TreeMap<>((type1, type2) -> type1.getName().compareTo(type2.getName()));
+    adaptToCounts.forEach((type, count) -> result.put(type, count.sum()));
+    return result;
+  }
+
+  /**
+   * Resets all counters to zero.
+   */
+  public void reset() {
+    for (int i = 0; i < counts.length(); i++) {
+      counts.set(i, 0L);
+    }
+    adaptToCounts.clear();
+  }
+
+  /**
+   * Asserts that the given operation was not executed more than the given number of times.
+   * @param operation Repository operation
+   * @param maxCount Max. count
+   * @return this
+   * @throws AssertionError if the count is exceeded
+   */
+  public @NotNull RepositoryMetrics assertMaxCount(@NotNull RepositoryOperation operation, long maxCount) {
+    long count = getCount(operation);
+    if (count > maxCount) {
+      throw new AssertionError("Expected max. " + maxCount + " " + operation + " operations, but was: " + count);
+    }
+    return this;
+  }
+
+  /**
+   * Asserts that the resource resolver or its resources were not adapted to the given type more than the given
+   * number of times.
+   * @param type Adapter type
+   * @param maxCount Max. count
+   * @return this
+   * @throws AssertionError if the count is exceeded
+   */
+  public @NotNull RepositoryMetrics assertMaxAdaptToCount(@NotNull Class<?> type, long maxCount) {
+    long count = getAdaptToCount(type);
+    if (count > maxCount) {
+      throw new AssertionError("Expected max. " + maxCount + " adaptations to " + type.getName() + ", but was: " + count);
+    }
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder result = new StringBuilder();
+    for (RepositoryOperation operation : RepositoryOperation.values()) {
+      if (result.length() > 0) {
+        result.append(", ");
+      }
+      result.append(operation).append('=').append(getCount(operation));
+    }
+    return result.toString();
+  }
+
+}
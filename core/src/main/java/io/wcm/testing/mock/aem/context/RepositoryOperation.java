@@ -0,0 +1,62 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem.context;
+
+/**
+ * Repository operations counted by {@link RepositoryMetrics}.
+ */
+public enum RepositoryOperation {
+
+  /**
+   * Resource lookups via <code>getResource</code>, <code>resolve</code> and <code>getChild</code>.
+   */
+  GET_RESOURCE,
+
+  /**
+   * Child resource listings via <code>listChildren</code> and <code>getChildren</code>.
+   */
+  LIST_CHILDREN,
+
+  /**
+   * Adaptations of the resource resolver and its resources via <code>adaptTo</code>.
+   */
+  ADAPT_TO,
+
+  /**
+   * Commits of the resource resolver.
+   */
+  COMMIT,
+
+  /**
+   * Number of bytes read from binary resources via <code>adaptTo(InputStream.class)</code>.
+   */
+  BINARY_BYTES_READ,
+
+  /**
+   * Number of bytes written to binary properties of resources created via the resource resolver.
+   */
+  BINARY_BYTES_WRITTEN,
+
+  /**
+   * DAM events sent via the OSGi event admin.
+   */
+  DAM_EVENTS
+
+}
@@ -33,10 +33,12 @@ import org.osgi.annotation.versioning.ProviderType;
 @SuppressWarnings("java:S2176") // same name as superclass
 public final class UniqueRoot extends org.apache.sling.testing.mock.sling.context.UniqueRoot {
 
+  private final AemContextImpl context;
   private Resource damRoot;
 
   UniqueRoot(@NotNull AemContextImpl context) {
     super(context);
+    this.context = context;
   }
 
   /**
@@ -53,8 +55,10 @@ public final class UniqueRoot extends org.apache.sling.testing.mock.sling.contex
 
   @Override
   protected void cleanUp() {
+    long start = context.startPhase();
     deleteResources(damRoot);
     super.cleanUp();
+    context.endPhase(ContextPhase.UNIQUE_ROOT_CLEANUP, start);
   }
 
 }
@@ -0,0 +1,132 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem.dam;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.jcr.Node;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import com.day.cq.commons.jcr.JcrConstants;
+import com.day.cq.dam.api.DamConstants;
+import com.day.cq.dam.commons.util.DamUtil;
+
+/**
+ * Maps asset identifiers to asset paths.
+ * Assets created, copied or moved via the mock asset managers are registered directly. Assets created by other means
+ * (e.g. content loader) are looked up via the JCR identifier or - if not found - by indexing the whole DAM
+ * subtree. Indexed paths are validated against the repository on each lookup, so only unknown identifiers
+ * trigger a scan. Misses are not remembered, as assets may be added at any time without notifying the index.
+ */
+final class AssetIdentifierIndex {
+
+  private final ConcurrentMap<String, String> pathsById = new ConcurrentHashMap<>();
+
+  void put(@NotNull String id, @NotNull String path) {
+    pathsById.put(id, path);
+  }
+
+  void remove(@NotNull String id) {
+    pathsById.remove(id);
+  }
+
+  /**
+   * @param resourceResolver Resource resolver
+   * @param id Asset identifier
+   * @return Asset resource or null if not found
+   */
+  @Nullable
+  Resource getAssetResource(@NotNull ResourceResolver resourceResolver, @NotNull String id) {
+    String path = pathsById.get(id);
+    if (path != null) {
+      Resource resource = resourceResolver.getResource(path);
+      if (resource != null && StringUtils.equals(id, getId(resource))) {
+        return resource;
+      }
+      // index entry is outdated
+      pathsById.remove(id, path);
+    }
+
+    Resource resource = getResourceByJcrIdentifier(resourceResolver, id);
+    if (resource == null) {
+      reindex(resourceResolver.getResource(DamConstants.MOUNTPOINT_ASSETS));
+      path = pathsById.get(id);
+      if (path != null) {
+        resource = resourceResolver.getResource(path);
+      }
+    }
+    if (resource != null && DamUtil.isAsset(resource)) {
+      pathsById.put(id, resource.getPath());
+      return resource;
+    }
+    return null;
+  }
+
+  private static @Nullable Resource getResourceByJcrIdentifier(@NotNull ResourceResolver resourceResolver, @NotNull String id) {
+    Session session = resourceResolver.adaptTo(Session.class);
+    if (session == null) {
+      return null;
+    }
+    try {
+      Node node = session.getNodeByIdentifier(id);
+      return resourceResolver.getResource(node.getPath());
+    }
+    catch (RepositoryException | UnsupportedOperationException ex) {
+      return null;
+    }
+  }
+
+  /**
+   * Registers all assets in the given subtree with their current path, e.g. after the subtree was moved.
+   * @param resource Root resource of the subtree
+   */
+  void reindex(@Nullable Resource resource) {
+    if (resource == null) {
+      return;
+    }
+    if (DamUtil.isAsset(resource)) {
+      String id = getId(resource);
+      if (StringUtils.isNotEmpty(id)) {
+        pathsById.put(id, resource.getPath());
+      }
+      // only sub assets may contain further assets
+      reindex(resource.getChild(JcrConstants.JCR_CONTENT + "/" + DamConstants.SUBASSETS_FOLDER));
+      return;
+    }
+    Iterator<Resource> children = resource.listChildren();
+    while (children.hasNext()) {
+      reindex(children.next());
+    }
+  }
+
+  static @Nullable String getId(@NotNull Resource resource) {
+    return resource.getValueMap().get(JcrConstants.JCR_UUID, String.class);
+  }
+
+}
@@ -29,7 +29,6 @@ import org.osgi.framework.BundleContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
-import org.osgi.service.event.EventAdmin;
 
 import com.day.cq.dam.api.Asset;
 import com.day.cq.dam.api.AssetManager;
@@ -54,9 +53,10 @@ import com.day.cq.dam.commons.util.DamUtil;
 public final class MockAemDamAdapterFactory implements AdapterFactory {
 
   @Reference
-  private EventAdmin eventAdmin;
+  private MockDamEventDispatcher eventDispatcher;
 
   private BundleContext bundleContext;
+  private final AssetIdentifierIndex assetIdentifierIndex = new AssetIdentifierIndex();
 
   @Activate
   private void activate(BundleContext context) {
@@ -77,10 +77,10 @@ public final class MockAemDamAdapterFactory implements AdapterFactory {
   private @Nullable <AdapterType> AdapterType getAdapter(@NotNull final Resource resource, @NotNull final Class<AdapterType> type) {
     if (DamUtil.isAsset(resource)) {
       if (type == com.adobe.granite.asset.api.Asset.class) {
-        return type.cast(new MockGraniteAssetWrapper(new MockAsset(resource, eventAdmin, bundleContext)));
+        return type.cast(new MockGraniteAssetWrapper(new MockAsset(resource, eventDispatcher, bundleContext, assetIdentifierIndex)));
       }
       else if (type == Asset.class) {
-        return type.cast(new MockAsset(resource, eventAdmin, bundleContext));
+        return type.cast(new MockAsset(resource, eventDispatcher, bundleContext, assetIdentifierIndex));
       }
     }
     if ((type == Rendition.class || type == com.adobe.granite.asset.api.Rendition.class) && DamUtil.isRendition(resource)) {
@@ -91,10 +91,10 @@ public final class MockAemDamAdapterFactory implements AdapterFactory {
 
   private @Nullable <AdapterType> AdapterType getAdapter(@NotNull final ResourceResolver resolver, @NotNull final Class<AdapterType> type) {
     if (type == AssetManager.class) {
-      return type.cast(new MockAssetManager(resolver, eventAdmin, bundleContext));
+      return type.cast(new MockAssetManager(resolver, eventDispatcher, bundleContext, assetIdentifierIndex));
     }
     else if (type == com.adobe.granite.asset.api.AssetManager.class) {
-      return type.cast(new MockGraniteAssetManagerWrapper(resolver));
+      return type.cast(new MockGraniteAssetManagerWrapper(resolver, assetIdentifierIndex));
     }
     return null;
   }
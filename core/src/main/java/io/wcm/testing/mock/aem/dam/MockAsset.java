@@ -20,6 +20,7 @@
 package io.wcm.testing.mock.aem.dam;
 
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Collections;
@@ -32,6 +33,7 @@ import javax.jcr.Binary;
 import org.apache.commons.collections4.IteratorUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.jackrabbit.api.security.user.User;
+import org.apache.sling.api.resource.ModifiableValueMap;
 import org.apache.sling.api.resource.PersistenceException;
 import org.apache.sling.api.resource.Resource;
 import org.apache.sling.api.resource.ResourceResolver;
@@ -41,7 +43,6 @@ import org.apache.sling.api.resource.ValueMap;
 import org.apache.sling.testing.mock.sling.loader.ContentLoader;
 import org.jetbrains.annotations.NotNull;
 import org.osgi.framework.BundleContext;
-import org.osgi.service.event.EventAdmin;
 
 import com.adobe.granite.asset.api.RenditionHandler;
 import com.day.cq.commons.jcr.JcrConstants;
@@ -65,19 +66,24 @@ class MockAsset extends ResourceWrapper implements Asset {
   private final Resource resource;
   private final ValueMap contentProps;
   private final Resource renditionsResource;
-  private final EventAdmin eventAdmin;
+  private final MockDamEventDispatcher eventDispatcher;
   private final BundleContext bundleContext;
+  private final AssetIdentifierIndex assetIdentifierIndex;
   private boolean batchMode;
+  private final List<DamEvent> pendingEvents = new ArrayList<>();
+  private String currentOriginal;
 
-  MockAsset(@NotNull Resource resource, EventAdmin eventAdmin, BundleContext bundleContext) {
+  MockAsset(@NotNull Resource resource, MockDamEventDispatcher eventDispatcher, BundleContext bundleContext,
+      AssetIdentifierIndex assetIdentifierIndex) {
     super(resource);
     this.resourceResolver = resource.getResourceResolver();
     this.resource = resource;
     Resource contentResource = resource.getChild(JcrConstants.JCR_CONTENT);
     this.contentProps = ResourceUtil.getValueMap(contentResource);
     this.renditionsResource = resource.getChild(JcrConstants.JCR_CONTENT + "/" + DamConstants.RENDITIONS_FOLDER);
-    this.eventAdmin = eventAdmin;
+    this.eventDispatcher = eventDispatcher;
     this.bundleContext = bundleContext;
+    this.assetIdentifierIndex = assetIdentifierIndex;
   }
 
   @Override
@@ -163,14 +169,15 @@ class MockAsset extends ResourceWrapper implements Asset {
 
   @Override
   public Rendition getRendition(String name) {
-    Iterator<Rendition> renditions = listRenditions();
-    while (renditions.hasNext()) {
-      Rendition rendition = renditions.next();
-      if (StringUtils.equals(rendition.getName(), name)) {
-        return rendition;
-      }
+    if (this.renditionsResource == null || StringUtils.isEmpty(name)) {
+      return null;
+    }
+    // direct lookup instead of adapting all renditions - always reflects the current repository content
+    Resource rendition = this.renditionsResource.getChild(name);
+    if (rendition == null) {
+      return null;
     }
-    return null;
+    return rendition.adaptTo(Rendition.class);
   }
 
   @Override
@@ -213,7 +220,7 @@ class MockAsset extends ResourceWrapper implements Asset {
     }
 
     // send DamEvent after rendition creation
-    eventAdmin.sendEvent(DamEvent.renditionUpdated(getPath(), resourceResolver.getUserID(), rendition.getPath()).toEvent());
+    sendEvent(DamEvent.renditionUpdated(getPath(), resourceResolver.getUserID(), rendition.getPath()));
 
     return rendition.adaptTo(Rendition.class);
   }
@@ -236,13 +243,37 @@ class MockAsset extends ResourceWrapper implements Asset {
       throw new RuntimeException("Unable to remove resource: " + rendition.getPath(), ex);
     }
 
-    // send DamEvent after rendition creation
-    eventAdmin.sendEvent(DamEvent.renditionRemoved(getPath(), resourceResolver.getUserID(), rendition.getPath()).toEvent());
+    // send DamEvent after rendition removal
+    sendEvent(DamEvent.renditionRemoved(getPath(), resourceResolver.getUserID(), rendition.getPath()));
   }
 
+  /**
+   * Replaces the binary data of an existing rendition in-place, or adds a new rendition if it does not exist yet.
+   */
   @Override
   public Resource setRendition(String name, InputStream is, String mimeType) {
-    return addRendition(name, is, mimeType);
+    Resource renditionContent = renditionsResource != null ? renditionsResource.getChild(name + "/" + JcrConstants.JCR_CONTENT) : null;
+    ModifiableValueMap props = renditionContent != null ? renditionContent.adaptTo(ModifiableValueMap.class) : null;
+    if (props == null) {
+      return addRendition(name, is, mimeType);
+    }
+    Resource rendition = renditionContent.getParent();
+    props.put(JcrConstants.JCR_DATA, is);
+    props.put(JcrConstants.JCR_MIMETYPE, mimeType);
+    props.put(JcrConstants.JCR_LASTMODIFIED, Calendar.getInstance());
+    try {
+      if (!isBatchMode()) {
+        resourceResolver.commit();
+      }
+    }
+    catch (PersistenceException ex) {
+      throw new RuntimeException("Unable to update resource: " + rendition.getPath(), ex);
+    }
+
+    // send DamEvent after rendition update
+    sendEvent(DamEvent.renditionUpdated(getPath(), resourceResolver.getUserID(), rendition.getPath()));
+
+    return rendition.adaptTo(Rendition.class);
   }
 
   @Override
@@ -259,57 +290,110 @@ class MockAsset extends ResourceWrapper implements Asset {
     throw new UnsupportedOperationException("Mime type property missing in map: " + RenditionHandler.PROPERTY_RENDITION_MIME_TYPE);
   }
 
-
-  // --- unsupported operations ---
-
   @Override
   public Rendition getCurrentOriginal() {
-    throw new UnsupportedOperationException();
+    return getRendition(StringUtils.defaultString(currentOriginal, DamConstants.ORIGINAL_FILE));
   }
 
   @Override
-  public boolean isSubAsset() {
-    throw new UnsupportedOperationException();
+  public void setCurrentOriginal(String name) {
+    this.currentOriginal = name;
   }
 
   @Override
-  public void setCurrentOriginal(String name) {
-    throw new UnsupportedOperationException();
+  public boolean isSubAsset() {
+    String parentPath = ResourceUtil.getParent(getPath());
+    return parentPath != null && StringUtils.equals(ResourceUtil.getName(parentPath), DamConstants.SUBASSETS_FOLDER);
   }
 
   @Override
-  public Revision createRevision(String label, String comment) {
-    throw new UnsupportedOperationException();
+  public Asset addSubAsset(String name, String mimeType, InputStream stream) {
+    String subAssetPath = getPath() + "/" + JcrConstants.JCR_CONTENT + "/" + DamConstants.SUBASSETS_FOLDER + "/" + name;
+    MockAssetManager assetManager = new MockAssetManager(resourceResolver, eventDispatcher, bundleContext, assetIdentifierIndex);
+    Asset subAsset = assetManager.createAsset(subAssetPath, stream, mimeType, !isBatchMode(), this::sendEvent);
+
+    // send DamEvent after sub asset creation
+    sendEvent(DamEvent.subassetUpdated(getPath(), resourceResolver.getUserID(), subAssetPath));
+
+    return subAsset;
   }
 
   @Override
-  public Asset restore(String revisionId) {
-    throw new UnsupportedOperationException();
+  public Collection<Asset> getSubAssets() {
+    Resource subAssetsResource = resource.getChild(JcrConstants.JCR_CONTENT + "/" + DamConstants.SUBASSETS_FOLDER);
+    if (subAssetsResource == null) {
+      return Collections.emptyList();
+    }
+    List<Asset> subAssets = new ArrayList<>();
+    Iterator<Resource> subAssetResources = resourceResolver.listChildren(subAssetsResource);
+    while (subAssetResources.hasNext()) {
+      Asset subAsset = subAssetResources.next().adaptTo(Asset.class);
+      if (subAsset != null) {
+        subAssets.add(subAsset);
+      }
+    }
+    return subAssets;
   }
 
+  /**
+   * In batch mode, commits and DAM events are deferred until the batch mode is switched off again.
+   * All changes are committed at once, and the collected DAM events are sent afterwards with duplicates removed.
+   */
   @Override
-  public Collection<Revision> getRevisions(Calendar cal) {
-    throw new UnsupportedOperationException();
+  public void setBatchMode(boolean mode) {
+    boolean endOfBatch = this.batchMode && !mode;
+    this.batchMode = mode;
+    if (endOfBatch) {
+      try {
+        if (resourceResolver.hasChanges()) {
+          resourceResolver.commit();
+        }
+      }
+      catch (PersistenceException ex) {
+        throw new RuntimeException("Unable to commit changes for asset: " + getPath(), ex);
+      }
+      sendPendingEvents();
+    }
   }
 
   @Override
-  public Asset addSubAsset(String name, String mimeType, InputStream stream) {
-    throw new UnsupportedOperationException();
+  public boolean isBatchMode() {
+    return this.batchMode;
+  }
+
+  private void sendEvent(@NotNull DamEvent damEvent) {
+    if (isBatchMode()) {
+      pendingEvents.add(damEvent);
+    }
+    else {
+      eventDispatcher.dispatch(damEvent);
+    }
   }
 
+  private void sendPendingEvents() {
+    Collection<DamEvent> coalescedEvents = MockDamEventDispatcher.coalesce(pendingEvents);
+    pendingEvents.clear();
+    for (DamEvent damEvent : coalescedEvents) {
+      eventDispatcher.dispatch(damEvent);
+    }
+  }
+
+
+  // --- unsupported operations ---
+
   @Override
-  public Collection<Asset> getSubAssets() {
+  public Revision createRevision(String label, String comment) {
     throw new UnsupportedOperationException();
   }
 
   @Override
-  public void setBatchMode(boolean mode) {
-    this.batchMode = mode;
+  public Asset restore(String revisionId) {
+    throw new UnsupportedOperationException();
   }
 
   @Override
-  public boolean isBatchMode() {
-    return this.batchMode;
+  public Collection<Revision> getRevisions(Calendar cal) {
+    throw new UnsupportedOperationException();
   }
 
   @Override
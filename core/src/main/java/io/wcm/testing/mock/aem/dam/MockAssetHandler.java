@@ -19,24 +19,39 @@
  */
 package io.wcm.testing.mock.aem.dam;
 
+import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.io.IOUtils;
+import org.jetbrains.annotations.NotNull;
 import org.osgi.service.component.annotations.Component;
 
 import com.adobe.granite.asset.api.AssetRelation;
 import com.day.cq.dam.api.Asset;
 import com.day.cq.dam.api.AssetHandlerException;
+import com.day.cq.dam.api.DamConstants;
 import com.day.cq.dam.api.Rendition;
 import com.day.cq.dam.api.handler.AssetHandler;
 import com.day.cq.dam.api.metadata.ExtractedMetadata;
 import com.day.cq.dam.api.thumbnail.ThumbnailConfig;
+import com.day.cq.dam.commons.thumbnail.ThumbnailConfigImpl;
 import com.day.image.Layer;
 
 /**
@@ -59,6 +74,14 @@ public final class MockAssetHandler implements AssetHandler {
       SVG_MIME_TYPE
   };
 
+  // default thumbnail sizes generated by the "DAM Update Asset" workflow
+  static final List<ThumbnailConfig> DEFAULT_THUMBNAIL_CONFIGS = List.of(
+      new ThumbnailConfigImpl(48, 48, false),
+      new ThumbnailConfigImpl(140, 100, false),
+      new ThumbnailConfigImpl(319, 319, false));
+
+  private static final Color TRANSPARENT = new Color(0, 0, 0, 0);
+
   @Override
   public String[] getMimeTypes() {
     return MIME_TYPES;
@@ -82,24 +105,133 @@ public final class MockAssetHandler implements AssetHandler {
     return false;
   }
 
-
-  // --- unsupported operations ---
-
   @Override
   public void createThumbnails(Asset asset) throws IOException {
-    throw new UnsupportedOperationException();
+    createThumbnails(asset, DEFAULT_THUMBNAIL_CONFIGS);
   }
 
   @Override
   public void createThumbnails(Asset asset, Collection<ThumbnailConfig> configs) throws IOException {
-    throw new UnsupportedOperationException();
+    createThumbnails(asset, asset.getOriginal(), configs);
   }
 
+  /**
+   * Creates thumbnail renditions for all given configurations.
+   * The source rendition is decoded only once, all thumbnails are scaled down from this decoded image.
+   */
   @Override
   public void createThumbnails(Asset asset, Rendition rendition, Collection<ThumbnailConfig> configs) throws IOException {
-    throw new UnsupportedOperationException();
+    if (rendition == null) {
+      throw new IOException("No source rendition for thumbnail generation: " + asset.getPath());
+    }
+    byte[] data;
+    try (InputStream is = rendition.getStream()) {
+      if (is == null) {
+        throw new IOException("No binary data in rendition: " + rendition.getPath());
+      }
+      data = IOUtils.toByteArray(is);
+    }
+    storeThumbnails(asset, renderThumbnails(data, configs));
+  }
+
+  /**
+   * Creates thumbnail renditions for multiple assets. Decoding and scaling of the original renditions is executed
+   * in parallel using a thread pool with the given maximum size. Reading and writing the renditions is done
+   * sequentially in the calling thread, because the resource resolver is not thread-safe.
+   * @param assets Assets
+   * @param configs Thumbnail configurations
+   * @param maxThreads Max. number of threads used for decoding and scaling
+   * @throws IOException I/O exception
+   */
+  public void createThumbnails(@NotNull Collection<Asset> assets, @NotNull Collection<ThumbnailConfig> configs, int maxThreads)
+      throws IOException {
+    if (assets.isEmpty()) {
+      return;
+    }
+    List<Map.Entry<Asset, byte[]>> sources = new ArrayList<>();
+    for (Asset asset : assets) {
+      Rendition original = asset.getOriginal();
+      if (original == null) {
+        throw new IOException("No original rendition for thumbnail generation: " + asset.getPath());
+      }
+      try (InputStream is = original.getStream()) {
+        if (is == null) {
+          throw new IOException("No binary data in rendition: " + original.getPath());
+        }
+        sources.add(Map.entry(asset, IOUtils.toByteArray(is)));
+      }
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(maxThreads, sources.size())));
+    try {
+      List<Future<Map<String, byte[]>>> results = new ArrayList<>();
+      for (Map.Entry<Asset, byte[]> source : sources) {
+        Callable<Map<String, byte[]>> task = () -> renderThumbnails(source.getValue(), configs);
+        results.add(executor.submit(task));
+      }
+      for (int i = 0; i < sources.size(); i++) {
+        storeThumbnails(sources.get(i).getKey(), results.get(i).get());
+      }
+    }
+    catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Thumbnail generation interrupted.", ex);
+    }
+    catch (ExecutionException ex) {
+      throw new IOException("Thumbnail generation failed.", ex.getCause());
+    }
+    finally {
+      executor.shutdownNow();
+    }
   }
 
+  /**
+   * Decodes the given binary data once and renders all thumbnails from it.
+   * @param data Binary data of source image
+   * @param configs Thumbnail configurations
+   * @return Map with rendition name as key and PNG binary data as value
+   */
+  static @NotNull Map<String, byte[]> renderThumbnails(byte @NotNull [] data, @NotNull Collection<ThumbnailConfig> configs)
+      throws IOException {
+    Layer source = new Layer(new ByteArrayInputStream(data));
+    Map<String, byte[]> thumbnails = new LinkedHashMap<>();
+    for (ThumbnailConfig config : configs) {
+      String name = DamConstants.PREFIX_ASSET_THUMBNAIL + "." + config.getWidth() + "." + config.getHeight() + ".png";
+      thumbnails.put(name, renderThumbnail(source, config));
+    }
+    return thumbnails;
+  }
+
+  private static byte[] renderThumbnail(@NotNull Layer source, @NotNull ThumbnailConfig config) throws IOException {
+    // downscale to fit in the bounding box, but never upscale
+    double scale = Math.min(1d, Math.min((double)config.getWidth() / source.getWidth(),
+        (double)config.getHeight() / source.getHeight()));
+    int width = Math.max(1, (int)Math.round(source.getWidth() * scale));
+    int height = Math.max(1, (int)Math.round(source.getHeight() * scale));
+
+    Layer thumbnail = new Layer(source);
+    thumbnail.resize(width, height);
+    if (config.doCenter()) {
+      Layer canvas = new Layer(config.getWidth(), config.getHeight(), TRANSPARENT);
+      canvas.blit(thumbnail, (config.getWidth() - width) / 2, (config.getHeight() - height) / 2,
+          width, height, 0, 0);
+      thumbnail = canvas;
+    }
+    try (ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
+      thumbnail.write(DamConstants.THUMBNAIL_MIMETYPE, 1.0d, bos);
+      return bos.toByteArray();
+    }
+  }
+
+  private static void storeThumbnails(@NotNull Asset asset, @NotNull Map<String, byte[]> thumbnails) {
+    for (Map.Entry<String, byte[]> thumbnail : thumbnails.entrySet()) {
+      asset.addRendition(thumbnail.getKey(), new ByteArrayInputStream(thumbnail.getValue()), DamConstants.THUMBNAIL_MIMETYPE);
+    }
+  }
+
+
+  // --- unsupported operations ---
+
   @Override
   public void exportAsset(Asset asset, OutputStream os) throws AssetHandlerException {
     throw new UnsupportedOperationException();
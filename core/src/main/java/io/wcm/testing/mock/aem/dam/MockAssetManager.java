@@ -21,6 +21,8 @@ package io.wcm.testing.mock.aem.dam;
 
 import static com.day.cq.commons.jcr.JcrConstants.JCR_CONTENT;
 import static com.day.cq.commons.jcr.JcrConstants.JCR_PRIMARYTYPE;
+import static com.day.cq.commons.jcr.JcrConstants.JCR_UUID;
+import static com.day.cq.commons.jcr.JcrConstants.MIX_REFERENCEABLE;
 import static com.day.cq.commons.jcr.JcrConstants.NT_FOLDER;
 import static com.day.cq.commons.jcr.JcrConstants.NT_UNSTRUCTURED;
 import static com.day.cq.dam.api.DamConstants.METADATA_FOLDER;
@@ -38,11 +40,15 @@ import java.util.Calendar;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
 
 import javax.jcr.Binary;
+import javax.jcr.Node;
 import javax.jcr.RepositoryException;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.jackrabbit.api.security.user.User;
 import org.apache.sling.api.resource.ModifiableValueMap;
 import org.apache.sling.api.resource.Resource;
@@ -50,7 +56,6 @@ import org.apache.sling.api.resource.ResourceResolver;
 import org.apache.sling.testing.mock.sling.loader.ContentLoader;
 import org.jetbrains.annotations.NotNull;
 import org.osgi.framework.BundleContext;
-import org.osgi.service.event.EventAdmin;
 
 import com.day.cq.dam.api.Asset;
 import com.day.cq.dam.api.AssetManager;
@@ -73,18 +78,35 @@ class MockAssetManager implements AssetManager {
   private final ResourceResolver resourceResolver;
   private final ContentBuilder contentBuilder;
   private final ContentLoader contentLoader;
-  private final EventAdmin eventAdmin;
+  private final MockDamEventDispatcher eventDispatcher;
+  private final AssetIdentifierIndex assetIdentifierIndex;
 
-  MockAssetManager(@NotNull ResourceResolver resourceResolver, EventAdmin eventAdmin, BundleContext bundleContext) {
+  MockAssetManager(@NotNull ResourceResolver resourceResolver, MockDamEventDispatcher eventDispatcher, BundleContext bundleContext,
+      AssetIdentifierIndex assetIdentifierIndex) {
     this.resourceResolver = resourceResolver;
     this.contentBuilder = new ContentBuilder(resourceResolver);
     this.contentLoader = new ContentLoader(resourceResolver, bundleContext, false);
-    this.eventAdmin = eventAdmin;
+    this.eventDispatcher = eventDispatcher;
+    this.assetIdentifierIndex = assetIdentifierIndex;
   }
 
   @Override
-  @SuppressFBWarnings({ "BAD_PRACTICE", "STYLE" })
   public Asset createAsset(String assetPath, InputStream inputStream, String mimeType, boolean autoSave) {
+    return createAsset(assetPath, inputStream, mimeType, autoSave, eventDispatcher::dispatch);
+  }
+
+  /**
+   * Creates an asset and passes the DAM events to the given consumer instead of sending them directly.
+   * @param assetPath Asset path
+   * @param inputStream Binary data for original rendition
+   * @param mimeType Mime type
+   * @param autoSave Commit changes
+   * @param eventConsumer Consumer for DAM events
+   * @return Asset
+   */
+  @SuppressFBWarnings({ "BAD_PRACTICE", "STYLE" })
+  Asset createAsset(String assetPath, InputStream inputStream, String mimeType, boolean autoSave,
+      @NotNull Consumer<DamEvent> eventConsumer) {
     String assetContentPath = assetPath + "/" + JCR_CONTENT;
     String metadataPath = assetContentPath + "/" + METADATA_FOLDER;
     String renditionsPath = assetContentPath + "/" + RENDITIONS_FOLDER;
@@ -115,13 +137,16 @@ class MockAssetManager implements AssetManager {
 
       createOrUpdateResource(metadataPath, NT_UNSTRUCTURED, metadataProps);
 
+      // assign stable asset ID
+      assignAssetID(resourceResolver.getResource(assetPath));
+
       // store original rendition
       String originalRenditionPath = renditionsPath + "/" + ORIGINAL_FILE;
       if (data != null) {
         try (InputStream is = new ByteArrayInputStream(data)) {
           contentLoader.binaryFile(is, originalRenditionPath, mimeType);
         }
-        eventAdmin.sendEvent(DamEvent.renditionUpdated(assetPath, resourceResolver.getUserID(), originalRenditionPath).toEvent());
+        eventConsumer.accept(DamEvent.renditionUpdated(assetPath, resourceResolver.getUserID(), originalRenditionPath));
       }
 
       if (autoSave) {
@@ -129,7 +154,7 @@ class MockAssetManager implements AssetManager {
       }
 
       // send DamEvent after asset creation
-      eventAdmin.sendEvent(DamEvent.assetCreated(assetPath, resourceResolver.getUserID()).toEvent());
+      eventConsumer.accept(DamEvent.assetCreated(assetPath, resourceResolver.getUserID()));
 
     }
     catch (IOException ex) {
@@ -139,6 +164,45 @@ class MockAssetManager implements AssetManager {
     return resourceResolver.getResource(assetPath).adaptTo(Asset.class);
   }
 
+  @Override
+  public String assignAssetID(Asset asset) throws RepositoryException {
+    return assignAssetID(asset.adaptTo(Resource.class));
+  }
+
+  /**
+   * Assigns an asset ID to the given asset resource, if not assigned already, and registers it in the identifier index.
+   * For JCR-based resource resolvers the asset node is made referenceable, otherwise a random UUID is stored.
+   * @param assetResource Asset resource
+   * @return Asset ID
+   */
+  String assignAssetID(@NotNull Resource assetResource) {
+    String id = AssetIdentifierIndex.getId(assetResource);
+    if (StringUtils.isEmpty(id)) {
+      try {
+        Node node = assetResource.adaptTo(Node.class);
+        if (node != null) {
+          if (!node.isNodeType(MIX_REFERENCEABLE)) {
+            node.addMixin(MIX_REFERENCEABLE);
+          }
+          id = node.getIdentifier();
+          if (!node.hasProperty(JCR_UUID)) {
+            node.setProperty(JCR_UUID, id);
+          }
+        }
+        else {
+          id = UUID.randomUUID().toString();
+          ModifiableValueMap props = assetResource.adaptTo(ModifiableValueMap.class);
+          props.put(JCR_UUID, id);
+        }
+      }
+      catch (RepositoryException ex) {
+        throw new RuntimeException("Unable to assign asset ID: " + assetResource.getPath(), ex);
+      }
+    }
+    assetIdentifierIndex.put(id, assetResource.getPath());
+    return id;
+  }
+
   @SuppressFBWarnings("STYLE")
   private void createOrUpdateResource(String path, String jcrPrimaryType, Map<String, Object> props) {
     Resource resource = resourceResolver.getResource(path);
@@ -190,11 +254,6 @@ class MockAssetManager implements AssetManager {
     throw new UnsupportedOperationException();
   }
 
-  @Override
-  public String assignAssetID(Asset asset) throws RepositoryException {
-    throw new UnsupportedOperationException();
-  }
-
   @Override
   public Asset createOrUpdateAsset(String arg0, Binary arg1, String arg2, boolean arg3) {
     throw new UnsupportedOperationException();
@@ -0,0 +1,208 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem.dam;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.jetbrains.annotations.NotNull;
+import org.osgi.annotation.versioning.ProviderType;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.event.EventAdmin;
+
+import com.day.cq.dam.api.DamEvent;
+
+/**
+ * Dispatches the DAM events sent by the mock DAM implementations.
+ * <p>
+ * By default events are sent synchronously via {@link EventAdmin#sendEvent(org.osgi.service.event.Event)},
+ * the dispatch mode can be switched with {@link #setDispatchMode(DispatchMode)}. Use {@link #drain()} to make sure
+ * all events are delivered before asserting on them in a unit test.
+ * </p>
+ */
+@Component(service = MockDamEventDispatcher.class)
+@ProviderType
+public final class MockDamEventDispatcher {
+
+  /**
+   * DAM event dispatch mode.
+   */
+  public enum DispatchMode {
+
+    /**
+     * Events are delivered synchronously in the calling thread.
+     */
+    SYNC,
+
+    /**
+     * Events are delivered asynchronously in order by a background thread with a bounded queue.
+     * If the queue is full, the calling thread blocks until there is space again.
+     */
+    ASYNC,
+
+    /**
+     * Events are collected and delivered coalesced (duplicate events removed) when {@link #drain()} is called.
+     */
+    COALESCED
+
+  }
+
+  static final int ASYNC_QUEUE_SIZE = 1000;
+  private static final long DRAIN_TIMEOUT_SEC = 30;
+
+  @Reference
+  private EventAdmin eventAdmin;
+
+  private volatile DispatchMode dispatchMode = DispatchMode.SYNC;
+  private ThreadPoolExecutor executor;
+  private final List<DamEvent> pendingEvents = new ArrayList<>();
+
+  @Deactivate
+  private synchronized void deactivate() {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+    pendingEvents.clear();
+  }
+
+  /**
+   * @return Current dispatch mode
+   */
+  public @NotNull DispatchMode getDispatchMode() {
+    return dispatchMode;
+  }
+
+  /**
+   * Switches the dispatch mode. Events that are still pending from the previous mode are delivered first.
+   * @param dispatchMode Dispatch mode
+   */
+  public void setDispatchMode(@NotNull DispatchMode dispatchMode) {
+    drain();
+    this.dispatchMode = dispatchMode;
+  }
+
+  /**
+   * Dispatch DAM event according to the current dispatch mode.
+   * @param damEvent DAM event
+   */
+  public void dispatch(@NotNull DamEvent damEvent) {
+    switch (dispatchMode) {
+      case ASYNC:
+        getExecutor().execute(() -> eventAdmin.sendEvent(damEvent.toEvent()));
+        break;
+      case COALESCED:
+        synchronized (pendingEvents) {
+          pendingEvents.add(damEvent);
+        }
+        break;
+      default:
+        eventAdmin.sendEvent(damEvent.toEvent());
+    }
+  }
+
+  /**
+   * Delivers all collected events and waits until all asynchronously dispatched events are delivered.
+   */
+  public void drain() {
+    List<DamEvent> events;
+    synchronized (pendingEvents) {
+      events = new ArrayList<>(pendingEvents);
+      pendingEvents.clear();
+    }
+    for (DamEvent damEvent : coalesce(events)) {
+      eventAdmin.sendEvent(damEvent.toEvent());
+    }
+    awaitAsyncEvents();
+  }
+
+  private void awaitAsyncEvents() {
+    ThreadPoolExecutor currentExecutor;
+    synchronized (this) {
+      currentExecutor = executor;
+    }
+    if (currentExecutor == null) {
+      return;
+    }
+    try {
+      // the single worker thread processes the events in order - so all previous events are delivered when this task is done
+      currentExecutor.submit(() -> { /* marker */ }).get(DRAIN_TIMEOUT_SEC, TimeUnit.SECONDS);
+    }
+    catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for DAM events.", ex);
+    }
+    catch (ExecutionException | TimeoutException | RejectedExecutionException ex) {
+      throw new IllegalStateException("Unable to drain DAM events.", ex);
+    }
+  }
+
+  private synchronized ThreadPoolExecutor getExecutor() {
+    if (executor == null) {
+      executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+          new ArrayBlockingQueue<>(ASYNC_QUEUE_SIZE),
+          runnable -> {
+            Thread thread = new Thread(runnable, "aem-mock-dam-events");
+            thread.setDaemon(true);
+            return thread;
+          },
+          (runnable, pool) -> {
+            // block calling thread until there is space in the queue
+            try {
+              if (!pool.isShutdown()) {
+                pool.getQueue().put(runnable);
+              }
+            }
+            catch (InterruptedException ex) {
+              Thread.currentThread().interrupt();
+              throw new RejectedExecutionException(ex);
+            }
+          });
+    }
+    return executor;
+  }
+
+  /**
+   * Removes duplicate events, keeping the position of the last occurrence.
+   * @param damEvents DAM events
+   * @return Coalesced DAM events
+   */
+  static @NotNull Collection<DamEvent> coalesce(@NotNull List<DamEvent> damEvents) {
+    Map<String, DamEvent> coalescedEvents = new LinkedHashMap<>();
+    for (DamEvent damEvent : damEvents) {
+      String key = damEvent.getType() + "|" + damEvent.getAssetPath() + "|" + damEvent.getAdditionalInfo();
+      coalescedEvents.remove(key);
+      coalescedEvents.put(key, damEvent);
+    }
+    return coalescedEvents.values();
+  }
+
+}
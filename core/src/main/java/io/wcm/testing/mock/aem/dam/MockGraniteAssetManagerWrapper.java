@@ -19,12 +19,21 @@
  */
 package io.wcm.testing.mock.aem.dam;
 
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import org.apache.commons.lang3.StringUtils;
 import org.apache.jackrabbit.JcrConstants;
 import org.apache.sling.api.resource.PersistenceException;
 import org.apache.sling.api.resource.Resource;
 import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceUtil;
 import org.jetbrains.annotations.NotNull;
 
 import com.adobe.granite.asset.api.Asset;
@@ -37,12 +46,28 @@ import com.day.cq.dam.api.DamConstants;
 @SuppressWarnings("java:S112") // allow throwing RuntimException
 public final class MockGraniteAssetManagerWrapper implements AssetManager {
 
+  // properties maintained by the repository that must not be copied
+  private static final Set<String> PROTECTED_PROPERTIES = Set.of(
+      JcrConstants.JCR_UUID,
+      JcrConstants.JCR_CREATED,
+      "jcr:createdBy",
+      JcrConstants.JCR_BASEVERSION,
+      JcrConstants.JCR_PREDECESSORS,
+      JcrConstants.JCR_VERSIONHISTORY,
+      JcrConstants.JCR_ISCHECKEDOUT);
+
   private final ResourceResolver resourceResolver;
   private final com.day.cq.dam.api.AssetManager cqAssetManager;
+  private final AssetIdentifierIndex assetIdentifierIndex;
 
   MockGraniteAssetManagerWrapper(@NotNull ResourceResolver resourceResolver) {
+    this(resourceResolver, new AssetIdentifierIndex());
+  }
+
+  MockGraniteAssetManagerWrapper(@NotNull ResourceResolver resourceResolver, @NotNull AssetIdentifierIndex assetIdentifierIndex) {
     this.resourceResolver = resourceResolver;
     this.cqAssetManager = resourceResolver.adaptTo(com.day.cq.dam.api.AssetManager.class);
+    this.assetIdentifierIndex = assetIdentifierIndex;
   }
 
   @Override
@@ -68,7 +93,11 @@ public final class MockGraniteAssetManagerWrapper implements AssetManager {
     try {
       Resource assetResource = resourceResolver.getResource(s);
       if (assetResource != null) {
+        String id = AssetIdentifierIndex.getId(assetResource);
         resourceResolver.delete(assetResource);
+        if (id != null) {
+          assetIdentifierIndex.remove(id);
+        }
       }
     }
     catch (PersistenceException pe) {
@@ -76,21 +105,115 @@ public final class MockGraniteAssetManagerWrapper implements AssetManager {
     }
   }
 
-
-  // --- unsupported operations ---
-
   @Override
-  public Asset getAssetByIdentifier(String s) {
-    throw new UnsupportedOperationException();
+  public Asset getAssetByIdentifier(String id) {
+    Resource assetResource = assetIdentifierIndex.getAssetResource(resourceResolver, id);
+    return assetResource != null ? assetResource.adaptTo(Asset.class) : null;
   }
 
+  /**
+   * Copies the asset subtree to the given path. The copy gets a new asset ID.
+   */
   @Override
-  public void copyAsset(String s, String s1) {
-    throw new UnsupportedOperationException();
+  public void copyAsset(String sourcePath, String destPath) {
+    Resource source = getExistingAssetResource(sourcePath);
+    ensureDestinationAvailable(destPath);
+    try {
+      Resource destParent = getOrCreateParent(destPath);
+      String destName = ResourceUtil.getName(destPath);
+      // copy property by property - JCR workspace copy does not work with transient changes,
+      // and copy to a different name is not supported by Sling API
+      Resource copy = copySubtree(source, destParent, destName, false);
+      assignNewAssetID(copy);
+    }
+    catch (PersistenceException | RepositoryException ex) {
+      throw new RuntimeException("Unable to copy asset " + sourcePath + " to " + destPath, ex);
+    }
   }
 
+  /**
+   * Moves the asset subtree to the given path. The asset keeps its asset ID.
+   */
   @Override
-  public void moveAsset(String s, String s1) {
-    throw new UnsupportedOperationException();
+  public void moveAsset(String sourcePath, String destPath) {
+    Resource source = getExistingAssetResource(sourcePath);
+    ensureDestinationAvailable(destPath);
+    try {
+      Resource destParent = getOrCreateParent(destPath);
+      String destName = ResourceUtil.getName(destPath);
+      Session session = resourceResolver.adaptTo(Session.class);
+      if (session != null) {
+        session.move(sourcePath, destPath);
+      }
+      else if (StringUtils.equals(source.getName(), destName)) {
+        resourceResolver.move(sourcePath, destParent.getPath());
+      }
+      else {
+        copySubtree(source, destParent, destName, true);
+        resourceResolver.delete(source);
+      }
+    }
+    catch (PersistenceException | RepositoryException ex) {
+      throw new RuntimeException("Unable to move asset " + sourcePath + " to " + destPath, ex);
+    }
+    // sub assets are moved as well, so register the whole subtree with its new paths
+    assetIdentifierIndex.reindex(resourceResolver.getResource(destPath));
+  }
+
+  private @NotNull Resource getExistingAssetResource(@NotNull String path) {
+    Resource resource = resourceResolver.getResource(path);
+    if (resource == null || !assetExists(path)) {
+      throw new IllegalArgumentException("Asset does not exist: " + path);
+    }
+    return resource;
   }
+
+  private void ensureDestinationAvailable(@NotNull String path) {
+    if (resourceResolver.getResource(path) != null) {
+      throw new IllegalArgumentException("Destination already exists: " + path);
+    }
+  }
+
+  private @NotNull Resource getOrCreateParent(@NotNull String path) throws PersistenceException {
+    String parentPath = ResourceUtil.getParent(path);
+    if (parentPath == null) {
+      throw new IllegalArgumentException("Invalid destination path: " + path);
+    }
+    return ResourceUtil.getOrCreateResource(resourceResolver, parentPath,
+        Map.<String, Object>of(JcrConstants.JCR_PRIMARYTYPE, JcrConstants.NT_UNSTRUCTURED), null, false);
+  }
+
+  /**
+   * Copies a resource subtree property by property.
+   * @param keepId If false, the ID of the non-JCR resources is not copied
+   */
+  private @NotNull Resource copySubtree(@NotNull Resource source, @NotNull Resource destParent, @NotNull String name,
+      boolean keepId) throws PersistenceException {
+    Map<String, Object> props = new HashMap<>(source.getValueMap());
+    if (isJcr()) {
+      props.keySet().removeAll(PROTECTED_PROPERTIES);
+    }
+    else if (!keepId) {
+      props.remove(JcrConstants.JCR_UUID);
+    }
+    Resource copy = resourceResolver.create(destParent, name, props);
+    Iterator<Resource> children = source.listChildren();
+    while (children.hasNext()) {
+      Resource child = children.next();
+      copySubtree(child, copy, child.getName(), keepId);
+    }
+    return copy;
+  }
+
+  private void assignNewAssetID(@NotNull Resource copy) throws RepositoryException {
+    com.day.cq.dam.api.Asset asset = copy.adaptTo(com.day.cq.dam.api.Asset.class);
+    if (asset != null && cqAssetManager != null) {
+      cqAssetManager.assignAssetID(asset);
+    }
+  }
+
+  private boolean isJcr() {
+    return resourceResolver.adaptTo(Session.class) != null;
+  }
+
 }
@@ -0,0 +1,98 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.sling.api.resource.ModifiableValueMap;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.testing.mock.sling.ResourceResolverType;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.day.cq.wcm.api.policies.ContentPolicyMapping;
+
+import io.wcm.testing.mock.aem.context.RepositoryMetrics;
+import io.wcm.testing.mock.aem.context.RepositoryOperation;
+import io.wcm.testing.mock.aem.context.TestAemContext;
+import io.wcm.testing.mock.aem.junit.AemContext;
+
+@SuppressWarnings("null")
+public class ContentPolicyIndexTest {
+
+  private static final String TEMPLATE_PATH = "/conf/app1/settings/wcm/templates/template1";
+  private static final String POLICIES_PATH = "/conf/app1/settings/wcm/policies";
+  private static final String RT_TEST = "app1/components/test";
+
+  @Rule
+  public AemContext context = TestAemContext.newAemContextBuilder(
+      ResourceResolverType.RESOURCERESOLVER_MOCK, ResourceResolverType.RESOURCEPROVIDER_MOCK)
+      .repositoryMetrics(true)
+      .build();
+
+  private final ContentPolicyIndex underTest = new ContentPolicyIndex();
+  private ResourceResolver resourceResolver;
+  private RepositoryMetrics metrics;
+  private String unusedPolicyPath;
+
+  @Before
+  public void setUp() {
+    resourceResolver = context.resourceResolver();
+    MockContentPolicyStorage.storeContentPolicyMapping(TEMPLATE_PATH, "", RT_TEST,
+        Map.of("prop1", "value1"), resourceResolver);
+    unusedPolicyPath = context.create().resource(POLICIES_PATH + "/" + RT_TEST + "/unused",
+        "sling:resourceType", MockContentPolicyStorage.RT_CONTENTPOLICY).getPath();
+    metrics = context.repositoryMetrics();
+  }
+
+  @Test
+  public void testUnusedPolicyNotLookedUpAgain() {
+    assertTrue(underTest.getTemplatePaths(resourceResolver, unusedPolicyPath).isEmpty());
+
+    metrics.reset();
+    for (int i = 0; i < 10; i++) {
+      assertTrue(underTest.getMappingPaths(resourceResolver, unusedPolicyPath).isEmpty());
+      assertTrue(underTest.getTemplatePaths(resourceResolver, unusedPolicyPath).isEmpty());
+    }
+    metrics.assertMaxCount(RepositoryOperation.LIST_CHILDREN, 0);
+    metrics.assertMaxCount(RepositoryOperation.GET_RESOURCE, 0);
+  }
+
+  @Test
+  public void testUnusedPolicyMappedLater() {
+    assertTrue(underTest.getMappingPaths(resourceResolver, unusedPolicyPath).isEmpty());
+
+    // mapping changed and index invalidated like on writes via content policy storage
+    ContentPolicyMapping mapping = MockContentPolicyStorage.storeContentPolicyMapping(TEMPLATE_PATH, "root", RT_TEST,
+        Map.of("prop1", "value2"), resourceResolver);
+    String mappingPath = mapping.getPath();
+    resourceResolver.getResource(mappingPath).adaptTo(ModifiableValueMap.class)
+        .put(MockContentPolicyStorage.PN_POLICY, RT_TEST + "/unused");
+    underTest.invalidate(resourceResolver, mappingPath);
+    assertEquals(List.of(mappingPath), underTest.getMappingPaths(resourceResolver, unusedPolicyPath));
+    assertEquals(List.of(TEMPLATE_PATH), underTest.getTemplatePaths(resourceResolver, unusedPolicyPath));
+  }
+
+}
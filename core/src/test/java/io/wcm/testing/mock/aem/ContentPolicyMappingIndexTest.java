@@ -0,0 +1,98 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem;
+
+import static org.apache.sling.api.resource.ResourceResolver.PROPERTY_RESOURCE_TYPE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.testing.mock.sling.ResourceResolverType;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.day.cq.wcm.api.Page;
+
+import io.wcm.testing.mock.aem.context.RepositoryMetrics;
+import io.wcm.testing.mock.aem.context.RepositoryOperation;
+import io.wcm.testing.mock.aem.context.TestAemContext;
+import io.wcm.testing.mock.aem.junit.AemContext;
+
+@SuppressWarnings("null")
+public class ContentPolicyMappingIndexTest {
+
+  private static final String TEMPLATE_PATH = "/conf/app1/settings/wcm/templates/template1";
+  private static final String RT_TEST = "app1/components/test";
+
+  @Rule
+  public AemContext context = TestAemContext.newAemContextBuilder(
+      ResourceResolverType.RESOURCERESOLVER_MOCK, ResourceResolverType.RESOURCEPROVIDER_MOCK)
+      .repositoryMetrics(true)
+      .build();
+
+  private final ContentPolicyMappingIndex underTest = new ContentPolicyMappingIndex();
+  private Page page;
+  private RepositoryMetrics metrics;
+
+  @Before
+  public void setUp() {
+    page = context.create().page("/content/test", TEMPLATE_PATH);
+    MockContentPolicyStorage.storeContentPolicyMapping(TEMPLATE_PATH, "root/container", RT_TEST,
+        Map.of("prop1", "value1"), context.resourceResolver());
+    metrics = context.repositoryMetrics();
+  }
+
+  @Test
+  public void testMissNotLookedUpAgain() {
+    Resource mapped = context.create().resource(page, "root/container/level1/level2/level3/resource1",
+        PROPERTY_RESOURCE_TYPE, RT_TEST);
+    Resource unmapped = context.create().resource(page, "root/container/level1/level2/level3/resource2",
+        PROPERTY_RESOURCE_TYPE, "app1/components/other");
+    assertEquals(TEMPLATE_PATH + "/policies/jcr:content/root/container/" + RT_TEST, underTest.resolveMapping(mapped).getPath());
+    assertNull(underTest.resolveMapping(unmapped));
+
+    metrics.reset();
+    underTest.resolveMapping(mapped);
+    long hitCount = metrics.getCount(RepositoryOperation.GET_RESOURCE);
+
+    // a remembered miss is not looked up in the repository for each container path and resource type
+    metrics.reset();
+    assertNull(underTest.resolveMapping(unmapped));
+    assertTrue(metrics.getCount(RepositoryOperation.GET_RESOURCE) <= hitCount);
+  }
+
+  @Test
+  public void testMissInvalidatedByStoredMapping() {
+    Resource resource = context.create().resource(page, "root/container/resource1",
+        PROPERTY_RESOURCE_TYPE, "app1/components/other");
+    assertNull(underTest.resolveMapping(resource));
+
+    MockContentPolicyStorage.storeContentPolicyMapping(TEMPLATE_PATH, "root/container", "app1/components/other",
+        Map.of("prop1", "value2"), context.resourceResolver());
+    underTest.invalidate(context.resourceResolver(), TEMPLATE_PATH);
+    assertEquals(TEMPLATE_PATH + "/policies/jcr:content/root/container/app1/components/other",
+        underTest.resolveMapping(resource).getPath());
+  }
+
+}
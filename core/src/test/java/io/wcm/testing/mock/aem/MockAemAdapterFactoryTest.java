@@ -20,17 +20,27 @@
 package io.wcm.testing.mock.aem;
 
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
+import org.apache.sling.api.resource.LoginException;
 import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceResolverFactory;
 import org.apache.sling.testing.mock.sling.loader.ContentLoader;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 
+import com.day.cq.dam.api.AssetManager;
+import com.day.cq.tagging.TagManager;
 import com.day.cq.wcm.api.Page;
 import com.day.cq.wcm.api.PageManager;
 import com.day.cq.wcm.api.Template;
+import com.day.cq.wcm.api.components.ComponentManager;
+import com.day.cq.wcm.api.designer.Designer;
+import com.day.cq.wcm.api.policies.ContentPolicyManager;
 
 import io.wcm.testing.mock.aem.context.TestAemContext;
 import io.wcm.testing.mock.aem.junit.AemContext;
@@ -78,4 +88,27 @@ public class MockAemAdapterFactoryTest {
     assertNull(component.adaptTo(Template.class));
   }
 
+  @Test
+  public void testResourceResolverAdaptersCached() {
+    ResourceResolver resolver = this.context.resourceResolver();
+
+    for (Class<?> type : new Class<?>[] { PageManager.class, ComponentManager.class, TagManager.class,
+        Designer.class, ContentPolicyManager.class, AssetManager.class }) {
+      Object adapter = resolver.adaptTo(type);
+      assertNotNull(adapter);
+      assertSame(adapter, resolver.adaptTo(type));
+    }
+  }
+
+  @Test
+  public void testResourceResolverAdaptersNotSharedBetweenResolvers() throws LoginException {
+    TagManager tagManager = this.context.resourceResolver().adaptTo(TagManager.class);
+
+    ResourceResolver otherResolver = this.context.getService(ResourceResolverFactory.class).getAdministrativeResourceResolver(null);
+    TagManager otherTagManager = otherResolver.adaptTo(TagManager.class);
+    assertNotSame(tagManager, otherTagManager);
+    assertSame(otherTagManager, otherResolver.adaptTo(TagManager.class));
+    otherResolver.close();
+  }
+
 }
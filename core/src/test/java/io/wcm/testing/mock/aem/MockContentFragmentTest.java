@@ -19,18 +19,42 @@
  */
 package io.wcm.testing.mock.aem;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import org.apache.commons.collections4.IteratorUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.sling.api.resource.ModifiableValueMap;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ValueMap;
 import org.junit.Rule;
 import org.junit.Test;
 
 import com.adobe.cq.dam.cfm.ContentElement;
 import com.adobe.cq.dam.cfm.ContentFragment;
+import com.adobe.cq.dam.cfm.ContentFragmentException;
 import com.adobe.cq.dam.cfm.ContentVariation;
+import com.adobe.cq.dam.cfm.FragmentData;
 import com.adobe.cq.dam.cfm.VariationTemplate;
+import com.adobe.cq.dam.cfm.VersionDef;
+import com.day.cq.commons.jcr.JcrConstants;
+import com.day.cq.dam.api.Asset;
 import com.day.cq.dam.api.DamConstants;
 import com.day.cq.tagging.Tag;
 
@@ -104,6 +128,244 @@ public class MockContentFragmentTest {
     assertEquals(testTag1.getTagID(), cf.getTags()[0].getTagID());
   }
 
+  @Test
+  @SuppressWarnings("null")
+  public void testContentFragmentStructure_VariationReadsAreSideEffectFree() throws Exception {
+    final String assetPath = context.uniqueRoot().dam() + "/cfStructure";
+    final ContentFragment cf = context.create().contentFragmentStructured(assetPath,
+        "param1", "value1", "param2", "value2");
+    cf.createVariation("v1", "V1", null);
+    cf.createVariation("v2", "V2", null);
+
+    // reading variations does not create variation data
+    for (ContentElement element : IteratorUtils.asIterable(cf.getElements())) {
+      for (ContentVariation variation : IteratorUtils.asIterable(element.getVariations())) {
+        assertEquals("", variation.getContent());
+      }
+      element.removeVariation(element.getVariation("v1"));
+    }
+    assertNull(context.resourceResolver().getResource(assetPath + "/jcr:content/data/v1"));
+    assertNull(context.resourceResolver().getResource(assetPath + "/jcr:content/data/v2"));
+
+    // variation data is created on first write
+    final ContentElement param1 = cf.getElement("param1");
+    param1.getVariation("v1").setContent("var_value", null);
+    assertEquals("var_value", param1.getVariation("v1").getContent());
+    assertEquals("", cf.getElement("param2").getVariation("v1").getContent());
+    assertNotNull(context.resourceResolver().getResource(assetPath + "/jcr:content/data/v1"));
+    assertNull(context.resourceResolver().getResource(assetPath + "/jcr:content/data/v2"));
+  }
+
+  @Test
+  @SuppressWarnings("null")
+  public void testContentFragmentStructure_Value() throws Exception {
+    final String assetPath = context.uniqueRoot().dam() + "/cfStructure";
+    final ContentFragment cf = context.create().contentFragmentStructured(assetPath,
+        "param1", "value1", "param2", 123, "param3", new String[] { "v1", "v2" }, "param4", new Long[] { 1L, 2L });
+
+    FragmentData param1 = cf.getElement("param1").getValue();
+    assertEquals("value1", param1.getValue());
+    assertEquals("string", param1.getDataType().getTypeString());
+    assertFalse(param1.getDataType().isMultiValue());
+    assertArrayEquals(new String[] { "value1" }, param1.getValue(String[].class));
+
+    FragmentData param2 = cf.getElement("param2").getValue();
+    assertEquals("long", param2.getDataType().getValueType());
+    assertEquals(Long.valueOf(123), param2.getValue(Long.class));
+    assertEquals(123d, param2.getValue(Double.class), 0.0001d);
+    assertEquals(BigDecimal.valueOf(123), param2.getValue(BigDecimal.class));
+    assertEquals("123", param2.getValue(String.class));
+    assertNull(param2.getValue(Boolean.class));
+
+    FragmentData param3 = cf.getElement("param3").getValue();
+    assertEquals("string[]", param3.getDataType().getTypeString());
+    assertTrue(param3.getDataType().isMultiValue());
+    assertArrayEquals(new String[] { "v1", "v2" }, (String[])param3.getValue());
+    assertEquals("v1", param3.getValue(String.class));
+
+    FragmentData param4 = cf.getElement("param4").getValue();
+    assertEquals("long[]", param4.getDataType().getTypeString());
+    assertArrayEquals(new long[] { 1L, 2L }, param4.getValue(long[].class));
+    assertArrayEquals(new double[] { 1d, 2d }, param4.getValue(double[].class), 0.0001d);
+    assertArrayEquals(new String[] { "1", "2" }, param4.getValue(String[].class));
+    assertNull(param4.getValue(boolean[].class));
+
+    // update values
+    param4.setValue(new int[] { 3, 4, 5 });
+    cf.getElement("param4").setValue(param4);
+    assertArrayEquals(new long[] { 3L, 4L, 5L }, cf.getElement("param4").getValue().getValue(long[].class));
+    assertEquals("3\n4\n5", cf.getElement("param4").getContent());
+
+    Calendar date = Calendar.getInstance();
+    param1.setValue(date.getTime());
+    cf.getElement("param1").setValue(param1);
+    FragmentData dateValue = cf.getElement("param1").getValue();
+    assertEquals("calendar", dateValue.getDataType().getTypeString());
+    assertEquals(date.getTimeInMillis(), dateValue.getValue(Calendar.class).getTimeInMillis());
+    assertEquals(date.getTime(), dateValue.getValue(Date.class));
+
+    assertTrue(param1.isTypeSupported(long[].class));
+    assertFalse(param1.isTypeSupported(Object.class));
+    assertThrows(ContentFragmentException.class, () -> param1.setValue(new Object()));
+
+    // variations
+    cf.createVariation("v1", "V1", null);
+    ContentElement element2 = cf.getElement("param2");
+    assertNull(element2.getVariation("v1").getValue().getValue());
+    assertEquals(Long.valueOf(123), element2.getResolvedVariation("v1").getValue().getValue(Long.class));
+    assertEquals("123", element2.getResolvedVariation("v1").getContent());
+    assertNull(element2.getResolvedVariation("unknown"));
+
+    FragmentData variationValue = element2.getVariation("v1").getValue();
+    variationValue.setValue(456L);
+    element2.getVariation("v1").setValue(variationValue);
+    assertEquals(Long.valueOf(456), element2.getVariation("v1").getValue().getValue(Long.class));
+    assertEquals(Long.valueOf(456), element2.getResolvedVariation("v1").getValue().getValue(Long.class));
+    assertEquals(Long.valueOf(123), element2.getValue().getValue(Long.class));
+  }
+
+  @Test
+  @SuppressWarnings("null")
+  public void testContentFragmentVersions() throws Exception {
+    final String assetPath = context.uniqueRoot().dam() + "/cfStructure";
+    final ContentFragment cf = context.create().contentFragmentStructured(assetPath,
+        "param1", "value1", "param2", 123);
+    assertFalse(cf.listVersions().hasNext());
+
+    VersionDef version1 = cf.createVersion("v1", "Version 1");
+    cf.getElement("param1").setContent("value1a", null);
+    VersionDef version2 = cf.getElement("param1").createVersion("v2", "Version 2");
+    cf.setTitle("Title 3");
+    VersionDef version3 = cf.createVersion("v3", "Version 3");
+    cf.getElement("param1").setContent("value1b", null);
+
+    List<VersionDef> versions = IteratorUtils.toList(cf.listVersions());
+    assertEquals(3, versions.size());
+    assertEquals(version1.getIdentifier(), versions.get(0).getIdentifier());
+    assertEquals("Version 1", versions.get(0).getDescription());
+    assertEquals(version3.getIdentifier(), versions.get(2).getIdentifier());
+    assertEquals(versions.size(), IteratorUtils.size(cf.getElement("param2").listVersions()));
+
+    // versioned content is not affected by later changes
+    assertEquals("value1", cf.getElement("param1").getVersionedContent(version1).getContent());
+    assertEquals("value1a", cf.getElement("param1").getVersionedContent(version2).getContent());
+    assertEquals("value1a", cf.getElement("param1").getVersionedContent(version3).getContent());
+    assertEquals("value1b", cf.getElement("param1").getContent());
+
+    ContentFragment cfVersion1 = ((MockContentFragment)cf).getVersion(version1);
+    assertEquals(assetPath, cfVersion1.adaptTo(Resource.class).getPath());
+    assertEquals("123", cfVersion1.getElement("param2").getContent());
+    assertEquals("Title 3", ((MockContentFragment)cf).getVersion(version3).getTitle());
+    assertEquals("value1a", ((MockContentFragment_ContentElement_Structured)cf.getElement("param1")).getVersion(version2).getContent());
+
+    // versions are read-only
+    assertThrows(UnsupportedOperationException.class, () -> cfVersion1.setTitle("Changed"));
+    assertThrows(ContentFragmentException.class, () -> ((MockContentFragment)cf).getVersion(new MockContentFragment_VersionDef(
+        "9.9", null, null, ((MockContentFragment_VersionDef)version1).getSnapshot())));
+
+    // unchanged subtrees are shared between versions
+    ContentSnapshot snapshot1 = ((MockContentFragment_VersionDef)version1).getSnapshot();
+    ContentSnapshot snapshot2 = ((MockContentFragment_VersionDef)version2).getSnapshot();
+    ContentSnapshot snapshot3 = ((MockContentFragment_VersionDef)version3).getSnapshot();
+    ContentSnapshot content1 = snapshot1.getChildren().get(JcrConstants.JCR_CONTENT);
+    ContentSnapshot content2 = snapshot2.getChildren().get(JcrConstants.JCR_CONTENT);
+    ContentSnapshot content3 = snapshot3.getChildren().get(JcrConstants.JCR_CONTENT);
+    assertSame(content1.getChildren().get("model"), content2.getChildren().get("model"));
+    assertSame(content1.getChildren().get(DamConstants.METADATA_FOLDER), content3.getChildren().get(DamConstants.METADATA_FOLDER));
+    assertNotSame(content1.getChildren().get("data"), content2.getChildren().get("data"));
+    assertSame(content2.getChildren().get("data"), content3.getChildren().get("data"));
+    assertNotSame(content2, content3);
+    assertFalse(content1.getChildren().containsKey(DamConstants.RENDITIONS_FOLDER));
+  }
+
+  @Test
+  @SuppressWarnings("null")
+  public void testContentFragmentDescriptorCache() throws Exception {
+    final String assetPath = context.uniqueRoot().dam() + "/cfStructure";
+    final ContentFragment cf1 = context.create().contentFragmentStructured(assetPath, "param1", "value1");
+
+    // element wrappers are reused
+    assertSame(cf1.getElement("param1"), cf1.getElement("param1"));
+
+    // structure changes via content fragment API are visible for other instances
+    cf1.createVariation("v1", "V1", null);
+    assertEquals(1, IteratorUtils.toList(getContentFragment(assetPath).listAllVariations()).size());
+    assertEquals(1, IteratorUtils.toList(cf1.getElement("param1").getVariations()).size());
+
+    // structure changes via resource API are visible on next adaption without resource change event
+    ModifiableValueMap data = context.resourceResolver().getResource(assetPath + "/jcr:content/data/master")
+        .adaptTo(ModifiableValueMap.class);
+    data.put("param2", "value2");
+    assertTrue(getContentFragment(assetPath).hasElement("param2"));
+    context.create().resource(assetPath + "/jcr:content/model/variations/v2", "name", "v2");
+    assertEquals(2, IteratorUtils.toList(getContentFragment(assetPath).listAllVariations()).size());
+    assertEquals("value2", getContentFragment(assetPath).getElement("param2").getContent());
+  }
+
+  @Test
+  @SuppressWarnings("null")
+  public void testContentFragmentLastModified() throws Exception {
+    final String root = context.uniqueRoot().dam();
+    final ContentFragment cf3 = context.create().contentFragmentText(root + "/cf3", "<p>Text</p>", "text/html");
+    final ContentFragment cf2 = context.create().contentFragmentStructured(root + "/cf2", "param1", "value1");
+    final ContentFragment cf1 = context.create().contentFragmentStructured(root + "/cf1",
+        "param1", "value1", "reference", root + "/cf2");
+    assertNotNull(cf1.getLastModifiedDate());
+    assertFalse(cf1.getLastModifiedDeep().before(cf2.getLastModifiedDate()));
+
+    // modification of referenced content fragment via API
+    cf2.getElement("param1").setContent("value2", null);
+    assertFalse(cf2.getLastModifiedDate().before(cf1.getLastModifiedDate()));
+    assertEquals(cf2.getLastModifiedDate(), cf1.getLastModifiedDeep());
+    assertEquals(cf2.getLastModifiedDate(), cf2.getLastModifiedDeep());
+
+    // associated content
+    Resource page = context.create().resource(root + "/page1");
+    cf1.addAssociatedContent(page);
+    cf1.addAssociatedContent(cf3.adaptTo(Resource.class));
+    cf1.addAssociatedContent(page);
+    assertEquals(List.of(page.getPath(), root + "/cf3"), IteratorUtils.toList(cf1.getAssociatedContent()).stream()
+        .map(Resource::getPath).collect(Collectors.toList()));
+    assertEquals(List.of(page.getPath(), root + "/cf3"), IteratorUtils.toList(getContentFragment(root + "/cf1").getAssociatedContent()).stream()
+        .map(Resource::getPath).collect(Collectors.toList()));
+    cf1.removeAssociatedContent(page);
+    assertEquals(1, IteratorUtils.size(cf1.getAssociatedContent()));
+    assertFalse(cf1.getLastModifiedDeep().before(cf1.getLastModifiedDate()));
+
+    // modification of associated content fragment via resource API is visible without resource change event
+    Calendar future = Calendar.getInstance();
+    future.add(Calendar.DAY_OF_MONTH, 1);
+    context.resourceResolver().getResource(root + "/cf3/jcr:content").adaptTo(ModifiableValueMap.class)
+        .put(JcrConstants.JCR_LASTMODIFIED, future);
+    assertEquals(future.getTimeInMillis(), cf1.getLastModifiedDeep().getTimeInMillis());
+    assertEquals(cf2.getLastModifiedDate(), cf2.getLastModifiedDeep());
+  }
+
+  @Test
+  @SuppressWarnings("null")
+  public void testContentFragmentLastModified_ReferenceRemoved() throws Exception {
+    final String root = context.uniqueRoot().dam();
+    context.create().contentFragmentStructured(root + "/cf2", "param1", "value1");
+    context.create().contentFragmentStructured(root + "/cf1", "reference", root + "/cf2");
+    Resource cf1Resource = context.resourceResolver().getResource(root + "/cf1");
+
+    MockContentFragmentLastModifiedIndex index = new MockContentFragmentLastModifiedIndex();
+    index.getLastModifiedDeep(cf1Resource);
+    assertEquals(Set.of(root + "/cf2", root + "/cf1"), index.getDependentFragments(root + "/cf2"));
+
+    // reference dropped from rebuilt entry is removed from reverse index
+    context.resourceResolver().getResource(root + "/cf1/jcr:content/data/master").adaptTo(ModifiableValueMap.class)
+        .put("reference", root + "/cf3");
+    index.invalidate(cf1Resource);
+    index.getLastModifiedDeep(cf1Resource);
+    assertEquals(Set.of(root + "/cf2"), index.getDependentFragments(root + "/cf2"));
+    assertEquals(Set.of(root + "/cf3", root + "/cf1"), index.getDependentFragments(root + "/cf3"));
+  }
+
+  private ContentFragment getContentFragment(String path) {
+    return context.resourceResolver().getResource(path).adaptTo(ContentFragment.class);
+  }
+
   @Test
   @SuppressWarnings("null")
   public void testContentFragmentText() throws Exception {
@@ -163,4 +425,48 @@ public class MockContentFragmentTest {
     contentElement.removeVariation(variation);
   }
 
+  @Test
+  @SuppressWarnings("null")
+  public void testContentFragmentText_Streaming() throws Exception {
+    final String assetPath = context.uniqueRoot().dam() + "/cfText";
+    final ContentFragment cf = context.create().contentFragmentText(assetPath, "<p>Text</p>", "text/html");
+    final ContentElement contentElement = cf.getElement("main");
+
+    try (Reader reader = contentElement.adaptTo(Reader.class)) {
+      assertEquals("<p>Text</p>", IOUtils.toString(reader));
+    }
+
+    String renditionPath = assetPath + "/jcr:content/renditions/" + DamConstants.ORIGINAL_FILE;
+    Resource renditionContent = context.resourceResolver().getResource(renditionPath + "/jcr:content");
+
+    // content written via writer is stored on close
+    try (Writer writer = contentElement.adaptTo(Writer.class)) {
+      for (int i = 0; i < 1000; i++) {
+        writer.write("<p>Line " + i + "</p>");
+      }
+    }
+    String content = contentElement.getContent();
+    assertTrue(content.startsWith("<p>Line 0</p><p>Line 1</p>"));
+    assertTrue(content.endsWith("<p>Line 999</p>"));
+    assertEquals("text/html", contentElement.getContentType());
+
+    // rendition is updated in-place
+    renditionContent.adaptTo(ModifiableValueMap.class).put(JcrConstants.JCR_ENCODING, "utf-8");
+    contentElement.setContent("Text", "text/plain");
+    assertEquals("Text", contentElement.getContent());
+    assertEquals("text/plain", contentElement.getContentType());
+    ValueMap renditionContentProps = context.resourceResolver().getResource(renditionPath + "/jcr:content").getValueMap();
+    assertEquals("text/plain", renditionContentProps.get(JcrConstants.JCR_MIMETYPE, String.class));
+    assertEquals("utf-8", renditionContentProps.get(JcrConstants.JCR_ENCODING, String.class));
+
+    // in batch mode of the content fragment asset changes are not committed
+    Asset asset = cf.adaptTo(Asset.class);
+    asset.setBatchMode(true);
+    contentElement.setContent("Batch", "text/plain");
+    assertEquals("Batch", contentElement.getContent());
+    assertTrue(context.resourceResolver().hasChanges());
+    asset.setBatchMode(false);
+    assertFalse(context.resourceResolver().hasChanges());
+  }
+
 }
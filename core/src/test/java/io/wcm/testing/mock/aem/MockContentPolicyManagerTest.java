@@ -23,21 +23,30 @@ import static org.apache.sling.api.resource.ResourceResolver.PROPERTY_RESOURCE_T
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceUtil;
 import org.apache.sling.api.scripting.SlingBindings;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 
 import com.adobe.cq.sightly.WCMBindings;
+import com.day.cq.commons.jcr.JcrConstants;
+import com.day.cq.wcm.api.NameConstants;
 import com.day.cq.wcm.api.Page;
+import com.day.cq.wcm.api.Template;
 import com.day.cq.wcm.api.components.ComponentContext;
 import com.day.cq.wcm.api.designer.Style;
 import com.day.cq.wcm.api.policies.ContentPolicy;
 import com.day.cq.wcm.api.policies.ContentPolicyManager;
+import com.day.cq.wcm.api.policies.ContentPolicyMapping;
 import com.day.cq.wcm.commons.WCMUtils;
 
 import io.wcm.testing.mock.aem.context.TestAemContext;
@@ -172,6 +181,131 @@ public class MockContentPolicyManagerTest {
     assertEquals("value3", child2.getValueMap().get("prop3", String.class));
   }
 
+  @Test
+  public void testTemplateSpecificPolicy() {
+    String templatePath = "/conf/app1/settings/wcm/templates/template1";
+    Page page2 = context.create().page("/content/test2", templatePath);
+    Resource resource1 = context.create().resource(page2, "root/container/resource1",
+        PROPERTY_RESOURCE_TYPE, RT_TEST);
+    Resource resource2 = context.create().resource(page2, "root/resource2",
+        PROPERTY_RESOURCE_TYPE, RT_TEST);
+    Resource resource3 = context.create().resource(page, "resource3",
+        PROPERTY_RESOURCE_TYPE, RT_TEST);
+
+    context.contentPolicyMapping(RT_TEST, "prop1", "global");
+    ContentPolicyMapping mapping = MockContentPolicyStorage.storeContentPolicyMapping(templatePath, "root/container", RT_TEST,
+        Map.of("prop1", "container"), context.resourceResolver());
+    assertEquals(templatePath + "/policies/jcr:content/root/container/" + RT_TEST, mapping.getPath());
+    assertEquals("/conf/app1/settings/wcm/policies/" + RT_TEST, ResourceUtil.getParent(mapping.getPolicy().getPath()));
+
+    // mapping for container path
+    assertEquals("container", underTest.getPolicy(resource1).getProperties().get("prop1", String.class));
+    // outside container: fallback to global mapping
+    assertEquals("global", underTest.getPolicy(resource2).getProperties().get("prop1", String.class));
+    // page with other template: global mapping
+    assertEquals("global", underTest.getPolicy(resource3).getProperties().get("prop1", String.class));
+
+    // mapping for whole page
+    MockContentPolicyStorage.storeContentPolicyMapping(templatePath, "", RT_TEST,
+        Map.of("prop1", "page"), context.resourceResolver());
+    assertEquals("page", underTest.getPolicy(resource2).getProperties().get("prop1", String.class));
+    assertEquals("container", underTest.getPolicy(resource1).getProperties().get("prop1", String.class));
+  }
+
+  @Test
+  public void testSuperTypePolicy() {
+    String rtTest3 = "app1/components/test3";
+    context.create().resource("/apps/" + rtTest3, "sling:resourceSuperType", RT_TEST);
+    Resource resource1 = context.create().resource(page, "resource1",
+        PROPERTY_RESOURCE_TYPE, rtTest3);
+
+    context.contentPolicyMapping(RT_TEST, "prop1", "value1");
+    assertEquals("value1", underTest.getPolicy(resource1).getProperties().get("prop1", String.class));
+
+    // mapping for resource type takes precedence over super type
+    context.contentPolicyMapping(rtTest3, "prop1", "value3");
+    assertEquals("value3", underTest.getPolicy(resource1).getProperties().get("prop1", String.class));
+  }
+
+  @Test
+  @SuppressWarnings("null")
+  public void testPolicyIndexes() {
+    String templatePath = "/conf/app1/settings/wcm/templates/template1";
+    String template2Path = "/conf/app1/settings/wcm/templates/template2";
+    String policiesPath = "/conf/app1/settings/wcm/policies";
+    Page page2 = context.create().page("/content/test2", templatePath);
+    Resource resource1 = context.create().resource(page2, "root/container/resource1",
+        PROPERTY_RESOURCE_TYPE, RT_TEST);
+
+    ContentPolicyMapping mapping1 = MockContentPolicyStorage.storeContentPolicyMapping(templatePath, "root/container", RT_TEST,
+        Map.of("prop1", "value1"), context.resourceResolver());
+    MockContentPolicyStorage.storeContentPolicyMapping(templatePath, "", RT_TEST_2,
+        Map.of("prop1", "value2"), context.resourceResolver());
+    MockContentPolicyStorage.storeContentPolicyMapping(template2Path, "", RT_TEST_2,
+        Map.of("prop1", "value3"), context.resourceResolver());
+    ContentPolicy policy1 = mapping1.getPolicy();
+
+    assertEquals(3, underTest.getPolicies(policiesPath).size());
+    assertEquals(3, underTest.getPolicies(policiesPath, MockContentPolicyStorage.RT_CONTENTPOLICY).size());
+    assertEquals(0, underTest.getPolicies(policiesPath, "app1/components/other").size());
+    assertEquals(List.of(policy1.getPath()), underTest.getPolicies(policiesPath + "/" + RT_TEST).stream()
+        .map(ContentPolicy::getPath).collect(Collectors.toList()));
+
+    assertEquals(List.of(mapping1.getPath()), underTest.getPolicyMappings(policy1).stream()
+        .map(ContentPolicyMapping::getPath).collect(Collectors.toList()));
+    assertEquals(templatePath, mapping1.getTemplate().getPath());
+    assertEquals(List.of(templatePath), underTest.getTemplates(policy1.getPath()).stream()
+        .map(Template::getPath).collect(Collectors.toList()));
+    assertTrue(underTest.getTemplates(policy1.getPath(), template -> false).isEmpty());
+    assertEquals(policiesPath + "/" + RT_TEST, underTest.getPolicyLocation(resource1));
+
+    // copy policy
+    ContentPolicy copy = underTest.copyPolicy(policy1, "Copy", null);
+    assertEquals("Copy", copy.getTitle());
+    assertEquals("value1", copy.getProperties().get("prop1", String.class));
+    assertEquals(4, underTest.getPolicies(policiesPath).size());
+    assertTrue(underTest.getPolicyMappings(copy).isEmpty());
+    assertTrue(underTest.getTemplates(copy.getPath()).isEmpty());
+
+    // mapping added via resource API before the first query for the policy is visible without resource change event
+    ContentPolicy copy2 = underTest.copyPolicy(policy1, "Copy 2", null);
+    String mapping2Path = template2Path + "/policies/jcr:content/root/" + RT_TEST;
+    context.create().resource(mapping2Path,
+        PROPERTY_RESOURCE_TYPE, MockContentPolicyStorage.RT_CONTENT_POLICY_MAPPING,
+        MockContentPolicyStorage.PN_POLICY, StringUtils.substringAfter(copy2.getPath(), policiesPath + "/"));
+    assertEquals(List.of(mapping2Path), underTest.getPolicyMappings(copy2).stream()
+        .map(ContentPolicyMapping::getPath).collect(Collectors.toList()));
+    assertEquals(List.of(template2Path), underTest.getTemplates(copy2.getPath()).stream()
+        .map(Template::getPath).collect(Collectors.toList()));
+  }
+
+  @Test
+  @SuppressWarnings("null")
+  public void testMappingLoadedAfterFirstLookup() {
+    String templatePath = "/conf/app1/settings/wcm/templates/template1";
+    String policiesPath = "/conf/app1/settings/wcm/policies";
+    Page page2 = context.create().page("/content/test2", templatePath);
+    Resource resource1 = context.create().resource(page2, "root/resource1",
+        PROPERTY_RESOURCE_TYPE, RT_TEST);
+    context.create().resource(templatePath, JcrConstants.JCR_PRIMARYTYPE, NameConstants.NT_TEMPLATE);
+    assertNull(underTest.getPolicy(resource1));
+    assertTrue(underTest.getPolicies(policiesPath).isEmpty());
+
+    // mapping and policy added without resource change event
+    context.load().json("/json-import-samples/template-policies.json", templatePath + "/policies");
+    context.create().resource(policiesPath + "/" + RT_TEST + "/policy1",
+        PROPERTY_RESOURCE_TYPE, MockContentPolicyStorage.RT_CONTENTPOLICY,
+        "prop1", "json");
+    ContentPolicy policy = underTest.getPolicy(resource1);
+    assertEquals("json", policy.getProperties().get("prop1", String.class));
+    assertEquals(List.of(policy.getPath()), underTest.getPolicies(policiesPath).stream()
+        .map(ContentPolicy::getPath).collect(Collectors.toList()));
+    assertEquals(List.of(templatePath + "/policies/jcr:content/root/" + RT_TEST), underTest.getPolicyMappings(policy).stream()
+        .map(ContentPolicyMapping::getPath).collect(Collectors.toList()));
+    assertEquals(List.of(templatePath), underTest.getTemplates(policy.getPath()).stream()
+        .map(Template::getPath).collect(Collectors.toList()));
+  }
+
   @SuppressWarnings("deprecation")
   private Style getStyle() {
     SlingBindings bindings = (SlingBindings)context.request().getAttribute(SlingBindings.class.getName());
@@ -0,0 +1,156 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Calendar;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.commons.collections4.IteratorUtils;
+import org.apache.sling.api.resource.ModifiableValueMap;
+import org.apache.sling.api.resource.Resource;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.adobe.cq.dam.cfm.ContentFragment;
+import com.adobe.cq.dam.cfm.ElementTemplate;
+import com.adobe.cq.dam.cfm.FragmentTemplate;
+import com.day.cq.commons.jcr.JcrConstants;
+import com.day.cq.wcm.api.NameConstants;
+
+import io.wcm.testing.mock.aem.context.TestAemContext;
+import io.wcm.testing.mock.aem.junit.AemContext;
+
+@SuppressWarnings("null")
+public class MockFragmentTemplateTest {
+
+  @Rule
+  public AemContext context = TestAemContext.newAemContext();
+
+  private String templatePath;
+  private Resource parent;
+
+  @Before
+  public void setUp() {
+    templatePath = context.uniqueRoot().content() + "/settings/dam/cfm/models/model1";
+    context.create().resource(templatePath + "/" + JcrConstants.JCR_CONTENT,
+        JcrConstants.JCR_TITLE, "Model 1",
+        JcrConstants.JCR_DESCRIPTION, "Description 1");
+    String itemsPath = templatePath + "/" + JcrConstants.JCR_CONTENT + "/model/cq:dialog/content/items";
+    context.create().resource(itemsPath + "/item1",
+        "name", "title", "fieldLabel", "Title", "valueType", "string", "value", "default1");
+    context.create().resource(itemsPath + "/item2",
+        "name", "numbers", "fieldLabel", "Numbers", "valueType", "long[]");
+    parent = context.create().resource(context.uniqueRoot().dam() + "/fragments");
+  }
+
+  @Test
+  public void testProperties() {
+    FragmentTemplate template = getTemplate();
+    assertEquals("Model 1", template.getTitle());
+    assertEquals("Description 1", template.getDescription());
+    assertNull(template.getThumbnailPath());
+
+    List<ElementTemplate> elements = IteratorUtils.toList(template.getElements());
+    assertEquals(List.of("title", "numbers"), elements.stream().map(ElementTemplate::getName).collect(Collectors.toList()));
+    assertEquals("Title", elements.get(0).getTitle());
+    assertEquals("default1", elements.get(0).getDefaultContent());
+    assertEquals("long[]", elements.get(1).getDataType().getTypeString());
+    assertEquals(true, elements.get(1).getDataType().isMultiValue());
+  }
+
+  @Test
+  public void testCompiledTemplateIsCached() {
+    ModifiableValueMap props = context.resourceResolver().getResource(templatePath + "/" + JcrConstants.JCR_CONTENT)
+        .adaptTo(ModifiableValueMap.class);
+    props.put(NameConstants.PN_PAGE_LAST_MOD, Calendar.getInstance());
+    CompiledFragmentTemplate compiled = ((MockFragmentTemplate)getTemplate()).getCompiledTemplate();
+    assertSame(compiled, ((MockFragmentTemplate)getTemplate()).getCompiledTemplate());
+
+    // recompiled after template was modified
+    props.put(JcrConstants.JCR_TITLE, "Model 1 updated");
+    Calendar lastModified = Calendar.getInstance();
+    lastModified.add(Calendar.MINUTE, 1);
+    props.put(NameConstants.PN_PAGE_LAST_MOD, lastModified);
+    assertNotSame(compiled, ((MockFragmentTemplate)getTemplate()).getCompiledTemplate());
+    assertEquals("Model 1 updated", getTemplate().getTitle());
+  }
+
+  @Test
+  public void testCompiledTemplateWithoutLastModified() {
+    assertEquals("Title", getTemplate().getElements().next().getTitle());
+
+    // template without last modified date reflects modified dialog items
+    String itemsPath = templatePath + "/" + JcrConstants.JCR_CONTENT + "/model/cq:dialog/content/items";
+    context.resourceResolver().getResource(itemsPath + "/item1").adaptTo(ModifiableValueMap.class)
+        .put("fieldLabel", "Title updated");
+    assertEquals("Title updated", getTemplate().getElements().next().getTitle());
+
+    context.create().resource(itemsPath + "/item3",
+        "name", "text", "fieldLabel", "Text", "valueType", "string");
+    assertEquals(List.of("title", "numbers", "text"), IteratorUtils.toList(getTemplate().getElements()).stream()
+        .map(ElementTemplate::getName).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testElementTemplateResource() {
+    ElementTemplate element = getTemplate().getElements().next();
+    assertEquals(templatePath + "/" + JcrConstants.JCR_CONTENT + "/model/cq:dialog/content/items/item1",
+        element.adaptTo(Resource.class).getPath());
+  }
+
+  @Test
+  public void testCreateFragment() throws Exception {
+    FragmentTemplate template = getTemplate();
+
+    ContentFragment cf1 = template.createFragment(parent, "cf", "CF 1");
+    ContentFragment cf2 = template.createFragment(parent, "cf", "CF 2");
+    ContentFragment cf3 = template.createFragment(parent, "cf", "CF 3");
+    ContentFragment cf4 = template.createFragment(parent, null, "My Fragment");
+
+    assertEquals("cf", cf1.getName());
+    assertEquals("cf0", cf2.getName());
+    assertEquals("cf1", cf3.getName());
+    assertEquals("my-fragment", cf4.getName());
+    assertEquals("CF 2", cf2.getTitle());
+
+    // like ResourceUtil.createUniqueChildName free names are reused
+    context.resourceResolver().delete(context.resourceResolver().getResource(parent.getPath() + "/cf0"));
+    assertEquals("cf0", template.createFragment(parent, "cf", "CF 5").getName());
+
+    Resource data = context.resourceResolver().getResource(parent.getPath() + "/cf0/jcr:content/data");
+    assertNotNull(data);
+    assertEquals(templatePath, data.getValueMap().get("cq:model", String.class));
+    assertNotNull(data.getChild("master"));
+    assertNotNull(context.resourceResolver().getResource(parent.getPath() + "/cf0/jcr:content/metadata"));
+  }
+
+  private FragmentTemplate getTemplate() {
+    return context.resourceResolver().getResource(templatePath).adaptTo(FragmentTemplate.class);
+  }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem.context;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.apache.sling.api.adapter.AdapterFactory;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.day.cq.commons.Externalizer;
+import com.day.cq.dam.api.Asset;
+import com.day.cq.wcm.api.Page;
+import com.day.cq.wcm.api.PageManager;
+import com.day.cq.wcm.api.WCMException;
+import com.day.cq.wcm.api.policies.ContentPolicyManager;
+
+import io.wcm.testing.mock.aem.dam.MockDamEventDispatcher;
+import io.wcm.testing.mock.aem.junit.AemContext;
+
+public class AemContextLazyDefaultServicesTest {
+
+  @Rule
+  public AemContext context = TestAemContext.newAemContextBuilder()
+      .lazyDefaultServices(true)
+      .build();
+
+  @Test
+  public void testServicesNotInstantiated() {
+    Externalizer externalizer = context.getService(Externalizer.class);
+    assertNotNull(externalizer);
+    assertFalse(LazyService.isInstantiated(externalizer));
+
+    // none of the 4 AEM adapter factories is instantiated
+    AdapterFactory[] adapterFactories = context.getServices(AdapterFactory.class, null);
+    assertEquals(4, Arrays.stream(adapterFactories).filter(service -> !LazyService.isInstantiated(service)).count());
+
+    // registered eagerly - not proxied
+    assertTrue(LazyService.isInstantiated(context.getService(MockDamEventDispatcher.class)));
+  }
+
+  @Test
+  public void testServiceInstantiatedOnFirstUsage() {
+    Externalizer externalizer = context.getService(Externalizer.class);
+    assertEquals("http://localhost:4503/content/page1.html",
+        externalizer.publishLink(context.resourceResolver(), "/content/page1.html"));
+    assertTrue(LazyService.isInstantiated(externalizer));
+    assertEquals(externalizer, context.getService(Externalizer.class));
+  }
+
+  @Test
+  public void testInstantiatedServicesDeactivated() {
+    Externalizer externalizer = context.getService(Externalizer.class);
+    externalizer.publishLink(context.resourceResolver(), "/content/page1.html");
+    assertTrue(LazyService.isInstantiated(externalizer));
+
+    // called on context shutdown
+    LazyService.deactivateAll(context.bundleContext());
+    assertFalse(LazyService.isInstantiated(externalizer));
+  }
+
+  @Test
+  public void testAdapterFactories() throws WCMException {
+    Page page = context.create().page("/content/sample/en");
+    PageManager pageManager = context.resourceResolver().adaptTo(PageManager.class);
+    assertNotNull(pageManager);
+    assertEquals(page.getPath(), pageManager.getPage("/content/sample/en").getPath());
+    pageManager.delete(page, false);
+    assertNull(pageManager.getPage("/content/sample/en"));
+
+    Asset asset = context.create().asset("/content/dam/sample.jpg", 10, 10, "image/jpeg");
+    assertNotNull(asset.getOriginal());
+    assertNotNull(context.resourceResolver().getResource(asset.getPath()).adaptTo(Asset.class));
+
+    assertNotNull(context.resourceResolver().adaptTo(ContentPolicyManager.class));
+  }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem.context;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.sling.testing.mock.sling.ResourceResolverType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+
+import io.wcm.testing.mock.aem.junit.AemContext;
+import io.wcm.testing.mock.aem.junit.AemContextCallback;
+
+public class AemContextTimingsTest {
+
+  private final List<ContextTimings> completedTimings = new ArrayList<>();
+  private final ContextTimingListener listener = (context, timings) -> completedTimings.add(timings);
+
+  @Before
+  public void setUp() {
+    ContextTimings.addListener(listener);
+  }
+
+  @After
+  public void tearDown() {
+    ContextTimings.removeListener(listener);
+  }
+
+  @Test
+  public void testTimings() throws Throwable {
+    AemContext context = TestAemContext.newAemContextBuilder(ResourceResolverType.RESOURCERESOLVER_MOCK)
+        .contentFixture((AemContextCallback)ctx -> ctx.create().resource("/content/fixture"))
+        .build();
+    execute(context, () -> {
+      context.uniqueRoot().content();
+      // timings are recorded during the test
+      assertTrue(context.getTimings().getCount(ContextPhase.RESOURCE_RESOLVER_FACTORY) > 0);
+    });
+
+    assertEquals(1, completedTimings.size());
+    ContextTimings timings = completedTimings.get(0);
+    assertEquals(1, timings.getCount(ContextPhase.SLING_DEFAULT_SERVICES));
+    assertEquals(1, timings.getCount(ContextPhase.AEM_DEFAULT_SERVICES));
+    assertEquals(1, timings.getCount(ContextPhase.CONTENT_FIXTURES));
+    assertEquals(1, timings.getCount(ContextPhase.UNIQUE_ROOT_CLEANUP));
+    assertEquals(1, timings.getCount(ContextPhase.TEAR_DOWN));
+    assertEquals(0, timings.getCount(ContextPhase.RESET));
+    // before/after setup and teardown callbacks
+    assertEquals(4, timings.getCount(ContextPhase.PLUGIN_CALLBACKS));
+    for (ContextPhase phase : new ContextPhase[] {
+        ContextPhase.RESOURCE_RESOLVER_FACTORY, ContextPhase.SLING_DEFAULT_SERVICES, ContextPhase.AEM_DEFAULT_SERVICES,
+        ContextPhase.CONTENT_FIXTURES, ContextPhase.PLUGIN_CALLBACKS, ContextPhase.TEAR_DOWN }) {
+      assertTrue(phase.toString(), timings.getDurationNanos(phase) > 0);
+    }
+    assertTrue(timings.toString().contains("AEM_DEFAULT_SERVICES="));
+    assertTrue(timings.getDurationNanos(ContextPhase.TEAR_DOWN) >= timings.getDurationNanos(ContextPhase.UNIQUE_ROOT_CLEANUP));
+
+    // timings are started again for the next test
+    assertNull(context.getTimings());
+  }
+
+  @Test
+  public void testTimingsPerTest() throws Throwable {
+    AemContext context = TestAemContext.newAemContextBuilder(ResourceResolverType.RESOURCERESOLVER_MOCK,
+        ResourceResolverType.JCR_MOCK).build();
+    execute(context, () -> { /* no test code */ });
+
+    assertEquals(2, completedTimings.size());
+    for (ContextTimings timings : completedTimings) {
+      assertEquals(1, timings.getCount(ContextPhase.RESOURCE_RESOLVER_FACTORY));
+      assertEquals(0, timings.getCount(ContextPhase.CONTENT_FIXTURES));
+    }
+  }
+
+  @Test
+  public void testNoListener() throws Throwable {
+    ContextTimings.removeListener(listener);
+    AemContext context = TestAemContext.newAemContext();
+    execute(context, () -> assertNull(context.getTimings()));
+  }
+
+  @Test
+  public void testTimingsEnabled() throws Throwable {
+    ContextTimings.removeListener(listener);
+    AemContext context = TestAemContext.newAemContextBuilder(ResourceResolverType.RESOURCERESOLVER_MOCK).build();
+    context.setTimingsEnabled(true);
+    List<ContextTimings> timings = new ArrayList<>();
+    execute(context, () -> timings.add(context.getTimings()));
+    assertEquals(1, timings.get(0).getCount(ContextPhase.RESOURCE_RESOLVER_FACTORY));
+  }
+
+  private static void execute(AemContext context, Runnable test) throws Throwable {
+    context.apply(new Statement() {
+      @Override
+      public void evaluate() {
+        test.run();
+      }
+    }, Description.EMPTY).evaluate();
+  }
+
+}
@@ -0,0 +1,187 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem.context;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.sling.api.resource.Resource;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.wcm.testing.mock.aem.junit.AemContext;
+
+@SuppressWarnings("null")
+public class CachedContentLoaderTest {
+
+  // properties that get new values each time the resource is created
+  private static final Set<String> GENERATED_PROPERTIES = Set.of("jcr:created", "jcr:createdBy", "jcr:uuid");
+
+  @Rule
+  public AemContext context = TestAemContext.newAemContext();
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @After
+  public void tearDown() {
+    CachedContentLoader.clear();
+  }
+
+  @Test
+  public void testSameContentAsContentLoader() {
+    Resource expected = context.load().json("/json-import-samples/content.json", "/content/expected/en");
+    Resource actual = context.loadCached().json("/json-import-samples/content.json", "/content/actual/en");
+    assertSameContent(expected, actual);
+
+    // second import is created from cached content
+    Resource actual2 = context.loadCached().json("/json-import-samples/content.json", context.resourceResolver().getResource("/content/actual"), "en2");
+    assertEquals("/content/actual/en2", actual2.getPath());
+    assertSameContent(expected, actual2);
+  }
+
+  @Test
+  public void testCachedValuesNotShared() {
+    Resource resource1 = context.loadCached().json("/json-import-samples/content.json", "/content/sample1/en");
+    Calendar created = resource1.getChild("jcr:content").getValueMap().get("cq:lastModified", Calendar.class);
+    assertNotNull(created);
+    created.add(Calendar.YEAR, 1);
+
+    Resource resource2 = context.loadCached().json("/json-import-samples/content.json", "/content/sample2/en");
+    assertEquals(2014, resource2.getChild("jcr:content").getValueMap().get("cq:lastModified", Calendar.class).get(Calendar.YEAR));
+  }
+
+  @Test
+  public void testFileChanged() throws IOException {
+    File file = tempFolder.newFile("sample-" + context.resourceResolverType() + ".json");
+    writeJson(file, "value1", 1000000L);
+    assertEquals("value1", context.loadCached().json(file.getPath(), "/content/sample1").getValueMap().get("prop1", String.class));
+
+    // same last modified time - parsed content from cache is used
+    writeJson(file, "value2", 1000000L);
+    assertEquals("value1", context.loadCached().json(file.getPath(), "/content/sample2").getValueMap().get("prop1", String.class));
+
+    // file changed - parsed again
+    writeJson(file, "value3", 2000000L);
+    assertEquals("value3", context.loadCached().json(file.getPath(), "/content/sample3").getValueMap().get("prop1", String.class));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testResourceAlreadyExists() {
+    context.loadCached().json("/json-import-samples/content.json", "/content/sample/en");
+    context.loadCached().json("/json-import-samples/content.json", "/content/sample/en");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNonExistingClasspathResource() {
+    context.loadCached().json("/json-import-samples/non-existing.json", "/content/sample/en");
+  }
+
+  @Test
+  public void testNoAutoCommit() {
+    context.loadCached(false).json("/json-import-samples/content.json", "/content/sample/en");
+    assertTrue(context.resourceResolver().hasChanges());
+    assertNull(context.resourceResolver().getResource("/content/sample/en/non-existing"));
+  }
+
+  private static void writeJson(File file, String value, long lastModified) throws IOException {
+    Files.write(file.toPath(), ("{\"jcr:primaryType\":\"nt:unstructured\",\"prop1\":\"" + value + "\"}")
+        .getBytes(StandardCharsets.UTF_8));
+    assertTrue(file.setLastModified(lastModified));
+  }
+
+  private static void assertSameContent(Resource expected, Resource actual) {
+    assertEquals(expected.getPath(), getProperties(expected), getProperties(actual));
+    List<String> expectedChildren = getChildNames(expected);
+    assertEquals(expected.getPath(), expectedChildren, getChildNames(actual));
+    for (String childName : expectedChildren) {
+      assertSameContent(expected.getChild(childName), actual.getChild(childName));
+    }
+  }
+
+  private static Map<String, Object> getProperties(Resource resource) {
+    Map<String, Object> result = new HashMap<>();
+    resource.getValueMap().forEach((name, value) -> {
+      if (!GENERATED_PROPERTIES.contains(name)) {
+        result.put(name, new DeepEqualsValue(value instanceof InputStream ? readBinary((InputStream)value) : value));
+      }
+    });
+    return result;
+  }
+
+  private static byte[] readBinary(InputStream is) {
+    try (is) {
+      return is.readAllBytes();
+    }
+    catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private static List<String> getChildNames(Resource resource) {
+    List<String> result = new ArrayList<>();
+    resource.getChildren().forEach(child -> result.add(child.getName()));
+    return result;
+  }
+
+  private static final class DeepEqualsValue {
+
+    private final Object value;
+
+    DeepEqualsValue(Object value) {
+      this.value = value;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof DeepEqualsValue && Objects.deepEquals(value, ((DeepEqualsValue)obj).value);
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    @Override
+    public String toString() {
+      return Objects.toString(value);
+    }
+
+  }
+
+}
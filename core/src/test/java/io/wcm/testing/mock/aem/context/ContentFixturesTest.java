@@ -0,0 +1,137 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem.context;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.sling.api.resource.ModifiableValueMap;
+import org.apache.sling.api.resource.PersistenceException;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.testing.mock.sling.ResourceResolverType;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.day.cq.wcm.api.Page;
+
+import io.wcm.testing.mock.aem.junit.AemContext;
+import io.wcm.testing.mock.aem.junit.AemContextCallback;
+
+@SuppressWarnings("null")
+public class ContentFixturesTest {
+
+  private static final byte[] BINARY_DATA = new byte[] { 0x01, 0x02, 0x03 };
+  private static final Map<ResourceResolverType, AtomicInteger> FIXTURE_EXECUTIONS = new ConcurrentHashMap<>();
+  private static final Map<String, AtomicInteger> PROPERTY_FIXTURE_EXECUTIONS = new ConcurrentHashMap<>();
+
+  @Rule
+  public AemContext context = TestAemContext.newAemContextBuilder(
+      ResourceResolverType.JCR_MOCK, ResourceResolverType.RESOURCERESOLVER_MOCK, ResourceResolverType.RESOURCEPROVIDER_MOCK)
+      .contentFixture(new SampleContentFixture(),
+          propertyFixture("/content/lambda1", "value1"),
+          propertyFixture("/content/lambda2", "value2"))
+      .build();
+
+  @Test
+  public void testFixture1() throws PersistenceException {
+    assertFixtureContent();
+    modifyFixtureContent();
+  }
+
+  @Test
+  public void testFixture2() throws PersistenceException {
+    assertFixtureContent();
+    modifyFixtureContent();
+  }
+
+  private void assertFixtureContent() {
+    Page page = context.pageManager().getPage("/content/fixture/page1");
+    assertNotNull(page);
+    assertEquals("Page 1", page.getTitle());
+    assertEquals("value1", page.getContentResource("comp1").getValueMap().get("prop1", String.class));
+
+    Resource file = context.resourceResolver().getResource("/content/fixture/file1.bin/jcr:content");
+    assertArrayEquals(BINARY_DATA, readBinary(file));
+
+    int expectedExecutions = 1;
+    if (context.resourceResolverType() == ResourceResolverType.RESOURCEPROVIDER_MOCK) {
+      // no snapshots supported - fixture is executed for each context
+      expectedExecutions = FIXTURE_EXECUTIONS.get(ResourceResolverType.RESOURCEPROVIDER_MOCK).get();
+    }
+    assertEquals(expectedExecutions, FIXTURE_EXECUTIONS.get(context.resourceResolverType()).get());
+  }
+
+  @Test
+  public void testParameterizedFixtures() {
+    // fixtures of the same lambda class with different parameters get different snapshots
+    assertEquals("value1", context.resourceResolver().getResource("/content/lambda1").getValueMap().get("prop1", String.class));
+    assertEquals("value2", context.resourceResolver().getResource("/content/lambda2").getValueMap().get("prop1", String.class));
+    if (context.resourceResolverType() != ResourceResolverType.RESOURCEPROVIDER_MOCK) {
+      assertEquals(1, PROPERTY_FIXTURE_EXECUTIONS.get(context.resourceResolverType() + "/content/lambda1").get());
+      assertEquals(1, PROPERTY_FIXTURE_EXECUTIONS.get(context.resourceResolverType() + "/content/lambda2").get());
+    }
+  }
+
+  private void modifyFixtureContent() throws PersistenceException {
+    // changes are only visible within the current context
+    Resource comp1 = context.resourceResolver().getResource("/content/fixture/page1/jcr:content/comp1");
+    comp1.adaptTo(ModifiableValueMap.class).put("prop1", "changed");
+    context.resourceResolver().delete(context.resourceResolver().getResource("/content/fixture/file1.bin"));
+    context.resourceResolver().commit();
+  }
+
+  private static byte[] readBinary(Resource resource) {
+    try (InputStream is = resource.adaptTo(InputStream.class)) {
+      return is.readAllBytes();
+    }
+    catch (IOException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  private static AemContextCallback propertyFixture(String path, String value) {
+    return context -> {
+      PROPERTY_FIXTURE_EXECUTIONS.computeIfAbsent(context.resourceResolverType() + path, key -> new AtomicInteger()).incrementAndGet();
+      context.create().resource(path, "prop1", value);
+    };
+  }
+
+  private static final class SampleContentFixture implements AemContextCallback {
+
+    @Override
+    public void execute(@NotNull AemContext context) {
+      FIXTURE_EXECUTIONS.computeIfAbsent(context.resourceResolverType(), type -> new AtomicInteger()).incrementAndGet();
+      Page page = context.create().page("/content/fixture/page1", null, "Page 1");
+      context.create().resource(page, "comp1", "prop1", "value1");
+      context.load().binaryFile(new ByteArrayInputStream(BINARY_DATA), "/content/fixture/file1.bin");
+    }
+
+  }
+
+}
@@ -22,9 +22,13 @@ package io.wcm.testing.mock.aem.context;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Map;
 
 import org.apache.sling.api.SlingHttpServletRequest;
 import org.apache.sling.api.adapter.AdapterManager;
+import org.apache.sling.api.resource.ModifiableValueMap;
 import org.apache.sling.api.resource.Resource;
 import org.apache.sling.models.factory.ModelFactory;
 import org.apache.sling.scripting.api.BindingsValuesProvidersByContext;
@@ -38,6 +42,7 @@ import com.day.cq.wcm.api.NameConstants;
 import com.day.cq.wcm.api.Page;
 import com.day.cq.wcm.api.WCMMode;
 
+import io.wcm.testing.mock.aem.MockContentPolicyStorage;
 import io.wcm.testing.mock.aem.junit.AemContext;
 import io.wcm.testing.mock.aem.models.SlingBindingsModel;
 
@@ -269,4 +274,41 @@ public class MockAemSlingBindingsTest {
     assertEquals("value1", model.getCurrentStyle().get("policyProp1", String.class));
   }
 
+  @Test
+  public void testMemoizedBindings() {
+    context.contentPolicyMapping(COMPONENT_RESOURCE_TYPE,
+        "policyProp1", "value1");
+    context.currentResource(currentResource);
+
+    SlingBindingsModel model1 = context.request().adaptTo(SlingBindingsModel.class);
+    SlingBindingsModel model2 = context.request().adaptTo(SlingBindingsModel.class);
+    assertSame(model1.getComponent(), model2.getComponent());
+    assertSame(model1.getResourcePage(), model2.getResourcePage());
+
+    // content policies stored via content policy storage are visible
+    MockContentPolicyStorage.storeContentPolicyMapping(COMPONENT_RESOURCE_TYPE,
+        Map.of("policyProp1", "value2"), context.resourceResolver());
+    SlingBindingsModel model3 = context.request().adaptTo(SlingBindingsModel.class);
+    assertEquals("value2", model3.getCurrentContentPolicy().getProperties().get("policyProp1", String.class));
+    assertEquals("value2", model3.getCurrentStyle().get("policyProp1", String.class));
+
+    // content policy changed via resource API is visible
+    context.resourceResolver().getResource(model3.getCurrentContentPolicy().getPath())
+        .adaptTo(ModifiableValueMap.class).put("policyProp1", "value3");
+    SlingBindingsModel model4 = context.request().adaptTo(SlingBindingsModel.class);
+    assertEquals("value3", model4.getCurrentContentPolicyProperties().get("policyProp1", String.class));
+    assertEquals("value3", model4.getCurrentStyle().get("policyProp1", String.class));
+
+    // changing the current page or resource invalidates the memoized values
+    Page page2 = context.create().page("/content/testPage2");
+    context.currentPage(page2);
+    SlingBindingsModel model5 = context.request().adaptTo(SlingBindingsModel.class);
+    assertEquals(page2.getPath(), model5.getCurrentPage().getPath());
+    assertEquals(page2.getPath(), model5.getResourcePage().getPath());
+    assertNull(model5.getCurrentContentPolicy());
+    context.currentResource(currentResource);
+    SlingBindingsModel model6 = context.request().adaptTo(SlingBindingsModel.class);
+    assertEquals(currentPage.getPath(), model6.getResourcePage().getPath());
+  }
+
 }
@@ -0,0 +1,130 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem.context;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.sling.api.resource.PersistenceException;
+import org.apache.sling.api.resource.Resource;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.day.cq.dam.api.Asset;
+import com.day.cq.wcm.api.Page;
+import com.day.cq.wcm.api.PageManager;
+
+import io.wcm.testing.mock.aem.junit.AemContext;
+
+public class RepositoryMetricsTest {
+
+  private static final byte[] BINARY_DATA = new byte[] {
+      0x01, 0x02, 0x03, 0x04, 0x05
+  };
+
+  @Rule
+  public AemContext context = TestAemContext.newAemContextBuilder()
+      .repositoryMetrics(true)
+      .build();
+
+  private RepositoryMetrics underTest;
+
+  @Before
+  public void setUp() {
+    context.create().page("/content/sample/en");
+    context.create().page("/content/sample/en/page1");
+    context.create().page("/content/sample/en/page2");
+    underTest = context.repositoryMetrics();
+    underTest.reset();
+  }
+
+  @Test
+  public void testResourceOperations() {
+    Resource resource = context.resourceResolver().getResource("/content/sample/en");
+    assertNotNull(resource);
+    assertSame(context.resourceResolver(), resource.getResourceResolver());
+    assertNotNull(resource.getChild("jcr:content"));
+    int count = 0;
+    for (Resource child : resource.getChildren()) {
+      assertSame(context.resourceResolver(), child.getResourceResolver());
+      count++;
+    }
+    assertEquals(3, count);
+
+    assertEquals(2, underTest.getCount(RepositoryOperation.GET_RESOURCE));
+    assertEquals(1, underTest.getCount(RepositoryOperation.LIST_CHILDREN));
+    underTest.assertMaxCount(RepositoryOperation.GET_RESOURCE, 2);
+    assertThrows(AssertionError.class, () -> underTest.assertMaxCount(RepositoryOperation.GET_RESOURCE, 1));
+
+    underTest.reset();
+    assertEquals(0, underTest.getCount(RepositoryOperation.GET_RESOURCE));
+  }
+
+  @Test
+  public void testAdaptTo() {
+    PageManager pageManager = context.resourceResolver().adaptTo(PageManager.class);
+    assertNotNull(pageManager);
+    Page page = pageManager.getPage("/content/sample/en");
+    assertNotNull(page);
+    assertTrue(page.listChildren().hasNext());
+
+    assertEquals(1, underTest.getAdaptToCount(PageManager.class));
+    assertTrue(underTest.getAdaptToCount(Page.class) > 0);
+    assertEquals(underTest.getAdaptToCounts().values().stream().mapToLong(Long::longValue).sum(),
+        underTest.getCount(RepositoryOperation.ADAPT_TO));
+    // page manager operates on the counting resource resolver as well
+    assertTrue(underTest.getCount(RepositoryOperation.GET_RESOURCE) > 0);
+    assertThrows(AssertionError.class, () -> underTest.assertMaxAdaptToCount(PageManager.class, 0));
+  }
+
+  @Test
+  public void testCommit() throws PersistenceException {
+    context.resourceResolver().commit();
+    assertEquals(1, underTest.getCount(RepositoryOperation.COMMIT));
+  }
+
+  @Test
+  public void testBinariesAndDamEvents() throws IOException {
+    Asset asset = context.assetManager().createAsset("/content/dam/sample.bin",
+        new ByteArrayInputStream(BINARY_DATA), "application/octet-stream", true);
+    assertEquals(BINARY_DATA.length, underTest.getCount(RepositoryOperation.BINARY_BYTES_WRITTEN));
+    assertTrue(underTest.getCount(RepositoryOperation.DAM_EVENTS) > 0);
+
+    try (InputStream is = asset.getOriginal().getStream()) {
+      assertEquals(BINARY_DATA.length, IOUtils.toByteArray(is).length);
+    }
+    assertEquals(BINARY_DATA.length, underTest.getCount(RepositoryOperation.BINARY_BYTES_READ));
+  }
+
+  @Test
+  public void testNotEnabled() {
+    assertThrows(IllegalStateException.class, () -> new AemContextImpl().repositoryMetrics());
+  }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem.dam;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.testing.mock.sling.ResourceResolverType;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.day.cq.commons.jcr.JcrConstants;
+import com.day.cq.dam.api.DamConstants;
+
+import io.wcm.testing.mock.aem.context.RepositoryMetrics;
+import io.wcm.testing.mock.aem.context.RepositoryOperation;
+import io.wcm.testing.mock.aem.context.TestAemContext;
+import io.wcm.testing.mock.aem.junit.AemContext;
+
+@SuppressWarnings("null")
+public class AssetIdentifierIndexTest {
+
+  private static final String ASSET_PATH = "/content/dam/sample/portraits/scott_reynolds.jpg";
+
+  // the DAM subtree is only scanned if the asset cannot be looked up via JCR identifier
+  @Rule
+  public AemContext context = TestAemContext.newAemContextBuilder(
+      ResourceResolverType.RESOURCERESOLVER_MOCK, ResourceResolverType.RESOURCEPROVIDER_MOCK)
+      .repositoryMetrics(true)
+      .build();
+
+  private final AssetIdentifierIndex underTest = new AssetIdentifierIndex();
+  private ResourceResolver resourceResolver;
+  private RepositoryMetrics metrics;
+
+  @Before
+  public void setUp() {
+    context.load().json("/json-import-samples/dam.json", "/content/dam/sample");
+    resourceResolver = context.resourceResolver();
+    metrics = context.repositoryMetrics();
+  }
+
+  @Test
+  public void testKnownIdsNotRescanned() {
+    String id = AssetIdentifierIndex.getId(resourceResolver.getResource(ASSET_PATH));
+
+    assertNull(underTest.getAssetResource(resourceResolver, "unknown-id1"));
+    assertEquals(ASSET_PATH, underTest.getAssetResource(resourceResolver, id).getPath());
+
+    // the first scan indexed all assets, known IDs are validated by path
+    metrics.reset();
+    for (int i = 0; i < 10; i++) {
+      assertEquals(ASSET_PATH, underTest.getAssetResource(resourceResolver, id).getPath());
+    }
+    metrics.assertMaxCount(RepositoryOperation.LIST_CHILDREN, 0);
+  }
+
+  @Test
+  public void testAssetCreatedAfterMiss() {
+    assertNull(underTest.getAssetResource(resourceResolver, "new-id"));
+
+    context.create().resource("/content/dam/new-asset",
+        JcrConstants.JCR_PRIMARYTYPE, DamConstants.NT_DAM_ASSET,
+        JcrConstants.JCR_UUID, "new-id");
+    assertEquals("/content/dam/new-asset", underTest.getAssetResource(resourceResolver, "new-id").getPath());
+  }
+
+  @Test
+  public void testAssetMovedWithoutIndex() throws Exception {
+    String id = AssetIdentifierIndex.getId(resourceResolver.getResource(ASSET_PATH));
+    assertEquals(ASSET_PATH, underTest.getAssetResource(resourceResolver, id).getPath());
+
+    context.create().resource("/content/dam/moved");
+    resourceResolver.move(ASSET_PATH, "/content/dam/moved");
+    assertEquals("/content/dam/moved/scott_reynolds.jpg", underTest.getAssetResource(resourceResolver, id).getPath());
+  }
+
+}
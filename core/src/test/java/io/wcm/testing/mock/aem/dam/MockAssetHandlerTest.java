@@ -26,9 +26,14 @@ import static io.wcm.testing.mock.aem.dam.MockAssetHandler.SVG_MIME_TYPE;
 import static io.wcm.testing.mock.aem.dam.MockAssetHandler.TIFF_MIME_TYPE;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 
 import org.apache.commons.io.FilenameUtils;
 import org.junit.Before;
@@ -36,8 +41,11 @@ import org.junit.Rule;
 import org.junit.Test;
 
 import com.day.cq.dam.api.Asset;
+import com.day.cq.dam.api.DamConstants;
+import com.day.cq.dam.api.Rendition;
 import com.day.cq.dam.api.handler.AssetHandler;
 import com.day.cq.dam.api.handler.store.AssetStore;
+import com.day.cq.dam.commons.thumbnail.ThumbnailConfigImpl;
 import com.day.image.Layer;
 
 import io.wcm.testing.mock.aem.context.TestAemContext;
@@ -81,6 +89,68 @@ public class MockAssetHandlerTest {
     assertAssertHandlerImage("/dam/filetype/sample.svg", SVG_MIME_TYPE, 100, 50);
   }
 
+  @Test
+  public void testCreateThumbnails_Default() throws Exception {
+    Asset asset = context.create().asset("/content/dam/sample.jpg", 400, 200, JPEG_MIME_TYPE);
+    AssetHandler assetHandler = assetStore.getAssetHandler(JPEG_MIME_TYPE);
+
+    assetHandler.createThumbnails(asset);
+
+    assertRendition(asset, "cq5dam.thumbnail.48.48.png", 48, 24);
+    assertRendition(asset, "cq5dam.thumbnail.140.100.png", 140, 70);
+    assertRendition(asset, "cq5dam.thumbnail.319.319.png", 319, 160);
+  }
+
+  @Test
+  public void testCreateThumbnails_Configs() throws Exception {
+    Asset asset = context.create().asset("/content/dam/sample.png", 100, 50, PNG_MIME_TYPE);
+    AssetHandler assetHandler = assetStore.getAssetHandler(PNG_MIME_TYPE);
+
+    assetHandler.createThumbnails(asset, List.of(
+        new ThumbnailConfigImpl(20, 20, true),
+        new ThumbnailConfigImpl(500, 500, false)));
+
+    // centered in bounding box
+    assertRendition(asset, "cq5dam.thumbnail.20.20.png", 20, 20);
+    // never upscaled
+    assertRendition(asset, "cq5dam.thumbnail.500.500.png", 100, 50);
+    assertNull(asset.getRendition("cq5dam.thumbnail.48.48.png"));
+  }
+
+  @Test
+  public void testCreateThumbnails_MultipleAssets() throws Exception {
+    Asset asset1 = context.create().asset("/content/dam/sample1.jpg", 400, 200, JPEG_MIME_TYPE);
+    Asset asset2 = context.create().asset("/content/dam/sample2.gif", 100, 300, GIF_MIME_TYPE);
+    MockAssetHandler assetHandler = (MockAssetHandler)assetStore.getAssetHandler(JPEG_MIME_TYPE);
+
+    assetHandler.createThumbnails(List.of(asset1, asset2), List.of(new ThumbnailConfigImpl(100, 100, false)), 4);
+
+    assertRendition(asset1, "cq5dam.thumbnail.100.100.png", 100, 50);
+    assertRendition(asset2, "cq5dam.thumbnail.100.100.png", 33, 100);
+  }
+
+  @Test(expected = IOException.class)
+  public void testCreateThumbnails_MultipleAssets_NoBinaryData() throws Exception {
+    Rendition original = mock(Rendition.class);
+    when(original.getPath()).thenReturn("/content/dam/sample.jpg/jcr:content/renditions/original");
+    Asset asset = mock(Asset.class);
+    when(asset.getOriginal()).thenReturn(original);
+    MockAssetHandler assetHandler = (MockAssetHandler)assetStore.getAssetHandler(JPEG_MIME_TYPE);
+
+    assetHandler.createThumbnails(List.of(asset), List.of(new ThumbnailConfigImpl(100, 100, false)), 4);
+  }
+
+  private static void assertRendition(Asset asset, String name, int width, int height) throws IOException {
+    Rendition rendition = asset.getRendition(name);
+    assertNotNull("Rendition " + name, rendition);
+    assertEquals(DamConstants.THUMBNAIL_MIMETYPE, rendition.getMimeType());
+    try (InputStream is = rendition.getStream()) {
+      Layer layer = new Layer(is);
+      assertEquals(width, layer.getWidth());
+      assertEquals(height, layer.getHeight());
+    }
+  }
+
   private void assertAssertHandlerImage(String classpathResource, String contentType, int width, int height)
       throws IOException {
     String filename = FilenameUtils.getName(classpathResource);
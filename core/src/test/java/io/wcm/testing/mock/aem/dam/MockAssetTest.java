@@ -19,6 +19,7 @@
  */
 package io.wcm.testing.mock.aem.dam;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
@@ -35,6 +36,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.sling.api.resource.Resource;
 import org.apache.sling.testing.mock.sling.ResourceResolverType;
@@ -44,6 +46,7 @@ import org.junit.Test;
 import org.osgi.service.event.EventHandler;
 
 import com.adobe.granite.asset.api.RenditionHandler;
+import com.day.cq.commons.jcr.JcrConstants;
 import com.day.cq.dam.api.Asset;
 import com.day.cq.dam.api.DamConstants;
 import com.day.cq.dam.api.DamEvent;
@@ -105,6 +108,20 @@ public class MockAssetTest {
     assertEquals("original", asset.getRendition(new WCMRenditionPicker()).getName());
   }
 
+  @Test
+  public void testRenditionChangedViaOtherAssetInstance() {
+    assertNull(asset.getRendition("test.bin"));
+
+    Asset otherAsset = context.resourceResolver().getResource(asset.getPath()).adaptTo(Asset.class);
+    otherAsset.addRendition("test.bin", new ByteArrayInputStream(BINARY_DATA), "application/octet-stream");
+    assertEquals(BINARY_DATA.length, asset.getRendition("test.bin").getSize());
+    assertEquals(5, asset.getRenditions().size());
+
+    otherAsset.removeRendition("test.bin");
+    assertNull(asset.getRendition("test.bin"));
+    assertEquals(4, asset.getRenditions().size());
+  }
+
   private boolean hasRendition(List<Rendition> renditions, String renditionName) {
     for (Rendition rendition : renditions) {
       if (StringUtils.equals(rendition.getName(), renditionName)) {
@@ -171,6 +188,38 @@ public class MockAssetTest {
     });
   }
 
+  @Test
+  public void testSetRendition() throws Exception {
+    Rendition rendition = asset.addRendition("rendition1.bin", new ByteArrayInputStream(BINARY_DATA), "application/octet-stream");
+    int eventCount = damEventHandler.getEvents().size();
+
+    // existing rendition is updated in-place
+    byte[] newData = new byte[] { 0x06, 0x07 };
+    asset.setRendition("rendition1.bin", new ByteArrayInputStream(newData), "application/x-test");
+    assertArrayEquals(newData, IOUtils.toByteArray(asset.getRendition("rendition1.bin").getStream()));
+    assertEquals("application/x-test", context.resourceResolver().getResource(rendition.getPath() + "/jcr:content")
+        .getValueMap().get(JcrConstants.JCR_MIMETYPE, String.class));
+    assertFalse(context.resourceResolver().hasChanges());
+
+    List<DamEvent> events = damEventHandler.getEvents().subList(eventCount, damEventHandler.getEvents().size());
+    assertEquals(1, events.size());
+    assertEquals(DamEvent.Type.RENDITION_UPDATED, events.get(0).getType());
+    assertEquals(rendition.getPath(), events.get(0).getAdditionalInfo());
+
+    // in batch mode commit and event are deferred
+    asset.setBatchMode(true);
+    asset.setRendition("rendition1.bin", new ByteArrayInputStream(BINARY_DATA), "application/octet-stream");
+    assertTrue(context.resourceResolver().hasChanges());
+    assertEquals(eventCount + 1, damEventHandler.getEvents().size());
+    asset.setBatchMode(false);
+    assertFalse(context.resourceResolver().hasChanges());
+    assertEquals(eventCount + 2, damEventHandler.getEvents().size());
+
+    // rendition that does not exist yet is added
+    assertNotNull(asset.setRendition("rendition2.bin", new ByteArrayInputStream(BINARY_DATA), "application/octet-stream"));
+    assertNotNull(asset.getRendition("rendition2.bin"));
+  }
+
   @Test
   @SuppressWarnings("java:S2699") // ensure no error is thrown
   public void testRenditionListMutable() {
@@ -180,26 +229,86 @@ public class MockAssetTest {
 
   @Test
   public void testBatchMode() {
-    if (context.resourceResolverType() == ResourceResolverType.JCR_MOCK) {
-      // resource resolver revert not support for JCR_MOCK - skip test
-      return;
-    }
+    int eventCount = damEventHandler.getEvents().size();
 
     // when batch mode is set to true ResourceResolver commit isn't called keeping the changes transient
     asset.setBatchMode(true);
     assertTrue(asset.isBatchMode());
-    doTestAddRemoveRendition("testwithbatchmode.bin");
+    asset.addRendition("batch1.bin", new ByteArrayInputStream(BINARY_DATA), "application/octet-stream");
+    asset.addRendition("batch1.bin", new ByteArrayInputStream(BINARY_DATA), "application/octet-stream");
+    asset.addRendition("batch2.bin", new ByteArrayInputStream(BINARY_DATA), "application/octet-stream");
+    assertNotNull(asset.getRendition("batch1.bin"));
     assertTrue(context.resourceResolver().hasChanges());
 
-    context.resourceResolver().revert();
+    // DAM events are deferred as well
+    assertEquals(eventCount, damEventHandler.getEvents().size());
 
-    // when batch mode is set to false ResourceResolver commit is called and there are no more pending changes
+    // when batch mode is set to false all changes are committed and the coalesced events are sent
     asset.setBatchMode(false);
     assertFalse(asset.isBatchMode());
+    assertFalse(context.resourceResolver().hasChanges());
+
+    List<DamEvent> events = damEventHandler.getEvents().subList(eventCount, damEventHandler.getEvents().size());
+    assertEquals(3, events.size());
+    assertEquals(DamEvent.Type.RENDITION_REMOVED, events.get(0).getType());
+    assertEquals(DamEvent.Type.RENDITION_UPDATED, events.get(1).getType());
+    assertTrue(StringUtils.endsWith(events.get(1).getAdditionalInfo(), "/batch1.bin"));
+    assertEquals(DamEvent.Type.RENDITION_UPDATED, events.get(2).getType());
+    assertTrue(StringUtils.endsWith(events.get(2).getAdditionalInfo(), "/batch2.bin"));
+
+    // without batch mode events are sent directly
     doTestAddRemoveRendition("testwithoutbatchmode.bin");
     assertFalse(context.resourceResolver().hasChanges());
   }
 
+  @Test
+  public void testSubAssets() {
+    assertFalse(asset.isSubAsset());
+    assertTrue(asset.getSubAssets().isEmpty());
+
+    Asset subAsset = asset.addSubAsset("page1.bin", "application/octet-stream", new ByteArrayInputStream(BINARY_DATA));
+    assertEquals(asset.getPath() + "/jcr:content/subassets/page1.bin", subAsset.getPath());
+    assertTrue(subAsset.isSubAsset());
+    assertEquals("application/octet-stream", subAsset.getOriginal().getMimeType());
+
+    Optional<DamEvent> damEvent = damEventHandler.getLastEvent();
+    assertTrue(damEvent.isPresent());
+    assertEquals(DamEvent.Type.SUBASSET_UPDATED, damEvent.get().getType());
+    assertEquals(asset.getPath(), damEvent.get().getAssetPath());
+
+    asset.addSubAsset("page2.bin", "application/octet-stream", new ByteArrayInputStream(BINARY_DATA));
+    List<Asset> subAssets = List.copyOf(asset.getSubAssets());
+    assertEquals(2, subAssets.size());
+    assertEquals("page1.bin", subAssets.get(0).getName());
+    assertEquals("page2.bin", subAssets.get(1).getName());
+  }
+
+  @Test
+  public void testSubAssetsBatchMode() {
+    int eventCount = damEventHandler.getEvents().size();
+
+    asset.setBatchMode(true);
+    asset.addSubAsset("page1.bin", "application/octet-stream", new ByteArrayInputStream(BINARY_DATA));
+    asset.addSubAsset("page2.bin", "application/octet-stream", new ByteArrayInputStream(BINARY_DATA));
+    assertTrue(context.resourceResolver().hasChanges());
+    assertEquals(eventCount, damEventHandler.getEvents().size());
+
+    asset.setBatchMode(false);
+    assertFalse(context.resourceResolver().hasChanges());
+    assertEquals(2, asset.getSubAssets().size());
+
+    // rendition updated, asset created and sub asset updated event for each sub asset
+    assertEquals(eventCount + 6, damEventHandler.getEvents().size());
+  }
+
+  @Test
+  public void testCurrentOriginal() {
+    assertEquals(DamConstants.ORIGINAL_FILE, asset.getCurrentOriginal().getName());
+    asset.setCurrentOriginal("cq5dam.thumbnail.48.48.png");
+    assertEquals("cq5dam.thumbnail.48.48.png", asset.getCurrentOriginal().getName());
+    assertEquals(DamConstants.ORIGINAL_FILE, asset.getOriginal().getName());
+  }
+
   @Test
   public void testGetID() {
     if (context.resourceResolverType() == ResourceResolverType.JCR_OAK) {
@@ -0,0 +1,129 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem.dam;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.osgi.service.event.EventHandler;
+
+import com.day.cq.dam.api.Asset;
+import com.day.cq.dam.api.DamEvent;
+
+import io.wcm.testing.mock.aem.context.TestAemContext;
+import io.wcm.testing.mock.aem.dam.MockAssetManagerTest.DamEventHandler;
+import io.wcm.testing.mock.aem.dam.MockDamEventDispatcher.DispatchMode;
+import io.wcm.testing.mock.aem.junit.AemContext;
+
+public class MockDamEventDispatcherTest {
+
+  private static final byte[] BINARY_DATA = new byte[] {
+      0x01, 0x02, 0x03, 0x04, 0x05
+  };
+
+  @Rule
+  public AemContext context = TestAemContext.newAemContext();
+
+  private MockDamEventDispatcher underTest;
+  private DamEventHandler damEventHandler;
+
+  @Before
+  public void setUp() {
+    underTest = context.getService(MockDamEventDispatcher.class);
+    assertNotNull(underTest);
+    damEventHandler = (DamEventHandler)context.registerService(EventHandler.class, new DamEventHandler());
+  }
+
+  @Test
+  public void testSync() {
+    assertEquals(DispatchMode.SYNC, underTest.getDispatchMode());
+
+    Asset asset = createAsset("/content/dam/sample.bin");
+
+    List<DamEvent> events = damEventHandler.getEvents();
+    assertEquals(2, events.size());
+    assertEquals(DamEvent.Type.RENDITION_UPDATED, events.get(0).getType());
+    assertEquals(DamEvent.Type.ASSET_CREATED, events.get(1).getType());
+    assertEquals(asset.getPath(), events.get(1).getAssetPath());
+  }
+
+  @Test
+  public void testAsync() {
+    underTest.setDispatchMode(DispatchMode.ASYNC);
+
+    for (int i = 0; i < 10; i++) {
+      createAsset("/content/dam/sample" + i + ".bin");
+    }
+    underTest.drain();
+
+    List<DamEvent> events = damEventHandler.getEvents();
+    assertEquals(20, events.size());
+    // events are delivered in order
+    for (int i = 0; i < 10; i++) {
+      assertEquals(DamEvent.Type.RENDITION_UPDATED, events.get(i * 2).getType());
+      assertEquals(DamEvent.Type.ASSET_CREATED, events.get(i * 2 + 1).getType());
+      assertEquals("/content/dam/sample" + i + ".bin", events.get(i * 2 + 1).getAssetPath());
+    }
+  }
+
+  @Test
+  public void testCoalesced() {
+    underTest.setDispatchMode(DispatchMode.COALESCED);
+
+    Asset asset = createAsset("/content/dam/sample.bin");
+    asset.addRendition("rendition1.bin", new ByteArrayInputStream(BINARY_DATA), "application/octet-stream");
+    asset.addRendition("rendition1.bin", new ByteArrayInputStream(BINARY_DATA), "application/octet-stream");
+    context.create().contentFragmentStructured("/content/dam/fragment1", "param1", "value1");
+    assertTrue(damEventHandler.getEvents().isEmpty());
+
+    underTest.drain();
+
+    List<DamEvent> events = damEventHandler.getEvents();
+    assertEquals(5, events.size());
+    assertEquals(DamEvent.Type.RENDITION_UPDATED, events.get(0).getType());
+    assertEquals(DamEvent.Type.ASSET_CREATED, events.get(1).getType());
+    assertEquals(DamEvent.Type.RENDITION_REMOVED, events.get(2).getType());
+    assertEquals(DamEvent.Type.RENDITION_UPDATED, events.get(3).getType());
+    assertEquals(DamEvent.Type.ASSET_CREATED, events.get(4).getType());
+    assertEquals("/content/dam/fragment1", events.get(4).getAssetPath());
+  }
+
+  @Test
+  public void testSwitchModeDeliversPendingEvents() {
+    underTest.setDispatchMode(DispatchMode.COALESCED);
+    createAsset("/content/dam/sample.bin");
+    assertTrue(damEventHandler.getEvents().isEmpty());
+
+    underTest.setDispatchMode(DispatchMode.SYNC);
+    assertEquals(2, damEventHandler.getEvents().size());
+  }
+
+  private Asset createAsset(String path) {
+    return context.assetManager().createAsset(path, new ByteArrayInputStream(BINARY_DATA), "application/octet-stream", true);
+  }
+
+}
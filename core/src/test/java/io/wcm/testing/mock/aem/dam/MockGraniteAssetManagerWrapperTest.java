@@ -28,6 +28,10 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.spy;
 
+import java.io.ByteArrayInputStream;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
 import org.apache.sling.api.resource.PersistenceException;
 import org.apache.sling.api.resource.Resource;
 import org.apache.sling.api.resource.ResourceResolver;
@@ -98,6 +102,81 @@ public class MockGraniteAssetManagerWrapperTest {
     assertTrue(assetManager.assetExists(TEST_ASSET_PATH));
   }
 
+  @Test
+  public void testGetAssetByIdentifier() {
+    Asset asset = assetManager.createAsset(TEST_ASSET_PATH);
+    String id = asset.getIdentifier();
+    assertTrue(StringUtils.isNotEmpty(id));
+    assertEquals(TEST_ASSET_PATH, assetManager.getAssetByIdentifier(id).getPath());
+    assertNull(assetManager.getAssetByIdentifier("unknown-id"));
+
+    assetManager.removeAsset(TEST_ASSET_PATH);
+    assertNull(assetManager.getAssetByIdentifier(id));
+  }
+
+  @Test
+  public void testGetAssetByIdentifier_LoadedContent() {
+    context.load().json("/json-import-samples/dam.json", "/content/dam/sample");
+    String path = "/content/dam/sample/portraits/scott_reynolds.jpg";
+    String id = assetManager.getAsset(path).getIdentifier();
+    assertTrue(StringUtils.isNotEmpty(id));
+    assertEquals(path, assetManager.getAssetByIdentifier(id).getPath());
+  }
+
+  @Test
+  public void testCopyAsset() {
+    String id = assetManager.createAsset(TEST_ASSET_PATH).getIdentifier();
+
+    assetManager.copyAsset(TEST_ASSET_PATH, "/content/dam/folder1/test-asset");
+    assetManager.copyAsset(TEST_ASSET_PATH, "/content/dam/folder1/test-asset-copy");
+
+    assertTrue(assetManager.assetExists(TEST_ASSET_PATH));
+    Asset copy1 = assetManager.getAsset("/content/dam/folder1/test-asset");
+    Asset copy2 = assetManager.getAsset("/content/dam/folder1/test-asset-copy");
+    assertNotNull(copy1.getChild(JcrConstants.JCR_CONTENT + "/renditions"));
+    assertNotNull(copy2.getChild(JcrConstants.JCR_CONTENT + "/renditions"));
+
+    // copies get new IDs
+    assertEquals(3, Set.of(id, copy1.getIdentifier(), copy2.getIdentifier()).size());
+    assertEquals(TEST_ASSET_PATH, assetManager.getAssetByIdentifier(id).getPath());
+    assertEquals(copy1.getPath(), assetManager.getAssetByIdentifier(copy1.getIdentifier()).getPath());
+    assertEquals(copy2.getPath(), assetManager.getAssetByIdentifier(copy2.getIdentifier()).getPath());
+  }
+
+  @Test
+  public void testMoveAsset() {
+    String id = assetManager.createAsset(TEST_ASSET_PATH).getIdentifier();
+
+    assetManager.moveAsset(TEST_ASSET_PATH, "/content/dam/folder1/test-asset");
+    assertFalse(assetManager.assetExists(TEST_ASSET_PATH));
+    assertEquals("/content/dam/folder1/test-asset", assetManager.getAssetByIdentifier(id).getPath());
+
+    assetManager.moveAsset("/content/dam/folder1/test-asset", "/content/dam/folder2/test-asset-renamed");
+    assertFalse(assetManager.assetExists("/content/dam/folder1/test-asset"));
+    Asset moved = assetManager.getAssetByIdentifier(id);
+    assertEquals("/content/dam/folder2/test-asset-renamed", moved.getPath());
+    assertEquals(id, moved.getIdentifier());
+    assertNotNull(moved.getChild(JcrConstants.JCR_CONTENT + "/renditions"));
+  }
+
+  @Test
+  public void testMoveAsset_SubAssets() {
+    com.day.cq.dam.api.Asset asset = context.create().asset(TEST_ASSET_PATH, 10, 10, "image/jpeg");
+    String subAssetId = asset.addSubAsset("page1.bin", "application/octet-stream",
+        new ByteArrayInputStream(new byte[] { 0x01 })).getID();
+
+    assetManager.moveAsset(TEST_ASSET_PATH, "/content/dam/folder1/test-asset");
+    assertEquals("/content/dam/folder1/test-asset/jcr:content/subassets/page1.bin",
+        assetManager.getAssetByIdentifier(subAssetId).getPath());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMoveAsset_DestinationExists() {
+    assetManager.createAsset(TEST_ASSET_PATH);
+    assetManager.createAsset("/content/dam/test-asset2");
+    assetManager.moveAsset(TEST_ASSET_PATH, "/content/dam/test-asset2");
+  }
+
   @Test(expected = RuntimeException.class)
   public void testRemoveAssetException() throws PersistenceException {
     ResourceResolver resourceResolverSpy = spy(resourceResolver);
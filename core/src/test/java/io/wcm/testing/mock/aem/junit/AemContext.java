@@ -38,6 +38,7 @@ import org.osgi.annotation.versioning.ProviderType;
 import io.wcm.testing.junit.rules.parameterized.Callback;
 import io.wcm.testing.junit.rules.parameterized.ListGenerator;
 import io.wcm.testing.mock.aem.context.AemContextImpl;
+import io.wcm.testing.mock.aem.context.ContextPhase;
 
 /*
  * !!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!
@@ -185,15 +186,16 @@ public final class AemContext extends AemContextImpl implements TestRule {
       this.delegate = new ExternalResource() {
         @Override
         protected void before() {
-          plugins.executeBeforeSetUpCallback(AemContext.this);
+          measurePhase(ContextPhase.PLUGIN_CALLBACKS, () -> plugins.executeBeforeSetUpCallback(AemContext.this));
           AemContext.this.setUp();
-          plugins.executeAfterSetUpCallback(AemContext.this);
+          measurePhase(ContextPhase.PLUGIN_CALLBACKS, () -> plugins.executeAfterSetUpCallback(AemContext.this));
         }
         @Override
         protected void after() {
-          plugins.executeBeforeTearDownCallback(AemContext.this);
+          measurePhase(ContextPhase.PLUGIN_CALLBACKS, () -> plugins.executeBeforeTearDownCallback(AemContext.this));
           AemContext.this.tearDown();
-          plugins.executeAfterTearDownCallback(AemContext.this);
+          measurePhase(ContextPhase.PLUGIN_CALLBACKS, () -> plugins.executeAfterTearDownCallback(AemContext.this));
+          AemContext.this.completeTimings();
         }
       };
     }
@@ -203,17 +205,18 @@ public final class AemContext extends AemContextImpl implements TestRule {
         @Override
         public void execute(final ResourceResolverType currrentValue) {
           AemContext.this.setResourceResolverType(currrentValue);
-          plugins.executeBeforeSetUpCallback(AemContext.this);
+          measurePhase(ContextPhase.PLUGIN_CALLBACKS, () -> plugins.executeBeforeSetUpCallback(AemContext.this));
           AemContext.this.setUp();
-          plugins.executeAfterSetUpCallback(AemContext.this);
+          measurePhase(ContextPhase.PLUGIN_CALLBACKS, () -> plugins.executeAfterSetUpCallback(AemContext.this));
         }
       };
       Callback<ResourceResolverType> parameterizedTearDownCallback = new Callback<ResourceResolverType>() {
         @Override
         public void execute(final ResourceResolverType currrentValue) {
-          plugins.executeBeforeTearDownCallback(AemContext.this);
+          measurePhase(ContextPhase.PLUGIN_CALLBACKS, () -> plugins.executeBeforeTearDownCallback(AemContext.this));
           AemContext.this.tearDown();
-          plugins.executeAfterTearDownCallback(AemContext.this);
+          measurePhase(ContextPhase.PLUGIN_CALLBACKS, () -> plugins.executeAfterTearDownCallback(AemContext.this));
+          AemContext.this.completeTimings();
         }
       };
       this.delegate = new ListGenerator<ResourceResolverType>(List.of(this.resourceResolverTypes),
@@ -221,6 +224,18 @@ public final class AemContext extends AemContextImpl implements TestRule {
     }
   }
 
+  void addContentFixtures(@NotNull List<ContextCallback<?>> contentFixtures) {
+    contentFixtures.forEach(this::addContentFixture);
+  }
+
+  void lazyDefaultServices(boolean value) {
+    setLazyDefaultServices(value);
+  }
+
+  void repositoryMetrics(boolean value) {
+    setRepositoryMetricsEnabled(value);
+  }
+
   @Override
   public Statement apply(final Statement base, final Description description) {
     return this.delegate.apply(base, description);
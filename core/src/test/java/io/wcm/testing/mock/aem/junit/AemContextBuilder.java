@@ -19,6 +19,9 @@
  */
 package io.wcm.testing.mock.aem.junit;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.sling.testing.mock.osgi.context.ContextCallback;
@@ -46,6 +49,9 @@ public final class AemContextBuilder {
   private ResourceResolverType[] resourceResolverTypes;
   private Map<String, Object> resourceResolverFactoryActivatorProps;
   private boolean registerSlingModelsFromClassPath = true;
+  private final List<ContextCallback<?>> contentFixtures = new ArrayList<>();
+  private boolean lazyDefaultServices;
+  private boolean repositoryMetrics;
 
   /**
    * Create builder with default resource resolver type.
@@ -145,14 +151,54 @@ public final class AemContextBuilder {
     return this;
   }
 
+  /**
+   * Lazy registration of the default AEM services (inactive by default).
+   * @param value If set to true the default AEM services are registered as proxies, and are only instantiated and
+   *          activated when they are used for the first time. Service instances returned by the context are proxies
+   *          implementing the service interfaces in this case.
+   * @return this
+   */
+  public @NotNull AemContextBuilder lazyDefaultServices(boolean value) {
+    this.lazyDefaultServices = value;
+    return this;
+  }
+
+  /**
+   * Count repository operations executed via the resource resolver of the context (inactive by default).
+   * @param value If set to true, the resource resolver of the context is wrapped to count the repository operations,
+   *          the counters are available via {@link AemContext#repositoryMetrics()}.
+   * @return this
+   */
+  public @NotNull AemContextBuilder repositoryMetrics(boolean value) {
+    this.repositoryMetrics = value;
+    return this;
+  }
+
+  /**
+   * @param contentFixture Allows the application to register content fixture callbacks that create repository
+   *          content after the built-in setup rules are executed. The content created by a fixture is captured once
+   *          and copied to the repository of each following context, the fixture callback itself is only executed
+   *          once (only supported for resource resolver types RESOURCERESOLVER_MOCK, JCR_MOCK and JCR_OAK).
+   * @return this
+   */
+  @SafeVarargs
+  public final @NotNull AemContextBuilder contentFixture(@NotNull ContextCallback<? extends OsgiContextImpl> @NotNull... contentFixture) {
+    contentFixtures.addAll(Arrays.asList(contentFixture));
+    return this;
+  }
+
   /**
    * @return Build {@link AemContext} instance.
    */
   public @NotNull AemContext build() {
-    return new AemContext(this.plugins,
+    AemContext context = new AemContext(this.plugins,
         this.resourceResolverFactoryActivatorProps,
         this.registerSlingModelsFromClassPath,
         this.resourceResolverTypes);
+    context.addContentFixtures(contentFixtures);
+    context.lazyDefaultServices(lazyDefaultServices);
+    context.repositoryMetrics(repositoryMetrics);
+    return context;
   }
 
 }
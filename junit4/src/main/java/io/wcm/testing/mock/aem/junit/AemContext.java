@@ -20,6 +20,7 @@
 package io.wcm.testing.mock.aem.junit;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.sling.testing.mock.osgi.context.ContextCallback;
@@ -38,6 +39,7 @@ import org.osgi.annotation.versioning.ProviderType;
 import io.wcm.testing.junit.rules.parameterized.Callback;
 import io.wcm.testing.junit.rules.parameterized.ListGenerator;
 import io.wcm.testing.mock.aem.context.AemContextImpl;
+import io.wcm.testing.mock.aem.context.ContextPhase;
 
 /**
  * JUnit rule for setting up and tearing down AEM context objects for unit tests.
@@ -178,15 +180,16 @@ public final class AemContext extends AemContextImpl implements TestRule {
       this.delegate = new ExternalResource() {
         @Override
         protected void before() {
-          plugins.executeBeforeSetUpCallback(AemContext.this);
+          measurePhase(ContextPhase.PLUGIN_CALLBACKS, () -> plugins.executeBeforeSetUpCallback(AemContext.this));
           AemContext.this.setUp();
-          plugins.executeAfterSetUpCallback(AemContext.this);
+          measurePhase(ContextPhase.PLUGIN_CALLBACKS, () -> plugins.executeAfterSetUpCallback(AemContext.this));
         }
         @Override
         protected void after() {
-          plugins.executeBeforeTearDownCallback(AemContext.this);
+          measurePhase(ContextPhase.PLUGIN_CALLBACKS, () -> plugins.executeBeforeTearDownCallback(AemContext.this));
           AemContext.this.tearDown();
-          plugins.executeAfterTearDownCallback(AemContext.this);
+          measurePhase(ContextPhase.PLUGIN_CALLBACKS, () -> plugins.executeAfterTearDownCallback(AemContext.this));
+          AemContext.this.completeTimings();
         }
       };
     }
@@ -196,17 +199,18 @@ public final class AemContext extends AemContextImpl implements TestRule {
         @Override
         public void execute(final ResourceResolverType currrentValue) {
           AemContext.this.setResourceResolverType(currrentValue);
-          plugins.executeBeforeSetUpCallback(AemContext.this);
+          measurePhase(ContextPhase.PLUGIN_CALLBACKS, () -> plugins.executeBeforeSetUpCallback(AemContext.this));
           AemContext.this.setUp();
-          plugins.executeAfterSetUpCallback(AemContext.this);
+          measurePhase(ContextPhase.PLUGIN_CALLBACKS, () -> plugins.executeAfterSetUpCallback(AemContext.this));
         }
       };
       Callback<ResourceResolverType> parameterizedTearDownCallback = new Callback<ResourceResolverType>() {
         @Override
         public void execute(final ResourceResolverType currrentValue) {
-          plugins.executeBeforeTearDownCallback(AemContext.this);
+          measurePhase(ContextPhase.PLUGIN_CALLBACKS, () -> plugins.executeBeforeTearDownCallback(AemContext.this));
           AemContext.this.tearDown();
-          plugins.executeAfterTearDownCallback(AemContext.this);
+          measurePhase(ContextPhase.PLUGIN_CALLBACKS, () -> plugins.executeAfterTearDownCallback(AemContext.this));
+          AemContext.this.completeTimings();
         }
       };
       this.delegate = new ListGenerator<ResourceResolverType>(Arrays.asList(this.resourceResolverTypes),
@@ -214,6 +218,18 @@ public final class AemContext extends AemContextImpl implements TestRule {
     }
   }
 
+  void addContentFixtures(@NotNull List<ContextCallback<?>> contentFixtures) {
+    contentFixtures.forEach(this::addContentFixture);
+  }
+
+  void lazyDefaultServices(boolean value) {
+    setLazyDefaultServices(value);
+  }
+
+  void repositoryMetrics(boolean value) {
+    setRepositoryMetricsEnabled(value);
+  }
+
   @Override
   public Statement apply(final Statement base, final Description description) {
     return this.delegate.apply(base, description);
@@ -20,5 +20,5 @@
 /**
  * Rule for providing easy access to AEM context in JUnit tests.
  */
-@org.osgi.annotation.versioning.Version("2.1.0")
+@org.osgi.annotation.versioning.Version("2.2.0")
 package io.wcm.testing.mock.aem.junit;
@@ -19,8 +19,10 @@
  */
 package io.wcm.testing.mock.aem.junit5;
 
+import java.util.List;
 import java.util.Map;
 
+import org.apache.sling.testing.mock.osgi.context.ContextCallback;
 import org.apache.sling.testing.mock.osgi.context.ContextPlugins;
 import org.apache.sling.testing.mock.sling.MockSling;
 import org.apache.sling.testing.mock.sling.ResourceResolverType;
@@ -29,6 +31,7 @@ import org.jetbrains.annotations.Nullable;
 import org.osgi.annotation.versioning.ConsumerType;
 
 import io.wcm.testing.mock.aem.context.AemContextImpl;
+import io.wcm.testing.mock.aem.context.ContextPhase;
 
 /**
  * AEM Mock parameter object with resource resolver type
@@ -50,6 +53,7 @@ public class AemContext extends AemContextImpl {
 
   private final ContextPlugins plugins;
   private boolean isSetUp;
+  private boolean pooled;
 
   /**
    * Initialize AEM context.
@@ -96,7 +100,7 @@ public class AemContext extends AemContextImpl {
   protected void setUpContext() {
     isSetUp = true;
     // call context plugins setup before @BeforeEach/@BeforeAll methods are called
-    plugins.executeBeforeSetUpCallback(this);
+    measurePhase(ContextPhase.PLUGIN_CALLBACKS, () -> plugins.executeBeforeSetUpCallback(this));
     super.setUp();
   }
 
@@ -105,10 +109,54 @@ public class AemContext extends AemContextImpl {
    */
   protected void tearDownContext() {
     super.tearDown();
+    completeTimings();
   }
 
-  ContextPlugins getContextPlugins() {
-    return plugins;
+  void addContentFixtures(@NotNull List<ContextCallback<?>> contentFixtures) {
+    contentFixtures.forEach(this::addContentFixture);
+  }
+
+  void lazyDefaultServices(boolean value) {
+    setLazyDefaultServices(value);
+  }
+
+  void repositoryMetrics(boolean value) {
+    setRepositoryMetricsEnabled(value);
+  }
+
+  void enableTimings() {
+    setTimingsEnabled(true);
+  }
+
+  /**
+   * Marks this context as pooled, and captures the current state as baseline for resetting it.
+   */
+  void enablePooling() {
+    pooled = true;
+    captureBaseline();
+  }
+
+  /**
+   * @return true if the context is pooled and was reset successfully for reuse by another test
+   */
+  boolean resetForReuse() {
+    boolean reset = pooled && resetToBaseline();
+    if (reset) {
+      completeTimings();
+    }
+    return reset;
+  }
+
+  void executeAfterSetUpCallback() {
+    measurePhase(ContextPhase.PLUGIN_CALLBACKS, () -> plugins.executeAfterSetUpCallback(this));
+  }
+
+  void executeBeforeTearDownCallback() {
+    measurePhase(ContextPhase.PLUGIN_CALLBACKS, () -> plugins.executeBeforeTearDownCallback(this));
+  }
+
+  void executeAfterTearDownCallback() {
+    measurePhase(ContextPhase.PLUGIN_CALLBACKS, () -> plugins.executeAfterTearDownCallback(this));
   }
 
   boolean isSetUp() {
@@ -19,19 +19,12 @@
  */
 package io.wcm.testing.mock.aem.junit5;
 
-import static io.wcm.testing.mock.aem.junit5.ReflectionUtil.getAnnotatedMethod;
-import static io.wcm.testing.mock.aem.junit5.ReflectionUtil.getField;
-
 import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
-import java.util.Arrays;
 import java.util.Optional;
 import java.util.function.Consumer;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.extension.AfterAllCallback;
 import org.junit.jupiter.api.extension.AfterEachCallback;
 import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
@@ -43,6 +36,8 @@ import org.junit.jupiter.api.extension.ParameterResolutionException;
 import org.junit.jupiter.api.extension.ParameterResolver;
 import org.junit.jupiter.api.extension.TestInstancePostProcessor;
 
+import io.wcm.testing.mock.aem.context.ContextTimings;
+
 /**
  * JUnit 5 extension that allows to inject {@link AemContext} (or subclasses of it) parameters in test methods,
  * and ensures that the context is set up and teared down properly for each test method.
@@ -58,7 +53,7 @@ public final class AemContextExtension implements ParameterResolver, TestInstanc
   @Override
   public void postProcessTestInstance(Object testInstance, ExtensionContext extensionContext) throws Exception {
     if (!isBeforeAllContext(extensionContext)) {
-      Field aemContextField = getField(testInstance, AemContext.class);
+      Field aemContextField = TestClassMetadata.get(testInstance.getClass()).getAemContextField();
       if (aemContextField != null) {
         setAemContextInStore(extensionContext, aemContextField, testInstance);
       }
@@ -70,16 +65,29 @@ public final class AemContextExtension implements ParameterResolver, TestInstanc
     AemContext aemContext = (AemContext)aemContextField.get(testInstance);
     if (aemContext != null) {
       if (!aemContext.isSetUp()) {
+        AemContextTimingsReport.enable(extensionContext, aemContext);
         aemContext.setUpContext();
       }
-      AemContextStore.storeAemContext(extensionContext, aemContext);
+      AemContextStore.storeAemContext(extensionContext, getStoreKey(extensionContext, testInstance), aemContext);
     }
     else {
-      aemContext = AemContextStore.getOrCreateAemContext(extensionContext, Optional.of(aemContextField.getType()));
+      aemContext = AemContextStore.getOrCreateAemContext(extensionContext, getStoreKey(extensionContext, testInstance),
+          Optional.of(aemContextField.getType()));
       aemContextField.set(testInstance, aemContext);
     }
   }
 
+  /**
+   * The test instance post processor is called with the extension context of the test class, so the context
+   * is bound explicitly to the test instance to keep it isolated from concurrently executed test methods.
+   */
+  private static @NotNull Object getStoreKey(@NotNull ExtensionContext extensionContext, @Nullable Object testInstance) {
+    if (testInstance != null) {
+      return testInstance;
+    }
+    return extensionContext.getRequiredTestClass();
+  }
+
   /**
    * Support parameter injection for test methods of parameter type is derived from {@link AemContext}.
    */
@@ -108,7 +116,7 @@ public final class AemContextExtension implements ParameterResolver, TestInstanc
   @Override
   public void beforeAll(ExtensionContext extensionContext) throws Exception {
     if (isBeforeAllContext(extensionContext)) {
-      Field aemContextField = getField(extensionContext.getRequiredTestClass(), AemContext.class);
+      Field aemContextField = TestClassMetadata.get(extensionContext.getRequiredTestClass()).getAemContextField();
       if (aemContextField != null) {
         setAemContextInStore(extensionContext, aemContextField, null);
       }
@@ -116,7 +124,7 @@ public final class AemContextExtension implements ParameterResolver, TestInstanc
         // call context plugins setup after @BeforeAll methods were called
         /* please note: in JUnit5 there is no callback to be called after all @BeforeAll methods are called
          * so we call it before @BeforeAll execution to make sure the plugin code is called at all */
-        aemContext.getContextPlugins().executeAfterSetUpCallback(aemContext)
+        aemContext.executeAfterSetUpCallback()
       );
     }
   }
@@ -126,7 +134,7 @@ public final class AemContextExtension implements ParameterResolver, TestInstanc
     if (!isBeforeAllContext(extensionContext)) {
       applyAemContext(extensionContext, aemContext ->
         // call context plugins setup after @BeforeEach methods were called
-        aemContext.getContextPlugins().executeAfterSetUpCallback(aemContext)
+        aemContext.executeAfterSetUpCallback()
       );
     }
   }
@@ -136,7 +144,7 @@ public final class AemContextExtension implements ParameterResolver, TestInstanc
     if (!isBeforeAllContext(extensionContext)) {
       applyAemContext(extensionContext, aemContext ->
         // call context plugins setup before @AfterEach methods are called
-        aemContext.getContextPlugins().executeBeforeTearDownCallback(aemContext)
+        aemContext.executeBeforeTearDownCallback()
       );
     }
   }
@@ -146,11 +154,13 @@ public final class AemContextExtension implements ParameterResolver, TestInstanc
     if (!isBeforeAllContext(extensionContext)) {
       applyAemContext(extensionContext, aemContext -> {
         // call context plugins setup after @AfterEach methods were called
-        aemContext.getContextPlugins().executeAfterTearDownCallback(aemContext);
+        aemContext.executeAfterTearDownCallback();
 
-        // tear down and remove context
-        aemContext.tearDownContext();
+        // tear down (or return to pool) and remove context
+        ContextTimings timings = aemContext.getTimings();
+        AemContextStore.tearDownAemContext(extensionContext, aemContext);
         AemContextStore.removeAemContext(extensionContext);
+        AemContextTimingsReport.publish(extensionContext, timings);
       });
     }
   }
@@ -162,14 +172,16 @@ public final class AemContextExtension implements ParameterResolver, TestInstanc
         // call context plugins setup before @AfterAll methods are called
         /* please note: in JUnit5 there is no callback to be called before all @AfterAll methods are called
          * so we call it after @AfterAll execution to make sure the plugin code is called at all */
-        aemContext.getContextPlugins().executeBeforeTearDownCallback(aemContext);
+        aemContext.executeBeforeTearDownCallback();
 
         // call context plugins setup after @AfterAll methods were called
-        aemContext.getContextPlugins().executeAfterTearDownCallback(aemContext);
+        aemContext.executeAfterTearDownCallback();
 
-        // tear down and remove context
-        aemContext.tearDownContext();
+        // tear down (or return to pool) and remove context
+        ContextTimings timings = aemContext.getTimings();
+        AemContextStore.tearDownAemContext(extensionContext, aemContext);
         AemContextStore.removeAemContext(extensionContext);
+        AemContextTimingsReport.publish(extensionContext, timings);
       });
     }
   }
@@ -185,7 +197,8 @@ public final class AemContextExtension implements ParameterResolver, TestInstanc
     // If a @BeforeEach or @AfterEach method has only a generic AemContext parameter check if
     // test method has a more specific parameter and use this
     if (isTestInstance(extensionContext) && isAbstractAemContext(parameterContext)) {
-      return getParameterFromTestMethod(extensionContext, AemContext.class);
+      return TestClassMetadata.get(extensionContext.getRequiredTestClass())
+          .getAemContextParameterType(extensionContext.getRequiredTestMethod());
     }
     else {
       return Optional.of(parameterContext.getParameter().getType());
@@ -208,49 +221,13 @@ public final class AemContextExtension implements ParameterResolver, TestInstanc
     return !parameterContext.getParameter().getType().isInstance(aemContext);
   }
 
-  private Optional<Class<?>> getParameterFromTestMethod(ExtensionContext extensionContext, Class<?> type) {
-    return Arrays.stream(extensionContext.getRequiredTestMethod().getParameterTypes())
-        .filter(type::isAssignableFrom)
-        .findFirst();
-  }
-
   /**
-   * <p>
-   * Checks if a "before-all" context is used in this class.
-   * </p>
-   * <p>
-   * In this case the context is initialized/set up once before all tests, and teared down once after all tests.
-   * Otherwise setup and teardown of the context happens for each test run.
-   * </p>
-   * <p>
-   * The "before-all" state is assumed if a) a static AemContext field exists or b) a method annotated with
-   * '@BeforeAll' exists with AemContext parameter.
-   * </p>
+   * Checks if a "before-all" context is used in this class, see {@link TestClassMetadata#isBeforeAllContext()}.
    * @param extensionContext Extension context
    * @return true for "before-all" context.
    */
   private boolean isBeforeAllContext(@NotNull ExtensionContext extensionContext) {
-    Boolean state = AemContextStore.getBeforeAllState(extensionContext);
-    if (state == null) {
-      state = false;
-      Class<?> testClass = extensionContext.getRequiredTestClass();
-
-      // check for static aem context field
-      Field aemContextField = getField(testClass, AemContext.class);
-      if (aemContextField != null && Modifier.isStatic(aemContextField.getModifiers())) {
-        state = true;
-      }
-      else {
-        // check for static method with BeforeAll annotation
-        Method method = getAnnotatedMethod(testClass, BeforeAll.class, AemContext.class);
-        if (method != null && Modifier.isStatic(method.getModifiers())) {
-          state = true;
-        }
-      }
-      // cache state in extension store
-      AemContextStore.storeBeforeAllState(extensionContext, state);
-    }
-    return state;
+    return TestClassMetadata.get(extensionContext.getRequiredTestClass()).isBeforeAllContext();
   }
 
 }
@@ -0,0 +1,115 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem.junit5;
+
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+import org.apache.sling.testing.mock.sling.MockSling;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ExtensionContext.Namespace;
+import org.junit.jupiter.api.extension.ExtensionContext.Store.CloseableResource;
+
+/**
+ * Pool of {@link AemContext} instances created by {@link AemContextExtension}.
+ * <p>
+ * Pooling is disabled by default, it can be enabled with the JUnit configuration parameter (or system property)
+ * {@value #CONFIG_POOLING_ENABLED}. With pooling enabled, contexts created by the extension are reset after each
+ * test and reused by the next test requiring the same context type, instead of tearing them down and setting up new
+ * ones. The default services and Sling Models registrations are kept, the repository content is reset.
+ * </p>
+ * <p>
+ * Contexts are not pooled if they are instantiated by the test class itself, if they use a resource resolver type
+ * other than RESOURCERESOLVER_MOCK, JCR_MOCK or JCR_OAK, or if a test registers additional services. State of default
+ * services changed by a test (e.g. custom externalizer domain mappings) is not reset.
+ * </p>
+ */
+final class AemContextPool implements CloseableResource {
+
+  /**
+   * Configuration parameter to enable context pooling.
+   */
+  static final String CONFIG_POOLING_ENABLED = "io.wcm.testing.mock.aem.junit5.pooling.enabled";
+
+  private static final Namespace POOL_NAMESPACE = Namespace.create(AemContextPool.class);
+
+  private final Map<Class<?>, Deque<AemContext>> contexts = new ConcurrentHashMap<>();
+
+  /**
+   * @param extensionContext Extension context
+   * @return Pool shared by all tests of the current test run, or null if pooling is not enabled
+   */
+  static @Nullable AemContextPool get(@NotNull ExtensionContext extensionContext) {
+    boolean enabled = extensionContext.getConfigurationParameter(CONFIG_POOLING_ENABLED, Boolean::parseBoolean).orElse(false);
+    if (!enabled) {
+      return null;
+    }
+    return extensionContext.getRoot().getStore(POOL_NAMESPACE)
+        .getOrComputeIfAbsent(AemContextPool.class, key -> new AemContextPool(), AemContextPool.class);
+  }
+
+  /**
+   * @param type Context type
+   * @return Pooled context of the given type, or null if none is available
+   */
+  @Nullable
+  AemContext acquire(@NotNull Class<?> type) {
+    Deque<AemContext> pooledContexts = contexts.get(type);
+    AemContext aemContext = pooledContexts != null ? pooledContexts.pollFirst() : null;
+    if (aemContext != null) {
+      // adapter manager is bound to the thread that sets up a context - the context may be reused by another thread
+      MockSling.setAdapterManagerBundleContext(aemContext.bundleContext());
+    }
+    return aemContext;
+  }
+
+  /**
+   * Resets the given context and adds it to the pool.
+   * @param aemContext AEM context
+   * @return true if the context was added to the pool, false if it cannot be reused and has to be teared down
+   */
+  boolean release(@NotNull AemContext aemContext) {
+    if (!aemContext.resetForReuse()) {
+      return false;
+    }
+    MockSling.clearAdapterManagerBundleContext();
+    contexts.computeIfAbsent(aemContext.getClass(), key -> new ConcurrentLinkedDeque<>()).addFirst(aemContext);
+    return true;
+  }
+
+  /**
+   * Tears down all pooled contexts at the end of the test run.
+   */
+  @Override
+  public void close() {
+    for (Deque<AemContext> pooledContexts : contexts.values()) {
+      AemContext aemContext = pooledContexts.pollFirst();
+      while (aemContext != null) {
+        aemContext.tearDownContext();
+        aemContext = pooledContexts.pollFirst();
+      }
+    }
+  }
+
+}
@@ -20,6 +20,9 @@
 package io.wcm.testing.mock.aem.junit5;
 
 import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import org.jetbrains.annotations.NotNull;
@@ -30,12 +33,16 @@ import org.junit.jupiter.api.extension.ExtensionContext.Store;
 
 /**
  * Helper class managing storage of {@link AemContext} in extension context store.
+ * <p>
+ * Contexts are bound to the test instance they are used by, or to the test class for "before-all" contexts.
+ * This keeps the contexts of test methods executed concurrently isolated from each other, even if they are
+ * executed on the same test instance.
+ * </p>
  */
 final class AemContextStore {
 
   private static final Namespace AEM_CONTEXT_NAMESPACE = Namespace.create(AemContextExtension.class);
   private static final Class<ResourceResolverMockAemContext> DEFAULT_AEM_CONTEXT_TYPE = ResourceResolverMockAemContext.class;
-  private static final String BEFORE_ALL_SUFFIX = "_BeforeAll";
 
   private AemContextStore() {
     // static methods only
@@ -52,6 +59,13 @@ final class AemContextStore {
     if (testClass == null) {
       return null;
     }
+    // try to get existing context bound to the current test instance(s)
+    for (Object key : getTestInstanceKeys(extensionContext)) {
+      AemContext aemContext = getStore(extensionContext).get(key, AemContext.class);
+      if (aemContext != null) {
+        return aemContext;
+      }
+    }
     // try to get existing context from current extension context, or any parent extension context (in case of nested tests)
     return Optional.ofNullable(getStore(extensionContext).get(testClass, AemContext.class))
         .orElseGet(() -> extensionContext.getParent().map(AemContextStore::getAemContext).orElse(null));
@@ -63,10 +77,25 @@ final class AemContextStore {
    * @return AemContext (never null)
    */
   public static @NotNull AemContext getOrCreateAemContext(@NotNull ExtensionContext extensionContext, Optional<Class<?>> aemContextType) {
-    AemContext context = getAemContext(extensionContext);
+    return getOrCreateAemContext(extensionContext, getDefaultKey(extensionContext), aemContextType);
+  }
+
+  /**
+   * Get {@link AemContext} from extension context store - if it does not exist create a new one and store it.
+   * @param extensionContext Extension context
+   * @param key Test instance the context is bound to, or test class for "before-all" contexts
+   * @param aemContextType AEM context type
+   * @return AemContext (never null)
+   */
+  public static @NotNull AemContext getOrCreateAemContext(@NotNull ExtensionContext extensionContext, @NotNull Object key,
+      Optional<Class<?>> aemContextType) {
+    AemContext context = getStore(extensionContext).get(key, AemContext.class);
+    if (context == null) {
+      context = getAemContext(extensionContext);
+    }
     if (context == null) {
-      context = createAemContext(aemContextType);
-      storeAemContext(extensionContext, context);
+      context = createAemContext(extensionContext, aemContextType);
+      storeAemContext(extensionContext, key, context);
     }
     return context;
   }
@@ -77,6 +106,14 @@ final class AemContextStore {
    */
   public static void removeAemContext(@NotNull ExtensionContext extensionContext) {
     Class<?> testClass = extensionContext.getRequiredTestClass();
+    // a context bound to the test instance may be stored in the current or a parent extension context
+    List<Object> keys = getTestInstanceKeys(extensionContext);
+    Optional<ExtensionContext> currentContext = Optional.of(extensionContext);
+    while (currentContext.isPresent()) {
+      Store store = getStore(currentContext.get());
+      keys.forEach(store::remove);
+      currentContext = currentContext.get().getParent();
+    }
     getStore(extensionContext).remove(testClass);
   }
 
@@ -86,23 +123,79 @@ final class AemContextStore {
    * @param aemContext AEM context
    */
   public static void storeAemContext(@NotNull ExtensionContext extensionContext, @NotNull AemContext aemContext) {
-    Class<?> testClass = extensionContext.getRequiredTestClass();
-    getStore(extensionContext).put(testClass, aemContext);
+    storeAemContext(extensionContext, getDefaultKey(extensionContext), aemContext);
+  }
+
+  /**
+   * Store {@link AemContext} in extension context store.
+   * @param extensionContext Extension context
+   * @param key Test instance the context is bound to, or test class for "before-all" contexts
+   * @param aemContext AEM context
+   */
+  public static void storeAemContext(@NotNull ExtensionContext extensionContext, @NotNull Object key, @NotNull AemContext aemContext) {
+    getStore(extensionContext).put(key, aemContext);
+  }
+
+  /**
+   * @param extensionContext Extension context
+   * @return Current test instance, or test class if no test instance is available
+   */
+  private static @NotNull Object getDefaultKey(@NotNull ExtensionContext extensionContext) {
+    Object key = extensionContext.getTestInstance().orElse(null);
+    if (key == null) {
+      key = extensionContext.getRequiredTestClass();
+    }
+    return key;
+  }
+
+  /**
+   * @param extensionContext Extension context
+   * @return Test instances of the extension context (innermost first), empty if no test instance is available
+   */
+  private static List<Object> getTestInstanceKeys(@NotNull ExtensionContext extensionContext) {
+    List<Object> keys = extensionContext.getTestInstances()
+        .map(testInstances -> new ArrayList<>(testInstances.getAllInstances()))
+        .orElseGet(ArrayList::new);
+    Collections.reverse(keys);
+    return keys;
+  }
+
+  /**
+   * Tears down the given {@link AemContext} - or resets it and returns it to the context pool if pooling is enabled.
+   * @param extensionContext Extension context
+   * @param aemContext AEM context
+   */
+  public static void tearDownAemContext(@NotNull ExtensionContext extensionContext, @NotNull AemContext aemContext) {
+    AemContextPool pool = AemContextPool.get(extensionContext);
+    if (pool == null || !pool.release(aemContext)) {
+      aemContext.tearDownContext();
+    }
   }
 
   private static Store getStore(ExtensionContext context) {
     return context.getStore(AEM_CONTEXT_NAMESPACE);
   }
 
-  private static AemContext createAemContext(Optional<Class<?>> aemContextType) {
+  private static AemContext createAemContext(ExtensionContext extensionContext, Optional<Class<?>> aemContextType) {
     Class<?> type = aemContextType.orElse(DEFAULT_AEM_CONTEXT_TYPE);
     if (type == AemContext.class) {
       type = DEFAULT_AEM_CONTEXT_TYPE;
     }
+    AemContextPool pool = AemContextPool.get(extensionContext);
+    if (pool != null) {
+      AemContext pooledContext = pool.acquire(type);
+      if (pooledContext != null) {
+        return pooledContext;
+      }
+    }
     try {
       Constructor constructor = ((Class<?>)type).getConstructor();
       AemContext aemContext = (AemContext)constructor.newInstance();
+      AemContextTimingsReport.enable(extensionContext, aemContext);
       aemContext.setUpContext();
+      if (pool != null) {
+        aemContext.enablePooling();
+      }
       return aemContext;
     }
     // CHECKSTYLE:OFF
@@ -112,24 +205,4 @@ final class AemContextStore {
     }
   }
 
-  /**
-   * Get "before-all" state of test class cached in extension store.
-   * @param extensionContext Extension context
-   * @return State or null
-   */
-  public static @Nullable Boolean getBeforeAllState(@NotNull ExtensionContext extensionContext) {
-    Class<?> testClass = extensionContext.getRequiredTestClass();
-    return getStore(extensionContext).get(testClass.getName() + BEFORE_ALL_SUFFIX, Boolean.class);
-  }
-
-  /**
-   * Stores "before-all" state of test class in extension store.
-   * @param extensionContext Extension context
-   * @param state State
-   */
-  public static void storeBeforeAllState(@NotNull ExtensionContext extensionContext, @NotNull Boolean state) {
-    Class<?> testClass = extensionContext.getRequiredTestClass();
-    getStore(extensionContext).put(testClass.getName() + BEFORE_ALL_SUFFIX, state);
-  }
-
 }
@@ -0,0 +1,89 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem.junit5;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import io.wcm.testing.mock.aem.context.ContextPhase;
+import io.wcm.testing.mock.aem.context.ContextTimings;
+
+/**
+ * Publishes the lifecycle phase timings of the {@link AemContext} instances managed by {@link AemContextExtension}
+ * as JUnit report entries.
+ * <p>
+ * The report is disabled by default, it can be enabled with the JUnit configuration parameter (or system property)
+ * {@value #CONFIG_TIMINGS_REPORT}. For each test a report entry is published with the duration and execution count
+ * of each context phase that was executed.
+ * </p>
+ */
+final class AemContextTimingsReport {
+
+  /**
+   * Configuration parameter to enable the timings report.
+   */
+  static final String CONFIG_TIMINGS_REPORT = "io.wcm.testing.mock.aem.junit5.timings.report";
+
+  static final String REPORT_KEY_PREFIX = "aem-mock.";
+
+  private AemContextTimingsReport() {
+    // static methods only
+  }
+
+  /**
+   * Enables recording of timings for the given context if the report is enabled.
+   * @param extensionContext Extension context
+   * @param aemContext AEM context that is not set up yet
+   */
+  static void enable(@NotNull ExtensionContext extensionContext, @NotNull AemContext aemContext) {
+    if (isEnabled(extensionContext)) {
+      aemContext.enableTimings();
+    }
+  }
+
+  /**
+   * Publishes the timings recorded for the current test as report entry.
+   * @param extensionContext Extension context
+   * @param timings Timings or null if no timings were recorded
+   */
+  static void publish(@NotNull ExtensionContext extensionContext, @Nullable ContextTimings timings) {
+    if (timings == null || !isEnabled(extensionContext)) {
+      return;
+    }
+    Map<String, String> entries = new LinkedHashMap<>();
+    for (ContextPhase phase : ContextPhase.values()) {
+      if (timings.getCount(phase) > 0) {
+        entries.put(REPORT_KEY_PREFIX + phase, timings.formatDuration(phase) + " (" + timings.getCount(phase) + "x)");
+      }
+    }
+    if (!entries.isEmpty()) {
+      extensionContext.publishReportEntry(entries);
+    }
+  }
+
+  private static boolean isEnabled(@NotNull ExtensionContext extensionContext) {
+    return extensionContext.getConfigurationParameter(CONFIG_TIMINGS_REPORT, Boolean::parseBoolean).orElse(false);
+  }
+
+}
@@ -36,17 +36,6 @@ final class ReflectionUtil {
     // static methods only
   }
 
-  /**
-   * Gets declared field of given type (or subtype) of given class or it's superclasses.
-   * The field is made accessible as well.
-   * @param testInstance Test instance
-   * @param type Field type
-   * @return Field or null
-   */
-  static @Nullable Field getField(@NotNull Object testInstance, @NotNull Class<?> type) {
-    return getField(testInstance.getClass(), type);
-  }
-
   /**
    * Gets declared field of given type (or subtype) of given class or it's superclasses.
    * The field is made accessible as well.
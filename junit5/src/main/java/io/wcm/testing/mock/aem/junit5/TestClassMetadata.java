@@ -0,0 +1,116 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem.junit5;
+
+import static io.wcm.testing.mock.aem.junit5.ReflectionUtil.getAnnotatedMethod;
+import static io.wcm.testing.mock.aem.junit5.ReflectionUtil.getField;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.BeforeAll;
+
+/**
+ * Reflection metadata of a test class required by {@link AemContextExtension}.
+ * The metadata is computed once per test class and cached, so it is not looked up again for each test instance
+ * and test method.
+ */
+final class TestClassMetadata {
+
+  private static final ClassValue<TestClassMetadata> CACHE = new ClassValue<TestClassMetadata>() {
+    @Override
+    protected TestClassMetadata computeValue(Class<?> testClass) {
+      return new TestClassMetadata(testClass);
+    }
+  };
+
+  private final Field aemContextField;
+  private final boolean beforeAllContext;
+  private final ConcurrentMap<Method, Optional<Class<?>>> aemContextParameterTypes = new ConcurrentHashMap<>();
+
+  private TestClassMetadata(@NotNull Class<?> testClass) {
+    this.aemContextField = getField(testClass, AemContext.class);
+    this.beforeAllContext = detectBeforeAllContext(testClass, aemContextField);
+  }
+
+  /**
+   * @param testClass Test class
+   * @return Metadata of the test class
+   */
+  static @NotNull TestClassMetadata get(@NotNull Class<?> testClass) {
+    return CACHE.get(testClass);
+  }
+
+  /**
+   * @return Field of type {@link AemContext} (or subtype) declared in the test class or it's superclasses
+   *         (accessible), or null if there is none
+   */
+  @Nullable
+  Field getAemContextField() {
+    return aemContextField;
+  }
+
+  /**
+   * <p>
+   * Checks if a "before-all" context is used in this class.
+   * </p>
+   * <p>
+   * In this case the context is initialized/set up once before all tests, and teared down once after all tests.
+   * Otherwise setup and teardown of the context happens for each test run.
+   * </p>
+   * <p>
+   * The "before-all" state is assumed if a) a static AemContext field exists or b) a method annotated with
+   * '@BeforeAll' exists with AemContext parameter.
+   * </p>
+   * @return true for "before-all" context.
+   */
+  boolean isBeforeAllContext() {
+    return beforeAllContext;
+  }
+
+  /**
+   * @param testMethod Test method of the test class
+   * @return Type of the first parameter of the test method of type {@link AemContext} (or subtype)
+   */
+  @NotNull
+  Optional<Class<?>> getAemContextParameterType(@NotNull Method testMethod) {
+    return aemContextParameterTypes.computeIfAbsent(testMethod, method -> Arrays.stream(method.getParameterTypes())
+        .filter(AemContext.class::isAssignableFrom)
+        .findFirst());
+  }
+
+  private static boolean detectBeforeAllContext(@NotNull Class<?> testClass, @Nullable Field aemContextField) {
+    // check for static aem context field
+    if (aemContextField != null && Modifier.isStatic(aemContextField.getModifiers())) {
+      return true;
+    }
+    // check for static method with BeforeAll annotation
+    Method method = getAnnotatedMethod(testClass, BeforeAll.class, AemContext.class);
+    return method != null && Modifier.isStatic(method.getModifiers());
+  }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem.junit5;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import com.day.cq.dam.api.Asset;
+import com.day.cq.wcm.api.Page;
+import com.day.cq.wcm.api.policies.ContentPolicy;
+import com.day.cq.wcm.api.policies.ContentPolicyManager;
+
+/**
+ * Stress test with {@link AemContext} member field executing test methods concurrently.
+ * Each test method has to get its own isolated context.
+ */
+@ExtendWith(AemContextExtension.class)
+@Execution(ExecutionMode.CONCURRENT)
+@SuppressWarnings("null")
+class AemContextParallelMemberTest {
+
+  private static final int REPETITIONS = 25;
+
+  AemContext context;
+
+  @RepeatedTest(REPETITIONS)
+  void testContext1() {
+    assertIsolatedContext(context);
+  }
+
+  @RepeatedTest(REPETITIONS)
+  void testContext2() {
+    assertIsolatedContext(context);
+  }
+
+  static void assertIsolatedContext(AemContext context) {
+    String value = UUID.randomUUID().toString();
+
+    // no content from other tests visible
+    assertNull(context.resourceResolver().getResource("/content/parallel"));
+
+    Page page = context.create().page("/content/parallel/page1", null, "prop1", value);
+    context.create().resource(page, "comp1", "sling:resourceType", "app1/components/comp1");
+    context.contentPolicyMapping("app1/components/comp1", "policyProp1", value);
+    Asset asset = context.create().asset("/content/dam/parallel/image1.jpg", 100, 50, "image/jpeg");
+    context.currentPage(page);
+
+    Thread.yield();
+
+    assertEquals(value, context.pageManager().getPage("/content/parallel/page1").getProperties().get("prop1", String.class));
+    ContentPolicy policy = context.resourceResolver().adaptTo(ContentPolicyManager.class)
+        .getPolicy(page.getContentResource("comp1"));
+    assertEquals(value, policy.getProperties().get("policyProp1", String.class));
+    assertNotNull(asset.getOriginal());
+    assertEquals(page.getPath(), context.currentPage().getPath());
+  }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem.junit5;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+/**
+ * Stress test with {@link AemContext} method parameter executing test methods concurrently.
+ * Each test method has to get its own isolated context.
+ */
+@ExtendWith(AemContextExtension.class)
+@Execution(ExecutionMode.CONCURRENT)
+class AemContextParallelParamTest {
+
+  private static final int REPETITIONS = 25;
+
+  @RepeatedTest(REPETITIONS)
+  void testResourceResolverMock(AemContext context) {
+    AemContextParallelMemberTest.assertIsolatedContext(context);
+  }
+
+  @RepeatedTest(REPETITIONS)
+  void testJcrMock(JcrMockAemContext context) {
+    AemContextParallelMemberTest.assertIsolatedContext(context);
+  }
+
+}
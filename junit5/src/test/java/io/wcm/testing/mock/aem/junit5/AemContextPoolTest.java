@@ -0,0 +1,123 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem.junit5;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.settings.SlingSettingsService;
+import org.apache.sling.testing.mock.sling.ResourceResolverType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.day.cq.wcm.api.Page;
+
+import io.wcm.testing.mock.aem.modelsautoreg.ClasspathRegisteredModel;
+
+@SuppressWarnings("null")
+class AemContextPoolTest {
+
+  private final AemContextPool underTest = new AemContextPool();
+
+  @AfterEach
+  void tearDown() {
+    underTest.close();
+  }
+
+  @Test
+  void testResourceResolverMock() {
+    assertReuse(new ResourceResolverMockAemContext());
+  }
+
+  @Test
+  void testJcrMock() {
+    assertReuse(new JcrMockAemContext());
+  }
+
+  @Test
+  void testJcrOak() {
+    assertReuse(new JcrOakAemContext());
+  }
+
+  private void assertReuse(AemContext context) {
+    context.setUpContext();
+    context.enablePooling();
+
+    ResourceResolver resourceResolver = context.resourceResolver();
+    Page page = context.create().page("/content/page1");
+    context.currentPage(page);
+    context.runMode("author");
+    assertTrue(underTest.release(context));
+
+    AemContext pooledContext = underTest.acquire(context.getClass());
+    assertSame(context, pooledContext);
+    assertNull(underTest.acquire(context.getClass()));
+
+    // repository and context objects are reset
+    assertNull(pooledContext.resourceResolver().getResource("/content/page1"));
+    assertNotSame(resourceResolver, pooledContext.resourceResolver());
+    assertNull(pooledContext.currentPage());
+    assertFalse(pooledContext.getService(SlingSettingsService.class).getRunModes().contains("author"));
+
+    // sling models and default services are still available
+    pooledContext.request().setAttribute("prop1", "myValue");
+    assertEquals("myValue", pooledContext.request().adaptTo(ClasspathRegisteredModel.class).getProp1());
+    assertNotNull(pooledContext.create().page("/content/page2"));
+    assertTrue(underTest.release(pooledContext));
+  }
+
+  @Test
+  void testNotPooledWithAdditionalServices() {
+    AemContext context = new ResourceResolverMockAemContext();
+    context.setUpContext();
+    context.enablePooling();
+
+    context.registerService(Runnable.class, () -> { /* no-op */ });
+    assertFalse(underTest.release(context));
+    assertNull(underTest.acquire(context.getClass()));
+    context.tearDownContext();
+  }
+
+  @Test
+  void testNotPooledWithoutBaseline() {
+    AemContext context = new ResourceResolverMockAemContext();
+    context.setUpContext();
+
+    assertFalse(underTest.release(context));
+    context.tearDownContext();
+  }
+
+  @Test
+  void testNotPooledForResourceProviderMock() {
+    AemContext context = new AemContext(ResourceResolverType.RESOURCEPROVIDER_MOCK);
+    context.setUpContext();
+    context.enablePooling();
+
+    assertFalse(underTest.release(context));
+    context.tearDownContext();
+  }
+
+}
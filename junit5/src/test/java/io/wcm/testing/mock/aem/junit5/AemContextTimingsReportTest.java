@@ -0,0 +1,95 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem.junit5;
+
+import static io.wcm.testing.mock.aem.junit5.AemContextTimingsReport.CONFIG_TIMINGS_REPORT;
+import static io.wcm.testing.mock.aem.junit5.AemContextTimingsReport.REPORT_KEY_PREFIX;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.wcm.testing.mock.aem.context.ContextPhase;
+import io.wcm.testing.mock.aem.context.ContextTimings;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings({ "null", "unchecked" })
+class AemContextTimingsReportTest {
+
+  @Mock
+  private ExtensionContext extensionContext;
+
+  @Test
+  void testReport() {
+    when(extensionContext.getConfigurationParameter(eq(CONFIG_TIMINGS_REPORT), any())).thenReturn(Optional.of(true));
+
+    AemContext context = new ResourceResolverMockAemContext();
+    AemContextTimingsReport.enable(extensionContext, context);
+    context.setUpContext();
+    context.executeAfterSetUpCallback();
+    ContextTimings timings = context.getTimings();
+    assertNotNull(timings);
+    context.executeBeforeTearDownCallback();
+    context.executeAfterTearDownCallback();
+    context.tearDownContext();
+    assertNull(context.getTimings());
+
+    assertEquals(1, timings.getCount(ContextPhase.RESOURCE_RESOLVER_FACTORY));
+    assertEquals(1, timings.getCount(ContextPhase.TEAR_DOWN));
+    assertEquals(4, timings.getCount(ContextPhase.PLUGIN_CALLBACKS));
+
+    AemContextTimingsReport.publish(extensionContext, timings);
+    ArgumentCaptor<Map<String, String>> entries = ArgumentCaptor.forClass(Map.class);
+    verify(extensionContext).publishReportEntry(entries.capture());
+    assertTrue(entries.getValue().get(REPORT_KEY_PREFIX + ContextPhase.RESOURCE_RESOLVER_FACTORY).endsWith("ms (1x)"));
+    assertTrue(entries.getValue().containsKey(REPORT_KEY_PREFIX + ContextPhase.AEM_DEFAULT_SERVICES));
+  }
+
+  @Test
+  void testReportDisabled() {
+    when(extensionContext.getConfigurationParameter(eq(CONFIG_TIMINGS_REPORT), any())).thenReturn(Optional.empty());
+
+    AemContext context = new ResourceResolverMockAemContext();
+    AemContextTimingsReport.enable(extensionContext, context);
+    context.setUpContext();
+    assertNull(context.getTimings());
+    context.tearDownContext();
+
+    AemContextTimingsReport.publish(extensionContext, null);
+    verify(extensionContext, never()).publishReportEntry(anyMap());
+  }
+
+}
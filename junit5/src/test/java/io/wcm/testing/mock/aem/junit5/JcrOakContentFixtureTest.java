@@ -0,0 +1,79 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem.junit5;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.sling.api.resource.ModifiableValueMap;
+import org.apache.sling.api.resource.PersistenceException;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.testing.mock.sling.ResourceResolverType;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import com.day.cq.commons.jcr.JcrConstants;
+import com.day.cq.wcm.api.Page;
+
+/**
+ * Test content fixtures with {@link JcrOakAemContext}.
+ */
+@ExtendWith(AemContextExtension.class)
+@SuppressWarnings("null")
+class JcrOakContentFixtureTest {
+
+  private static final AtomicInteger FIXTURE_EXECUTIONS = new AtomicInteger();
+
+  private final AemContext context = new AemContextBuilder(ResourceResolverType.JCR_OAK)
+      .contentFixture(new SampleContentFixture())
+      .build();
+
+  @RepeatedTest(3)
+  void testFixture() throws PersistenceException {
+    // fixture is executed only once, following contexts get a copy of the captured content
+    assertEquals(1, FIXTURE_EXECUTIONS.get());
+
+    Page page = context.pageManager().getPage("/content/fixture/page1");
+    assertNotNull(page);
+    assertEquals("Page 1", page.getTitle());
+    assertNotNull(page.getContentResource().getValueMap().get(JcrConstants.JCR_CREATED));
+
+    // changes are only visible within the current context
+    Resource comp1 = page.getContentResource("comp1");
+    assertEquals("value1", comp1.getValueMap().get("prop1", String.class));
+    comp1.adaptTo(ModifiableValueMap.class).put("prop1", "changed");
+    context.resourceResolver().commit();
+  }
+
+  private static final class SampleContentFixture implements AemContextCallback {
+
+    @Override
+    public void execute(@NotNull AemContext context) {
+      FIXTURE_EXECUTIONS.incrementAndGet();
+      Page page = context.create().page("/content/fixture/page1", null, "Page 1");
+      context.create().resource(page, "comp1", "prop1", "value1");
+    }
+
+  }
+
+}
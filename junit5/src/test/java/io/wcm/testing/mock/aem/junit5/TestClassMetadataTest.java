@@ -0,0 +1,75 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.testing.mock.aem.junit5;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+class TestClassMetadataTest {
+
+  @Test
+  void testMemberField() {
+    TestClassMetadata metadata = TestClassMetadata.get(AemContextMemberTest.class);
+    assertSame(metadata, TestClassMetadata.get(AemContextMemberTest.class));
+    assertNotNull(metadata.getAemContextField());
+    assertFalse(metadata.isBeforeAllContext());
+  }
+
+  @Test
+  void testMemberFieldSuperClass() {
+    TestClassMetadata metadata = TestClassMetadata.get(AemContextMemberSuperClassTest.class);
+    assertEquals(TestClassMetadata.get(AemContextMemberTest.class).getAemContextField(), metadata.getAemContextField());
+  }
+
+  @Test
+  void testBeforeAllStaticMember() {
+    assertTrue(TestClassMetadata.get(BeforeAllStaticMemberTest.class).isBeforeAllContext());
+  }
+
+  @Test
+  void testBeforeAllParam() {
+    TestClassMetadata metadata = TestClassMetadata.get(BeforeAllGenericContextParamTest.class);
+    assertNull(metadata.getAemContextField());
+    assertTrue(metadata.isBeforeAllContext());
+  }
+
+  @Test
+  void testAemContextParameterType() throws NoSuchMethodException {
+    TestClassMetadata metadata = TestClassMetadata.get(AemContextMixTest.class);
+    assertFalse(metadata.isBeforeAllContext());
+
+    Method method = AemContextMixTest.class.getDeclaredMethod("testResource", JcrMockAemContext.class);
+    assertEquals(Optional.of(JcrMockAemContext.class), metadata.getAemContextParameterType(method));
+    assertSame(metadata.getAemContextParameterType(method), metadata.getAemContextParameterType(method));
+
+    Method noParamMethod = TestClassMetadataTest.class.getDeclaredMethod("testBeforeAllParam");
+    assertEquals(Optional.empty(), metadata.getAemContextParameterType(noParamMethod));
+  }
+
+}